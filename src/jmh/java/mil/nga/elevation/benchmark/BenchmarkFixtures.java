@@ -0,0 +1,51 @@
+package mil.nga.elevation.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import mil.nga.elevation.DTEDTestFixture;
+
+/**
+ * Shared set-up for the benchmarks.  Frames are generated with the test 
+ * DTED fixture so the benchmarks run without access to real terrain data.
+ * 
+ * @author L. Craig Carpenter
+ */
+public class BenchmarkFixtures {
+
+    /**
+     * Number of posts in each direction of a DTED1 frame.
+     */
+    public static final int DTED1_POSTS = 1201;
+    
+    /**
+     * Synthetic terrain made up of rolling hills plus a small amount of 
+     * deterministic noise so that the min/max scans cannot short-circuit.
+     * 
+     * @param column The longitude index.
+     * @param row The latitude index.
+     * @return The elevation at the post.
+     */
+    public static short terrain(int column, int row) {
+        return (short)(500.0 
+                + (400.0 * Math.sin(column * 0.01) * Math.cos(row * 0.013))
+                + (((column * 31) + (row * 17)) % 23));
+    }
+    
+    /**
+     * Generate a DTED1 frame in a temporary file.  The file is removed 
+     * when the JVM exits.
+     * 
+     * @param lat Southwest corner latitude.
+     * @param lon Southwest corner longitude.
+     * @return The path to the generated frame.
+     * @throws IOException Thrown if the frame cannot be written.
+     */
+    public static Path createFrame(int lat, int lon) throws IOException {
+        Path path = Files.createTempFile("bench", ".dt1");
+        path.toFile().deleteOnExit();
+        return DTEDTestFixture.write(
+                path, lat, lon, DTED1_POSTS, BenchmarkFixtures::terrain);
+    }
+}
@@ -0,0 +1,109 @@
+package mil.nga.elevation.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.CoordsParse;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation.utils.ConversionUtils;
+import mil.nga.elevation.utils.CoordinateTokenizer;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+
+/**
+ * Parsing of client-supplied coordinates, both individually and as the 
+ * comma-separated <code>pts</code> list accepted by the GET end points.
+ * The list benchmarks compare the legacy split/builder path with the 
+ * single-pass <code>CoordinateTokenizer</code> for a 1,000-point request 
+ * in decimal degrees and in DMS.
+ * 
+ * @author L. Craig Carpenter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateParseBenchmark {
+
+    /**
+     * Number of points in the <code>pts</code> list.
+     */
+    private static final int NUM_POINTS = 1000;
+    
+    private CoordsParse parser;
+    private String      pts;
+    private String      ptsDMS;
+    
+    @Setup
+    public void setup() {
+        parser = CoordsParse.getInstance();
+        StringBuilder sb = new StringBuilder();
+        for (int i=0; i<NUM_POINTS; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(String.format("%.6f,%.6f", 
+                    -77.0 + (i * 0.0071), 38.0 + (i * 0.0093)));
+        }
+        pts = sb.toString();
+        sb.setLength(0);
+        for (int i=0; i<NUM_POINTS; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(String.format("077 %02d %02dW,38 %02d %02dN", 
+                    i % 60, (i * 7) % 60, (i / 60) % 60, (i * 11) % 60));
+        }
+        ptsDMS = sb.toString();
+    }
+    
+    @Benchmark
+    public double parseDecimal() {
+        return parser.parseCoordString("38.897700", true);
+    }
+    
+    @Benchmark
+    public double parseDMS() {
+        return parser.parseCoordString("N23 01 25.2", true);
+    }
+    
+    @Benchmark
+    public List<GeodeticCoordinate> parseCoords() throws Exception {
+        return ConversionUtils.parseCoords(pts);
+    }
+    
+    @Benchmark
+    public ElevationBatch tokenize() throws Exception {
+        ElevationBatch batch = new ElevationBatch(
+                NUM_POINTS, HeightUnitType.METERS, EarthModelType.EGM96);
+        CoordinateTokenizer.tokenize(pts, batch);
+        return batch;
+    }
+    
+    @Benchmark
+    public List<GeodeticCoordinate> parseCoordsDMS() throws Exception {
+        return ConversionUtils.parseCoords(ptsDMS);
+    }
+    
+    @Benchmark
+    public ElevationBatch tokenizeDMS() throws Exception {
+        ElevationBatch batch = new ElevationBatch(
+                NUM_POINTS, HeightUnitType.METERS, EarthModelType.EGM96);
+        CoordinateTokenizer.tokenize(ptsDMS, batch);
+        return batch;
+    }
+}
@@ -0,0 +1,111 @@
+package mil.nga.elevation.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.elevation.ElevationDataFactory;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.model.ElevationDataPoint;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Single point elevation lookups.  The warm case reads from a frame held in 
+ * the shared <code>FrameCache</code>.  The cold case has no cached frame so 
+ * each lookup opens the file (note that the file will still be in the OS 
+ * page cache).
+ * 
+ * @author L. Craig Carpenter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevationDataBenchmark {
+
+    /**
+     * Number of pre-generated query points.  Must be a power of two.
+     */
+    private static final int NUM_POINTS = 256;
+    
+    /**
+     * Common state holding the factory and the query points.
+     */
+    public abstract static class FrameState {
+        
+        ElevationDataFactory     factory;
+        String                   path;
+        List<GeodeticCoordinate> coords = new ArrayList<GeodeticCoordinate>();
+        int                      index  = 0;
+        
+        void create() throws Exception {
+            path = BenchmarkFixtures.createFrame(38, -77).toString();
+            factory = new ElevationDataFactory.ElevationDataFactoryBuilder()
+                    .filePath(path)
+                    .earthModel(EarthModelType.EGM96)
+                    .sourceType(TerrainDataFileType.DTED1)
+                    .build();
+            Random random = new Random(42L);
+            for (int i=0; i<NUM_POINTS; i++) {
+                coords.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                        .lat(38.0 + random.nextDouble())
+                        .lon(-77.0 + random.nextDouble())
+                        .build());
+            }
+        }
+        
+        GeodeticCoordinate next() {
+            index = (index + 1) & (NUM_POINTS - 1);
+            return coords.get(index);
+        }
+    }
+    
+    /**
+     * State with the frame loaded into the shared cache.
+     */
+    @State(Scope.Thread)
+    public static class WarmState extends FrameState {
+        @Setup
+        public void setup() throws Exception {
+            create();
+            FrameCache.getInstance().getFrame(path);
+        }
+    }
+    
+    /**
+     * State with the frame absent from the shared cache.
+     */
+    @State(Scope.Thread)
+    public static class ColdState extends FrameState {
+        @Setup
+        public void setup() throws Exception {
+            create();
+            FrameCache.getInstance().invalidate(path);
+        }
+    }
+    
+    @Benchmark
+    public ElevationDataPoint warm(WarmState state) throws Exception {
+        return state.factory.getElevationAt(state.next());
+    }
+    
+    @Benchmark
+    public ElevationDataPoint cold(ColdState state) throws Exception {
+        return state.factory.getElevationAt(state.next());
+    }
+}
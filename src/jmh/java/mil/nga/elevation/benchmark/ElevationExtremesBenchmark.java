@@ -0,0 +1,70 @@
+package mil.nga.elevation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.elevation.ElevationExtremesFactory;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.model.BoundingBox;
+import mil.nga.elevation.model.MinMaxElevation;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Min/max scans of a cached DTED1 frame, over the full frame and over a 
+ * bounding box covering a quarter of the frame, for both Earth models.
+ * 
+ * @author L. Craig Carpenter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElevationExtremesBenchmark {
+
+    @Param({ "EGM96", "WGS84" })
+    public String earthModel;
+    
+    private ElevationExtremesFactory factory;
+    private BoundingBox              bbox;
+    
+    @Setup
+    public void setup() throws Exception {
+        String path = BenchmarkFixtures.createFrame(38, -77).toString();
+        FrameCache.getInstance().getFrame(path);
+        factory = new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
+                .filePath(path)
+                .earthModel(EarthModelType.fromValue(earthModel))
+                .sourceType(TerrainDataFileType.DTED1)
+                .build();
+        bbox = new BoundingBox.BoundingBoxBuilder()
+                .lowerLeftLat(38.25)
+                .lowerLeftLon(-76.75)
+                .upperRightLat(38.75)
+                .upperRightLon(-76.25)
+                .build();
+    }
+    
+    @Benchmark
+    public MinMaxElevation fullFrame() {
+        return factory.getMinMaxElevation();
+    }
+    
+    @Benchmark
+    public MinMaxElevation boundingBox() {
+        return factory.getMinMaxElevation(bbox);
+    }
+}
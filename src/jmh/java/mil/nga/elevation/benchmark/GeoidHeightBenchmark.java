@@ -0,0 +1,57 @@
+package mil.nga.elevation.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.elevation.egm96.GeoidHeightFactory;
+
+/**
+ * Geoid height interpolation at random points.
+ * 
+ * @author L. Craig Carpenter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoidHeightBenchmark {
+
+    /**
+     * Number of pre-generated query points.  Must be a power of two.
+     */
+    private static final int NUM_POINTS = 1024;
+    
+    private GeoidHeightFactory factory;
+    private double[]           lats = new double[NUM_POINTS];
+    private double[]           lons = new double[NUM_POINTS];
+    private int                index = 0;
+    
+    @Setup
+    public void setup() throws Exception {
+        factory = GeoidHeightFactory.getInstance();
+        Random random = new Random(42L);
+        for (int i=0; i<NUM_POINTS; i++) {
+            lats[i] = (random.nextDouble() * 178.0) - 89.0;
+            lons[i] = (random.nextDouble() * 358.0) - 179.0;
+        }
+    }
+    
+    @Benchmark
+    public double getHeight() {
+        index = (index + 1) & (NUM_POINTS - 1);
+        return factory.getHeight(lats[index], lons[index]);
+    }
+}
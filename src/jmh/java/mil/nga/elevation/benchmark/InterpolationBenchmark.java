@@ -0,0 +1,110 @@
+package mil.nga.elevation.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.elevation.PostInterpolator;
+import mil.nga.elevation.SeamInterpolator;
+import mil.nga.elevation.cache.CachedDTEDFrame;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation_services.model.InterpolationType;
+
+/**
+ * Per-point interpolation cost over a cached DTED1 frame.  Compares the
+ * legacy openmap bilinear method with each <code>PostInterpolator</code>
+ * method, both through the frame accessor and over a flat column-major
+ * copy of the posts.
+ *
+ * @author L. Craig Carpenter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolationBenchmark {
+
+    private static final int NUM_POINTS = 1024;
+
+    @Param({ "NEAREST", "BILINEAR", "BICUBIC" })
+    public String method;
+
+    private CachedDTEDFrame  frame;
+    private SeamInterpolator seam;
+    private PostInterpolator interpolator;
+    private short[]          flatPosts;
+    private int              stride;
+    private int              numColumns;
+    private float[]          lats    = new float[NUM_POINTS];
+    private float[]          lons    = new float[NUM_POINTS];
+    private float[]          columns = new float[NUM_POINTS];
+    private float[]          rows    = new float[NUM_POINTS];
+
+    @Setup
+    public void setup() throws Exception {
+        String path = BenchmarkFixtures.createFrame(38, -77).toString();
+        frame        = FrameCache.getInstance().getFrame(path);
+        seam         = new SeamInterpolator(frame, null);
+        interpolator = new PostInterpolator(InterpolationType.fromValue(method));
+        short[][] posts = frame.getPosts();
+        numColumns = posts.length;
+        stride     = posts[0].length;
+        flatPosts  = new short[numColumns * stride];
+        for (int c=0; c<numColumns; c++) {
+            System.arraycopy(posts[c], 0, flatPosts, c * stride, stride);
+        }
+        Random random = new Random(42L);
+        for (int i=0; i<NUM_POINTS; i++) {
+            lats[i]    = 38.0f + random.nextFloat();
+            lons[i]    = -77.0f + random.nextFloat();
+            columns[i] = (lons[i] + 77.0f) * (numColumns - 1);
+            rows[i]    = (lats[i] - 38.0f) * (stride - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_POINTS)
+    public long legacyBilinear() {
+        long sum = 0;
+        for (int i=0; i<NUM_POINTS; i++) {
+            sum += frame.biLinearInterpElevationAt(lats[i], lons[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_POINTS)
+    public long frameAccessor() throws IOException {
+        long sum = 0;
+        for (int i=0; i<NUM_POINTS; i++) {
+            sum += seam.interpolate(lats[i], lons[i], interpolator);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_POINTS)
+    public long flatArray() {
+        long sum = 0;
+        for (int i=0; i<NUM_POINTS; i++) {
+            sum += interpolator.interpolate(
+                    flatPosts, stride, numColumns, columns[i], rows[i]);
+        }
+        return sum;
+    }
+}
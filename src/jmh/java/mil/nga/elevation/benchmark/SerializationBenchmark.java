@@ -0,0 +1,109 @@
+package mil.nga.elevation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openapitools.jackson.nullable.JsonNullableModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation_services.model.CoordinateType;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.ElevationResponse;
+import mil.nga.elevation_services.model.ElevationType;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.SecurityType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Jackson serialization of an <code>ElevationResponse</code> containing 
+ * a typical number of points, compared with serialization of the same 
+ * points held in an <code>ElevationBatch</code>.
+ * 
+ * @author L. Craig Carpenter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    /**
+     * Number of points in the response.
+     */
+    private static final int NUM_POINTS = 100;
+    
+    private ObjectMapper      mapper;
+    private ElevationResponse response;
+    private ElevationBatch    batch;
+    
+    @Setup
+    public void setup() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JsonNullableModule());
+        SecurityType security = new SecurityType();
+        security.setClassification("UNCLASSIFIED");
+        security.setOwnerProducer("USA");
+        response = new ElevationResponse();
+        response.setSecurity(security);
+        response.setHeightType(HeightUnitType.METERS);
+        response.setEarthModelType(EarthModelType.EGM96);
+        for (int i=0; i<NUM_POINTS; i++) {
+            CoordinateType coordinate = new CoordinateType();
+            coordinate.setLat(String.valueOf(38.0 + (i * 0.0093)));
+            coordinate.setLon(String.valueOf(-77.0 + (i * 0.0071)));
+            ElevationType elevation = new ElevationType();
+            elevation.setCoordinate(coordinate);
+            elevation.setElevation(100 + i);
+            elevation.setAbsHorizontalAccuracy(50);
+            elevation.setAbsVerticalAccuracy(30);
+            elevation.setRelHorizontalAccuracy(-1);
+            elevation.setRelVerticalAccuracy(20);
+            elevation.setSource(TerrainDataFileType.DTED1);
+            response.addElevationsItem(elevation);
+        }
+        batch = new ElevationBatch(
+                NUM_POINTS, HeightUnitType.METERS, EarthModelType.EGM96);
+        int frame = batch.addFrame(
+                TerrainDataFileType.DTED1, 
+                new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
+                    .absHorzAccuracy(50)
+                    .absVertAccuracy(30)
+                    .relHorzAccuracy(-1)
+                    .relVertAccuracy(20)
+                    .build(),
+                "USA", 
+                "UNCLASSIFIED");
+        for (int i=0; i<NUM_POINTS; i++) {
+            int index = batch.add(
+                    38.0 + (i * 0.0093), 
+                    -77.0 + (i * 0.0071), 
+                    String.valueOf(38.0 + (i * 0.0093)), 
+                    String.valueOf(-77.0 + (i * 0.0071)));
+            batch.setElevation(index, 100 + i, frame);
+        }
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] serializeBatch() throws Exception {
+        return mapper.writeValueAsBytes(batch);
+    }
+}
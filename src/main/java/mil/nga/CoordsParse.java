@@ -16,9 +16,12 @@ import java.text.DecimalFormat;
 public class CoordsParse {
    
     /**
-     * String formatter for use throughout the class.
+     * String formatter for use throughout the class.  
+     * <code>DecimalFormat</code> is not thread safe so each thread gets
+     * its own copy.
      */
-    private final static DecimalFormat df3 = new DecimalFormat("###0.000");
+    private final static ThreadLocal<DecimalFormat> df3 = 
+            ThreadLocal.withInitial(() -> new DecimalFormat("###0.000"));
     
     /**
      * Default no-arg constructor implementing the singleton design pattern.
@@ -502,7 +505,7 @@ public class CoordsParse {
                 
         }
         
-        dms = String.valueOf(deg) + sepChar +  String.valueOf(min) + sepChar + String.valueOf(new Double(df3.format(dsec)).doubleValue()) + strHemi;
+        dms = String.valueOf(deg) + sepChar +  String.valueOf(min) + sepChar + String.valueOf(new Double(df3.get().format(dsec)).doubleValue()) + strHemi;
         
         
         return dms;
@@ -522,7 +525,7 @@ public class CoordsParse {
         /**
          * Reference to the singleton instance of <code>CoordsParse</code>
          */
-        private static CoordsParse instance = null;
+        private static final CoordsParse instance = new CoordsParse();
         
         /**
          * Accessor method for the singleton instance of the 
@@ -530,9 +533,6 @@ public class CoordsParse {
          * @return The singleton instance of <code>CoordsParse</code>.
          */
         public static CoordsParse getInstance() {
-            if (instance == null) {
-                instance = new CoordsParse();
-            }
             return instance;
         }
     }
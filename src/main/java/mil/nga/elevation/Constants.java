@@ -24,12 +24,6 @@ public interface Constants {
      */
     public static final int MAX_ELEVATION = 32767;
     
-    /**
-     * The maximum number of points that we allow a client to request in
-     * a single call.
-     */
-    public static final int MAX_ALLOWABLE_POINTS = 20;
-    
     /**
      * If classification is not set, mark it limited distribution.
      */
@@ -49,6 +43,25 @@ public interface Constants {
     public static final double MAX_BBOX_DEG_LVL1 = 4.0;
     public static final double MAX_BBOX_DEG_LVL2 = 1.0;
     
+    /**
+     * The default maximum number of decoded bytes held in the shared DTED 
+     * frame cache.  A single DTED2 frame consumes roughly 26 MB.
+     */
+    public static final long FRAME_CACHE_MAX_BYTES = 512L * 1024L * 1024L;
+    
+    /**
+     * The default maximum number of DTED header summaries held in the 
+     * frame metadata cache.  Each entry consumes a few hundred bytes.
+     */
+    public static final int FRAME_METADATA_CACHE_MAX_ENTRIES = 65536;
+    
+    /**
+     * The default maximum number of memory-mapped DTED frames held in the 
+     * mapped frame cache.  Mappings consume address space and kernel map 
+     * entries rather than heap.
+     */
+    public static final int MAPPED_FRAME_CACHE_MAX_ENTRIES = 1024;
+    
     /**
      * Default method used to convert meters to feet.
      * 
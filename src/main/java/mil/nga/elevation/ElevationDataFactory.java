@@ -4,17 +4,25 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.bbn.openmap.dataAccess.dted.DTEDFrame;
-
-import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation.cache.CachedDTEDFrame;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.cache.FrameMetadata;
+import mil.nga.elevation.cache.FrameMetadataCache;
+import mil.nga.elevation.cache.MappedFrameCache;
+import mil.nga.elevation.metrics.ElevationMetrics;
+import mil.nga.elevation.model.ElevationBatch;
 import mil.nga.elevation.model.ElevationDataPoint;
 import mil.nga.elevation.model.GeodeticCoordinate;
 import mil.nga.elevation_services.model.EarthModelType;
 import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.InterpolationType;
 import mil.nga.elevation_services.model.TerrainDataFileType;
 import mil.nga.elevation.egm96.GeoidHeightFactory;
 import mil.nga.elevation.exceptions.InvalidParameterException;
@@ -39,6 +47,8 @@ public class ElevationDataFactory implements Constants {
     private final TerrainDataFileType sourceType;
     private final HeightUnitType      units;
     private final EarthModelType      earthModel;
+    private final InterpolationType   interpolation;
+    private final SeamInterpolator.NeighbourResolver neighbourResolver;
     
     /**
      * Default constructor enforcing the builder creation pattern.
@@ -51,12 +61,13 @@ public class ElevationDataFactory implements Constants {
         units                 = builder.units;
         earthModel            = builder.earthModel;
         classificationMarking = builder.classificationMarking;
+        interpolation         = builder.interpolation;
+        neighbourResolver     = builder.neighbourResolver;
     }
     
     /**
      * This method obtains the elevation and associated accuracy data 
-     * associated with the input geodetic coordinate.  The method uses 
-     * the third party com.bbn.openmap API for reading the target DEM.
+     * associated with the input geodetic coordinate.  
      * 
      * @param coordinate The target coordinate that we wish to find the 
      * elevation value for.
@@ -69,116 +80,206 @@ public class ElevationDataFactory implements Constants {
      */
     public ElevationDataPoint getElevationAt(GeodeticCoordinate coordinate) 
             throws IOException, ClassNotFoundException, InvalidParameterException, IllegalStateException {
+        if (coordinate == null) {
+            LOGGER.error("The input geodetic coordinate is null.  Throwing a "
+                    + "InvalidParameterException to the caller.");
+            throw new InvalidParameterException(
+                    "Input geodetic coordinate is null.");
+        }
+        return getElevationsAt(Collections.singletonList(coordinate)).get(0);
+    }
+    
+    /**
+     * This method obtains the elevation and associated accuracy data 
+     * associated with each of the input geodetic coordinates.  See 
+     * <code>getElevationsAt(ElevationBatch, int[], int, int)</code>.
+     * 
+     * @param coordinates The target coordinates that we wish to find the 
+     * elevation values for.
+     * @return A list of <code>ElevationDataPoint<code> objects in the same 
+     * order as the input coordinates.
+     * @throws IOException Thrown if the target DEM file cannot be read.
+     * @throws ClassNotFoundException Thrown if the EGM96 geoid data 
+     * cannot be loaded.
+     * @throws InvalidParameterException Thrown if the input list is null 
+     * or contains a null coordinate.
+     * @throws IllegalStateException Thrown if errors are encountered 
+     * validating internal object fields.
+     */
+    public List<ElevationDataPoint> getElevationsAt(
+            List<GeodeticCoordinate> coordinates) 
+                    throws IOException, ClassNotFoundException, InvalidParameterException, IllegalStateException {
         
-        long               startTime = System.currentTimeMillis();
-        DTEDFrame          frame     = null;
-        ElevationDataPoint result    = null;
-        
-        if (coordinate != null) {
-            try {
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Loading DEM frame file [ "
-                            + getFilePath()
-                            + " ].");
-                }
-                frame = new DTEDFrame(getFilePath());
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("DEM frame file [ "
-                            + getFilePath()
-                            + " ] loaded in [ "
-                            + (System.currentTimeMillis() - startTime)
-                            + " ] ms.");
-                }
-                
-                // -- test code --
-                //System.out.println(coordinate.toString());
-                //System.out.println("Elevation (SW Post): " + 
-                //        frame.elevationAt(
-                //                (float)coordinate.getLat(), 
-                //                (float)coordinate.getLon()));
-                //System.out.println("Elevation (Interpolated): " + 
-                //        frame.interpElevationAt(
-                //                (float)coordinate.getLat(), 
-                //                (float)coordinate.getLon()));
-                //System.out.println("Rel Horz Acc : " + frame.acc.rel_horz_acc);
-                // -- test code --
-                    
-                // Get the producer code
-                String producerCode = DEFAULT_PRODUCER;
-                if (frame.dsi != null) {
-                    producerCode = frame.dsi.prod_code;
-                    // Some of the producer codes are padded with spaces.
-                    if (producerCode != null) {
-                        producerCode = producerCode.trim();
-                    }
-                }
-                
-                // When comparing results to the legacy application we found 
-                // that the call to DTEDFrame.interpElevationAt() was yielding
-                // unexpected results.  A review of the openmap source code 
-                // shows that due to what appears to be a bug, the 
-                // interpolation algorithm does not do an interpolation at all
-                // but an average of two nearby points.  Code has been 
-                // changed to utilize DTEDFrame.elevationAt() until we can 
-                // get the openmap source code corrected.
-                // -- Update 20191009 --
-                // The openmap code was forked and corrected.  The code below 
-                // was changed to utilize interpolation for the output 
-                // elevation value.
-                int elevation = frame.biLinearInterpElevationAt(
-                        (float)coordinate.getLat(), 
-                        (float)coordinate.getLon());
-                
-                // If the caller requested the WGS-84 ellipsoid, handle the 
-                // offset here.
-                if (getEarthModel() != EarthModelType.EGM96) {
-                    // Get the distance between the Geoid and Ellipsoid at the 
-                    // requested lat/lon.
-                    double egm96Offset = GeoidHeightFactory.getInstance().getHeight(
-                            coordinate.getLat(), 
-                            coordinate.getLon());
-                    elevation = elevation + (int)egm96Offset;
-                }
-                
-                result = new ElevationDataPoint.ElevationDataPointBuilder()
-                        .units(getUnits())
-                        .earthModel(getEarthModel())
-                        .source(getSourceType())
-                        .classificationMarking(classificationMarking)
-                        .producerCode(producerCode)
-                        .withGeodeticCoordinate(coordinate)
-                        .withDEMFrameAccuracy(
-                                new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
-                                    .absHorzAccuracy(frame.acc.abs_horz_acc)
-                                    .absVertAccuracy(frame.acc.abs_vert_acc)
-                                    .relHorzAccuracy(frame.acc.rel_horz_acc)
-                                    .relVertAccuracy(frame.acc.rel_vert_acc)
-                                    .units(getUnits())
-                                    .build())
-                        .elevation(elevation)
-                        .build();
-            }
-            finally {
-                if (frame != null) {
-                    frame.close(true);
-                }
+        if (coordinates == null) {
+            LOGGER.error("The input geodetic coordinate list is null.  "
+                    + "Throwing a InvalidParameterException to the caller.");
+            throw new InvalidParameterException(
+                    "Input geodetic coordinate list is null.");
+        }
+        ElevationBatch batch   = new ElevationBatch(
+                coordinates.size(), getUnits(), getEarthModel());
+        int[]          indices = new int[coordinates.size()];
+        for (GeodeticCoordinate coordinate : coordinates) {
+            if (coordinate == null) {
+                LOGGER.error("The input geodetic coordinate is null.  "
+                        + "Throwing a InvalidParameterException to the "
+                        + "caller.");
+                throw new InvalidParameterException(
+                        "Input geodetic coordinate is null.");
             }
+            int index = batch.add(coordinate);
+            indices[index] = index;
+        }
+        getElevationsAt(batch, indices, 0, indices.length);
+        
+        List<ElevationDataPoint> results = 
+                new ArrayList<ElevationDataPoint>(coordinates.size());
+        for (int i=0; i<coordinates.size(); i++) {
+            results.add(batch.toDataPoint(i, coordinates.get(i)));
+        }
+        return results;
+    }
+    
+    /**
+     * This method obtains the elevation associated with each of the 
+     * selected points in the input batch, all of which are expected to 
+     * fall within the target DEM file.  The results are written directly 
+     * into the batch along with a single frame table entry holding the 
+     * accuracy, producer and classification data of the target frame.  
+     * No per-point objects are created.  
+     * 
+     * The target frame is opened once and all points are evaluated 
+     * against it.  Frames resident in the shared cache are read through 
+     * the third party com.bbn.openmap API, otherwise the target DEM is 
+     * memory-mapped and only the posts required are decoded.  Points 
+     * whose surrounding posts extend past the edge of the frame are 
+     * interpolated across the seam using the adjacent frame(s) located 
+     * by the neighbour resolver (see <code>SeamInterpolator</code>).  
+     * Adjacent frames are opened at most once per call.  The posts are 
+     * interpolated with the method selected through the builder (bilinear 
+     * by default, see <code>PostInterpolator</code>).
+     * 
+     * @param batch The batch holding the requested points.  The batch 
+     * units and Earth model must match those of the factory.
+     * @param indices The indices of the points within the batch to 
+     * evaluate.
+     * @param offset The first entry of <code>indices</code> to evaluate.
+     * @param length The number of entries of <code>indices</code> to 
+     * evaluate.
+     * @throws IOException Thrown if the target DEM file cannot be read.
+     * @throws ClassNotFoundException Thrown if the EGM96 geoid data 
+     * cannot be loaded.
+     * @throws IllegalStateException Thrown if errors are encountered 
+     * validating internal object fields.
+     */
+    public void getElevationsAt(
+            ElevationBatch batch,
+            int[]          indices,
+            int            offset,
+            int            length) 
+                    throws IOException, ClassNotFoundException, IllegalStateException {
+        
+        long            startTime    = System.currentTimeMillis();
+        String          producerCode = DEFAULT_PRODUCER;
+        MappedDTEDFrame mapped       = null;
+        
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Loading DEM frame file [ "
+                    + getFilePath()
+                    + " ].");
+        }
+        
+        // The producer code and accuracy data come from the cached header 
+        // records so they are not re-parsed for every request.
+        FrameMetadata metadata = FrameMetadataCache.getInstance().getMetadata(
+                getFilePath());
+        if (metadata.getProducerCode() != null) {
+            producerCode = metadata.getProducerCode();
+        }
+        int frameIndex = batch.addFrame(
+                getSourceType(), 
+                metadata.getAccuracy(getUnits()), 
+                producerCode, 
+                classificationMarking);
+        
+        // Frames are shared through the process-wide cache.  Cached 
+        // frames must not be closed by the caller.
+        PostInterpolator method       = new PostInterpolator(getInterpolation());
+        SeamInterpolator interpolator = null;
+        CachedDTEDFrame  frame        = FrameCache.getInstance().getFrameIfPresent(
+                getFilePath());
+        if (frame != null) {
+            interpolator = new SeamInterpolator(frame, neighbourResolver);
+        }
+        else {
+            // Mapped frames are shared through their own cache so each 
+            // file is mapped (and each column checksummed) once.
+            mapped = MappedFrameCache.getInstance().getFrame(
+                    getFilePath(), getSourceType());
+            interpolator = new SeamInterpolator(mapped, neighbourResolver);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("DEM frame file [ "
+                    + getFilePath()
+                    + " ] loaded in [ "
+                    + (System.currentTimeMillis() - startTime)
+                    + " ] ms.");
+        }
+        
+        for (int i=offset; i<(offset + length); i++) {
+            
+            int    index = indices[i];
+            double lat   = batch.getLat(index);
+            double lon   = batch.getLon(index);
             
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Elevation data for type [ "
-                        + getSourceType().name()
-                        + " ] retrieved in [ "
-                        + (System.currentTimeMillis() - startTime)
-                        + " ] ms.");
+            // The SeamInterpolator supplies the posts surrounding the 
+            // point, reading them from the adjacent frame when they lie 
+            // beyond the edge of this one, and the PostInterpolator 
+            // applies the requested method (nearest, bilinear or 
+            // bicubic) to them.  Voids are handled by the 
+            // PostInterpolator; a void is only returned if no valid post 
+            // contributes to the result.
+            int elevation = interpolator.interpolate(
+                    (float)lat, 
+                    (float)lon, 
+                    method);
+            
+            // If the caller requested the WGS-84 ellipsoid, handle the 
+            // offset here.
+            if (getEarthModel() != EarthModelType.EGM96) {
+                // Get the distance between the Geoid and Ellipsoid at the 
+                // requested lat/lon.
+                double egm96Offset = GeoidHeightFactory.getInstance().getHeight(
+                        lat, 
+                        lon);
+                elevation = elevation + (int)egm96Offset;
             }
+            batch.setElevation(index, elevation, frameIndex);
         }
-        else {
-            LOGGER.error("The input geodetic coordinate is null.  Throwing a "
-                    + "InvalidParameterException to the caller.");
-            throw new InvalidParameterException(
-                    "Input geodetic coordinate is null.");
+        if (getEarthModel() != EarthModelType.EGM96) {
+            ElevationMetrics.recordGeoidCorrections(
+                    ElevationMetrics.METHOD_POINT, length);
+        }
+        
+        if ((interpolator.getSeamPointCount() > 0) && (LOGGER.isDebugEnabled())) {
+            LOGGER.debug("[ "
+                    + interpolator.getSeamPointCount()
+                    + " ] points interpolated across the edge of frame [ "
+                    + getFilePath()
+                    + " ] using [ "
+                    + interpolator.getNeighbourCount()
+                    + " ] adjacent frames.");
+        }
+        
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Elevation data for [ "
+                    + length
+                    + " ] points of type [ "
+                    + getSourceType().name()
+                    + " ] retrieved in [ "
+                    + (System.currentTimeMillis() - startTime)
+                    + " ] ms.");
         }
-        return result;
     }
     
     /**
@@ -205,6 +306,14 @@ public class ElevationDataFactory implements Constants {
         return units;
     }
     
+    /**
+     * Getter method for the interpolation method.
+     * @return The interpolation method.
+     */
+    public InterpolationType getInterpolation() {
+        return interpolation;
+    }
+    
     /**
      * Getter method for the source DEM type data.
      * return The source DEM type.
@@ -226,6 +335,8 @@ public class ElevationDataFactory implements Constants {
         private TerrainDataFileType sourceType;
         private HeightUnitType      units = HeightUnitType.METERS;
         private EarthModelType      earthModel = EarthModelType.EGM96;
+        private InterpolationType   interpolation = InterpolationType.BILINEAR;
+        private SeamInterpolator.NeighbourResolver neighbourResolver;
         
         /**
          * Setter method for the path to the target DEM file.
@@ -265,6 +376,32 @@ public class ElevationDataFactory implements Constants {
             return this;
         }
         
+        /**
+         * Setter method for the interpolation method.  Null selects the 
+         * default (bilinear) method.
+         * @param value The interpolation method.
+         * @return Reference to the builder object.
+         */
+        public ElevationDataFactoryBuilder interpolation(InterpolationType value) {
+            if (value != null) {
+                interpolation = value;
+            }
+            return this;
+        }
+        
+        /**
+         * Setter method for the callback used to locate the frames 
+         * adjacent to the target DEM file.  If not supplied, points on 
+         * the edge of the frame use the nearest edge post.
+         * @param value The neighbour resolver.
+         * @return Reference to the builder object.
+         */
+        public ElevationDataFactoryBuilder neighbourResolver(
+                SeamInterpolator.NeighbourResolver value) {
+            neighbourResolver = value;
+            return this;
+        }
+        
         /**
          * Setter method for the source DEM type data.
          * @param value The source DEM type.
@@ -1,22 +1,31 @@
 package mil.nga.elevation;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.locationtech.jts.algorithm.locate.SimplePointInAreaLocator;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Location;
 import org.locationtech.jts.geom.Polygon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.bbn.openmap.dataAccess.dted.DTEDFrame;
+import com.bbn.openmap.omGraphics.OMGrid;
 
+import mil.nga.elevation.cache.CachedDTEDFrame;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.cache.FrameMetadata;
+import mil.nga.elevation.cache.FrameMetadataCache;
+import mil.nga.elevation.dao.TerrainDataSummary;
 import mil.nga.elevation.egm96.GeoidHeightFactory;
+import mil.nga.elevation.egm96.GeoidOffsetGrid;
+import mil.nga.elevation.metrics.ElevationMetrics;
 import mil.nga.elevation.model.BoundingBox;
 import mil.nga.elevation.model.DEMFrameAccuracy;
 import mil.nga.elevation.model.ElevationDataPoint;
@@ -73,8 +82,10 @@ public class ElevationExtremesFactory implements Constants {
     protected int getElevation(double lat, double lon, short value) {
         int result = value;
         // If the caller requested the WGS-84 ellipsoid, handle the 
-        // offset here.
-        if (getEarthModel() != EarthModelType.EGM96) {
+        // offset here.  Void posts are left untouched so they are still 
+        // recognized as voids.
+        if ((getEarthModel() != EarthModelType.EGM96) && 
+                (result != INVALID_ELEVATION_VALUE)) {
             try {
                 // Get the distance between the Geoid and Ellipsoid at the 
                 // requested lat/lon.
@@ -199,7 +210,8 @@ public class ElevationExtremesFactory implements Constants {
                         + getFilePath()
                         + " ].");
             }
-            frame = new DTEDFrame(getFilePath());
+            frame = FrameCache.getInstance().getFrame(
+                    getFilePath(), getSourceType());
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("DEM frame file [ "
                         + getFilePath()
@@ -280,10 +292,15 @@ public class ElevationExtremesFactory implements Constants {
             }
             
         }
-        finally {
-            if (frame != null) {
-                frame.close(true);
-            }
+        catch (IOException ioe) {
+            // Frames are shared through the process-wide cache so they are 
+            // no longer closed here.  Convert load failures into the 
+            // exception type callers already handle for missing files.
+            throw new IllegalStateException("Unable to load DEM frame file [ "
+                    + getFilePath()
+                    + " ].  Error message => [ "
+                    + ioe.getMessage()
+                    + " ].");
         }
         
         for (ElevationDataPoint point : response) {
@@ -294,38 +311,148 @@ public class ElevationExtremesFactory implements Constants {
     
     
     /**
-     * This method will determine the minimum and maximum elevation points 
-     * that fall within the DEM frame identified by the input file path.
+     * Simple data structure holding the results of a scan over a window 
+     * of elevation posts.
+     */
+    private static class PostExtremes {
+        private int    minElevation    = MAX_ELEVATION;
+        private int    maxElevation    = INVALID_ELEVATION_VALUE;
+        private double minElevationLat = 0.0;
+        private double minElevationLon = 0.0;
+        private double maxElevationLat = 0.0;
+        private double maxElevationLon = 0.0;
+        private long   postCounter     = 0;
+    }
+    
+    /**
+     * Convert a range of lat (or lon) values into the inclusive range of 
+     * post indices that fall within it.  The post positions are computed 
+     * exactly as they are in the scan loops (origin + index * spacing) 
+     * so that the posts selected are identical to those that would be 
+     * selected by testing every post against the range individually.
      * 
-     * @return Data structure containing the miniumum and maximum elevation
-     * points.
-     * @throws IllegalStateException Thrown if there are any validation 
-     * problems with the any of the return data.  Callers should check the
-     * exception message for more information.
+     * @param origin The lat (or lon) of post 0.
+     * @param spacing The spacing between posts in decimal degrees.
+     * @param min The minimum lat (or lon) value (inclusive).
+     * @param max The maximum lat (or lon) value (inclusive).
+     * @param numPosts The number of posts along the axis.
+     * @return Two element array containing the first and last post index.  
+     * If no posts fall within the range the first index will be greater 
+     * than the last.
      */
-    public MinMaxElevation getMinMaxElevation() {
-        
-        int       minElevation    = MAX_ELEVATION;
-        int       maxElevation    = INVALID_ELEVATION_VALUE;
-        int       postCounter     = 0;
-        long      startTime       = System.currentTimeMillis();
-        double    maxElevationLat = 0.0;
-        double    maxElevationLon = 0.0;
-        double    minElevationLat = 0.0;
-        double    minElevationLon = 0.0;
-        double    currentLat      = 0.0;
-        double    currentLon      = 0.0;
+    public static int[] getIndexRange(
+            double origin, 
+            double spacing, 
+            double min, 
+            double max, 
+            int    numPosts) {
         
-        DTEDFrame       frame  = null;
-        MinMaxElevation result = null;
+        int first = (int)Math.ceil((min - origin) / spacing);
+        int last  = (int)Math.floor((max - origin) / spacing);
+        first = Math.max(0, Math.min(numPosts, first));
+        last  = Math.max(-1, Math.min(numPosts - 1, last));
         
+        // Correct for floating point error in the division.
+        while ((first > 0) && ((origin + ((first - 1) * spacing)) >= min)) {
+            first--;
+        }
+        while ((first < numPosts) && ((origin + (first * spacing)) < min)) {
+            first++;
+        }
+        while ((last < (numPosts - 1)) && ((origin + ((last + 1) * spacing)) <= max)) {
+            last++;
+        }
+        while ((last >= 0) && ((origin + (last * spacing)) > max)) {
+            last--;
+        }
+        return new int[] { first, last };
+    }
+    
+    /**
+     * Generate the bounding box that contains the entire target frame.
+     * @param metadata The header data of the target frame.
+     * @return The bounds of the target frame.
+     */
+    private BoundingBox getFrameBounds(FrameMetadata metadata) {
+        return new BoundingBox.BoundingBoxBuilder()
+                    .lowerLeftLat(metadata.getOriginLat())
+                    .lowerLeftLon(metadata.getOriginLon())
+                    .upperRightLat(metadata.getOriginLat()+1.0)
+                    .upperRightLon(metadata.getOriginLon()+1.0)
+                .build();
+    }
+    
+    /**
+     * Retrieve the header data of the target frame through the shared 
+     * metadata cache.  No elevation posts are read.
+     * @return The header data of the target frame.
+     * @throws IllegalStateException Thrown if the header cannot be read.
+     */
+    private FrameMetadata getMetadata() throws IllegalStateException {
         try {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Loading DEM frame file [ "
-                        + getFilePath()
-                        + " ].");
-            }
-            frame = new DTEDFrame(getFilePath());
+            return FrameMetadataCache.getInstance().getMetadata(getFilePath());
+        }
+        catch (IOException ioe) {
+            // Convert read failures into the exception type callers already 
+            // handle for missing files.
+            throw new IllegalStateException("Unable to read the header of "
+                    + "DEM frame file [ "
+                    + getFilePath()
+                    + " ].  Error message => [ "
+                    + ioe.getMessage()
+                    + " ].");
+        }
+    }
+    
+    /**
+     * Build the geoid offset lattice for a frame.
+     * 
+     * @param originLat The latitude of row 0.
+     * @param originLon The longitude of column 0.
+     * @param latSpacing The latitude spacing between posts.
+     * @param lonSpacing The longitude spacing between posts.
+     * @param numColumns The number of post columns.
+     * @param numRows The number of post rows.
+     * @return The geoid offset lattice, or null if it could not be 
+     * constructed.
+     */
+    private GeoidOffsetGrid getOffsetGrid(
+            double originLat, 
+            double originLon,
+            double latSpacing, 
+            double lonSpacing,
+            int    numColumns,
+            int    numRows) {
+        try {
+            return GeoidHeightFactory.getInstance().getOffsetGrid(
+                    originLat, originLon, latSpacing, lonSpacing, 
+                    numColumns, numRows);
+        }
+        catch (Exception e) {
+            LOGGER.warn("Exception raised while attempting to construct the "
+                    + "Geoid offset grid.  Exception message => [ {} ].", 
+                    e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Load the target frame through the shared frame cache.
+     * @return The loaded DTED frame.
+     * @throws IllegalStateException Thrown if the frame cannot be loaded.
+     */
+    private CachedDTEDFrame loadFrame() throws IllegalStateException {
+        long startTime = System.currentTimeMillis();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Loading DEM frame file [ "
+                    + getFilePath()
+                    + " ].");
+        }
+        try {
+            // Frames are shared through the process-wide cache so they are 
+            // never closed here.
+            CachedDTEDFrame frame = FrameCache.getInstance().getFrame(
+                    getFilePath(), getSourceType());
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("DEM frame file [ "
                         + getFilePath()
@@ -333,419 +460,621 @@ public class ElevationExtremesFactory implements Constants {
                         + (System.currentTimeMillis() - startTime)
                         + " ] ms.");
             }
-            
-            // Reset the time
-            startTime = System.currentTimeMillis();
-            
-            // Generate the bounding box that contains the entire target
-            // frame
-            BoundingBox frameBounds = new BoundingBox.BoundingBoxBuilder()
-                    .lowerLeftLat(frame.getOMGrid().getLatitude())
-                    .lowerLeftLon(frame.getOMGrid().getLongitude())
-                    .upperRightLat(frame.getOMGrid().getLatitude()+1.0)
-                    .upperRightLon(frame.getOMGrid().getLongitude()+1.0)
-                    .build();
-            
-            // Collect the frame accuracy data
-            DEMFrameAccuracy accuracy = 
-                    new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
-                        .absHorzAccuracy(frame.acc.abs_horz_acc)
-                        .absVertAccuracy(frame.acc.abs_vert_acc)
-                        .relHorzAccuracy(frame.acc.rel_horz_acc)
-                        .relVertAccuracy(frame.acc.rel_vert_acc)
-                        .units(getUnits())
-                        .build();
-            
-            // Get the producer code
-            String producerCode = DEFAULT_PRODUCER;
-            if (frame.dsi != null) {
-                producerCode = frame.dsi.prod_code;
-                // Some of the producer codes are padded with spaces.
-                if (producerCode != null) {
-                    producerCode = producerCode.trim();
+            return frame;
+        }
+        catch (IOException ioe) {
+            // Convert load failures into the exception type callers already 
+            // handle for missing files.
+            throw new IllegalStateException("Unable to load DEM frame file [ "
+                    + getFilePath()
+                    + " ].  Error message => [ "
+                    + ioe.getMessage()
+                    + " ].");
+        }
+    }
+    
+    /**
+     * Scan a rectangular window of posts for the minimum and maximum 
+     * elevation.
+     * 
+     * @param posts The decoded elevation posts [column][row].
+     * @param originLat The latitude of row 0.
+     * @param originLon The longitude of column 0.
+     * @param latSpacing The latitude spacing between posts.
+     * @param lonSpacing The longitude spacing between posts.
+     * @param cols Inclusive first/last column indices.
+     * @param rows Inclusive first/last row indices.
+     * @return The results of the scan.
+     */
+    private PostExtremes scan(
+            short[][] posts,
+            double    originLat, 
+            double    originLon,
+            double    latSpacing, 
+            double    lonSpacing,
+            int[]     cols,
+            int[]     rows) {
+        
+        // Every column in the window shares the same row span.
+        int[][] spans = new int[posts.length][];
+        if ((cols[0] <= cols[1]) && (rows[0] <= rows[1])) {
+            for (int col = cols[0]; col <= cols[1]; col++) {
+                spans[col] = rows;
+            }
+        }
+        return scan(posts, originLat, originLon, latSpacing, lonSpacing, spans);
+    }
+    
+    /**
+     * Scan the posts covered by a set of row spans for the minimum and 
+     * maximum elevation.  Posts are visited in the same (column-major) 
+     * order as the original implementation so ties resolve identically.  
+     * The scan is a tight loop over the raw posts and the lat/lon is only 
+     * computed for the winning posts.  If the output is referenced to the 
+     * ellipsoid the per-post geoid offset is taken from a lattice 
+     * precomputed for the frame.
+     * 
+     * @param posts The decoded elevation posts [column][row].
+     * @param originLat The latitude of row 0.
+     * @param originLon The longitude of column 0.
+     * @param latSpacing The latitude spacing between posts.
+     * @param lonSpacing The longitude spacing between posts.
+     * @param spans Inclusive first/last row pairs indexed by column (null 
+     * for columns that are not covered).
+     * @return The results of the scan.
+     */
+    private PostExtremes scan(
+            short[][] posts,
+            double    originLat, 
+            double    originLon,
+            double    latSpacing, 
+            double    lonSpacing,
+            int[][]   spans) {
+        
+        PostExtremes extremes = new PostExtremes();
+        extremes.postCounter  = PolygonRasterizer.countPosts(spans);
+        
+        if (extremes.postCounter == 0) {
+            return extremes;
+        }
+        
+        // When the output is referenced to the ellipsoid the geoid offsets 
+        // for the frame are precomputed once rather than per post.
+        GeoidOffsetGrid offsets = null;
+        if (getEarthModel() != EarthModelType.EGM96) {
+            offsets = getOffsetGrid(
+                    originLat, originLon, latSpacing, lonSpacing, 
+                    posts.length, posts[0].length);
+            if (offsets == null) {
+                for (int col = 0; col < spans.length; col++) {
+                    if (spans[col] == null) {
+                        continue;
+                    }
+                    short[] column     = posts[col];
+                    double  currentLon = originLon + (col * lonSpacing);
+                    for (int k = 0; k < spans[col].length; k += 2) {
+                        for (int row = spans[col][k]; row <= spans[col][k + 1]; row++) {
+                            double currentLat = originLat + (row * latSpacing);
+                            update(extremes, 
+                                    getElevation(currentLat, currentLon, column[row]), 
+                                    currentLat, 
+                                    currentLon);
+                        }
+                    }
                 }
+                ElevationMetrics.recordGeoidCorrections(
+                        ElevationMetrics.METHOD_POINT, extremes.postCounter);
+                ElevationMetrics.recordScanPosts(
+                        getSourceType(), extremes.postCounter);
+                return extremes;
             }
-            
-            // The lat/lon post spacing allows us to calculate the lat/lon 
-            // position of each elevation post.
-            double latPostSpacing = frame.getOMGrid().getVerticalResolution();
-            double lonPostSpacing = frame.getOMGrid().getHorizontalResolution();
-            
-            // Retrieve the posts from the DEM frame as a 2D array of shorts
-            short[][] posts = frame.getElevations(
-                    (float)frameBounds.getUpperLeftLat(),
-                    (float)frameBounds.getUpperLeftLon(),
-                    (float)frameBounds.getLowerRightLat(),
-                    (float)frameBounds.getLowerRightLon());
-            
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Elevation posts loaded in [ "
-                        + (System.currentTimeMillis() - startTime)
-                        + " ] ms.");
+        }
+        
+        int minElevation = MAX_ELEVATION;
+        int maxElevation = INVALID_ELEVATION_VALUE;
+        int minCol = -1, minRow = -1, maxCol = -1, maxRow = -1;
+        
+        int[] columnOffsets = (offsets != null) ? new int[posts[0].length] : null;
+        
+        for (int col = 0; col < spans.length; col++) {
+            int[] span = spans[col];
+            if (span == null) {
+                continue;
             }
-            
-            // Reset the time
-            startTime = System.currentTimeMillis();
-                        
-            // Loop through the 2D array and look for the min/max
-            for (int lon_index=0; lon_index < posts.length; lon_index++) {
-                
-                currentLon = frameBounds.getLowerLeftLon() + 
-                        (lon_index * lonPostSpacing);
-                
-                for (int lat_index=0; lat_index < posts[lon_index].length; lat_index++) {
-                    currentLat = frameBounds.getLowerLeftLat() + 
-                            (lat_index * latPostSpacing);
-                    
-                    postCounter++;
-                    
-                    int elevation = getElevation(currentLat, currentLon, posts[lon_index][lat_index]);
-                    
-                    // Check to see if the elevation is lower than the current
-                    // max elevation.
-                    if ((elevation < (short)minElevation) && 
-                            (elevation != INVALID_ELEVATION_VALUE)) {
-                        
-                        // Save the minimum elevation and associated point
-                        minElevation    = elevation;
-                        minElevationLat = currentLat;
-                        minElevationLon = currentLon;
-                        
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("New min elevation [ "
-                                    + minElevation 
-                                    + " ] at lat/lon [ "
-                                    + minElevationLat
-                                    + " , "
-                                    + minElevationLon 
-                                    + " ].");
-                        }
+            short[] column = posts[col];
+            for (int k = 0; k < span.length; k += 2) {
+                int firstRow = span[k];
+                int lastRow  = span[k + 1];
+                if (offsets != null) {
+                    offsets.getOffsets(col, firstRow, lastRow, columnOffsets);
+                }
+                for (int row = firstRow; row <= lastRow; row++) {
+                    int elevation = column[row];
+                    if (elevation == INVALID_ELEVATION_VALUE) {
+                        continue;
                     }
-                    
-                    // Check to see if the elevation is higher than the current
-                    // max elevation.
-                    if ((elevation > (short)maxElevation) && 
-                            (elevation != INVALID_ELEVATION_VALUE)) {
-                        
-                        // Save the max elevation and associated point
-                        maxElevation    = elevation;
-                        maxElevationLat = currentLat;
-                        maxElevationLon = currentLon;
-                        
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("New max elevation [ "
-                                    + maxElevation 
-                                    + " ] at lat/lon [ "
-                                    + maxElevationLat
-                                    + " , "
-                                    + maxElevationLon 
-                                    + " ].");
-                        }
+                    if (offsets != null) {
+                        elevation += columnOffsets[row];
+                    }
+                    if (elevation < minElevation) {
+                        minElevation = elevation;
+                        minCol = col;
+                        minRow = row;
+                    }
+                    if (elevation > maxElevation) {
+                        maxElevation = elevation;
+                        maxCol = col;
+                        maxRow = row;
                     }
                 }
             }
-            
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Completed processing [ "
-                        + postCounter
-                        + " ] elevation posts in [ "
-                        + (System.currentTimeMillis() - startTime)
-                        + " ].");
+        }
+        
+        extremes.minElevation = minElevation;
+        extremes.maxElevation = maxElevation;
+        if (minCol >= 0) {
+            extremes.minElevationLat = originLat + (minRow * latSpacing);
+            extremes.minElevationLon = originLon + (minCol * lonSpacing);
+        }
+        if (maxCol >= 0) {
+            extremes.maxElevationLat = originLat + (maxRow * latSpacing);
+            extremes.maxElevationLon = originLon + (maxCol * lonSpacing);
+        }
+        if (offsets != null) {
+            ElevationMetrics.recordGeoidCorrections(
+                    ElevationMetrics.METHOD_LATTICE, extremes.postCounter);
+        }
+        ElevationMetrics.recordScanPosts(getSourceType(), extremes.postCounter);
+        return extremes;
+    }
+    
+    /**
+     * Fold a single elevation value into the running min/max.
+     * 
+     * @param extremes The running min/max.
+     * @param elevation The elevation value.
+     * @param lat The latitude of the post.
+     * @param lon The longitude of the post.
+     */
+    private void update(
+            PostExtremes extremes, 
+            int          elevation, 
+            double       lat, 
+            double       lon) {
+        if (elevation != INVALID_ELEVATION_VALUE) {
+            if (elevation < extremes.minElevation) {
+                extremes.minElevation    = elevation;
+                extremes.minElevationLat = lat;
+                extremes.minElevationLon = lon;
             }
-            
-            // Construct the return data structure.  This could result
-            // in a IllegalStateException exception.
-            result = new MinMaxElevation.MinMaxElevationBuilder()
-                    .maxElevation(
-                            new ElevationDataPoint.ElevationDataPointBuilder()
-                                .elevation(maxElevation)
-                                .classificationMarking(getClassificationMarking())
-                                .producerCode(producerCode)
-                                .units(getUnits())
-                                .earthModel(getEarthModel())
-                                .withDEMFrameAccuracy(accuracy)
-                                .withGeodeticCoordinate(
-                                        new GeodeticCoordinate.GeodeticCoordinateBuilder()
-                                            .lat(maxElevationLat)
-                                            .lon(maxElevationLon)
-                                        .build())
-                                .build())
-                    .minElevation(
-                            new ElevationDataPoint.ElevationDataPointBuilder()
-                            .elevation(minElevation)
+            if (elevation > extremes.maxElevation) {
+                extremes.maxElevation    = elevation;
+                extremes.maxElevationLat = lat;
+                extremes.maxElevationLon = lon;
+            }
+        }
+    }
+    
+    /**
+     * Construct the return data structure.  This could result in a 
+     * IllegalStateException exception.
+     * 
+     * @param extremes The results of the post scan.
+     * @param accuracy The frame accuracy data.
+     * @param producerCode The frame producer code.
+     * @return The min/max elevation data.
+     */
+    private MinMaxElevation toMinMaxElevation(
+            PostExtremes     extremes, 
+            DEMFrameAccuracy accuracy, 
+            String           producerCode) {
+        
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("New min elevation [ "
+                    + extremes.minElevation 
+                    + " ] at lat/lon [ "
+                    + extremes.minElevationLat
+                    + " , "
+                    + extremes.minElevationLon 
+                    + " ], max elevation [ "
+                    + extremes.maxElevation 
+                    + " ] at lat/lon [ "
+                    + extremes.maxElevationLat
+                    + " , "
+                    + extremes.maxElevationLon 
+                    + " ].");
+        }
+        
+        return new MinMaxElevation.MinMaxElevationBuilder()
+                .maxElevation(
+                        new ElevationDataPoint.ElevationDataPointBuilder()
+                            .elevation(extremes.maxElevation)
                             .classificationMarking(getClassificationMarking())
                             .producerCode(producerCode)
                             .units(getUnits())
                             .earthModel(getEarthModel())
+                            .source(getSourceType())
                             .withDEMFrameAccuracy(accuracy)
                             .withGeodeticCoordinate(
                                     new GeodeticCoordinate.GeodeticCoordinateBuilder()
-                                        .lat(minElevationLat)
-                                        .lon(minElevationLon)
+                                        .lat(extremes.maxElevationLat)
+                                        .lon(extremes.maxElevationLon)
                                     .build())
                             .build())
-                    .build();
-            
-        }
-        finally {
-            if (frame != null) {
-                frame.close(true);
-            }
-        }
-        return result;
+                .minElevation(
+                        new ElevationDataPoint.ElevationDataPointBuilder()
+                            .elevation(extremes.minElevation)
+                            .classificationMarking(getClassificationMarking())
+                            .producerCode(producerCode)
+                            .units(getUnits())
+                            .earthModel(getEarthModel())
+                            .source(getSourceType())
+                            .withDEMFrameAccuracy(accuracy)
+                            .withGeodeticCoordinate(
+                                    new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                                        .lat(extremes.minElevationLat)
+                                        .lon(extremes.minElevationLon)
+                                    .build())
+                        .build())
+                .build();
     }
     
+    /**
+     * This method will determine the minimum and maximum elevation points 
+     * that fall within the DEM frame identified by the input file path.
+     * 
+     * @return Data structure containing the miniumum and maximum elevation
+     * points.
+     * @throws IllegalStateException Thrown if there are any validation 
+     * problems with the any of the return data.  Callers should check the
+     * exception message for more information.
+     */
+    public MinMaxElevation getMinMaxElevation() {
+        
+        FrameMetadata   metadata  = getMetadata();
+        CachedDTEDFrame frame     = loadFrame();
+        long            startTime = System.currentTimeMillis();
+        short[][]       posts     = frame.getPosts();
+        
+        PostExtremes extremes = scan(
+                posts,
+                metadata.getOriginLat(),
+                metadata.getOriginLon(),
+                metadata.getLatSpacing(),
+                metadata.getLonSpacing(),
+                new int[] { 0, posts.length - 1 },
+                new int[] { 0, posts[0].length - 1 });
+        
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Completed processing [ "
+                    + extremes.postCounter
+                    + " ] elevation posts in [ "
+                    + (System.currentTimeMillis() - startTime)
+                    + " ].");
+        }
+        return toMinMaxElevation(
+                extremes, 
+                metadata.getAccuracy(getUnits()), 
+                metadata.getProducerCode());
+    }
     
     /**
      * This method will determine the minimum and maximum elevation points 
-     * that fall within the bounding box supplied.  
+     * that fall within the bounding box supplied.  The intersection of the 
+     * bounding box with the frame is converted into integer row/column 
+     * bounds from the cached header data, and only the posts within those 
+     * bounds are scanned.  The frame itself is only loaded if the bounding 
+     * box covers at least one post.  Posts on the boundary of the bounding 
+     * box are included.
      * 
      * @param bbox client-defined bounding box.
      * @return Data structure containing the miniumum and maximum elevation
-     * points.
+     * points.  Null if the bounding box does not intersect the frame.
      * @throws IllegalStateException Thrown if there are any validation 
      * problems with the any of the return data.  Callers should check the
      * exception message for more information.
      */
     public MinMaxElevation getMinMaxElevation(BoundingBox bbox) {
         
-        long      startTime       = System.currentTimeMillis();
+        MinMaxElevation result      = null;
+        FrameMetadata   metadata    = getMetadata();
+        long            startTime   = System.currentTimeMillis();
+        BoundingBox     frameBounds = getFrameBounds(metadata);
         
-        int              minElevation    = 32767;
-        int              maxElevation    = -32767;
-        int              postCounter = 0;
-        DTEDFrame        frame       = null;
-        DEMFrameAccuracy accuracy    = null;
-        MinMaxElevation  result      = null;
-
-        double           currentLat      = 0.0;
-        double           currentLon      = 0.0;
-        double           maxElevationLat = 0.0;
-        double           maxElevationLon = 0.0;
-        double           minElevationLat = 0.0;
-        double           minElevationLon = 0.0;
+        // Get the intersection of the DTED frame with the user-defined 
+        // bounding box.
+        BoundingBox intersection = getIntersection(frameBounds, bbox);
         
-        try {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Loading DEM frame file [ "
-                        + getFilePath()
-                        + " ].");
-            }
-            frame = new DTEDFrame(getFilePath());
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("DTED frame file [ "
-                        + getFilePath()
-                        + " ] loaded in [ "
-                        + (System.currentTimeMillis() - startTime)
-                        + " ] ms.");
-            }
+        if (intersection != null) {
             
-            // Reset the time
-            startTime = System.currentTimeMillis();
-            
-            // Generate the bounding box that contains the entire target
-            // frame
-            BoundingBox frameBounds = new BoundingBox.BoundingBoxBuilder()
-                        .lowerLeftLat(frame.getOMGrid().getLatitude())
-                        .lowerLeftLon(frame.getOMGrid().getLongitude())
-                        .upperRightLat(frame.getOMGrid().getLatitude()+1.0)
-                        .upperRightLon(frame.getOMGrid().getLongitude()+1.0)
-                    .build();
+            int[] cols = metadata.getColumnRange(
+                    intersection.getLowerLeftLon(), 
+                    intersection.getUpperRightLon());
+            int[] rows = metadata.getRowRange(
+                    intersection.getLowerLeftLat(), 
+                    intersection.getUpperRightLat());
             
-            // Save the producer code
-            String producerCode = DEFAULT_PRODUCER;
-            if (frame.dsi != null) {
-                producerCode = frame.dsi.prod_code;
-                // Some of the producer codes are padded with spaces.
-                if (producerCode != null) {
-                    producerCode = producerCode.trim();
-                }
+            PostExtremes extremes = new PostExtremes();
+            if ((cols[0] <= cols[1]) && (rows[0] <= rows[1])) {
+                extremes = scan(
+                        loadFrame().getPosts(),
+                        metadata.getOriginLat(),
+                        metadata.getOriginLon(),
+                        metadata.getLatSpacing(),
+                        metadata.getLonSpacing(),
+                        cols,
+                        rows);
             }
             
-            // Get the intersection of the DTED frame with the user-defined 
-            // bounding box.
-            BoundingBox intersection = getIntersection(frameBounds, bbox);
+            LOGGER.info("Processed a total of [ "
+                    + extremes.postCounter
+                    + " ] elevation posts in [ "
+                    + (System.currentTimeMillis() - startTime)
+                    + " ] ms.");
             
-            if (intersection != null) {
-                
-                // Generate a Polygon for testing whether a point falls inside 
-                // the area of interest.
-                Polygon p = getPolygon(intersection);
-                
-                // Construct an object to test for point location.
-                // SimplePointInAreaLocator locator = 
-                //        new SimplePointInAreaLocator(p);
-                
-                // Collect the frame accuracy data
-                accuracy = new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
-                            .absHorzAccuracy(frame.acc.abs_horz_acc)
-                            .absVertAccuracy(frame.acc.abs_vert_acc)
-                            .relHorzAccuracy(frame.acc.rel_horz_acc)
-                            .relVertAccuracy(frame.acc.rel_vert_acc)
-                            .units(getUnits())
-                            .build();
+            result = toMinMaxElevation(
+                    extremes, 
+                    metadata.getAccuracy(getUnits()), 
+                    metadata.getProducerCode());
+        }
+        else {
+            LOGGER.warn("The input bounding box [ "
+                    + bbox.toString()
+                    + " ] does not overlap the DTED frame [ "
+                    + frameBounds.toString()
+                    + " ].  The returned MinMaxElevation object "
+                    + "will be null.");
+        }
+        return result;
+    }
+    
+    /**
+     * This method will determine the minimum and maximum elevation points 
+     * that fall within an arbitrary polygonal area (POLYGON or 
+     * MULTIPOLYGON, with or without holes).  Rectangular polygons are 
+     * delegated to the bounding box method.  Otherwise the area is 
+     * rasterized once into row spans over the post grid of the frame 
+     * (computed from the cached header data) and only the covered posts 
+     * are scanned.  The frame itself is only loaded if the area covers at 
+     * least one post.  Posts on the boundary of the area are included.
+     * 
+     * @param area client-defined area of interest.
+     * @return Data structure containing the miniumum and maximum elevation
+     * points.  Null if the area does not cover any posts in the frame.
+     * @throws IllegalStateException Thrown if there are any validation 
+     * problems with the any of the return data.  Callers should check the
+     * exception message for more information.
+     */
+    public MinMaxElevation getMinMaxElevation(Geometry area) {
+        
+        MinMaxElevation result = null;
+        
+        if ((area == null) || (area.isEmpty())) {
+            LOGGER.warn("The input area is null or empty.  The returned "
+                    + "MinMaxElevation object will be null.");
+            return result;
+        }
+        
+        Envelope    envelope = area.getEnvelopeInternal();
+        BoundingBox bounds   = new BoundingBox.BoundingBoxBuilder()
+                .lowerLeftLat(envelope.getMinY())
+                .lowerLeftLon(envelope.getMinX())
+                .upperRightLat(envelope.getMaxY())
+                .upperRightLon(envelope.getMaxX())
+                .build();
+        if ((area instanceof Polygon) && (area.isRectangle())) {
+            return getMinMaxElevation(bounds);
+        }
+        
+        FrameMetadata metadata     = getMetadata();
+        long          startTime    = System.currentTimeMillis();
+        BoundingBox   frameBounds  = getFrameBounds(metadata);
+        BoundingBox   intersection = getIntersection(frameBounds, bounds);
+        
+        if (intersection != null) {
+            
+            int[][] spans = PolygonRasterizer.rasterize(
+                    area,
+                    metadata.getOriginLat(),
+                    metadata.getOriginLon(),
+                    metadata.getLatSpacing(),
+                    metadata.getLonSpacing(),
+                    metadata.getNumLonLines(),
+                    metadata.getNumLatPoints());
+            
+            if (PolygonRasterizer.countPosts(spans) > 0) {
                 
-                // The lat/lon post spacing allows us to calculate the lat/lon 
-                // position of each elevation post.
-                // Test
-                double latPostSpacing = frame.getOMGrid().getVerticalResolution();
-                double lonPostSpacing = frame.getOMGrid().getHorizontalResolution();
+                PostExtremes extremes = scan(
+                        loadFrame().getPosts(),
+                        metadata.getOriginLat(),
+                        metadata.getOriginLon(),
+                        metadata.getLatSpacing(),
+                        metadata.getLonSpacing(),
+                        spans);
                 
-                // Retrieve the posts from the DEM frame as a 2D array of shorts
-                short[][] posts = frame.getElevations(
-                        (float)frameBounds.getUpperLeftLat(),
-                        (float)frameBounds.getUpperLeftLon(),
-                        (float)frameBounds.getLowerRightLat(),
-                        (float)frameBounds.getLowerRightLon());
-
-                // Reset the time
-                startTime = System.currentTimeMillis();
+                LOGGER.info("Processed a total of [ "
+                        + extremes.postCounter
+                        + " ] elevation posts in [ "
+                        + (System.currentTimeMillis() - startTime)
+                        + " ] ms.");
                 
-                if ((posts.length > 0) && (posts[0].length > 0)) {
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("Loaded [ " 
-                                + posts.length 
-                                + " ] rows and [ "
-                                + posts[0].length
-                                + " ] columns of elevation posts in [ "
-                                + (System.currentTimeMillis() - startTime)
-                                + " ] ms.");
-                    }
-                    
-                    // Process the posts.
-                    // Loop through the 2D array.
-                    for (int lon_index=0; lon_index < posts.length; lon_index++) {
-                        
-                        currentLon = (float)frameBounds.getLowerLeftLon() + 
-                                (lon_index * lonPostSpacing);
-                        
-                        // Loop through the columns
-                        for (int lat_index=0; lat_index < posts[lon_index].length; lat_index++) {
-                            
-                            currentLat = frameBounds.getLowerLeftLat() + 
-                                    (lat_index * latPostSpacing);
-                            postCounter++;
-                            
-                            // There are multiple mechanisms for testing whether 
-                            // a point falls within the area of interest.  If 
-                            // the point lies within the target bounding box, 
-                            // check the elevation.
-                            if (SimplePointInAreaLocator.containsPointInPolygon(
-                                    new Coordinate(currentLon, currentLat), p)) {
-                            // Using preconstructed SimplePointInAreaLocator object 
-                            // if (locator.locate(
-                            //        new Coordinate(currentLon, currentLat)) 
-                            //            != Location.EXTERIOR) {
-                                
-                                int elevation = getElevation(currentLat, currentLon, posts[lon_index][lat_index]);
-                                // Check to see if the elevation is lower than the current
-                                // max elevation.
-                                if ((elevation < (short)minElevation) && 
-                                        (elevation != INVALID_ELEVATION_VALUE)) {
-                                    
-                                    // Save the minimum elevation and associated point
-                                    minElevation    = elevation;
-                                    minElevationLat = currentLat;
-                                    minElevationLon = currentLon;
-                                    
-                                    if (LOGGER.isDebugEnabled()) {
-                                        LOGGER.debug("New min elevation [ "
-                                                + minElevation 
-                                                + " ] at lat/lon [ "
-                                                + minElevationLat
-                                                + " , "
-                                                + minElevationLon 
-                                                + " ].");
-                                    }
-                                }
-                                
-                                // Check to see if the elevation is higher than the current
-                                // max elevation.
-                                if ((elevation > (short)maxElevation) && 
-                                        (elevation != INVALID_ELEVATION_VALUE)) {
-                                    
-                                    // Save the max elevation and associated point
-                                    maxElevation    = elevation;
-                                    maxElevationLat = currentLat;
-                                    maxElevationLon = currentLon;
-                                    
-                                    if (LOGGER.isDebugEnabled()) {
-                                        LOGGER.debug("New max elevation [ "
-                                                + maxElevation 
-                                                + " ] at lat/lon [ "
-                                                + maxElevationLat
-                                                + " , "
-                                                + maxElevationLon 
-                                                + " ].");
-                                    }
-                                }
-                            } // End point included in BBOX
-                        } // End column loop
-                    } // End row loop
-                    
-                    LOGGER.info("Processed a total of [ "
-                            + postCounter
-                            + " ] elevation posts in [ "
-                            + (System.currentTimeMillis() - startTime)
-                            + " ] ms.");
-                    
-                    // Construct the return data structure.  This could result
-                    // in a IllegalStateException exception.
-                    result = new MinMaxElevation.MinMaxElevationBuilder()
-                            .maxElevation(
-                                    new ElevationDataPoint.ElevationDataPointBuilder()
-                                        .elevation(maxElevation)
-                                        .classificationMarking(getClassificationMarking())
-                                        .producerCode(producerCode)
-                                        .units(getUnits())
-                                        .earthModel(getEarthModel())
-                                        .source(getSourceType())
-                                        .withDEMFrameAccuracy(accuracy)
-                                        .withGeodeticCoordinate(
-                                                new GeodeticCoordinate.GeodeticCoordinateBuilder()
-                                                    .lat(maxElevationLat)
-                                                    .lon(maxElevationLon)
-                                                .build())
-                                        .build())
-                            .minElevation(
-                                    new ElevationDataPoint.ElevationDataPointBuilder()
-                                        .elevation(minElevation)
-                                        .classificationMarking(getClassificationMarking())
-                                        .producerCode(producerCode)
-                                        .units(getUnits())
-                                        .earthModel(getEarthModel())
-                                        .source(getSourceType())
-                                        .withDEMFrameAccuracy(accuracy)
-                                        .withGeodeticCoordinate(
-                                                new GeodeticCoordinate.GeodeticCoordinateBuilder()
-                                                    .lat(minElevationLat)
-                                                    .lon(minElevationLon)
-                                                .build())
-                                    .build())
-                            .build();
-                } // End post check
-                else {
-                    LOGGER.error("Unable to retrieve posts from the target DEM cell.  "
-                            + "The result object will be null.");
-                }
+                result = toMinMaxElevation(
+                        extremes, 
+                        metadata.getAccuracy(getUnits()), 
+                        metadata.getProducerCode());
             }
             else {
-                LOGGER.warn("The input bounding box [ "
-                        + bbox.toString()
-                        + " ] does not overlap the DTED frame [ "
+                LOGGER.warn("The input area does not cover any posts in the "
+                        + "DTED frame [ "
                         + frameBounds.toString()
                         + " ].  The returned MinMaxElevation object "
                         + "will be null.");
             }
         }
-        finally {
-            if (frame != null) {
-                frame.close(true);
-            }
+        else {
+            LOGGER.warn("The input area does not overlap the DTED frame [ "
+                    + frameBounds.toString()
+                    + " ].  The returned MinMaxElevation object "
+                    + "will be null.");
         }
         return result;
     }
     
+    /**
+     * Compute the summary statistics for the entire target frame.  The 
+     * summary holds the raw post values (i.e. meters referenced to EGM96) 
+     * regardless of the units and Earth model requested of this factory. 
+     * This method is intended for use by the offline summary generator.
+     * 
+     * @return The summary for the target frame.
+     * @throws IllegalStateException Thrown if the frame cannot be loaded.
+     * @throws IOException Thrown if the file attributes cannot be read.
+     */
+    public TerrainDataSummary getSummary() throws IOException {
+        
+        FrameMetadata   metadata = getMetadata();
+        CachedDTEDFrame frame    = loadFrame();
+        short[][]       posts    = frame.getPosts();
+        Path            path     = Paths.get(getFilePath());
+        
+        double originLat  = metadata.getOriginLat();
+        double originLon  = metadata.getOriginLon();
+        double latSpacing = metadata.getLatSpacing();
+        double lonSpacing = metadata.getLonSpacing();
+        
+        int  minElevation = MAX_ELEVATION;
+        int  maxElevation = INVALID_ELEVATION_VALUE;
+        int  minCol = -1, minRow = -1, maxCol = -1, maxRow = -1;
+        long postCount = 0;
+        long voidCount = 0;
+        long sum       = 0;
+        
+        // Posts are visited in the same (column-major) order as the scan 
+        // so that ties resolve to the same post location.
+        for (int col = 0; col < posts.length; col++) {
+            short[] column = posts[col];
+            postCount += column.length;
+            for (int row = 0; row < column.length; row++) {
+                int elevation = column[row];
+                if (elevation == INVALID_ELEVATION_VALUE) {
+                    voidCount++;
+                    continue;
+                }
+                sum += elevation;
+                if (elevation < minElevation) {
+                    minElevation = elevation;
+                    minCol = col;
+                    minRow = row;
+                }
+                if (elevation > maxElevation) {
+                    maxElevation = elevation;
+                    maxCol = col;
+                    maxRow = row;
+                }
+            }
+        }
+        
+        TerrainDataSummary summary = new TerrainDataSummary();
+        summary.setUnixPath(getFilePath());
+        summary.setFileSize(Files.size(path));
+        summary.setLastModified(Files.getLastModifiedTime(path).toMillis());
+        summary.setMinElevation(minElevation);
+        summary.setMaxElevation(maxElevation);
+        if (minCol >= 0) {
+            summary.setMinElevationLat(originLat + (minRow * latSpacing));
+            summary.setMinElevationLon(originLon + (minCol * lonSpacing));
+        }
+        if (maxCol >= 0) {
+            summary.setMaxElevationLat(originLat + (maxRow * latSpacing));
+            summary.setMaxElevationLon(originLon + (maxCol * lonSpacing));
+        }
+        if (postCount > voidCount) {
+            summary.setMeanElevation((double)sum / (postCount - voidCount));
+        }
+        summary.setPostCount(postCount);
+        summary.setVoidCount(voidCount);
+        summary.setAbsHorzAccuracy(metadata.getAbsHorzAccuracy());
+        summary.setAbsVertAccuracy(metadata.getAbsVertAccuracy());
+        summary.setRelHorzAccuracy(metadata.getRelHorzAccuracy());
+        summary.setRelVertAccuracy(metadata.getRelVertAccuracy());
+        summary.setProducerCode(metadata.getProducerCode());
+        return summary;
+    }
+    
+    /**
+     * Determine whether the input summary was generated from the target 
+     * file as it currently exists on disk.
+     * 
+     * @param summary The precomputed summary.
+     * @return True if the summary matches the target file.
+     */
+    public boolean isCurrent(TerrainDataSummary summary) {
+        boolean current = false;
+        if ((summary != null) && (getFilePath().equals(summary.getUnixPath()))) {
+            try {
+                Path path = Paths.get(getFilePath());
+                current = (Files.size(path) == summary.getFileSize()) && 
+                        (Files.getLastModifiedTime(path).toMillis() == 
+                            summary.getLastModified());
+            }
+            catch (IOException ioe) {
+                LOGGER.warn("Unable to read the file attributes of [ "
+                        + getFilePath()
+                        + " ].  Error message => [ "
+                        + ioe.getMessage()
+                        + " ].");
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * This method will determine the minimum and maximum elevation points 
+     * for the entire target frame using the precomputed summary, avoiding 
+     * the need to load the frame.  Summaries hold raw post values, so they 
+     * can only be used when the output is referenced to the geoid.  If 
+     * the summary cannot be used (missing, stale, or a WGS84 output was 
+     * requested) the frame is scanned instead.
+     * 
+     * @param summary The precomputed summary (may be null).
+     * @return Data structure containing the miniumum and maximum elevation
+     * points.
+     * @throws IllegalStateException Thrown if there are any validation 
+     * problems with the any of the return data.  Callers should check the
+     * exception message for more information.
+     */
+    public MinMaxElevation getMinMaxElevation(TerrainDataSummary summary) {
+        
+        if ((getEarthModel() != EarthModelType.EGM96) || (!isCurrent(summary))) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Summary not usable for DEM frame file [ "
+                        + getFilePath()
+                        + " ].  Scanning the frame.");
+            }
+            return getMinMaxElevation();
+        }
+        
+        PostExtremes extremes    = new PostExtremes();
+        extremes.minElevation    = summary.getMinElevation();
+        extremes.minElevationLat = summary.getMinElevationLat();
+        extremes.minElevationLon = summary.getMinElevationLon();
+        extremes.maxElevation    = summary.getMaxElevation();
+        extremes.maxElevationLat = summary.getMaxElevationLat();
+        extremes.maxElevationLon = summary.getMaxElevationLon();
+        extremes.postCounter     = summary.getPostCount();
+        
+        return toMinMaxElevation(
+                extremes, 
+                new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
+                    .absHorzAccuracy(summary.getAbsHorzAccuracy())
+                    .absVertAccuracy(summary.getAbsVertAccuracy())
+                    .relHorzAccuracy(summary.getRelHorzAccuracy())
+                    .relVertAccuracy(summary.getRelVertAccuracy())
+                    .units(getUnits())
+                    .build(), 
+                summary.getProducerCode());
+    }
+    
     /**
      * Getter method for the path to the target DEM file.
      * @return The path to the target DEM file.
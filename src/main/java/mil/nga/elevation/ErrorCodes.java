@@ -13,6 +13,11 @@ public enum ErrorCodes {
     INVALID_INPUT_COORDINATES(-1025, "Invalid input coordinates."),
     INVALID_NUMBER_OF_INPUT_COORDINATES(-1030, "Input coordinates must be coordinate pairs (odd number of points)"),
     NO_SOURCE_AVAILABLE(-1035, "Unable to find any DEM sources for the requested coordinate."),
+    SERVER_BUSY(-1040, "Server is busy.  Request rejected, retry later."),
+    REQUEST_TIMEOUT(-1045, "Request did not complete within the allowed time."),
+    PROFILE_TOO_MANY_SAMPLES(-1050, "Requested profile exceeds the maximum number of samples.  Increase the sample interval."),
+    INVALID_INTERPOLATION(-1055, "Invalid interpolation method.  Application supports NEAREST, BILINEAR, BICUBIC."),
+    TOO_MANY_POINTS(-1060, "Request exceeds the maximum number of points.  Split the request."),
     INTERNAL_EXCEPTION(-1100, "Unexpected internal exception.  See logs for more information.");
     
     // Internal member objects holding the error code and message
@@ -0,0 +1,583 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.openmap.dataAccess.dted.DTEDFrameUtil;
+
+import mil.nga.elevation.metrics.ElevationMetrics;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Lightweight DTED reader that memory-maps the target file rather than
+ * decoding it.  DTED stores elevation posts as fixed-length longitude
+ * column records following the UHL, DSI and ACC headers, so the byte
+ * offset of any individual post can be computed directly from the header
+ * data.  A point lookup in a cold frame therefore only touches the pages
+ * holding the headers and the two columns used by the bilinear
+ * interpolation rather than the entire file (~25 MB for DTED2).
+ *
+ * The interpolation logic mirrors the (forked) openmap
+ * <code>DTEDFrame.biLinearInterpElevationAt()</code> method exactly so the
+ * results are identical regardless of which reader is used.
+ *
+ * Only absolute reads are performed against the mapped buffer so a single
+ * instance may be safely shared between threads.  The mapping remains
+ * valid after the underlying file channel has been closed and is released
+ * when the object is garbage collected.
+ *
+ * @author L. Craig Carpenter
+ */
+public class MappedDTEDFrame implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(MappedDTEDFrame.class);
+
+    /**
+     * Header record sizes and offsets defined in MIL-PRF-89020B.
+     */
+    public static final int UHL_OFFSET       = 0;
+    public static final int DSI_OFFSET       = 80;
+    public static final int ACC_OFFSET       = 728;
+    public static final int DATA_OFFSET      = 3428;
+
+    /**
+     * Each data record consists of an 8-byte header (sentinel, block count,
+     * longitude count, latitude count), the elevation posts, and a 4-byte
+     * checksum.
+     */
+    public static final int RECORD_HEADER_LENGTH   = 8;
+    public static final int RECORD_CHECKSUM_LENGTH = 4;
+
+    /**
+     * The sentinel byte at the start of every data record.
+     */
+    public static final int DATA_SENTINEL = 0xAA;
+
+    /**
+     * Post intervals are stored in tenths of arc seconds.
+     */
+    private static final float TENTHS_OF_SECONDS_PER_DEGREE = 36000.0f;
+
+    private final String              filePath;
+    private final MappedByteBuffer    buffer;
+    private final boolean             verifyChecksums;
+    private final TerrainDataFileType source;
+
+    // Header data
+    private final int    numLonLines;
+    private final int    numLatPoints;
+    private final int    lonPostInterval;
+    private final int    latPostInterval;
+    private final float  swLat;
+    private final float  swLon;
+    private final float  neLat;
+    private final float  neLon;
+    private final String producerCode;
+    private final int    absHorzAccuracy;
+    private final int    absVertAccuracy;
+    private final int    relHorzAccuracy;
+    private final int    relVertAccuracy;
+    private final int    recordLength;
+
+    /**
+     * Columns that have already passed checksum validation.  Races on
+     * this array are benign as validation is idempotent.
+     */
+    private final boolean[] verified;
+
+    /**
+     * Constructor that maps the target file and validates checksums of
+     * the columns that are read.
+     *
+     * @param filePath Path to the target DTED file.
+     * @throws IOException Thrown if the file cannot be mapped or if the
+     * header data is not valid.
+     */
+    public MappedDTEDFrame(String filePath) throws IOException {
+        this(filePath, true);
+    }
+
+    /**
+     * Constructor that maps the target file and parses the header records.
+     * No elevation data is read until requested.
+     *
+     * @param filePath Path to the target DTED file.
+     * @param verifyChecksums True if the checksum of each data record
+     * should be validated the first time the record is read.
+     * @throws IOException Thrown if the file cannot be mapped or if the
+     * header data is not valid.
+     */
+    public MappedDTEDFrame(String filePath, boolean verifyChecksums)
+            throws IOException {
+        this(filePath, verifyChecksums, null);
+    }
+
+    /**
+     * Constructor that maps the target file and parses the header records.
+     * No elevation data is read until requested.  Each data record read
+     * in full for checksum validation is recorded against the
+     * <code>elevation.frame.bytes.read</code> metric.
+     *
+     * @param filePath Path to the target DTED file.
+     * @param verifyChecksums True if the checksum of each data record
+     * should be validated the first time the record is read.
+     * @param source The source DEM type of the file (may be null).  Used
+     * to tag the bytes read metric.
+     * @throws IOException Thrown if the file cannot be mapped or if the
+     * header data is not valid.
+     */
+    public MappedDTEDFrame(
+            String              filePath, 
+            boolean             verifyChecksums,
+            TerrainDataFileType source) throws IOException {
+
+        if ((filePath == null) || (filePath.isEmpty())) {
+            throw new IOException("Input file path is null or empty.");
+        }
+        this.filePath        = filePath;
+        this.verifyChecksums = verifyChecksums;
+        this.source          = source;
+
+        try (FileChannel channel = FileChannel.open(
+                Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < DATA_OFFSET) {
+                throw new IOException("DTED file [ "
+                        + filePath
+                        + " ] is too small to contain the required "
+                        + "header records.  File size => [ "
+                        + size
+                        + " ].");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        // User Header Label
+        if (!"UHL".equals(readString(UHL_OFFSET, 3))) {
+            throw new IOException("DTED file [ "
+                    + filePath
+                    + " ] does not contain a valid UHL record.");
+        }
+        lonPostInterval = readInt(UHL_OFFSET + 20, 4, 0);
+        latPostInterval = readInt(UHL_OFFSET + 24, 4, 0);
+        numLonLines     = readInt(UHL_OFFSET + 47, 4, 0);
+        numLatPoints    = readInt(UHL_OFFSET + 51, 4, 0);
+
+        if ((lonPostInterval <= 0) || (latPostInterval <= 0) ||
+                (numLonLines < 2) || (numLatPoints < 2)) {
+            throw new IOException("DTED file [ "
+                    + filePath
+                    + " ] contains invalid UHL data.  Lon interval => [ "
+                    + lonPostInterval
+                    + " ], lat interval => [ "
+                    + latPostInterval
+                    + " ], lon lines => [ "
+                    + numLonLines
+                    + " ], lat points => [ "
+                    + numLatPoints
+                    + " ].");
+        }
+
+        recordLength = RECORD_HEADER_LENGTH
+                + (2 * numLatPoints)
+                + RECORD_CHECKSUM_LENGTH;
+        long expected = (long)DATA_OFFSET + ((long)numLonLines * recordLength);
+        if (buffer.capacity() < expected) {
+            throw new IOException("DTED file [ "
+                    + filePath
+                    + " ] is truncated.  Expected at least [ "
+                    + expected
+                    + " ] bytes, found [ "
+                    + buffer.capacity()
+                    + " ].");
+        }
+
+        // Data Set Identification
+        producerCode = readString(DSI_OFFSET + 102, 8);
+        swLat        = DTEDFrameUtil.stringToLat(readString(DSI_OFFSET + 204, 7));
+        swLon        = DTEDFrameUtil.stringToLon(readString(DSI_OFFSET + 211, 8));
+        neLat        = DTEDFrameUtil.stringToLat(readString(DSI_OFFSET + 234, 7));
+        neLon        = DTEDFrameUtil.stringToLon(readString(DSI_OFFSET + 241, 8));
+
+        // Accuracy Description
+        absHorzAccuracy = readAccuracy(ACC_OFFSET + 3);
+        absVertAccuracy = readAccuracy(ACC_OFFSET + 7);
+        relHorzAccuracy = readAccuracy(ACC_OFFSET + 11);
+        relVertAccuracy = readAccuracy(ACC_OFFSET + 15);
+
+        verified = new boolean[numLonLines];
+    }
+
+    /**
+     * Calculate the elevation at the input lat/lon using bilinear
+     * interpolation of the four surrounding posts.  This method is a
+     * port of the forked openmap
+     * <code>DTEDFrame.biLinearInterpElevationAt()</code> method, but only
+     * decodes the posts that are actually required.
+     *
+     * @param lat The target latitude in decimal degrees.
+     * @param lon The target longitude in decimal degrees.
+     * @return The interpolated elevation, or
+     * <code>INVALID_ELEVATION_VALUE</code> if the point does not fall
+     * within the frame.
+     * @throws IOException Thrown if the checksum of a required data record
+     * does not match.
+     */
+    public int biLinearInterpElevationAt(float lat, float lon)
+            throws IOException {
+
+        if ((lat >= swLat) && (lat <= neLat) &&
+                (lon >= swLon) && (lon <= neLon)) {
+
+            float latIndex = (lat - swLat) *
+                    TENTHS_OF_SECONDS_PER_DEGREE / (float)latPostInterval;
+            float lonIndex = (lon - swLon) *
+                    TENTHS_OF_SECONDS_PER_DEGREE / (float)lonPostInterval;
+
+            int x1 = (int)Math.floor(lonIndex);
+            int x2 = (int)Math.ceil(lonIndex);
+            int y1 = (int)Math.floor(latIndex);
+            int y2 = (int)Math.ceil(latIndex);
+
+            int upperLeft  = getPost(x1, y2);
+            int upperRight = getPost(x2, y2);
+            int lowerLeft  = getPost(x1, y1);
+            int lowerRight = getPost(x2, y1);
+
+            float r1, r2, p;
+            if ((((float)x2 - lonIndex) == 0) &&
+                    ((lonIndex - (float)x1) == 0)) {
+                r1 = lowerLeft;
+                r2 = upperLeft;
+            }
+            else {
+                r1 = ((float)x2 - lonIndex) * lowerLeft +
+                        (lonIndex - (float)x1) * lowerRight;
+                r2 = ((float)x2 - lonIndex) * upperLeft +
+                        (lonIndex - (float)x1) * upperRight;
+            }
+            if ((((float)y2 - latIndex) == 0) &&
+                    ((latIndex - (float)y1) == 0)) {
+                p = (r1 + r2) / 2;
+            }
+            else {
+                p = ((float)y2 - latIndex) * r1 +
+                        (latIndex - (float)y1) * r2;
+            }
+            return Math.round(p);
+        }
+        return INVALID_ELEVATION_VALUE;
+    }
+
+    /**
+     * Retrieve a single elevation post.
+     *
+     * @param column The longitude column index (0 is the western edge).
+     * @param row The latitude row index (0 is the southern edge).
+     * @return The elevation post value.
+     * @throws IOException Thrown if the checksum of the data record does
+     * not match.
+     */
+    public int getPost(int column, int row) throws IOException {
+        if ((column < 0) || (column >= numLonLines) ||
+                (row < 0) || (row >= numLatPoints)) {
+            throw new IndexOutOfBoundsException("Post [ "
+                    + column
+                    + ", "
+                    + row
+                    + " ] is outside of frame [ "
+                    + filePath
+                    + " ].");
+        }
+        int offset = getRecordOffset(column);
+        verify(column, offset);
+        return decode(buffer.getShort(offset + RECORD_HEADER_LENGTH + (2 * row)));
+    }
+
+    /**
+     * Decode an entire longitude column.
+     *
+     * @param column The longitude column index (0 is the western edge).
+     * @return Array containing the elevation posts ordered south to north.
+     * @throws IOException Thrown if the checksum of the data record does
+     * not match.
+     */
+    public short[] getColumn(int column) throws IOException {
+        if ((column < 0) || (column >= numLonLines)) {
+            throw new IndexOutOfBoundsException("Column [ "
+                    + column
+                    + " ] is outside of frame [ "
+                    + filePath
+                    + " ].");
+        }
+        int offset = getRecordOffset(column);
+        verify(column, offset);
+        short[] posts = new short[numLatPoints];
+        int     start = offset + RECORD_HEADER_LENGTH;
+        for (int i=0; i<numLatPoints; i++) {
+            posts[i] = (short)decode(buffer.getShort(start + (2 * i)));
+        }
+        return posts;
+    }
+
+    /**
+     * DTED posts are stored as signed-magnitude (not two's complement)
+     * big-endian shorts.
+     *
+     * @param raw The raw 16 bits read from the file.
+     * @return The decoded elevation value.
+     */
+    public static int decode(short raw) {
+        int value = raw & 0xFFFF;
+        if ((value & 0x8000) != 0) {
+            return -(value & 0x7FFF);
+        }
+        return value;
+    }
+
+    /**
+     * Calculate the byte offset of the start of the data record for the
+     * input column.
+     *
+     * @param column The longitude column index.
+     * @return The byte offset of the data record.
+     */
+    private int getRecordOffset(int column) {
+        return DATA_OFFSET + (column * recordLength);
+    }
+
+    /**
+     * Validate the data record sentinel and checksum.  The checksum is the
+     * sum of all of the (unsigned) bytes in the record preceding the
+     * checksum itself.
+     *
+     * @param column The longitude column index.
+     * @param offset The byte offset of the data record.
+     * @throws IOException Thrown if the record is not valid.
+     */
+    private void verify(int column, int offset) throws IOException {
+        if (verifyChecksums && !verified[column]) {
+            if ((buffer.get(offset) & 0xFF) != DATA_SENTINEL) {
+                throw new IOException("Invalid data record sentinel for "
+                        + "column [ "
+                        + column
+                        + " ] in DTED file [ "
+                        + filePath
+                        + " ].");
+            }
+            int end      = offset + recordLength - RECORD_CHECKSUM_LENGTH;
+            int checksum = 0;
+            for (int i=offset; i<end; i++) {
+                checksum += buffer.get(i) & 0xFF;
+            }
+            int stored = buffer.getInt(end);
+            if (checksum != stored) {
+                LOGGER.error("Checksum mismatch for column [ {} ] in DTED "
+                        + "file [ {} ].  Calculated => [ {} ], stored => "
+                        + "[ {} ].", column, filePath, checksum, stored);
+                throw new IOException("Checksum mismatch for column [ "
+                        + column
+                        + " ] in DTED file [ "
+                        + filePath
+                        + " ].");
+            }
+            verified[column] = true;
+            ElevationMetrics.recordFrameBytesRead(
+                    source, ElevationMetrics.READER_MAPPED, recordLength);
+        }
+    }
+
+    /**
+     * Read a fixed-length ASCII string from the mapped buffer.
+     *
+     * @param offset The byte offset of the start of the string.
+     * @param length The number of bytes to read.
+     * @return The string.
+     */
+    private String readString(int offset, int length) {
+        char[] chars = new char[length];
+        for (int i=0; i<length; i++) {
+            chars[i] = (char)(buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Read a fixed-length ASCII integer from the mapped buffer.
+     *
+     * @param offset The byte offset of the start of the field.
+     * @param length The number of bytes to read.
+     * @param defaultValue Value to return if the field cannot be parsed.
+     * @return The integer value.
+     */
+    private int readInt(int offset, int length, int defaultValue) {
+        try {
+            return Integer.parseInt(readString(offset, length), 10);
+        }
+        catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read one of the 4-byte accuracy fields.  Consistent with openmap,
+     * fields containing "NA" or "N/A" are set to -1 and fields that cannot
+     * be parsed are set to 0.
+     *
+     * @param offset The byte offset of the accuracy field.
+     * @return The accuracy value.
+     */
+    private int readAccuracy(int offset) {
+        String value = readString(offset, 4);
+        if ((value.indexOf("NA") != -1) || (value.indexOf("N/A") != -1)) {
+            return -1;
+        }
+        return readInt(offset, 4, 0);
+    }
+
+    /**
+     * Getter method for the path to the mapped file.
+     * @return The path to the mapped file.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Getter method for the number of longitude lines (columns).
+     * @return The number of longitude lines.
+     */
+    public int getNumLonLines() {
+        return numLonLines;
+    }
+
+    /**
+     * Getter method for the number of latitude points in each column.
+     * @return The number of latitude points.
+     */
+    public int getNumLatPoints() {
+        return numLatPoints;
+    }
+
+    /**
+     * Getter method for the longitude post interval.
+     * @return The longitude post interval in tenths of arc seconds.
+     */
+    public int getLonPostInterval() {
+        return lonPostInterval;
+    }
+
+    /**
+     * Getter method for the latitude post interval.
+     * @return The latitude post interval in tenths of arc seconds.
+     */
+    public int getLatPostInterval() {
+        return latPostInterval;
+    }
+
+    /**
+     * Getter method for the latitude of the southwest corner.
+     * @return The southwest corner latitude.
+     */
+    public float getSWLat() {
+        return swLat;
+    }
+
+    /**
+     * Getter method for the longitude of the southwest corner.
+     * @return The southwest corner longitude.
+     */
+    public float getSWLon() {
+        return swLon;
+    }
+
+    /**
+     * Getter method for the latitude of the northeast corner.
+     * @return The northeast corner latitude.
+     */
+    public float getNELat() {
+        return neLat;
+    }
+
+    /**
+     * Getter method for the longitude of the northeast corner.
+     * @return The northeast corner longitude.
+     */
+    public float getNELon() {
+        return neLon;
+    }
+
+    /**
+     * Getter method for the producer code.  Some of the producer codes
+     * are padded with spaces, so the value is trimmed.
+     * @return The producer code.
+     */
+    public String getProducerCode() {
+        return producerCode.trim();
+    }
+
+    /**
+     * Getter method for the absolute horizontal accuracy.
+     * @return The absolute horizontal accuracy.
+     */
+    public int getAbsHorzAccuracy() {
+        return absHorzAccuracy;
+    }
+
+    /**
+     * Getter method for the absolute vertical accuracy.
+     * @return The absolute vertical accuracy.
+     */
+    public int getAbsVertAccuracy() {
+        return absVertAccuracy;
+    }
+
+    /**
+     * Getter method for the relative horizontal accuracy.
+     * @return The relative horizontal accuracy.
+     */
+    public int getRelHorzAccuracy() {
+        return relHorzAccuracy;
+    }
+
+    /**
+     * Getter method for the relative vertical accuracy.
+     * @return The relative vertical accuracy.
+     */
+    public int getRelVertAccuracy() {
+        return relVertAccuracy;
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("MappedDTEDFrame : file => [ ");
+        sb.append(filePath);
+        sb.append(" ], SW => [ ");
+        sb.append(swLat);
+        sb.append(", ");
+        sb.append(swLon);
+        sb.append(" ], NE => [ ");
+        sb.append(neLat);
+        sb.append(", ");
+        sb.append(neLon);
+        sb.append(" ], posts => [ ");
+        sb.append(numLonLines);
+        sb.append(" x ");
+        sb.append(numLatPoints);
+        sb.append(" ].");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,318 @@
+package mil.nga.elevation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Class containing static methods used to rasterize a polygonal area of
+ * interest onto the post grid of a DEM frame.  The output is, for each
+ * post column, the list of inclusive row spans whose posts fall inside
+ * the area.  The min/max scan can then visit only the covered posts.
+ *
+ * The rasterization is a classic edge-table scanline.  Each post column
+ * (meridian) is treated as a scanline; every ring edge is walked only
+ * across the columns it spans, recording the latitude at which it
+ * crosses each column.  The sorted crossings of a column are paired
+ * using the even-odd rule, which handles interior rings (holes).  The
+ * polygons of a MULTIPOLYGON are rasterized independently and their spans
+ * merged, so overlapping parts are not cancelled out.  Posts lying on the
+ * boundary are included, matching the bounding box behavior.  The cost
+ * is proportional to the number of edge/column crossings rather than the
+ * area of the envelope.
+ *
+ * @author L. Craig Carpenter
+ */
+public final class PolygonRasterizer {
+
+    /**
+     * Initial capacity of the per-column crossing and span buffers.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Hide the constructor.
+     */
+    private PolygonRasterizer() { }
+
+    /**
+     * Rasterize the input geometry onto a post grid.  Polygons and
+     * collections of polygons (including MULTIPOLYGON) are supported.
+     * Non-areal components cover no posts and are ignored.
+     *
+     * @param area The area of interest.
+     * @param originLat The latitude of row 0.
+     * @param originLon The longitude of column 0.
+     * @param latSpacing The latitude spacing between posts.
+     * @param lonSpacing The longitude spacing between posts.
+     * @param numColumns The number of post columns.
+     * @param numRows The number of post rows.
+     * @return Array indexed by column.  Each entry holds sorted, disjoint
+     * inclusive first/last row pairs, or null if no posts in the column
+     * are covered.
+     */
+    public static int[][] rasterize(
+            Geometry area,
+            double   originLat,
+            double   originLon,
+            double   latSpacing,
+            double   lonSpacing,
+            int      numColumns,
+            int      numRows) {
+        List<Coordinate[][]> polygons = new ArrayList<Coordinate[][]>();
+        addPolygons(area, polygons);
+        return rasterize(polygons, originLat, originLon,
+                latSpacing, lonSpacing, numColumns, numRows);
+    }
+
+    /**
+     * Rasterize a list of polygons onto a post grid.  Each polygon is
+     * supplied as an array of rings, the exterior ring first followed by
+     * any interior rings.  Rings may be open or closed.
+     *
+     * @param polygons The polygon rings.
+     * @param originLat The latitude of row 0.
+     * @param originLon The longitude of column 0.
+     * @param latSpacing The latitude spacing between posts.
+     * @param lonSpacing The longitude spacing between posts.
+     * @param numColumns The number of post columns.
+     * @param numRows The number of post rows.
+     * @return Array indexed by column.  Each entry holds sorted, disjoint
+     * inclusive first/last row pairs, or null if no posts in the column
+     * are covered.
+     */
+    public static int[][] rasterize(
+            List<Coordinate[][]> polygons,
+            double               originLat,
+            double               originLon,
+            double               latSpacing,
+            double               lonSpacing,
+            int                  numColumns,
+            int                  numRows) {
+
+        // Spans are packed into longs (first << 32 | last) so that they
+        // can be sorted by first row with a primitive sort.
+        long[][]   spans          = new long[numColumns][];
+        int[]      spanCounts     = new int[numColumns];
+        double[][] crossings      = new double[numColumns][];
+        int[]      crossingCounts = new int[numColumns];
+
+        for (Coordinate[][] rings : polygons) {
+
+            int firstColumn = numColumns;
+            int lastColumn  = -1;
+
+            for (Coordinate[] ring : rings) {
+                if ((ring == null) || (ring.length == 0)) {
+                    continue;
+                }
+                for (int i=0; i<ring.length; i++) {
+                    Coordinate a = ring[i];
+                    Coordinate b = ring[(i + 1) % ring.length];
+
+                    // Vertices and vertical edges lying exactly on a
+                    // column are boundary posts.  The half-open crossing
+                    // rule below would otherwise drop some of them.
+                    int column = getColumn(originLon, lonSpacing, a.x, numColumns);
+                    if (column >= 0) {
+                        double maxY = (b.x == a.x) ? Math.max(a.y, b.y) : a.y;
+                        double minY = (b.x == a.x) ? Math.min(a.y, b.y) : a.y;
+                        addSpan(spans, spanCounts, column,
+                                ElevationExtremesFactory.getIndexRange(
+                                        originLat, latSpacing, minY, maxY, numRows));
+                    }
+                    if (a.x == b.x) {
+                        continue;
+                    }
+
+                    // Each edge is counted for columns in [minX, maxX) so
+                    // that a vertex shared by two edges is counted once.
+                    double minX = Math.min(a.x, b.x);
+                    double maxX = Math.max(a.x, b.x);
+                    int[]  cols = ElevationExtremesFactory.getIndexRange(
+                            originLon, lonSpacing, minX, maxX, numColumns);
+                    if ((cols[1] >= cols[0]) &&
+                            ((originLon + (cols[1] * lonSpacing)) == maxX)) {
+                        cols[1]--;
+                    }
+                    if (cols[0] > cols[1]) {
+                        continue;
+                    }
+                    double slope = (b.y - a.y) / (b.x - a.x);
+                    for (int col = cols[0]; col <= cols[1]; col++) {
+                        double lon = originLon + (col * lonSpacing);
+                        addCrossing(crossings, crossingCounts, col,
+                                a.y + ((lon - a.x) * slope));
+                    }
+                    firstColumn = Math.min(firstColumn, cols[0]);
+                    lastColumn  = Math.max(lastColumn, cols[1]);
+                }
+            }
+
+            // Pair up the crossings of each column using the even-odd rule.
+            for (int col = firstColumn; col <= lastColumn; col++) {
+                int count = crossingCounts[col];
+                if (count > 0) {
+                    double[] lats = crossings[col];
+                    Arrays.sort(lats, 0, count);
+                    for (int k = 0; (k + 1) < count; k += 2) {
+                        addSpan(spans, spanCounts, col,
+                                ElevationExtremesFactory.getIndexRange(
+                                        originLat, latSpacing,
+                                        lats[k], lats[k + 1], numRows));
+                    }
+                    crossingCounts[col] = 0;
+                }
+            }
+        }
+
+        int[][] result = new int[numColumns][];
+        for (int col = 0; col < numColumns; col++) {
+            if (spanCounts[col] > 0) {
+                result[col] = merge(spans[col], spanCounts[col]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Count the posts covered by the output of the rasterizer.
+     *
+     * @param spans The row spans indexed by column.
+     * @return The number of covered posts.
+     */
+    public static long countPosts(int[][] spans) {
+        long count = 0;
+        for (int[] column : spans) {
+            if (column != null) {
+                for (int k = 0; k < column.length; k += 2) {
+                    count += column[k + 1] - column[k] + 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Extract the rings of every polygon contained in the input geometry.
+     *
+     * @param geometry The input geometry.
+     * @param polygons Output list of rings (exterior first) per polygon.
+     */
+    private static void addPolygons(
+            Geometry             geometry,
+            List<Coordinate[][]> polygons) {
+        if ((geometry == null) || (geometry.isEmpty())) {
+            return;
+        }
+        if (geometry instanceof Polygon) {
+            Polygon        polygon = (Polygon)geometry;
+            Coordinate[][] rings   =
+                    new Coordinate[polygon.getNumInteriorRing() + 1][];
+            rings[0] = polygon.getExteriorRing().getCoordinates();
+            for (int i=0; i<polygon.getNumInteriorRing(); i++) {
+                rings[i + 1] = polygon.getInteriorRingN(i).getCoordinates();
+            }
+            polygons.add(rings);
+        }
+        else if (geometry instanceof GeometryCollection) {
+            for (int i=0; i<geometry.getNumGeometries(); i++) {
+                addPolygons(geometry.getGeometryN(i), polygons);
+            }
+        }
+    }
+
+    /**
+     * Determine the column lying exactly on the input longitude.
+     *
+     * @param originLon The longitude of column 0.
+     * @param lonSpacing The longitude spacing between posts.
+     * @param lon The target longitude.
+     * @param numColumns The number of post columns.
+     * @return The column index, or -1 if no column lies on the longitude.
+     */
+    private static int getColumn(
+            double originLon,
+            double lonSpacing,
+            double lon,
+            int    numColumns) {
+        int[] cols = ElevationExtremesFactory.getIndexRange(
+                originLon, lonSpacing, lon, lon, numColumns);
+        return (cols[0] == cols[1]) ? cols[0] : -1;
+    }
+
+    /**
+     * Append a latitude crossing to the buffer for a column.
+     */
+    private static void addCrossing(
+            double[][] crossings,
+            int[]      counts,
+            int        col,
+            double     lat) {
+        double[] buffer = crossings[col];
+        if (buffer == null) {
+            buffer = new double[INITIAL_CAPACITY];
+            crossings[col] = buffer;
+        }
+        else if (counts[col] == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            crossings[col] = buffer;
+        }
+        buffer[counts[col]++] = lat;
+    }
+
+    /**
+     * Append a row span to the buffer for a column.  Empty ranges are
+     * ignored.
+     */
+    private static void addSpan(
+            long[][] spans,
+            int[]    counts,
+            int      col,
+            int[]    rows) {
+        if (rows[0] > rows[1]) {
+            return;
+        }
+        long[] buffer = spans[col];
+        if (buffer == null) {
+            buffer = new long[INITIAL_CAPACITY];
+            spans[col] = buffer;
+        }
+        else if (counts[col] == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            spans[col] = buffer;
+        }
+        buffer[counts[col]++] = ((long)rows[0] << 32) | rows[1];
+    }
+
+    /**
+     * Sort the spans of a column and merge any that overlap or abut so
+     * that no post is visited twice.
+     *
+     * @param packed The packed spans.
+     * @param count The number of spans.
+     * @return Flattened first/last row pairs.
+     */
+    private static int[] merge(long[] packed, int count) {
+        Arrays.sort(packed, 0, count);
+        int[] merged = new int[count * 2];
+        int   size   = 0;
+        for (int i=0; i<count; i++) {
+            int first = (int)(packed[i] >>> 32);
+            int last  = (int)packed[i];
+            if ((size > 0) && (first <= (merged[size - 1] + 1))) {
+                merged[size - 1] = Math.max(merged[size - 1], last);
+            }
+            else {
+                merged[size++] = first;
+                merged[size++] = last;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+}
@@ -0,0 +1,264 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+
+import mil.nga.elevation_services.model.InterpolationType;
+
+/**
+ * Native interpolation of DTED elevation posts supporting nearest post,
+ * bilinear and bicubic (Catmull-Rom, i.e. Keys with a = -0.5) methods.
+ *
+ * For each point the posts contributing to the result are gathered into
+ * a flat 4x4 window (row stride of 4) along with the separable kernel
+ * weights, and the weighted sum is evaluated over the whole window.
+ * Taps that do not contribute carry a weight of zero, so the evaluation
+ * loops have no data-dependent branches.  Posts may be gathered either
+ * from a flat column-major post array with a precomputed column stride
+ * or through a <code>PostAccessor</code> (cached frame, mapped frame or
+ * <code>SeamInterpolator</code>).
+ *
+ * The bilinear method performs the same float arithmetic as
+ * <code>MappedDTEDFrame.biLinearInterpElevationAt()</code> (and the forked
+ * openmap method it was ported from) so results are unchanged for posts
+ * without voids.
+ *
+ * Voids (<code>INVALID_ELEVATION_VALUE</code>) are handled explicitly.
+ * The nearest method returns the void.  The bilinear method renormalises
+ * the weights over the remaining valid posts and returns a void only if
+ * all contributing posts are void.  The bicubic method falls back on the
+ * bilinear method if any contributing post is void, as renormalising the
+ * (partly negative) cubic weights is not stable.
+ *
+ * Instances hold scratch arrays and are therefore not thread safe.
+ * Create one per batch (they are cheap).
+ *
+ * @author L. Craig Carpenter
+ */
+public class PostInterpolator implements Constants {
+
+    /**
+     * Callback used to read posts from the underlying frame.
+     */
+    public interface PostAccessor {
+
+        /**
+         * Retrieve a single elevation post.  Implementations decide how
+         * to handle indices outside of the frame (e.g. clamping to the
+         * edge or reading the adjacent frame).
+         *
+         * @param column The longitude column index.
+         * @param row The latitude row index.
+         * @return The elevation post value.
+         * @throws IOException Thrown if the post cannot be read.
+         */
+        int getPost(int column, int row) throws IOException;
+    }
+
+    /**
+     * Number of taps in each direction of the window.
+     */
+    private static final int TAPS = 4;
+
+    /**
+     * Catmull-Rom (Keys) kernel parameter.
+     */
+    private static final float A = -0.5f;
+
+    private final InterpolationType type;
+
+    // Scratch space (window[row * TAPS + column])
+    private final int[]   window = new int[TAPS * TAPS];
+    private final float[] wx     = new float[TAPS];
+    private final float[] wy     = new float[TAPS];
+
+    /**
+     * Default constructor.
+     *
+     * @param type The interpolation method.  Null selects bilinear.
+     */
+    public PostInterpolator(InterpolationType type) {
+        this.type = (type == null) ? InterpolationType.BILINEAR : type;
+    }
+
+    /**
+     * Interpolate the elevation at fractional post indices, reading the
+     * posts through the input accessor.
+     *
+     * @param posts Accessor used to read the posts.
+     * @param colIndex The fractional longitude column index.
+     * @param rowIndex The fractional latitude row index.
+     * @return The interpolated elevation, or
+     * <code>INVALID_ELEVATION_VALUE</code> if the contributing posts are
+     * void.
+     * @throws IOException Thrown if a post cannot be read.
+     */
+    public int interpolate(PostAccessor posts, float colIndex, float rowIndex)
+            throws IOException {
+
+        if (type == InterpolationType.NEAREST) {
+            return posts.getPost(Math.round(colIndex), Math.round(rowIndex));
+        }
+        int x1 = (int)Math.floor(colIndex);
+        int y1 = (int)Math.floor(rowIndex);
+        setWeights(colIndex, x1, wx);
+        setWeights(rowIndex, y1, wy);
+        for (int j=0; j<TAPS; j++) {
+            for (int i=0; i<TAPS; i++) {
+                window[(j * TAPS) + i] = ((wx[i] != 0.0f) && (wy[j] != 0.0f)) ?
+                        posts.getPost(x1 - 1 + i, y1 - 1 + j) : 0;
+            }
+        }
+        return evaluate(colIndex, rowIndex, x1, y1);
+    }
+
+    /**
+     * Interpolate the elevation at fractional post indices from a flat
+     * array of decoded posts stored column-major (i.e. in DTED record
+     * order).  Indices outside of the array are clamped to the edge.
+     *
+     * @param posts The decoded posts.
+     * @param stride The number of posts in each column (the offset
+     * between adjacent columns).
+     * @param numColumns The number of columns.
+     * @param colIndex The fractional longitude column index.
+     * @param rowIndex The fractional latitude row index.
+     * @return The interpolated elevation, or
+     * <code>INVALID_ELEVATION_VALUE</code> if the contributing posts are
+     * void or the point lies outside of the array.
+     */
+    public int interpolate(
+            short[] posts,
+            int     stride,
+            int     numColumns,
+            float   colIndex,
+            float   rowIndex) {
+
+        int maxColumn = numColumns - 1;
+        int maxRow    = stride - 1;
+        if ((colIndex < 0) || (rowIndex < 0) ||
+                (colIndex > maxColumn) || (rowIndex > maxRow)) {
+            return INVALID_ELEVATION_VALUE;
+        }
+        if (type == InterpolationType.NEAREST) {
+            return posts[(Math.round(colIndex) * stride) + Math.round(rowIndex)];
+        }
+        int x1 = (int)Math.floor(colIndex);
+        int y1 = (int)Math.floor(rowIndex);
+        setWeights(colIndex, x1, wx);
+        setWeights(rowIndex, y1, wy);
+        for (int i=0; i<TAPS; i++) {
+            int base = Math.max(0, Math.min(x1 - 1 + i, maxColumn)) * stride;
+            for (int j=0; j<TAPS; j++) {
+                window[(j * TAPS) + i] = posts[base +
+                        Math.max(0, Math.min(y1 - 1 + j, maxRow))];
+            }
+        }
+        return evaluate(colIndex, rowIndex, x1, y1);
+    }
+
+    /**
+     * Calculate the kernel weights of the four taps (index - 1 through
+     * index + 2) along one axis.  Taps that do not contribute are zero.
+     */
+    private void setWeights(float index, int i1, float[] weights) {
+        if (type == InterpolationType.BICUBIC) {
+            float t  = index - (float)i1;
+            float t2 = t * t;
+            float t3 = t2 * t;
+            weights[0] = A * (t3 - (2.0f * t2) + t);
+            weights[1] = ((A + 2.0f) * t3) - ((A + 3.0f) * t2) + 1.0f;
+            weights[2] = -((A + 2.0f) * t3) + (((2.0f * A) + 3.0f) * t2) - (A * t);
+            weights[3] = -A * (t3 - t2);
+        }
+        else {
+            setBilinearWeights(index, i1, weights);
+        }
+    }
+
+    /**
+     * Calculate the bilinear weights using the same expressions as the
+     * legacy implementation.
+     */
+    private static void setBilinearWeights(float index, int i1, float[] weights) {
+        int i2 = (int)Math.ceil(index);
+        weights[0] = 0.0f;
+        weights[3] = 0.0f;
+        if (i2 == i1) {
+            weights[1] = 1.0f;
+            weights[2] = 0.0f;
+        }
+        else {
+            weights[1] = (float)i2 - index;
+            weights[2] = index - (float)i1;
+        }
+    }
+
+    /**
+     * Evaluate the gathered window.
+     */
+    private int evaluate(float colIndex, float rowIndex, int x1, int y1) {
+
+        // Only voids carrying a non-zero weight matter.
+        int voids = 0;
+        for (int j=0; j<TAPS; j++) {
+            for (int i=0; i<TAPS; i++) {
+                voids += ((window[(j * TAPS) + i] == INVALID_ELEVATION_VALUE) &&
+                        ((wx[i] * wy[j]) != 0.0f)) ? 1 : 0;
+            }
+        }
+        if (voids > 0) {
+            if (type == InterpolationType.BICUBIC) {
+                // Only the inner 2x2 posts are needed for the bilinear
+                // result and they have already been gathered.
+                setBilinearWeights(colIndex, x1, wx);
+                setBilinearWeights(rowIndex, y1, wy);
+            }
+            return evaluateWithVoids();
+        }
+
+        float p = 0.0f;
+        for (int j=0; j<TAPS; j++) {
+            int   row = j * TAPS;
+            float r   = (wx[0] * window[row])     + (wx[1] * window[row + 1]) +
+                        (wx[2] * window[row + 2]) + (wx[3] * window[row + 3]);
+            p += wy[j] * r;
+        }
+        return clamp(Math.round(p));
+    }
+
+    /**
+     * Weighted average over the non-void posts.
+     */
+    private int evaluateWithVoids() {
+        float sum    = 0.0f;
+        float weight = 0.0f;
+        for (int j=0; j<TAPS; j++) {
+            for (int i=0; i<TAPS; i++) {
+                int   value = window[(j * TAPS) + i];
+                float w     = (value == INVALID_ELEVATION_VALUE) ? 0.0f : wx[i] * wy[j];
+                sum    += w * value;
+                weight += w;
+            }
+        }
+        if (weight <= 0.0f) {
+            return INVALID_ELEVATION_VALUE;
+        }
+        return clamp(Math.round(sum / weight));
+    }
+
+    /**
+     * Bicubic results may overshoot the input posts.  Keep them within
+     * the range of valid elevation values.
+     */
+    private static int clamp(int value) {
+        return Math.max(-MAX_ELEVATION + 1, Math.min(value, MAX_ELEVATION));
+    }
+
+    /**
+     * Getter method for the interpolation method.
+     * @return The interpolation method.
+     */
+    public InterpolationType getType() {
+        return type;
+    }
+}
@@ -0,0 +1,408 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.cache.CachedDTEDFrame;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.cache.MappedFrameCache;
+import mil.nga.elevation.cache.TerrainDataCatalog;
+import mil.nga.elevation_services.model.InterpolationType;
+
+/**
+ * Edge-aware bilinear interpolation over a DTED frame and its neighbours.
+ *
+ * Each request point is assigned to exactly one 1-degree frame.  The
+ * posts are interpolated by a <code>PostInterpolator</code>, whose
+ * bilinear method produces results identical to those of the frame
+ * itself.  When one or more of the surrounding posts lie beyond the edge
+ * of the frame (frames that do not repeat the
+ * shared edge row/column, or float round-off placing the point a
+ * fraction of a post past the last row/column) those posts are sampled
+ * from the adjacent frame(s) instead.  Previously such points resulted in
+ * an <code>IndexOutOfBoundsException</code>.  If an adjacent frame is not
+ * available the nearest edge post of the primary frame is used.
+ *
+ * Adjacent frames are located through a caller supplied
+ * <code>NeighbourResolver</code>.  Frames resident in the shared
+ * <code>FrameCache</code> are used directly, otherwise the frame is
+ * memory-mapped.  Either way each adjacent frame is opened at most once
+ * per instance, so a batch of points along a seam keeps both frames
+ * resident for the duration of the batch.  Instances are not thread safe.
+ *
+ * @author L. Craig Carpenter
+ */
+public class SeamInterpolator implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(SeamInterpolator.class);
+
+    /**
+     * Post intervals are stored in tenths of arc seconds.
+     */
+    private static final float TENTHS_OF_SECONDS_PER_DEGREE = 36000.0f;
+
+    /**
+     * Callback used to locate the terrain data file covering an adjacent
+     * cell.
+     */
+    public interface NeighbourResolver {
+
+        /**
+         * Retrieve the path to the DEM file covering the target cell.
+         *
+         * @param lat The cell latitude (integer degrees).
+         * @param lon The cell longitude (integer degrees).
+         * @return Path to the DEM file, or null if the cell has no coverage.
+         */
+        String getFilePath(int lat, int lon);
+    }
+
+    private final Grid              primary;
+    private final NeighbourResolver resolver;
+    private final int               cellLat;
+    private final int               cellLon;
+
+    /**
+     * Adjacent frames keyed by cell index.  Cells without coverage are
+     * stored with a null value so they are only resolved once.
+     */
+    private final Map<Integer, Grid> neighbours = new HashMap<Integer, Grid>();
+
+    /**
+     * Post accessor covering the primary frame and its neighbours.
+     */
+    private final PostInterpolator.PostAccessor accessor = this::getPost;
+
+    /**
+     * Lazily created interpolator backing 
+     * <code>biLinearInterpElevationAt()</code>.
+     */
+    private PostInterpolator bilinear;
+
+    /**
+     * Set when the current point reads a post outside of the primary frame.
+     */
+    private boolean crossed;
+
+    // Statistics
+    private int seamPoints = 0;
+
+    /**
+     * Constructor used when the primary frame is resident in the
+     * <code>FrameCache</code>.
+     *
+     * @param frame The primary frame.
+     * @param resolver Used to locate adjacent frames (may be null).
+     */
+    public SeamInterpolator(CachedDTEDFrame frame, NeighbourResolver resolver) {
+        this(new CachedGrid(frame), resolver);
+    }
+
+    /**
+     * Constructor used when the primary frame is memory-mapped.
+     *
+     * @param frame The primary frame.
+     * @param resolver Used to locate adjacent frames (may be null).
+     */
+    public SeamInterpolator(MappedDTEDFrame frame, NeighbourResolver resolver) {
+        this(new MappedGrid(frame), resolver);
+    }
+
+    private SeamInterpolator(Grid primary, NeighbourResolver resolver) {
+        this.primary  = primary;
+        this.resolver = resolver;
+        this.cellLat  = Math.round(primary.swLat);
+        this.cellLon  = Math.round(primary.swLon);
+    }
+
+    /**
+     * Calculate the elevation at the input lat/lon using bilinear
+     * interpolation of the four surrounding posts, taking posts from the
+     * adjacent frames where necessary.
+     *
+     * @param lat The target latitude in decimal degrees.
+     * @param lon The target longitude in decimal degrees.
+     * @return The interpolated elevation, or
+     * <code>INVALID_ELEVATION_VALUE</code> if the point is more than one
+     * post interval outside of the primary frame.
+     * @throws IOException Thrown if a required data record cannot be read.
+     */
+    public int biLinearInterpElevationAt(float lat, float lon)
+            throws IOException {
+        if (bilinear == null) {
+            bilinear = new PostInterpolator(InterpolationType.BILINEAR);
+        }
+        return interpolate(lat, lon, bilinear);
+    }
+
+    /**
+     * Calculate the elevation at the input lat/lon using the input
+     * interpolation method, taking posts from the adjacent frames where
+     * necessary.
+     *
+     * @param lat The target latitude in decimal degrees.
+     * @param lon The target longitude in decimal degrees.
+     * @param interpolator The interpolation method.
+     * @return The interpolated elevation, or
+     * <code>INVALID_ELEVATION_VALUE</code> if the point is more than one
+     * post interval outside of the primary frame.
+     * @throws IOException Thrown if a required data record cannot be read.
+     */
+    public int interpolate(float lat, float lon, PostInterpolator interpolator)
+            throws IOException {
+
+        float latIndex = primary.getLatIndex(lat);
+        float lonIndex = primary.getLonIndex(lon);
+
+        if ((lonIndex <= -1.0f) || (latIndex <= -1.0f) ||
+                (lonIndex >= primary.numLonLines) ||
+                (latIndex >= primary.numLatPoints)) {
+            return INVALID_ELEVATION_VALUE;
+        }
+        crossed = false;
+        int elevation = interpolator.interpolate(accessor, lonIndex, latIndex);
+        if (crossed) {
+            seamPoints++;
+        }
+        return elevation;
+    }
+
+    /**
+     * Retrieve the post at the input index of the primary frame grid,
+     * which may lie beyond any edge of the primary frame.
+     *
+     * @param column The column index relative to the primary frame.
+     * @param row The row index relative to the primary frame.
+     * @return The elevation post value.
+     */
+    private int getPost(int column, int row) throws IOException {
+
+        if ((column >= 0) && (row >= 0) &&
+                (column < primary.numLonLines) && (row < primary.numLatPoints)) {
+            return primary.getPost(column, row);
+        }
+        crossed = true;
+        int dLon = (column < 0) ? -1 : ((column >= primary.numLonLines) ? 1 : 0);
+        int dLat = (row < 0) ? -1 : ((row >= primary.numLatPoints) ? 1 : 0);
+
+        if ((dLon != 0) || (dLat != 0)) {
+            Grid neighbour = getNeighbour(cellLat + dLat, cellLon + dLon);
+            if (neighbour != null) {
+                float postLat = primary.swLat +
+                        (row * primary.latPostInterval / TENTHS_OF_SECONDS_PER_DEGREE);
+                float postLon = primary.swLon +
+                        (column * primary.lonPostInterval / TENTHS_OF_SECONDS_PER_DEGREE);
+                if ((cellLon + dLon) >= 180) {
+                    postLon -= 360.0f;
+                }
+                else if ((cellLon + dLon) < -180) {
+                    postLon += 360.0f;
+                }
+                int value = neighbour.interp(postLat, postLon);
+                if (value != INVALID_ELEVATION_VALUE) {
+                    return value;
+                }
+            }
+        }
+        // Fall back on the nearest post of the primary frame.
+        return primary.getPost(
+                Math.max(0, Math.min(column, primary.numLonLines - 1)),
+                Math.max(0, Math.min(row, primary.numLatPoints - 1)));
+    }
+
+    /**
+     * Locate, and open, the frame covering the target cell.
+     *
+     * @param lat The cell latitude (integer degrees).
+     * @param lon The cell longitude (integer degrees).
+     * @return The adjacent frame, or null if not available.
+     */
+    private Grid getNeighbour(int lat, int lon) {
+
+        if (lon >= 180) {
+            lon -= 360;
+        }
+        else if (lon < -180) {
+            lon += 360;
+        }
+        int index = TerrainDataCatalog.getCellIndex(lat, lon);
+        if ((index < 0) || (resolver == null)) {
+            return null;
+        }
+        if (neighbours.containsKey(index)) {
+            return neighbours.get(index);
+        }
+
+        Grid   grid = null;
+        String path = resolver.getFilePath(lat, lon);
+        if (path != null) {
+            CachedDTEDFrame frame = FrameCache.getInstance().getFrameIfPresent(path);
+            if (frame != null) {
+                grid = new CachedGrid(frame);
+            }
+            else {
+                try {
+                    grid = new MappedGrid(
+                            MappedFrameCache.getInstance().getFrame(path));
+                }
+                catch (IOException ioe) {
+                    LOGGER.warn("Unable to open adjacent DEM frame [ "
+                            + path
+                            + " ].  Edge posts will be used.  Error "
+                            + "message => [ "
+                            + ioe.getMessage()
+                            + " ].");
+                }
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Resolved adjacent frame [ "
+                        + path
+                        + " ] for cell lat [ "
+                        + lat
+                        + " ], lon [ "
+                        + lon
+                        + " ].");
+            }
+        }
+        neighbours.put(index, grid);
+        return grid;
+    }
+
+    /**
+     * Getter method for the number of points that required posts from
+     * outside of the primary frame.
+     * @return The number of seam points.
+     */
+    public int getSeamPointCount() {
+        return seamPoints;
+    }
+
+    /**
+     * Getter method for the number of adjacent frames opened.
+     * @return The number of adjacent frames.
+     */
+    public int getNeighbourCount() {
+        int count = 0;
+        for (Grid grid : neighbours.values()) {
+            if (grid != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Common view of the post grid of a cached or memory-mapped frame.
+     * The grid geometry is taken from the same header fields used by the
+     * frame's own interpolation method so that index calculations agree.
+     */
+    private static abstract class Grid {
+
+        final float swLat;
+        final float swLon;
+        final int   latPostInterval;
+        final int   lonPostInterval;
+        final int   numLatPoints;
+        final int   numLonLines;
+
+        Grid(float swLat, float swLon,
+                int latPostInterval, int lonPostInterval,
+                int numLatPoints, int numLonLines) {
+            this.swLat           = swLat;
+            this.swLon           = swLon;
+            this.latPostInterval = latPostInterval;
+            this.lonPostInterval = lonPostInterval;
+            this.numLatPoints    = numLatPoints;
+            this.numLonLines     = numLonLines;
+        }
+
+        float getLatIndex(float lat) {
+            return (lat - swLat) *
+                    TENTHS_OF_SECONDS_PER_DEGREE / (float)latPostInterval;
+        }
+
+        float getLonIndex(float lon) {
+            return (lon - swLon) *
+                    TENTHS_OF_SECONDS_PER_DEGREE / (float)lonPostInterval;
+        }
+
+        /**
+         * Interpolate within the frame.  Points outside of the post grid
+         * return <code>INVALID_ELEVATION_VALUE</code>.
+         */
+        int interp(float lat, float lon) throws IOException {
+            float latIndex = getLatIndex(lat);
+            float lonIndex = getLonIndex(lon);
+            if ((latIndex < 0) || (lonIndex < 0) ||
+                    (latIndex > (numLatPoints - 1)) ||
+                    (lonIndex > (numLonLines - 1))) {
+                return INVALID_ELEVATION_VALUE;
+            }
+            return frameInterp(lat, lon);
+        }
+
+        abstract int frameInterp(float lat, float lon) throws IOException;
+
+        abstract int getPost(int column, int row) throws IOException;
+    }
+
+    /**
+     * Grid backed by a frame held in the <code>FrameCache</code>.
+     */
+    private static class CachedGrid extends Grid {
+
+        private final CachedDTEDFrame frame;
+        private final short[][]       posts;
+
+        CachedGrid(CachedDTEDFrame frame) {
+            super(frame.dsi.sw_lat, frame.dsi.sw_lon,
+                    frame.uhl.lat_post_interval, frame.uhl.lon_post_interval,
+                    frame.uhl.num_lat_points, frame.uhl.num_lon_lines);
+            this.frame = frame;
+            this.posts = frame.getPosts();
+        }
+
+        @Override
+        int frameInterp(float lat, float lon) {
+            return frame.biLinearInterpElevationAt(lat, lon);
+        }
+
+        @Override
+        int getPost(int column, int row) {
+            return posts[column][row];
+        }
+    }
+
+    /**
+     * Grid backed by a memory-mapped frame.
+     */
+    private static class MappedGrid extends Grid {
+
+        private final MappedDTEDFrame frame;
+
+        MappedGrid(MappedDTEDFrame frame) {
+            super(frame.getSWLat(), frame.getSWLon(),
+                    frame.getLatPostInterval(), frame.getLonPostInterval(),
+                    frame.getNumLatPoints(), frame.getNumLonLines());
+            this.frame = frame;
+        }
+
+        @Override
+        int frameInterp(float lat, float lon) throws IOException {
+            return frame.biLinearInterpElevationAt(lat, lon);
+        }
+
+        @Override
+        int getPost(int column, int row) throws IOException {
+            return frame.getPost(column, row);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package mil.nga.elevation.cache;
+
+import com.bbn.openmap.dataAccess.dted.DTEDFrame;
+
+/**
+ * Fully loaded <code>DTEDFrame</code> held in the shared
+ * <code>FrameCache</code>.  The openmap <code>getElevations()</code>
+ * methods return a copy of the requested posts, which for a full DTED2
+ * frame means allocating and copying ~26 MB on every call.  Cached frames
+ * are never modified once loaded, so this subclass exposes the decoded
+ * posts directly for read-only scanning.
+ *
+ * @author L. Craig Carpenter
+ */
+public class CachedDTEDFrame extends DTEDFrame {
+
+    /**
+     * Load the entire target DTED file.  The underlying file handle is
+     * closed once the load completes.
+     *
+     * @param filePath The path to the target DTED file.
+     */
+    public CachedDTEDFrame(String filePath) {
+        super(filePath, true);
+    }
+
+    /**
+     * Access the decoded elevation posts without copying.  The array is
+     * indexed [longitude column][latitude row] with column 0 on the
+     * western edge and row 0 on the southern edge.  Callers must treat
+     * the returned array as read-only as it is shared between threads.
+     *
+     * @return The decoded elevation posts.
+     */
+    public short[][] getPosts() {
+        return elevations;
+    }
+}
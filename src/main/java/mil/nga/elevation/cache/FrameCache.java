@@ -0,0 +1,534 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.metrics.ElevationMetrics;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Process-wide cache of fully decoded DTED frames.  Prior to the
+ * introduction of this class every elevation lookup constructed a new
+ * <code>DTEDFrame</code> from disk, meaning a request for 20 points in the
+ * same cell would parse the same file 20 times.  Frames are keyed by the
+ * Unix path of the terrain data file and are evicted in least-recently-used
+ * order once the total number of decoded bytes exceeds the configured
+ * budget.  Entries are validated against the current size and last
+ * modified time of the file on every access (in the same way as
+ * <code>FrameMetadataCache</code>), so a file replaced on disk is
+ * reloaded rather than served stale.
+ *
+ * Frames are loaded with the entire data section in memory and the
+ * underlying file handle is closed immediately after loading.  Once
+ * loaded, the frames are only ever read, so a single instance may safely
+ * be shared between request threads.  Concurrent requests for the same
+ * un-cached frame will result in a single load from disk.
+ *
+ * The maximum size of the cache (in bytes) may be overridden with the
+ * system property identified by <code>MAX_BYTES_PROPERTY</code>.
+ *
+ * @author L. Craig Carpenter
+ */
+public class FrameCache implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(FrameCache.class);
+
+    /**
+     * System property that can be used to override the default cache size.
+     */
+    public static final String MAX_BYTES_PROPERTY =
+            "elevation.frame.cache.max.bytes";
+
+    /**
+     * Rough estimate of the heap consumed by a DTEDFrame not including the
+     * elevation posts themselves (header objects, strings, etc.).
+     */
+    private static final long FRAME_OVERHEAD_BYTES = 4096L;
+
+    /**
+     * Rough estimate of the per-array overhead associated with each
+     * longitude column of elevation posts.
+     */
+    private static final long COLUMN_OVERHEAD_BYTES = 16L;
+
+    /**
+     * The maximum number of decoded bytes held by the cache.
+     */
+    private final long maxBytes;
+
+    /**
+     * The number of decoded bytes currently held by the cache.  Guarded by
+     * the lock on the <code>frames</code> map.
+     */
+    private long currentBytes = 0L;
+
+    /**
+     * Access-ordered map used to implement the LRU eviction.  All access
+     * must be synchronized on the map itself.
+     */
+    private final LinkedHashMap<String, CachedFrame> frames =
+            new LinkedHashMap<String, CachedFrame>(64, 0.75f, true);
+
+    /**
+     * Frames currently being loaded from disk.  Used to ensure that
+     * concurrent requests for the same frame result in a single load.
+     */
+    private final Map<String, FutureTask<CachedDTEDFrame>> pending =
+            new ConcurrentHashMap<String, FutureTask<CachedDTEDFrame>>();
+
+    // Cache statistics
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loads     = new AtomicLong();
+    private final AtomicLong stale     = new AtomicLong();
+
+    /**
+     * Constructor allowing the caller to specify the maximum cache size.
+     * Outside of testing, clients should use <code>getInstance()</code>.
+     *
+     * @param maxBytes The maximum number of decoded bytes held by the cache.
+     */
+    protected FrameCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Invalid value for the "
+                    + "maximum cache size [ "
+                    + maxBytes
+                    + " ].  The size must be zero or greater.");
+        }
+        this.maxBytes = maxBytes;
+        LOGGER.info("DTED frame cache configured with a maximum size of "
+                + "[ {} ] bytes.", maxBytes);
+    }
+
+    /**
+     * Calculate the approximate number of heap bytes consumed by a fully
+     * loaded frame.
+     *
+     * @param frame The loaded DTED frame.
+     * @return The approximate number of bytes consumed by the frame.
+     */
+    protected static long getWeight(CachedDTEDFrame frame) {
+        long weight = FRAME_OVERHEAD_BYTES;
+        if (frame.uhl != null) {
+            weight += (long)frame.uhl.num_lon_lines *
+                    ((2L * frame.uhl.num_lat_points) + COLUMN_OVERHEAD_BYTES);
+        }
+        return weight;
+    }
+
+    /**
+     * Retrieve the frame associated with the input file path.  If the frame
+     * is not in the cache it will be loaded from disk and added to the
+     * cache.
+     *
+     * @param filePath The path to the target DTED file.
+     * @return The fully loaded DTED frame.
+     * @throws IOException Thrown if the target frame cannot be loaded.
+     */
+    public CachedDTEDFrame getFrame(String filePath) throws IOException {
+        return getFrame(filePath, null);
+    }
+
+    /**
+     * Retrieve the frame associated with the input file path.  If the frame
+     * is not in the cache it will be loaded from disk and added to the
+     * cache.  The source type is only used to tag the frame load metrics.
+     *
+     * @param filePath The path to the target DTED file.
+     * @param source The source DEM type of the file (may be null).
+     * @return The fully loaded DTED frame.
+     * @throws IOException Thrown if the target frame cannot be loaded.
+     */
+    public CachedDTEDFrame getFrame(
+            String              filePath,
+            TerrainDataFileType source) throws IOException {
+
+        CachedDTEDFrame frame = getFrameIfPresent(filePath);
+
+        if (frame == null) {
+            misses.incrementAndGet();
+            FutureTask<CachedDTEDFrame> task = new FutureTask<CachedDTEDFrame>(
+                    () -> load(filePath, source));
+            FutureTask<CachedDTEDFrame> existing = pending.putIfAbsent(
+                    filePath, task);
+            if (existing == null) {
+                existing = task;
+                task.run();
+            }
+            try {
+                frame = existing.get();
+            }
+            catch (ExecutionException ee) {
+                if (ee.getCause() instanceof IOException) {
+                    throw (IOException)ee.getCause();
+                }
+                throw new IOException("Unexpected exception encountered "
+                        + "while loading DTED frame [ "
+                        + filePath
+                        + " ].", ee.getCause());
+            }
+            catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for DTED "
+                        + "frame [ "
+                        + filePath
+                        + " ] to load.");
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Retrieve the frame associated with the input file path only if it is
+     * already resident in the cache.  This method will not load the frame,
+     * but does check the file attributes.  If the file has changed size or
+     * been modified since it was loaded, the entry is dropped and null is
+     * returned.
+     *
+     * @param filePath The path to the target DTED file.
+     * @return The cached DTED frame, or null if the frame is not cached
+     * or is out of date.
+     */
+    public CachedDTEDFrame getFrameIfPresent(String filePath) {
+        CachedFrame entry = null;
+        synchronized (frames) {
+            entry = frames.get(filePath);
+        }
+        if (entry != null) {
+            if (entry.isCurrent(filePath)) {
+                hits.incrementAndGet();
+                return entry.frame;
+            }
+            stale.incrementAndGet();
+            LOGGER.info("DEM frame file [ {} ] has changed on disk.  "
+                    + "Dropping the cached frame.", filePath);
+            synchronized (frames) {
+                if (frames.remove(filePath, entry)) {
+                    currentBytes -= entry.weight;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load the target frame from disk and add it to the cache.
+     *
+     * @param filePath The path to the target DTED file.
+     * @param source The source DEM type of the file (may be null).
+     * @return The fully loaded DTED frame.
+     * @throws IOException Thrown if the frame could not be loaded.
+     */
+    private CachedDTEDFrame load(
+            String              filePath,
+            TerrainDataFileType source) throws IOException {
+        try {
+            long start = System.nanoTime();
+
+            // The attributes are captured before the file is read so that
+            // a change made during the load is caught by the next access.
+            BasicFileAttributes attributes = Files.readAttributes(
+                    Paths.get(filePath), BasicFileAttributes.class);
+            long size     = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+
+            // Another thread may have completed the load between the cache
+            // check and the registration of this load.
+            synchronized (frames) {
+                CachedFrame entry = frames.get(filePath);
+                if ((entry != null) && (entry.matches(size, modified))) {
+                    return entry.frame;
+                }
+            }
+
+            // Read the entire file.  The constructor closes the underlying
+            // file handle when the whole file is read.
+            CachedDTEDFrame frame = new CachedDTEDFrame(filePath);
+            if (!frame.frame_is_valid) {
+                throw new IOException("Unable to load DTED frame [ "
+                        + filePath
+                        + " ].  The frame is not valid.");
+            }
+            loads.incrementAndGet();
+
+            // The whole file is read so the bytes read is the file size.
+            long elapsed = System.nanoTime() - start;
+            ElevationMetrics.recordFrameLoad(
+                    source,
+                    ElevationMetrics.READER_CACHED,
+                    elapsed,
+                    size);
+
+            long weight = getWeight(frame);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("DEM frame file [ "
+                        + filePath
+                        + " ] of [ "
+                        + weight
+                        + " ] bytes loaded in [ "
+                        + TimeUnit.NANOSECONDS.toMillis(elapsed)
+                        + " ] ms.");
+            }
+
+            if (weight <= maxBytes) {
+                synchronized (frames) {
+                    CachedFrame previous = frames.put(
+                            filePath,
+                            new CachedFrame(frame, weight, size, modified));
+                    if (previous != null) {
+                        currentBytes -= previous.weight;
+                    }
+                    currentBytes += weight;
+                    evict();
+                }
+            }
+            else {
+                LOGGER.warn("DEM frame file [ {} ] of [ {} ] bytes exceeds "
+                        + "the cache size of [ {} ] bytes and will not be "
+                        + "cached.", filePath, weight, maxBytes);
+            }
+            return frame;
+        }
+        finally {
+            pending.remove(filePath);
+        }
+    }
+
+    /**
+     * Remove least-recently-used frames until the cache is back within the
+     * configured size.  Callers must hold the lock on the
+     * <code>frames</code> map.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, CachedFrame>> iter =
+                frames.entrySet().iterator();
+        while ((currentBytes > maxBytes) && (iter.hasNext())) {
+            Map.Entry<String, CachedFrame> eldest = iter.next();
+            currentBytes -= eldest.getValue().weight;
+            iter.remove();
+            evictions.incrementAndGet();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Evicted DEM frame file [ {} ] from the cache.",
+                        eldest.getKey());
+            }
+        }
+    }
+
+    /**
+     * Remove the frame associated with the input file path from the cache.
+     * @param filePath The path to the target DTED file.
+     */
+    public void invalidate(String filePath) {
+        synchronized (frames) {
+            CachedFrame entry = frames.remove(filePath);
+            if (entry != null) {
+                currentBytes -= entry.weight;
+            }
+        }
+    }
+
+    /**
+     * Remove all frames from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (frames) {
+            frames.clear();
+            currentBytes = 0L;
+        }
+    }
+
+    /**
+     * Getter method for the number of requests served from the cache.
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Getter method for the number of requests that were not served from
+     * the cache.
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Getter method for the number of frames evicted from the cache.
+     * @return The number of cache evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Getter method for the number of entries dropped because the file
+     * changed on disk.  These requests are also counted as misses.
+     * @return The number of stale entries.
+     */
+    public long getStaleCount() {
+        return stale.get();
+    }
+
+    /**
+     * Getter method for the number of frames loaded from disk.
+     * @return The number of frame loads.
+     */
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    /**
+     * Getter method for the number of decoded bytes currently held in the
+     * cache.
+     * @return The current size of the cache in bytes.
+     */
+    public long getCurrentBytes() {
+        synchronized (frames) {
+            return currentBytes;
+        }
+    }
+
+    /**
+     * Getter method for the maximum number of decoded bytes held in the
+     * cache.
+     * @return The maximum size of the cache in bytes.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Getter method for the number of frames currently in the cache.
+     * @return The number of cached frames.
+     */
+    public int size() {
+        synchronized (frames) {
+            return frames.size();
+        }
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FrameCache : frames => [ ");
+        sb.append(size());
+        sb.append(" ], bytes => [ ");
+        sb.append(getCurrentBytes());
+        sb.append(" / ");
+        sb.append(getMaxBytes());
+        sb.append(" ], hits => [ ");
+        sb.append(getHitCount());
+        sb.append(" ], misses => [ ");
+        sb.append(getMissCount());
+        sb.append(" ], loads => [ ");
+        sb.append(getLoadCount());
+        sb.append(" ], stale => [ ");
+        sb.append(getStaleCount());
+        sb.append(" ], evictions => [ ");
+        sb.append(getEvictionCount());
+        sb.append(" ].");
+        return sb.toString();
+    }
+
+    /**
+     * Return an instance of the <code>FrameCache</code> singleton object.
+     * @return Reference to the <code>FrameCache</code> singleton object.
+     */
+    public static FrameCache getInstance() {
+        return FrameCacheHolder.getSingleton();
+    }
+
+    /**
+     * Simple data structure holding a cached frame, its weight, and the
+     * attributes of the file it was loaded from.
+     */
+    private static class CachedFrame {
+        private final CachedDTEDFrame frame;
+        private final long      weight;
+        private final long      fileSize;
+        private final long      lastModified;
+
+        private CachedFrame(
+                CachedDTEDFrame frame,
+                long            weight,
+                long            fileSize,
+                long            lastModified) {
+            this.frame        = frame;
+            this.weight       = weight;
+            this.fileSize     = fileSize;
+            this.lastModified = lastModified;
+        }
+
+        private boolean matches(long size, long modified) {
+            return (fileSize == size) && (lastModified == modified);
+        }
+
+        /**
+         * Determine whether the file on disk is unchanged since the frame
+         * was loaded.  A file that can no longer be read is treated as
+         * changed.
+         */
+        private boolean isCurrent(String filePath) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(
+                        Paths.get(filePath), BasicFileAttributes.class);
+                return matches(
+                        attributes.size(),
+                        attributes.lastModifiedTime().toMillis());
+            }
+            catch (IOException ioe) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Static inner class used to construct the singleton instance.
+     * @author L. Craig Carpenter
+     */
+    public static class FrameCacheHolder {
+
+        /**
+         * Hide the constructor
+         */
+        private FrameCacheHolder() { }
+
+        /**
+         * Reference to the singleton object.  Initialization is
+         * guaranteed to be thread-safe by the class loader.
+         */
+        private static final FrameCache singleton = new FrameCache(
+                Long.getLong(MAX_BYTES_PROPERTY, FRAME_CACHE_MAX_BYTES));
+
+        /**
+         * Accessor method for the singleton.
+         * @return The singleton instance of the frame cache.
+         */
+        public static FrameCache getSingleton() {
+            return singleton;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import com.bbn.openmap.dataAccess.dted.DTEDFrameUtil;
+
+import mil.nga.elevation.ElevationExtremesFactory;
+import mil.nga.elevation.MappedDTEDFrame;
+import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation_services.model.HeightUnitType;
+
+/**
+ * Immutable summary of the header records (UHL, DSI and ACC) of a single
+ * DTED file.  Only the first <code>MappedDTEDFrame.DATA_OFFSET</code> bytes
+ * of the file are read, so the producer code, accuracy data, grid origin,
+ * post spacing and post counts are available without decoding (or even
+ * paging in) any of the elevation posts.  That allows the post indices
+ * covered by a request to be computed before deciding whether, and how
+ * much of, the file needs to be read.
+ *
+ * The grid origin and post spacing are derived exactly as the openmap
+ * <code>DTEDFrame.getOMGrid()</code> method derives them (DSI origin and
+ * post intervals, rounded to float precision) so that post positions
+ * computed from the metadata match those computed from a loaded frame.
+ *
+ * The size and last modified time of the file at the time the header was
+ * read are retained so that the <code>FrameMetadataCache</code> can
+ * detect files replaced on disk.
+ *
+ * @author L. Craig Carpenter
+ */
+public class FrameMetadata {
+
+    /**
+     * Post intervals are stored in tenths of arc seconds.
+     */
+    private static final double TENTHS_OF_SECONDS_PER_DEGREE = 36000.0;
+
+    private final String filePath;
+    private final long   fileSize;
+    private final long   lastModified;
+    private final String producerCode;
+    private final double originLat;
+    private final double originLon;
+    private final double latSpacing;
+    private final double lonSpacing;
+    private final int    numLonLines;
+    private final int    numLatPoints;
+    private final int    absHorzAccuracy;
+    private final int    absVertAccuracy;
+    private final int    relHorzAccuracy;
+    private final int    relVertAccuracy;
+
+    /**
+     * Parse the header records held in the input buffer.
+     *
+     * @param filePath Path to the DTED file the header was read from.
+     * @param header Buffer holding (at least) the UHL, DSI and ACC records.
+     * @param fileSize The size of the file in bytes.
+     * @param lastModified The last modified time of the file (ms).
+     * @throws IOException Thrown if the header data is not valid.
+     */
+    FrameMetadata(
+            String     filePath,
+            ByteBuffer header,
+            long       fileSize,
+            long       lastModified) throws IOException {
+
+        this.filePath     = filePath;
+        this.fileSize     = fileSize;
+        this.lastModified = lastModified;
+
+        if ((header.limit() < MappedDTEDFrame.DATA_OFFSET) ||
+                (!"UHL".equals(readString(header, MappedDTEDFrame.UHL_OFFSET, 3)))) {
+            throw new IOException("DTED file [ "
+                    + filePath
+                    + " ] does not contain a valid UHL record.");
+        }
+        numLonLines  = readInt(header, MappedDTEDFrame.UHL_OFFSET + 47, 4, 0);
+        numLatPoints = readInt(header, MappedDTEDFrame.UHL_OFFSET + 51, 4, 0);
+
+        // Data Set Identification
+        int dsi = MappedDTEDFrame.DSI_OFFSET;
+        producerCode = readString(header, dsi + 102, 8).trim();
+        originLat    = DTEDFrameUtil.stringToLat(readString(header, dsi + 185, 9));
+        originLon    = DTEDFrameUtil.stringToLon(readString(header, dsi + 194, 10));
+        int latPostInterval = readInt(header, dsi + 273, 4, 0);
+        int lonPostInterval = readInt(header, dsi + 277, 4, 0);
+
+        if ((latPostInterval <= 0) || (lonPostInterval <= 0) ||
+                (numLonLines < 2) || (numLatPoints < 2)) {
+            throw new IOException("DTED file [ "
+                    + filePath
+                    + " ] contains invalid header data.  Lat interval => [ "
+                    + latPostInterval
+                    + " ], lon interval => [ "
+                    + lonPostInterval
+                    + " ], lon lines => [ "
+                    + numLonLines
+                    + " ], lat points => [ "
+                    + numLatPoints
+                    + " ].");
+        }
+        latSpacing = (float)(latPostInterval / TENTHS_OF_SECONDS_PER_DEGREE);
+        lonSpacing = (float)(lonPostInterval / TENTHS_OF_SECONDS_PER_DEGREE);
+
+        // Accuracy Description
+        int acc = MappedDTEDFrame.ACC_OFFSET;
+        absHorzAccuracy = readAccuracy(header, acc + 3);
+        absVertAccuracy = readAccuracy(header, acc + 7);
+        relHorzAccuracy = readAccuracy(header, acc + 11);
+        relVertAccuracy = readAccuracy(header, acc + 15);
+    }
+
+    /**
+     * Read the header records of the target DTED file.  None of the
+     * elevation data records are read.
+     *
+     * @param filePath Path to the target DTED file.
+     * @return The parsed header data.
+     * @throws IOException Thrown if the file cannot be read or the header
+     * data is not valid.
+     */
+    public static FrameMetadata read(String filePath) throws IOException {
+        if ((filePath == null) || (filePath.isEmpty())) {
+            throw new IOException("Input file path is null or empty.");
+        }
+        Path path = Paths.get(filePath);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            BasicFileAttributes attributes = Files.readAttributes(
+                    path, BasicFileAttributes.class);
+            ByteBuffer header = ByteBuffer.allocate(MappedDTEDFrame.DATA_OFFSET);
+            while (header.hasRemaining() && (channel.read(header) >= 0)) { }
+            header.flip();
+            return new FrameMetadata(
+                    filePath,
+                    header,
+                    attributes.size(),
+                    attributes.lastModifiedTime().toMillis());
+        }
+    }
+
+    /**
+     * Determine whether the metadata was read from the file as it is
+     * described by the input attributes.
+     *
+     * @param size The current size of the file in bytes.
+     * @param modified The current last modified time of the file (ms).
+     * @return True if the size and last modified time are unchanged.
+     */
+    public boolean isCurrent(long size, long modified) {
+        return (fileSize == size) && (lastModified == modified);
+    }
+
+    /**
+     * Construct the accuracy data for the frame.
+     *
+     * @param units The units associated with the accuracy data.
+     * @return The frame accuracy data.
+     */
+    public DEMFrameAccuracy getAccuracy(HeightUnitType units) {
+        return new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
+                    .absHorzAccuracy(absHorzAccuracy)
+                    .absVertAccuracy(absVertAccuracy)
+                    .relHorzAccuracy(relHorzAccuracy)
+                    .relVertAccuracy(relVertAccuracy)
+                    .units(units)
+                    .build();
+    }
+
+    /**
+     * Calculate the inclusive range of post columns lying within the input
+     * longitude range.
+     *
+     * @param minLon The minimum longitude (inclusive).
+     * @param maxLon The maximum longitude (inclusive).
+     * @return The first and last column index.  If no columns fall within
+     * the range the first index will be greater than the last.
+     */
+    public int[] getColumnRange(double minLon, double maxLon) {
+        return ElevationExtremesFactory.getIndexRange(
+                originLon, lonSpacing, minLon, maxLon, numLonLines);
+    }
+
+    /**
+     * Calculate the inclusive range of post rows lying within the input
+     * latitude range.
+     *
+     * @param minLat The minimum latitude (inclusive).
+     * @param maxLat The maximum latitude (inclusive).
+     * @return The first and last row index.  If no rows fall within the
+     * range the first index will be greater than the last.
+     */
+    public int[] getRowRange(double minLat, double maxLat) {
+        return ElevationExtremesFactory.getIndexRange(
+                originLat, latSpacing, minLat, maxLat, numLatPoints);
+    }
+
+    /**
+     * Read a fixed-length ASCII string from the header.
+     */
+    private static String readString(ByteBuffer header, int offset, int length) {
+        char[] chars = new char[length];
+        for (int i=0; i<length; i++) {
+            chars[i] = (char)(header.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Read a fixed-length ASCII integer from the header.
+     */
+    private static int readInt(
+            ByteBuffer header,
+            int        offset,
+            int        length,
+            int        defaultValue) {
+        try {
+            return Integer.parseInt(readString(header, offset, length).trim(), 10);
+        }
+        catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read one of the 4-byte accuracy fields.  Consistent with openmap,
+     * fields containing "NA" or "N/A" are set to -1 and fields that cannot
+     * be parsed are set to 0.
+     */
+    private static int readAccuracy(ByteBuffer header, int offset) {
+        String value = readString(header, offset, 4);
+        if ((value.indexOf("NA") != -1) || (value.indexOf("N/A") != -1)) {
+            return -1;
+        }
+        return readInt(header, offset, 4, 0);
+    }
+
+    /**
+     * Getter method for the path to the DTED file.
+     * @return The path to the DTED file.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Getter method for the size of the file when the header was read.
+     * @return The file size in bytes.
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Getter method for the last modified time of the file when the
+     * header was read.
+     * @return The last modified time (ms since the epoch).
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Getter method for the (trimmed) producer code.
+     * @return The producer code.
+     */
+    public String getProducerCode() {
+        return producerCode;
+    }
+
+    /**
+     * Getter method for the latitude of row 0.
+     * @return The origin latitude.
+     */
+    public double getOriginLat() {
+        return originLat;
+    }
+
+    /**
+     * Getter method for the longitude of column 0.
+     * @return The origin longitude.
+     */
+    public double getOriginLon() {
+        return originLon;
+    }
+
+    /**
+     * Getter method for the latitude spacing between posts.
+     * @return The latitude spacing in decimal degrees.
+     */
+    public double getLatSpacing() {
+        return latSpacing;
+    }
+
+    /**
+     * Getter method for the longitude spacing between posts.
+     * @return The longitude spacing in decimal degrees.
+     */
+    public double getLonSpacing() {
+        return lonSpacing;
+    }
+
+    /**
+     * Getter method for the number of longitude lines (columns).
+     * @return The number of longitude lines.
+     */
+    public int getNumLonLines() {
+        return numLonLines;
+    }
+
+    /**
+     * Getter method for the number of latitude points in each column.
+     * @return The number of latitude points.
+     */
+    public int getNumLatPoints() {
+        return numLatPoints;
+    }
+
+    /**
+     * Getter method for the absolute horizontal accuracy.
+     * @return The absolute horizontal accuracy.
+     */
+    public int getAbsHorzAccuracy() {
+        return absHorzAccuracy;
+    }
+
+    /**
+     * Getter method for the absolute vertical accuracy.
+     * @return The absolute vertical accuracy.
+     */
+    public int getAbsVertAccuracy() {
+        return absVertAccuracy;
+    }
+
+    /**
+     * Getter method for the relative horizontal accuracy.
+     * @return The relative horizontal accuracy.
+     */
+    public int getRelHorzAccuracy() {
+        return relHorzAccuracy;
+    }
+
+    /**
+     * Getter method for the relative vertical accuracy.
+     * @return The relative vertical accuracy.
+     */
+    public int getRelVertAccuracy() {
+        return relVertAccuracy;
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FrameMetadata : file => [ ");
+        sb.append(filePath);
+        sb.append(" ], origin => [ ");
+        sb.append(originLat);
+        sb.append(", ");
+        sb.append(originLon);
+        sb.append(" ], posts => [ ");
+        sb.append(numLonLines);
+        sb.append(" x ");
+        sb.append(numLatPoints);
+        sb.append(" ], producer => [ ");
+        sb.append(producerCode);
+        sb.append(" ], size => [ ");
+        sb.append(fileSize);
+        sb.append(" ], modified => [ ");
+        sb.append(lastModified);
+        sb.append(" ].");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,277 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.Constants;
+
+/**
+ * Process-wide cache of DTED header summaries (<code>FrameMetadata</code>).
+ * The producer code, accuracy data, grid origin and post spacing of a 
+ * frame are needed by every request that touches it, but previously they 
+ * were only available from a fully decoded frame.  Entries are keyed by 
+ * the Unix path of the terrain data file and validated against the 
+ * current size and last modified time of the file on every access, so a 
+ * file replaced on disk is re-read rather than served stale.  Entries are 
+ * evicted in least-recently-used order once the configured number of 
+ * entries is exceeded.
+ *
+ * The metadata objects are immutable so they may safely be shared 
+ * between request threads.  Concurrent misses for the same file may each 
+ * read the (small) header; the last one read wins.
+ *
+ * The maximum number of entries may be overridden with the system 
+ * property identified by <code>MAX_ENTRIES_PROPERTY</code>.
+ *
+ * @author L. Craig Carpenter
+ */
+public class FrameMetadataCache implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(FrameMetadataCache.class);
+
+    /**
+     * System property that can be used to override the default cache size.
+     */
+    public static final String MAX_ENTRIES_PROPERTY =
+            "elevation.frame.metadata.cache.max.entries";
+
+    /**
+     * The maximum number of entries held by the cache.
+     */
+    private final int maxEntries;
+
+    /**
+     * Access-ordered map used to implement the LRU eviction.  All access
+     * must be synchronized on the map itself.
+     */
+    private final LinkedHashMap<String, FrameMetadata> entries;
+
+    // Cache statistics
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong stale     = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor allowing the caller to specify the maximum cache size.
+     * Outside of testing, clients should use <code>getInstance()</code>.
+     *
+     * @param maxEntries The maximum number of entries held by the cache.
+     */
+    protected FrameMetadataCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Invalid value for the "
+                    + "maximum number of metadata entries [ "
+                    + maxEntries
+                    + " ].  The size must be zero or greater.");
+        }
+        this.maxEntries = maxEntries;
+        this.entries    = new LinkedHashMap<String, FrameMetadata>(64, 0.75f, true) {
+
+            /**
+             * Eclipse-generated serialVersionUID
+             */
+            private static final long serialVersionUID = 6402975816234171937L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, FrameMetadata> eldest) {
+                if (size() > FrameMetadataCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        LOGGER.info("DTED frame metadata cache configured with a maximum of "
+                + "[ {} ] entries.", maxEntries);
+    }
+
+    /**
+     * Retrieve the header summary of the input file.  The file attributes 
+     * are checked on every call; if the file has changed size or been 
+     * modified since the header was read, the header is read again.
+     *
+     * @param filePath The path to the target DTED file.
+     * @return The header summary.
+     * @throws IOException Thrown if the file does not exist, cannot be 
+     * read, or does not contain valid header records.
+     */
+    public FrameMetadata getMetadata(String filePath) throws IOException {
+
+        BasicFileAttributes attributes = Files.readAttributes(
+                Paths.get(filePath), BasicFileAttributes.class);
+        FrameMetadata metadata = null;
+        synchronized (entries) {
+            metadata = entries.get(filePath);
+        }
+        if (metadata != null) {
+            if (metadata.isCurrent(
+                    attributes.size(), 
+                    attributes.lastModifiedTime().toMillis())) {
+                hits.incrementAndGet();
+                return metadata;
+            }
+            stale.incrementAndGet();
+            LOGGER.info("DEM frame file [ {} ] has changed on disk.  "
+                    + "Re-reading the header records.", filePath);
+        }
+        else {
+            misses.incrementAndGet();
+        }
+
+        metadata = FrameMetadata.read(filePath);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Read header records [ " 
+                    + metadata.toString()
+                    + " ].");
+        }
+        if (maxEntries > 0) {
+            synchronized (entries) {
+                entries.put(filePath, metadata);
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Remove the entry associated with the input file path from the cache.
+     * @param filePath The path to the target DTED file.
+     */
+    public void invalidate(String filePath) {
+        synchronized (entries) {
+            entries.remove(filePath);
+        }
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Getter method for the number of requests served from the cache.
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Getter method for the number of requests for files not in the cache.
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Getter method for the number of entries re-read because the file 
+     * changed on disk.
+     * @return The number of stale entries.
+     */
+    public long getStaleCount() {
+        return stale.get();
+    }
+
+    /**
+     * Getter method for the number of entries evicted from the cache.
+     * @return The number of cache evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Getter method for the maximum number of entries held in the cache.
+     * @return The maximum number of entries.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Getter method for the number of entries currently in the cache.
+     * @return The number of cached entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FrameMetadataCache : entries => [ ");
+        sb.append(size());
+        sb.append(" / ");
+        sb.append(getMaxEntries());
+        sb.append(" ], hits => [ ");
+        sb.append(getHitCount());
+        sb.append(" ], misses => [ ");
+        sb.append(getMissCount());
+        sb.append(" ], stale => [ ");
+        sb.append(getStaleCount());
+        sb.append(" ], evictions => [ ");
+        sb.append(getEvictionCount());
+        sb.append(" ].");
+        return sb.toString();
+    }
+
+    /**
+     * Return an instance of the <code>FrameMetadataCache</code> singleton 
+     * object.
+     * @return Reference to the <code>FrameMetadataCache</code> singleton.
+     */
+    public static FrameMetadataCache getInstance() {
+        return FrameMetadataCacheHolder.getSingleton();
+    }
+
+    /**
+     * Static inner class used to construct the singleton instance.
+     * @author L. Craig Carpenter
+     */
+    public static class FrameMetadataCacheHolder {
+
+        /**
+         * Hide the constructor
+         */
+        private FrameMetadataCacheHolder() { }
+
+        /**
+         * Reference to the singleton object.  Initialization is
+         * guaranteed to be thread-safe by the class loader.
+         */
+        private static final FrameMetadataCache singleton = 
+                new FrameMetadataCache(Integer.getInteger(
+                        MAX_ENTRIES_PROPERTY, 
+                        FRAME_METADATA_CACHE_MAX_ENTRIES));
+
+        /**
+         * Accessor method for the singleton.
+         * @return The singleton instance of the metadata cache.
+         */
+        public static FrameMetadataCache getSingleton() {
+            return singleton;
+        }
+    }
+}
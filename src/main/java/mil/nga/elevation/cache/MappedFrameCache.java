@@ -0,0 +1,324 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.MappedDTEDFrame;
+import mil.nga.elevation.metrics.ElevationMetrics;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Process-wide cache of memory-mapped DTED frames
+ * (<code>MappedDTEDFrame</code>).  Mapping a frame is cheap, but each
+ * mapping consumes address space and a kernel map entry until the frame
+ * is garbage collected, and each instance re-verifies the checksums of
+ * the columns it reads.  Sharing one instance per file keeps the number
+ * of live mappings bounded and means each column is checksummed once
+ * rather than once per request.
+ *
+ * Entries are keyed by the Unix path of the terrain data file and
+ * validated against the current size and last modified time of the file
+ * on every access (in the same way as <code>FrameMetadataCache</code>),
+ * so a file replaced on disk is re-mapped rather than served stale.
+ * Entries are evicted in least-recently-used order once the configured
+ * number of entries is exceeded; the mapping of an evicted frame is
+ * released once the requests still using it complete.
+ *
+ * <code>MappedDTEDFrame</code> only performs absolute reads so the frames
+ * may safely be shared between request threads.  Concurrent misses for
+ * the same file may each map it; the last one mapped wins.
+ *
+ * The maximum number of entries may be overridden with the system
+ * property identified by <code>MAX_ENTRIES_PROPERTY</code>.
+ *
+ * @author L. Craig Carpenter
+ */
+public class MappedFrameCache implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(MappedFrameCache.class);
+
+    /**
+     * System property that can be used to override the default cache size.
+     */
+    public static final String MAX_ENTRIES_PROPERTY =
+            "elevation.mapped.frame.cache.max.entries";
+
+    /**
+     * The maximum number of entries held by the cache.
+     */
+    private final int maxEntries;
+
+    /**
+     * Access-ordered map used to implement the LRU eviction.  All access
+     * must be synchronized on the map itself.
+     */
+    private final LinkedHashMap<String, MappedFrame> entries;
+
+    // Cache statistics
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong stale     = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor allowing the caller to specify the maximum cache size.
+     * Outside of testing, clients should use <code>getInstance()</code>.
+     *
+     * @param maxEntries The maximum number of entries held by the cache.
+     */
+    protected MappedFrameCache(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Invalid value for the "
+                    + "maximum number of mapped frames [ "
+                    + maxEntries
+                    + " ].  The size must be zero or greater.");
+        }
+        this.maxEntries = maxEntries;
+        this.entries    = new LinkedHashMap<String, MappedFrame>(64, 0.75f, true) {
+
+            /**
+             * Eclipse-generated serialVersionUID
+             */
+            private static final long serialVersionUID = -2816019450938716245L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, MappedFrame> eldest) {
+                if (size() > MappedFrameCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        LOGGER.info("Mapped DTED frame cache configured with a maximum of "
+                + "[ {} ] entries.", maxEntries);
+    }
+
+    /**
+     * Retrieve the mapped frame for the input file.
+     *
+     * @param filePath The path to the target DTED file.
+     * @return The mapped frame.
+     * @throws IOException Thrown if the file does not exist, cannot be
+     * mapped, or does not contain valid header records.
+     */
+    public MappedDTEDFrame getFrame(String filePath) throws IOException {
+        return getFrame(filePath, null);
+    }
+
+    /**
+     * Retrieve the mapped frame for the input file.  The file attributes
+     * are checked on every call; if the file has changed size or been
+     * modified since it was mapped, it is mapped again.
+     *
+     * @param filePath The path to the target DTED file.
+     * @param source The source DEM type of the file (may be null).  Used
+     * to tag the load metrics.
+     * @return The mapped frame.
+     * @throws IOException Thrown if the file does not exist, cannot be
+     * mapped, or does not contain valid header records.
+     */
+    public MappedDTEDFrame getFrame(
+            String              filePath,
+            TerrainDataFileType source) throws IOException {
+
+        BasicFileAttributes attributes = Files.readAttributes(
+                Paths.get(filePath), BasicFileAttributes.class);
+        long        size     = attributes.size();
+        long        modified = attributes.lastModifiedTime().toMillis();
+        MappedFrame entry    = null;
+        synchronized (entries) {
+            entry = entries.get(filePath);
+        }
+        if (entry != null) {
+            if ((entry.fileSize == size) && (entry.lastModified == modified)) {
+                hits.incrementAndGet();
+                return entry.frame;
+            }
+            stale.incrementAndGet();
+            LOGGER.info("DEM frame file [ {} ] has changed on disk.  "
+                    + "Re-mapping the file.", filePath);
+        }
+        else {
+            misses.incrementAndGet();
+        }
+
+        // Only the header records are read up front.  The posts are paged
+        // in as they are interpolated.
+        long            start = System.nanoTime();
+        MappedDTEDFrame frame = new MappedDTEDFrame(filePath, true, source);
+        // No bytes sample here.  The frame records the data records it 
+        // reads as they are verified.
+        ElevationMetrics.recordFrameLoad(
+                source,
+                ElevationMetrics.READER_MAPPED,
+                System.nanoTime() - start,
+                0L);
+        if (maxEntries > 0) {
+            synchronized (entries) {
+                entries.put(filePath, new MappedFrame(frame, size, modified));
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Remove the entry associated with the input file path from the cache.
+     * @param filePath The path to the target DTED file.
+     */
+    public void invalidate(String filePath) {
+        synchronized (entries) {
+            entries.remove(filePath);
+        }
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Getter method for the number of requests served from the cache.
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Getter method for the number of requests for files not in the cache.
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Getter method for the number of entries re-mapped because the file
+     * changed on disk.
+     * @return The number of stale entries.
+     */
+    public long getStaleCount() {
+        return stale.get();
+    }
+
+    /**
+     * Getter method for the number of entries evicted from the cache.
+     * @return The number of cache evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Getter method for the maximum number of entries held in the cache.
+     * @return The maximum number of entries.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Getter method for the number of entries currently in the cache.
+     * @return The number of cached entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("MappedFrameCache : entries => [ ");
+        sb.append(size());
+        sb.append(" / ");
+        sb.append(getMaxEntries());
+        sb.append(" ], hits => [ ");
+        sb.append(getHitCount());
+        sb.append(" ], misses => [ ");
+        sb.append(getMissCount());
+        sb.append(" ], stale => [ ");
+        sb.append(getStaleCount());
+        sb.append(" ], evictions => [ ");
+        sb.append(getEvictionCount());
+        sb.append(" ].");
+        return sb.toString();
+    }
+
+    /**
+     * A mapped frame along with the attributes of the file at the time it
+     * was mapped.
+     */
+    private static final class MappedFrame {
+
+        private final MappedDTEDFrame frame;
+        private final long            fileSize;
+        private final long            lastModified;
+
+        MappedFrame(MappedDTEDFrame frame, long fileSize, long lastModified) {
+            this.frame        = frame;
+            this.fileSize     = fileSize;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Return an instance of the <code>MappedFrameCache</code> singleton
+     * object.
+     * @return Reference to the <code>MappedFrameCache</code> singleton.
+     */
+    public static MappedFrameCache getInstance() {
+        return MappedFrameCacheHolder.getSingleton();
+    }
+
+    /**
+     * Static inner class used to construct the singleton instance.
+     * @author L. Craig Carpenter
+     */
+    public static class MappedFrameCacheHolder {
+
+        /**
+         * Hide the constructor
+         */
+        private MappedFrameCacheHolder() { }
+
+        /**
+         * Reference to the singleton object.  Initialization is
+         * guaranteed to be thread-safe by the class loader.
+         */
+        private static final MappedFrameCache singleton =
+                new MappedFrameCache(Integer.getInteger(
+                        MAX_ENTRIES_PROPERTY,
+                        MAPPED_FRAME_CACHE_MAX_ENTRIES));
+
+        /**
+         * Accessor method for the singleton.
+         * @return The singleton instance of the mapped frame cache.
+         */
+        public static MappedFrameCache getSingleton() {
+            return singleton;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package mil.nga.elevation.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Bounded cache of (1-degree cell, source type) pairs for which the
+ * terrain data lookup returned no files.  Clients routinely retry
+ * requests over open ocean and the polar regions; recording the misses
+ * here allows those requests to be answered without going back to the
+ * catalog or the database.
+ *
+ * Each entry expires after a fixed time-to-live so that newly ingested
+ * coverage is eventually picked up even if the owner does not invalidate
+ * the cache.  Once the configured number of entries is exceeded the
+ * oldest entries are evicted first.  Owners should call
+ * <code>invalidateAll()</code> whenever the terrain data catalog changes.
+ *
+ * Each call to <code>invalidateAll()</code> starts a new generation.  A
+ * lookup that may still be using the previous catalog captures the
+ * generation (<code>getGeneration()</code>) before reading the catalog and
+ * passes it to <code>recordNoCoverage()</code>.  Misses recorded against
+ * an older generation are dropped so that they cannot outlive the catalog
+ * they were found in.
+ *
+ * @author L. Craig Carpenter
+ */
+public class NoCoverageCache {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(NoCoverageCache.class);
+
+    /**
+     * Number of source types used to build the entry keys.
+     */
+    private static final int NUM_TYPES = TerrainDataFileType.values().length;
+
+    /**
+     * The maximum number of entries held by the cache.
+     */
+    private final int maxEntries;
+
+    /**
+     * The time (ms) after which an entry expires.
+     */
+    private final long ttlMillis;
+
+    /**
+     * Insertion-ordered map of entry key to expiration time.  All access
+     * must be synchronized on the map itself.
+     */
+    private final LinkedHashMap<Long, Long> entries;
+
+    /**
+     * The current generation.  Guarded by the <code>entries</code> lock.
+     */
+    private long generation = 0L;
+
+    // Cache statistics
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong expired   = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong stale     = new AtomicLong();
+
+    /**
+     * Default constructor.
+     *
+     * @param maxEntries The maximum number of entries held by the cache.
+     * A value of zero disables the cache.
+     * @param ttlMillis The time (ms) after which an entry expires.
+     */
+    public NoCoverageCache(int maxEntries, long ttlMillis) {
+        if ((maxEntries < 0) || (ttlMillis < 0)) {
+            throw new IllegalArgumentException("Invalid no-coverage cache "
+                    + "configuration.  Max entries => [ "
+                    + maxEntries
+                    + " ], TTL => [ "
+                    + ttlMillis
+                    + " ] ms.  Values must be zero or greater.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis  = ttlMillis;
+        this.entries    = new LinkedHashMap<Long, Long>(64, 0.75f, false) {
+
+            /**
+             * Eclipse-generated serialVersionUID
+             */
+            private static final long serialVersionUID = -2871465190483627152L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if (size() > NoCoverageCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        LOGGER.info("No-coverage cache configured with a maximum of [ {} ] "
+                + "entries and a TTL of [ {} ] ms.", maxEntries, ttlMillis);
+    }
+
+    /**
+     * Determine whether the cell containing the input point is known to
+     * have no coverage for the input source type.
+     *
+     * @param lat The requested latitude value.
+     * @param lon The requested longitude value.
+     * @param source The source DEM type requested.
+     * @return True if a live entry exists for the cell and source type.
+     */
+    public boolean isNoCoverage(
+            double              lat,
+            double              lon,
+            TerrainDataFileType source) {
+        long key = getKey(lat, lon, source);
+        if (key < 0) {
+            return false;
+        }
+        Long expiration = null;
+        synchronized (entries) {
+            expiration = entries.get(key);
+            if ((expiration != null) && (expiration <= currentTimeMillis())) {
+                entries.remove(key);
+                expired.incrementAndGet();
+                expiration = null;
+            }
+        }
+        if (expiration != null) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Record that the cell containing the input point has no coverage for
+     * the input source type.
+     *
+     * @param lat The requested latitude value.
+     * @param lon The requested longitude value.
+     * @param source The source DEM type requested.
+     */
+    public void recordNoCoverage(
+            double              lat,
+            double              lon,
+            TerrainDataFileType source) {
+        recordNoCoverage(lat, lon, source, getGeneration());
+    }
+
+    /**
+     * Record that the cell containing the input point has no coverage for
+     * the input source type, as determined from the catalog in use at the
+     * time the input generation was current.  Nothing is recorded if the
+     * cache has since been invalidated.
+     *
+     * @param lat The requested latitude value.
+     * @param lon The requested longitude value.
+     * @param source The source DEM type requested.
+     * @param generation The generation captured before the catalog was
+     * read.
+     */
+    public void recordNoCoverage(
+            double              lat,
+            double              lon,
+            TerrainDataFileType source,
+            long                generation) {
+        long key = getKey(lat, lon, source);
+        if ((key < 0) || (maxEntries == 0) || (ttlMillis == 0)) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation != this.generation) {
+                stale.incrementAndGet();
+                return;
+            }
+            // Remove first so the refreshed entry moves to the tail.
+            entries.remove(key);
+            entries.put(key, currentTimeMillis() + ttlMillis);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Recorded no coverage for lat [ "
+                    + lat
+                    + " ], lon [ "
+                    + lon
+                    + " ] and source [ "
+                    + source
+                    + " ].");
+        }
+    }
+
+    /**
+     * Remove all entries from the cache and start a new generation.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Getter method for the current generation.
+     * @return The number of times the cache has been invalidated.
+     */
+    public long getGeneration() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Build the entry key for the input point and source type.
+     *
+     * @return The entry key, or -1 if the point is out of range.
+     */
+    private static long getKey(
+            double              lat,
+            double              lon,
+            TerrainDataFileType source) {
+        int index = TerrainDataCatalog.getCellIndex(lat, lon);
+        if (index < 0) {
+            return -1L;
+        }
+        if (source == null) {
+            source = TerrainDataFileType.BEST;
+        }
+        return ((long)index * NUM_TYPES) + source.ordinal();
+    }
+
+    /**
+     * Clock used for entry expiration.  Overridden in testing.
+     * @return The current time in ms.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Getter method for the number of lookups answered from the cache.
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Getter method for the number of lookups not answered from the cache.
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Getter method for the number of entries removed because their TTL
+     * elapsed.
+     * @return The number of expired entries.
+     */
+    public long getExpiredCount() {
+        return expired.get();
+    }
+
+    /**
+     * Getter method for the number of misses dropped because they were
+     * recorded against an older generation.
+     * @return The number of stale misses.
+     */
+    public long getStaleCount() {
+        return stale.get();
+    }
+
+    /**
+     * Getter method for the number of entries evicted from the cache.
+     * @return The number of cache evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Getter method for the maximum number of entries held in the cache.
+     * @return The maximum number of entries.
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Getter method for the number of entries currently in the cache
+     * (including any that have expired but not yet been looked up).
+     * @return The number of cached entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("NoCoverageCache : entries => [ ");
+        sb.append(size());
+        sb.append(" / ");
+        sb.append(getMaxEntries());
+        sb.append(" ], TTL => [ ");
+        sb.append(ttlMillis);
+        sb.append(" ] ms, hits => [ ");
+        sb.append(getHitCount());
+        sb.append(" ], misses => [ ");
+        sb.append(getMissCount());
+        sb.append(" ], expired => [ ");
+        sb.append(getExpiredCount());
+        sb.append(" ], stale => [ ");
+        sb.append(getStaleCount());
+        sb.append(" ], evictions => [ ");
+        sb.append(getEvictionCount());
+        sb.append(" ].");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,294 @@
+package mil.nga.elevation.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.dao.TerrainDataFile;
+import mil.nga.elevation.utils.CoordinateUtils;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Immutable in-memory index of the <code>TERRAIN_DATA_FILES</code> table.
+ * The entire table is small enough to hold in memory, so rather than
+ * issuing a query for every cell the records are bucketed once into arrays
+ * addressed by the 1-degree cell containing the requested point, i.e.
+ * <code>(lat + 90) * 360 + (lon + 180)</code>.  One array is held for the
+ * BEST source type and one for each of the specific source types.  Within
+ * each cell the records are pre-sorted by the <code>BEST</code> column so
+ * resolving the files for a point is a single array read.
+ *
+ * Records are matched to the source types on their normalised
+ * <code>SOURCE_TYPE</code> using
+ * <code>TerrainDataFile.getMatchingSourceTypes</code>, the same rule
+ * applied by the database queries, so the catalog and the database always
+ * select the same files.  Catalogs are rebuilt (rather than modified) when the underlying
+ * table changes, so a single instance may safely be shared between request
+ * threads.
+ *
+ * @author L. Craig Carpenter
+ */
+public class TerrainDataCatalog {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(TerrainDataCatalog.class);
+
+    /**
+     * Number of 1-degree cells of longitude.
+     */
+    public static final int NUM_LON_CELLS = 360;
+
+    /**
+     * Total number of 1-degree cells.
+     */
+    public static final int NUM_CELLS = 180 * NUM_LON_CELLS;
+
+    /**
+     * Records for each cell sorted by the BEST column.
+     */
+    private final List<TerrainDataFile>[] best;
+
+    /**
+     * Records for each cell and source type [type ordinal][cell].
+     */
+    private final List<TerrainDataFile>[][] bySource;
+
+    /**
+     * Source types available for each cell sorted by the BEST column.
+     */
+    private final List<String>[] coverage;
+
+    /**
+     * The number of records indexed.
+     */
+    private final int size;
+
+    /**
+     * Build the index from the full contents of the terrain data table.
+     *
+     * @param records All of the terrain data file records.
+     */
+    @SuppressWarnings("unchecked")
+    public TerrainDataCatalog(List<TerrainDataFile> records) {
+
+        TerrainDataFileType[] types = TerrainDataFileType.values();
+        best     = new List[NUM_CELLS];
+        coverage = new List[NUM_CELLS];
+        bySource = new List[types.length][];
+        for (int i=0; i<types.length; i++) {
+            bySource[i] = new List[NUM_CELLS];
+        }
+
+        // The source types that satisfy a request for each type.
+        List<TerrainDataFileType>[] matching = new List[types.length];
+        for (TerrainDataFileType type : types) {
+            matching[type.ordinal()] = TerrainDataFile.getMatchingSourceTypes(type);
+        }
+
+        // Sort once up front.  The sort is stable so records with the same
+        // quality retain their table order within each cell.
+        List<TerrainDataFile> sorted = new ArrayList<TerrainDataFile>();
+        if (records != null) {
+            sorted.addAll(records);
+        }
+        Collections.sort(sorted, new Comparator<TerrainDataFile>() {
+            @Override
+            public int compare(TerrainDataFile o1, TerrainDataFile o2) {
+                return Integer.compare(o1.getQuality(), o2.getQuality());
+            }
+        });
+
+        int counter = 0;
+        for (TerrainDataFile record : sorted) {
+            int index = getCellIndex(record);
+            if (index < 0) {
+                LOGGER.warn("Unable to index terrain data record [ "
+                        + record.toString()
+                        + " ].");
+                continue;
+            }
+            best[index]     = append(best[index], record);
+            coverage[index] = append(coverage[index], record.getSource());
+            for (TerrainDataFileType type : types) {
+                if (matching[type.ordinal()].contains(record.getSourceType())) {
+                    bySource[type.ordinal()][index] = append(
+                            bySource[type.ordinal()][index], record);
+                }
+            }
+            counter++;
+        }
+        size = counter;
+
+        // Freeze the cell lists so they may be handed directly to callers.
+        freeze(best);
+        freeze(coverage);
+        for (List<TerrainDataFile>[] cells : bySource) {
+            freeze(cells);
+        }
+    }
+
+    /**
+     * Append a value to a cell list, creating the list if necessary.
+     * @param list The current cell list (may be null).
+     * @param value The value to add.
+     * @return The cell list.
+     */
+    private static <T> List<T> append(List<T> list, T value) {
+        if (list == null) {
+            list = new ArrayList<T>(2);
+        }
+        list.add(value);
+        return list;
+    }
+
+    /**
+     * Replace each cell list with an unmodifiable view.  Empty cells are
+     * replaced with the shared empty list.
+     * @param cells The cell lists.
+     */
+    private static <T> void freeze(List<T>[] cells) {
+        for (int i=0; i<cells.length; i++) {
+            if (cells[i] == null) {
+                cells[i] = Collections.emptyList();
+            }
+            else {
+                cells[i] = Collections.unmodifiableList(cells[i]);
+            }
+        }
+    }
+
+    /**
+     * Calculate the array index of the cell containing the input point.
+     *
+     * @param lat The latitude in decimal degrees.
+     * @param lon The longitude in decimal degrees.
+     * @return The cell index, or -1 if the point is out of range.
+     */
+    public static int getCellIndex(double lat, double lon) {
+        return getCellIndex(
+                CoordinateUtils.truncate(lat),
+                CoordinateUtils.truncate(lon));
+    }
+
+    /**
+     * Calculate the array index of the cell with the input southwest
+     * corner.
+     *
+     * @param lat The cell latitude in integer degrees.
+     * @param lon The cell longitude in integer degrees.
+     * @return The cell index, or -1 if the cell is out of range.
+     */
+    public static int getCellIndex(int lat, int lon) {
+        if ((lat < -90) || (lat >= 90) || (lon < -180) || (lon >= 180)) {
+            return -1;
+        }
+        return ((lat + 90) * NUM_LON_CELLS) + (lon + 180);
+    }
+
+    /**
+     * Calculate the array index of the cell for an input record.  The 
+     * integer key columns are used when they have been populated, 
+     * otherwise the string keys are parsed.
+     * @param record The terrain data file record.
+     * @return The cell index, or -1 if the record keys are invalid.
+     */
+    public static int getCellIndex(TerrainDataFile record) {
+        if ((record.getLatDeg() != null) && (record.getLonDeg() != null)) {
+            return getCellIndex(
+                    record.getLatDeg().intValue(), 
+                    record.getLonDeg().intValue());
+        }
+        try {
+            return getCellIndex(
+                    CoordinateUtils.parseKey(record.getLat()),
+                    CoordinateUtils.parseKey(record.getLon()));
+        }
+        catch (NumberFormatException nfe) {
+            return -1;
+        }
+    }
+
+    /**
+     * Retrieve the terrain data files covering the input point.  For the
+     * BEST source type the records are ordered by the BEST column.
+     *
+     * @param lat The requested latitude value.
+     * @param lon The requested longitude value.
+     * @param source The source DEM type requested.
+     * @return The (unmodifiable) list of terrain data files.  Never null.
+     */
+    public List<TerrainDataFile> getTerrainDataFiles(
+            double              lat,
+            double              lon,
+            TerrainDataFileType source) {
+        return getTerrainDataFiles(getCellIndex(lat, lon), source);
+    }
+
+    /**
+     * Retrieve the terrain data files for the cell with the input index.
+     *
+     * @param index The cell index (see <code>getCellIndex</code>).
+     * @param source The source DEM type requested.
+     * @return The (unmodifiable) list of terrain data files.  Never null.
+     */
+    public List<TerrainDataFile> getTerrainDataFiles(
+            int                 index,
+            TerrainDataFileType source) {
+        if ((index < 0) || (index >= NUM_CELLS)) {
+            return Collections.emptyList();
+        }
+        if ((source == null) || (source == TerrainDataFileType.BEST)) {
+            return best[index];
+        }
+        return bySource[source.ordinal()][index];
+    }
+
+    /**
+     * Calculate the latitude of the southwest corner of a cell.
+     * @param index The cell index.
+     * @return The cell latitude in integer degrees.
+     */
+    public static int getCellLat(int index) {
+        return (index / NUM_LON_CELLS) - 90;
+    }
+
+    /**
+     * Calculate the longitude of the southwest corner of a cell.
+     * @param index The cell index.
+     * @return The cell longitude in integer degrees.
+     */
+    public static int getCellLon(int index) {
+        return (index % NUM_LON_CELLS) - 180;
+    }
+
+    /**
+     * Retrieve the list of source DEM types available for the input point
+     * ordered by the BEST column.
+     *
+     * @param lat The requested latitude value.
+     * @param lon The requested longitude value.
+     * @return The (unmodifiable) list of source types.  Never null.
+     */
+    public List<String> getCoverageAvailable(double lat, double lon) {
+        int index = getCellIndex(lat, lon);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        return coverage[index];
+    }
+
+    /**
+     * Getter method for the number of records indexed.
+     * @return The number of records indexed.
+     */
+    public int size() {
+        return size;
+    }
+}
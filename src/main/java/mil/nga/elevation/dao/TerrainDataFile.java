@@ -1,12 +1,20 @@
 package mil.nga.elevation.dao;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
+import mil.nga.elevation.utils.CoordinateUtils;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
 /**
  * This entity represents a row in the <code>TERRAIN_DATA_FILES</code> table
  * which contains a listing of various DTED frame files, the lower-left 
@@ -14,10 +22,25 @@ import javax.persistence.Table;
  * frame data is.  The higher the number associated with the <code>BEST<code>
  * column, the lower quality the data is assumed to be. 
  * 
+ * The original string-based <code>TYP</code>, <code>LAT</code> and 
+ * <code>LON</code> columns (e.g. "DTED1   ", "n38", "w077") cannot be 
+ * range-scanned and the source column must be matched with a wildcard, 
+ * so they are mirrored by the integer <code>LAT_DEG</code> and 
+ * <code>LON_DEG</code> columns and the normalised (trimmed, upper case 
+ * enumeration name) <code>SOURCE_TYPE</code> column.  Catalog queries are 
+ * issued against the mirrored columns, which are covered by composite 
+ * indexes.  The setters for the string columns keep the mirrored columns 
+ * in step; existing tables are back-filled by the scripts under 
+ * <code>db/</code>.
+ * 
  * @author L. Craig Carpenter
  */
 @Entity
-@Table(name="TERRAIN_DATA_FILES")
+@Table(name="TERRAIN_DATA_FILES", indexes={
+        @Index(name="TDF_SRC_LAT_LON_BEST", 
+               columnList="SOURCE_TYPE, LAT_DEG, LON_DEG, BEST"),
+        @Index(name="TDF_LAT_LON_BEST", 
+               columnList="LAT_DEG, LON_DEG, BEST")})
 public class TerrainDataFile implements Serializable {
 
     /**
@@ -52,6 +75,25 @@ public class TerrainDataFile implements Serializable {
     @Column(name="LON")
     String lon;
     
+    /**
+     * Normalised source terrain file type.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name="SOURCE_TYPE")
+    TerrainDataFileType sourceType;
+    
+    /**
+     * Latitude (integer degrees) of lower-left coordinate of DEM frame.
+     */
+    @Column(name="LAT_DEG")
+    Integer latDeg;
+    
+    /**
+     * Longitude (integer degrees) of lower-left coordinate of DEM frame.
+     */
+    @Column(name="LON_DEG")
+    Integer lonDeg;
+    
     /**
      * Windows path to the DEM file on the filesystem.
      */
@@ -108,6 +150,35 @@ public class TerrainDataFile implements Serializable {
         return lon;
     }
     
+    /**
+     * Getter method for the normalised source terrain file type.
+     * @return The source type, or null if the source column does not 
+     * contain a known type.
+     */
+    public TerrainDataFileType getSourceType() {
+        return sourceType;
+    }
+    
+    /**
+     * Getter method for the latitude (integer degrees) of lower-left 
+     * coordinate of DEM frame.
+     * @return Lower-left latitude of the DEM frame, or null if the 
+     * latitude key is not valid.
+     */
+    public Integer getLatDeg() {
+        return latDeg;
+    }
+    
+    /**
+     * Getter method for the longitude (integer degrees) of lower-left 
+     * coordinate of DEM frame.
+     * @return Lower-left longitude of the DEM frame, or null if the 
+     * longitude key is not valid.
+     */
+    public Integer getLonDeg() {
+        return lonDeg;
+    }
+    
     /**
      * Getter method for the primary key.
      * @return The primary key.
@@ -157,25 +228,28 @@ public class TerrainDataFile implements Serializable {
      * @param value The source type.
      */
     public void setSource(String value) {
-        source = value;
+        source     = value;
+        sourceType = normaliseSource(value);
     }
     
     /**
      * Setter method for the latitude value of lower-left coordinate of 
-     * DEM frame.
+     * DEM frame.  The integer latitude is updated to match.
      * @param value Lower-left latitude value of the DEM frame.
      */
     public void setLat(String value) {
-        lat = value;
+        lat    = value;
+        latDeg = parseDegrees(value);
     }
     
     /**
      * Setter method for the longitude value of lower-left coordinate of 
-     * DEM frame.
+     * DEM frame.  The integer longitude is updated to match.
      * @param value Lower-left longitude value of the DEM frame.
      */
     public void setLon(String value) {
-        lon = value;
+        lon    = value;
+        lonDeg = parseDegrees(value);
     }
     
     /**
@@ -221,6 +295,65 @@ public class TerrainDataFile implements Serializable {
         marking = value;
     }
     
+    /**
+     * Convert the contents of the <code>TYP</code> column into the 
+     * normalised source type.
+     * @param value The source column value (may contain trailing spaces).
+     * @return The source type, or null if the value is not a known type.
+     */
+    public static TerrainDataFileType normaliseSource(String value) {
+        if ((value == null) || (value.trim().isEmpty())) {
+            return null;
+        }
+        try {
+            return TerrainDataFileType.valueOf(value.trim().toUpperCase());
+        }
+        catch (IllegalArgumentException iae) {
+            return null;
+        }
+    }
+    
+    /**
+     * Calculate the normalised source types that satisfy a request for 
+     * the input source type.  Consistent with the wildcard match 
+     * previously applied to the <code>TYP</code> column, a type matches 
+     * if its name contains the requested name (e.g. a request for SRTM1 
+     * is satisfied by both SRTM1 and SRTM1F).  The BEST pseudo-type is 
+     * never stored.
+     * @param source The requested source type.
+     * @return The matching source types.  Empty if the input is null or 
+     * BEST.
+     */
+    public static List<TerrainDataFileType> getMatchingSourceTypes(
+            TerrainDataFileType source) {
+        List<TerrainDataFileType> types = new ArrayList<TerrainDataFileType>();
+        if ((source != null) && (source != TerrainDataFileType.BEST)) {
+            for (TerrainDataFileType type : TerrainDataFileType.values()) {
+                if ((type != TerrainDataFileType.BEST) && 
+                        (type.name().contains(source.name()))) {
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+    
+    /**
+     * Convert a latitude or longitude key (e.g. "n38" or "w077") into
+     * integer degrees.
+     * @see mil.nga.elevation.utils.CoordinateUtils#parseKey(String)
+     * @param value The key.
+     * @return The integer degrees, or null if the key is not valid.
+     */
+    private static Integer parseDegrees(String value) {
+        try {
+            return CoordinateUtils.parseKey(value);
+        }
+        catch (NumberFormatException nfe) {
+            return null;
+        }
+    }
+    
     /**
      * Convert the object to a printable String.
      */
@@ -234,6 +367,12 @@ public class TerrainDataFile implements Serializable {
         sb.append(getLat());
         sb.append(" ], lon => [ ");
         sb.append(getLon());
+        sb.append(" ], source type => [ ");
+        sb.append(getSourceType());
+        sb.append(" ], lat deg => [ ");
+        sb.append(getLatDeg());
+        sb.append(" ], lon deg => [ ");
+        sb.append(getLonDeg());
         sb.append(" ], windows path => [ ");
         sb.append(getWindowsPath());
         sb.append(" ], unix path => [ ");
@@ -291,7 +430,8 @@ public class TerrainDataFile implements Serializable {
     public String toInsertStatement() {
         StringBuilder sb = new StringBuilder();
         sb.append("INSERT INTO TERRAIN_DATA_FILES(");
-        sb.append("ROWID, TYP, LAT, LON, WIN_PATH, UNIX_PATH, BEST, MARKING) ");
+        sb.append("ROWID, TYP, LAT, LON, SOURCE_TYPE, LAT_DEG, LON_DEG, ");
+        sb.append("WIN_PATH, UNIX_PATH, BEST, MARKING) ");
         sb.append("VALUES (");
         sb.append(addTickMarks(rowId));
         sb.append(", ");
@@ -301,6 +441,12 @@ public class TerrainDataFile implements Serializable {
         sb.append(", ");
         sb.append(addTickMarks(getLon()));
         sb.append(", ");
+        sb.append(getSourceType() == null ? "NULL" : addTickMarks(getSourceType().name()));
+        sb.append(", ");
+        sb.append(getLatDeg() == null ? "NULL" : getLatDeg().toString());
+        sb.append(", ");
+        sb.append(getLonDeg() == null ? "NULL" : getLonDeg().toString());
+        sb.append(", ");
         sb.append(addTickMarks(getWindowsPath()));
         sb.append(", ");
         sb.append(addTickMarks(getUnixPath()));
@@ -1,5 +1,6 @@
 package mil.nga.elevation.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
 /**
  * The Spring Data JPA interface class defining the database repository 
  * containing data associated with the available terrain data files.  
@@ -21,24 +24,24 @@ public interface TerrainDataFileDAO
 
     /**
      * Method used to retrieve a list of terrain data files based on the 
-     * caller supplied latitude and longitude and source type.  We found
-     * during testing that the database column containing the source DEM
-     * type contains trailing spaces.  That means we cannot query as an
-     * enumeration type and we have to include wildcards in the JPQL query
-     * definition.
+     * caller supplied latitude and longitude and source types.  The query 
+     * is issued against the integer and normalised source columns so that 
+     * it can be satisfied by the <code>TDF_SRC_LAT_LON_BEST</code> index.
+     * Results are sorted by the <code>BEST</code> column.
      * 
-     * @param lat The latitude value.
-     * @param lon The longitude value.
-     * @param source The DEM source to use for the calculation of elevation 
-     * model data.
+     * @param lat The latitude (integer degrees).
+     * @param lon The longitude (integer degrees).
+     * @param sources The DEM source types to use for the calculation of 
+     * elevation model data (see 
+     * <code>TerrainDataFile.getMatchingSourceTypes</code>).
      * @return A <code>List</code> of terrain data files matching the input 
      * latitude/longitude coordinate pair.
      */
-    @Query("SELECT T FROM TerrainDataFile T WHERE T.lat = :latitude AND T.lon = :longitude AND T.source LIKE '%' || UPPER(:source) || '%'")
+    @Query("SELECT T FROM TerrainDataFile T WHERE T.sourceType IN :sources AND T.latDeg = :latitude AND T.lonDeg = :longitude order by T.best")
     public List<TerrainDataFile> findByLatAndLonAndSource (
-            @Param("latitude")  String lat, 
-            @Param("longitude") String lon, 
-            @Param("source")    String source);
+            @Param("latitude")  int lat, 
+            @Param("longitude") int lon, 
+            @Param("sources")   Collection<TerrainDataFileType> sources);
     
     /**
      * Method used to retrieve a list of terrain data files based on the 
@@ -46,27 +49,65 @@ public interface TerrainDataFileDAO
      * caller asked for the best available source DEM.  Results are sorted 
      * by the <code>BEST</code> column. 
      * 
-     * @param lat The latitude value.
-     * @param lon The longitude value.
+     * @param lat The latitude (integer degrees).
+     * @param lon The longitude (integer degrees).
      * @return A <code>List</code> of terrain data files matching the input 
      * latitude/longitude coordinate pair.
      */
-    @Query("SELECT T FROM TerrainDataFile T WHERE T.lat = :latitude AND T.lon = :longitude order by T.best")
+    @Query("SELECT T FROM TerrainDataFile T WHERE T.latDeg = :latitude AND T.lonDeg = :longitude order by T.best")
     public List<TerrainDataFile> findByLatAndLon (
-            @Param("latitude")  String lat, 
-            @Param("longitude") String lon);
+            @Param("latitude")  int lat, 
+            @Param("longitude") int lon);
     
     /**
      * Method used to retrieve a list of source DEM types available for a
      * caller supplied latitude and longitude.  
      * 
-     * @param lat The latitude value.
-     * @param lon The longitude value.
+     * @param lat The latitude (integer degrees).
+     * @param lon The longitude (integer degrees).
      * @return A <code>List</code> of DEM types available for a given 
      * latitude/longitude coordinate pair.
      */
-    @Query("SELECT T.source FROM TerrainDataFile T WHERE T.lat = :latitude AND T.lon = :longitude order by T.best")
+    @Query("SELECT T.source FROM TerrainDataFile T WHERE T.latDeg = :latitude AND T.lonDeg = :longitude order by T.best")
     public List<String> findCoverageByLatAndLon(
-            @Param("latitude")  String lat, 
-            @Param("longitude") String lon);
+            @Param("latitude")  int lat, 
+            @Param("longitude") int lon);
+    
+    /**
+     * Method used to retrieve, in a single query, the terrain data files 
+     * for every cell formed by the caller supplied latitudes, longitudes 
+     * and source types.  The result covers the cross product of the 
+     * input values; callers interested in a subset of those cells must 
+     * filter the output.  Results are sorted by the <code>BEST</code> 
+     * column.
+     * 
+     * @param lats The latitudes (integer degrees).
+     * @param lons The longitudes (integer degrees).
+     * @param sources The DEM source types to use for the calculation of 
+     * elevation model data.
+     * @return A <code>List</code> of terrain data files matching the input 
+     * values.
+     */
+    @Query("SELECT T FROM TerrainDataFile T WHERE T.sourceType IN :sources AND T.latDeg IN :latitudes AND T.lonDeg IN :longitudes order by T.best")
+    public List<TerrainDataFile> findByLatInAndLonInAndSource(
+            @Param("latitudes")  Collection<Integer> lats, 
+            @Param("longitudes") Collection<Integer> lons, 
+            @Param("sources")    Collection<TerrainDataFileType> sources);
+    
+    /**
+     * Method used to retrieve, in a single query, the terrain data files 
+     * for every cell formed by the caller supplied latitudes and 
+     * longitudes.  This method assumes that the caller asked for the best 
+     * available source DEM.  Results are sorted by the <code>BEST</code> 
+     * column.
+     * 
+     * @param lats The latitudes (integer degrees).
+     * @param lons The longitudes (integer degrees).
+     * @return A <code>List</code> of terrain data files matching the input 
+     * values.
+     */
+    @Query("SELECT T FROM TerrainDataFile T WHERE T.latDeg IN :latitudes AND T.lonDeg IN :longitudes order by T.best")
+    public List<TerrainDataFile> findByLatInAndLonIn(
+            @Param("latitudes")  Collection<Integer> lats, 
+            @Param("longitudes") Collection<Integer> lons);
 }
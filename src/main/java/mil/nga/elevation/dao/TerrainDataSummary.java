@@ -0,0 +1,514 @@
+package mil.nga.elevation.dao;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * This entity represents a row in the <code>TERRAIN_DATA_SUMMARIES</code>
+ * table which contains precomputed statistics for each of the DEM frame
+ * files listed in the <code>TERRAIN_DATA_FILES</code> table.  Rows are
+ * keyed by the Unix path of the frame and are generated offline by the
+ * <code>SummarySQLGenerator</code> utility.  Elevation values are the raw
+ * post values (i.e. meters referenced to EGM96).  The file size and last
+ * modified time are recorded so that summaries that no longer match the
+ * file on disk can be detected and ignored.
+ *
+ * @author L. Craig Carpenter
+ */
+@Entity
+@Table(name="TERRAIN_DATA_SUMMARIES")
+public class TerrainDataSummary implements Serializable {
+
+    /**
+     * Eclipse-generated serialVersionUID
+     */
+    private static final long serialVersionUID = 6093402188521417532L;
+
+    /**
+     * Unix/Linux path to the DEM file on the filesystem.  Matches the
+     * <code>UNIX_PATH</code> column of the <code>TERRAIN_DATA_FILES</code>
+     * table.
+     */
+    @Id
+    @Column(name="UNIX_PATH")
+    String unixPath;
+
+    /**
+     * Size of the DEM file (in bytes) at the time it was summarized.
+     */
+    @Column(name="FILE_SIZE")
+    long fileSize;
+
+    /**
+     * Last modified time of the DEM file (in milliseconds since the epoch)
+     * at the time it was summarized.
+     */
+    @Column(name="LAST_MODIFIED")
+    long lastModified;
+
+    /**
+     * Minimum elevation post value.
+     */
+    @Column(name="MIN_ELEV")
+    int minElevation;
+
+    /**
+     * Latitude of the minimum elevation post.
+     */
+    @Column(name="MIN_LAT")
+    double minElevationLat;
+
+    /**
+     * Longitude of the minimum elevation post.
+     */
+    @Column(name="MIN_LON")
+    double minElevationLon;
+
+    /**
+     * Maximum elevation post value.
+     */
+    @Column(name="MAX_ELEV")
+    int maxElevation;
+
+    /**
+     * Latitude of the maximum elevation post.
+     */
+    @Column(name="MAX_LAT")
+    double maxElevationLat;
+
+    /**
+     * Longitude of the maximum elevation post.
+     */
+    @Column(name="MAX_LON")
+    double maxElevationLon;
+
+    /**
+     * Mean of the non-void elevation posts.
+     */
+    @Column(name="MEAN_ELEV")
+    double meanElevation;
+
+    /**
+     * Total number of posts in the frame.
+     */
+    @Column(name="POST_COUNT")
+    long postCount;
+
+    /**
+     * Number of void posts in the frame.
+     */
+    @Column(name="VOID_COUNT")
+    long voidCount;
+
+    /**
+     * Absolute horizontal accuracy (meters).
+     */
+    @Column(name="ABS_HORZ_ACC")
+    int absHorzAccuracy;
+
+    /**
+     * Absolute vertical accuracy (meters).
+     */
+    @Column(name="ABS_VERT_ACC")
+    int absVertAccuracy;
+
+    /**
+     * Relative horizontal accuracy (meters).
+     */
+    @Column(name="REL_HORZ_ACC")
+    int relHorzAccuracy;
+
+    /**
+     * Relative vertical accuracy (meters).
+     */
+    @Column(name="REL_VERT_ACC")
+    int relVertAccuracy;
+
+    /**
+     * Producer code extracted from the frame DSI record.
+     */
+    @Column(name="PRODUCER")
+    String producerCode;
+
+    /**
+     * Default no-arg constructor.
+     */
+    public TerrainDataSummary() {}
+
+    /**
+     * Getter method for the unix/linux path to the DEM file.
+     * @return Path on the file system.
+     */
+    public String getUnixPath() {
+        return unixPath;
+    }
+
+    /**
+     * Getter method for the size of the DEM file when summarized.
+     * @return The file size in bytes.
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Getter method for the last modified time of the DEM file when
+     * summarized.
+     * @return The last modified time in milliseconds since the epoch.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Getter method for the minimum elevation post value.
+     * @return The minimum elevation.
+     */
+    public int getMinElevation() {
+        return minElevation;
+    }
+
+    /**
+     * Getter method for the latitude of the minimum elevation post.
+     * @return The latitude of the minimum elevation.
+     */
+    public double getMinElevationLat() {
+        return minElevationLat;
+    }
+
+    /**
+     * Getter method for the longitude of the minimum elevation post.
+     * @return The longitude of the minimum elevation.
+     */
+    public double getMinElevationLon() {
+        return minElevationLon;
+    }
+
+    /**
+     * Getter method for the maximum elevation post value.
+     * @return The maximum elevation.
+     */
+    public int getMaxElevation() {
+        return maxElevation;
+    }
+
+    /**
+     * Getter method for the latitude of the maximum elevation post.
+     * @return The latitude of the maximum elevation.
+     */
+    public double getMaxElevationLat() {
+        return maxElevationLat;
+    }
+
+    /**
+     * Getter method for the longitude of the maximum elevation post.
+     * @return The longitude of the maximum elevation.
+     */
+    public double getMaxElevationLon() {
+        return maxElevationLon;
+    }
+
+    /**
+     * Getter method for the mean of the non-void elevation posts.
+     * @return The mean elevation.
+     */
+    public double getMeanElevation() {
+        return meanElevation;
+    }
+
+    /**
+     * Getter method for the total number of posts in the frame.
+     * @return The number of posts.
+     */
+    public long getPostCount() {
+        return postCount;
+    }
+
+    /**
+     * Getter method for the number of void posts in the frame.
+     * @return The number of void posts.
+     */
+    public long getVoidCount() {
+        return voidCount;
+    }
+
+    /**
+     * Getter method for the absolute horizontal accuracy.
+     * @return The absolute horizontal accuracy.
+     */
+    public int getAbsHorzAccuracy() {
+        return absHorzAccuracy;
+    }
+
+    /**
+     * Getter method for the absolute vertical accuracy.
+     * @return The absolute vertical accuracy.
+     */
+    public int getAbsVertAccuracy() {
+        return absVertAccuracy;
+    }
+
+    /**
+     * Getter method for the relative horizontal accuracy.
+     * @return The relative horizontal accuracy.
+     */
+    public int getRelHorzAccuracy() {
+        return relHorzAccuracy;
+    }
+
+    /**
+     * Getter method for the relative vertical accuracy.
+     * @return The relative vertical accuracy.
+     */
+    public int getRelVertAccuracy() {
+        return relVertAccuracy;
+    }
+
+    /**
+     * Getter method for the producer code.
+     * @return The producer code.
+     */
+    public String getProducerCode() {
+        return producerCode;
+    }
+
+    /**
+     * Setter method for the unix/linux path to the DEM file.
+     * @param value Path on the file system.
+     */
+    public void setUnixPath(String value) {
+        unixPath = value;
+    }
+
+    /**
+     * Setter method for the size of the DEM file when summarized.
+     * @param value The file size in bytes.
+     */
+    public void setFileSize(long value) {
+        fileSize = value;
+    }
+
+    /**
+     * Setter method for the last modified time of the DEM file when
+     * summarized.
+     * @param value The last modified time in milliseconds since the epoch.
+     */
+    public void setLastModified(long value) {
+        lastModified = value;
+    }
+
+    /**
+     * Setter method for the minimum elevation post value.
+     * @param value The minimum elevation.
+     */
+    public void setMinElevation(int value) {
+        minElevation = value;
+    }
+
+    /**
+     * Setter method for the latitude of the minimum elevation post.
+     * @param value The latitude of the minimum elevation.
+     */
+    public void setMinElevationLat(double value) {
+        minElevationLat = value;
+    }
+
+    /**
+     * Setter method for the longitude of the minimum elevation post.
+     * @param value The longitude of the minimum elevation.
+     */
+    public void setMinElevationLon(double value) {
+        minElevationLon = value;
+    }
+
+    /**
+     * Setter method for the maximum elevation post value.
+     * @param value The maximum elevation.
+     */
+    public void setMaxElevation(int value) {
+        maxElevation = value;
+    }
+
+    /**
+     * Setter method for the latitude of the maximum elevation post.
+     * @param value The latitude of the maximum elevation.
+     */
+    public void setMaxElevationLat(double value) {
+        maxElevationLat = value;
+    }
+
+    /**
+     * Setter method for the longitude of the maximum elevation post.
+     * @param value The longitude of the maximum elevation.
+     */
+    public void setMaxElevationLon(double value) {
+        maxElevationLon = value;
+    }
+
+    /**
+     * Setter method for the mean of the non-void elevation posts.
+     * @param value The mean elevation.
+     */
+    public void setMeanElevation(double value) {
+        meanElevation = value;
+    }
+
+    /**
+     * Setter method for the total number of posts in the frame.
+     * @param value The number of posts.
+     */
+    public void setPostCount(long value) {
+        postCount = value;
+    }
+
+    /**
+     * Setter method for the number of void posts in the frame.
+     * @param value The number of void posts.
+     */
+    public void setVoidCount(long value) {
+        voidCount = value;
+    }
+
+    /**
+     * Setter method for the absolute horizontal accuracy.
+     * @param value The absolute horizontal accuracy.
+     */
+    public void setAbsHorzAccuracy(int value) {
+        absHorzAccuracy = value;
+    }
+
+    /**
+     * Setter method for the absolute vertical accuracy.
+     * @param value The absolute vertical accuracy.
+     */
+    public void setAbsVertAccuracy(int value) {
+        absVertAccuracy = value;
+    }
+
+    /**
+     * Setter method for the relative horizontal accuracy.
+     * @param value The relative horizontal accuracy.
+     */
+    public void setRelHorzAccuracy(int value) {
+        relHorzAccuracy = value;
+    }
+
+    /**
+     * Setter method for the relative vertical accuracy.
+     * @param value The relative vertical accuracy.
+     */
+    public void setRelVertAccuracy(int value) {
+        relVertAccuracy = value;
+    }
+
+    /**
+     * Setter method for the producer code.
+     * @param value The producer code.
+     */
+    public void setProducerCode(String value) {
+        producerCode = value;
+    }
+
+    /**
+     * Convert the object to a printable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("TerrainDataSummary : unix path => [ ");
+        sb.append(getUnixPath());
+        sb.append(" ], file size => [ ");
+        sb.append(getFileSize());
+        sb.append(" ], last modified => [ ");
+        sb.append(getLastModified());
+        sb.append(" ], min => [ ");
+        sb.append(getMinElevation());
+        sb.append(" ] at lat/lon [ ");
+        sb.append(getMinElevationLat());
+        sb.append(" , ");
+        sb.append(getMinElevationLon());
+        sb.append(" ], max => [ ");
+        sb.append(getMaxElevation());
+        sb.append(" ] at lat/lon [ ");
+        sb.append(getMaxElevationLat());
+        sb.append(" , ");
+        sb.append(getMaxElevationLon());
+        sb.append(" ], mean => [ ");
+        sb.append(getMeanElevation());
+        sb.append(" ], posts => [ ");
+        sb.append(getPostCount());
+        sb.append(" ], voids => [ ");
+        sb.append(getVoidCount());
+        sb.append(" ], producer => [ ");
+        sb.append(getProducerCode());
+        sb.append(" ].");
+        return sb.toString();
+    }
+
+    /**
+     * Convenience method to add single tick-marks to string-based
+     * field values.
+     * @param field The field value.
+     * @return The field value wrapped in single quotes.
+     */
+    private String addTickMarks(String field) {
+        String result="''";
+        if ((field != null) && (!field.isEmpty())) {
+            result = "'"+field.trim()+"'";
+        }
+        return result;
+    }
+
+    /**
+     * Assuming a fully populated Object, generate the associated SQL
+     * statement that would insert the record into a target data source.
+     * @return The SQL insert statement.
+     */
+    public String toInsertStatement() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("INSERT INTO TERRAIN_DATA_SUMMARIES(");
+        sb.append("UNIX_PATH, FILE_SIZE, LAST_MODIFIED, MIN_ELEV, MIN_LAT, "
+                + "MIN_LON, MAX_ELEV, MAX_LAT, MAX_LON, MEAN_ELEV, POST_COUNT, "
+                + "VOID_COUNT, ABS_HORZ_ACC, ABS_VERT_ACC, REL_HORZ_ACC, "
+                + "REL_VERT_ACC, PRODUCER) ");
+        sb.append("VALUES (");
+        sb.append(addTickMarks(getUnixPath()));
+        sb.append(", ");
+        sb.append(getFileSize());
+        sb.append(", ");
+        sb.append(getLastModified());
+        sb.append(", ");
+        sb.append(getMinElevation());
+        sb.append(", ");
+        sb.append(getMinElevationLat());
+        sb.append(", ");
+        sb.append(getMinElevationLon());
+        sb.append(", ");
+        sb.append(getMaxElevation());
+        sb.append(", ");
+        sb.append(getMaxElevationLat());
+        sb.append(", ");
+        sb.append(getMaxElevationLon());
+        sb.append(", ");
+        sb.append(getMeanElevation());
+        sb.append(", ");
+        sb.append(getPostCount());
+        sb.append(", ");
+        sb.append(getVoidCount());
+        sb.append(", ");
+        sb.append(getAbsHorzAccuracy());
+        sb.append(", ");
+        sb.append(getAbsVertAccuracy());
+        sb.append(", ");
+        sb.append(getRelHorzAccuracy());
+        sb.append(", ");
+        sb.append(getRelVertAccuracy());
+        sb.append(", ");
+        sb.append(addTickMarks(getProducerCode()));
+        sb.append(");");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package mil.nga.elevation.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The Spring Data JPA interface class defining the database repository
+ * containing the precomputed per-frame elevation summaries.  Summaries are
+ * keyed by the Unix path of the DEM frame file.
+ *
+ * @author L. Craig Carpenter
+ */
+@Repository
+public interface TerrainDataSummaryDAO
+        extends JpaRepository<TerrainDataSummary, String> { }
@@ -201,6 +201,86 @@ public class GeoidHeightFactory {
                 deltaLon);
     }
     
+    /**
+     * Build a compact lattice of geoid heights covering a regular grid of 
+     * posts (e.g. a DTED frame).  Post (column, row) lies at latitude 
+     * <code>originLat + row * latSpacing</code> and longitude 
+     * <code>originLon + column * lonSpacing</code>.  The heights returned by 
+     * the lattice are identical to those returned by 
+     * <code>getHeight()</code> for the same post positions.
+     * 
+     * @param originLat Latitude of row 0.
+     * @param originLon Longitude of column 0.
+     * @param latSpacing Latitude spacing between posts.
+     * @param lonSpacing Longitude spacing between posts.
+     * @param numColumns Number of post columns.
+     * @param numRows Number of post rows.
+     * @return The geoid height lattice.
+     * @throws IllegalArgumentException Thrown if any of the posts are out 
+     * of range.
+     */
+    public GeoidOffsetGrid getOffsetGrid(
+            double originLat, 
+            double originLon,
+            double latSpacing,
+            double lonSpacing,
+            int    numColumns,
+            int    numRows) {
+        
+        double   latGridSpacing = grid.getLatSpacing();
+        double   lonGridSpacing = grid.getLonSpacing();
+        int[]    band           = new int[numRows];
+        double[] lowerWeight    = new double[numRows];
+        double[] upperWeight    = new double[numRows];
+        int      minLatIndex    = Integer.MAX_VALUE;
+        int      maxLatIndex    = Integer.MIN_VALUE;
+        
+        // Latitude weights are computed once per post row.
+        for (int row = 0; row < numRows; row++) {
+            double lat = originLat + (row * latSpacing);
+            if ((lat < -90.0) || (lat > 90.0)) { 
+                throw new IllegalArgumentException("Latitude value out of range.  "
+                        + "Must be in the range -90.0..90.0.");
+            }
+            int    latIndex = (int)Math.floor(normalizeLat(lat)/latGridSpacing);
+            double deltaLat = (normalizeLat(lat) - latIndex*latGridSpacing);
+            band[row]        = latIndex;
+            lowerWeight[row] = (latGridSpacing-deltaLat)/latGridSpacing;
+            upperWeight[row] = deltaLat/latGridSpacing;
+            minLatIndex      = Math.min(minLatIndex, latIndex);
+            maxLatIndex      = Math.max(maxLatIndex, latIndex);
+        }
+        for (int row = 0; row < numRows; row++) {
+            band[row] -= minLatIndex;
+        }
+        
+        // Each post column is interpolated in longitude at every grid 
+        // row spanned by the frame.
+        if (numRows == 0) {
+            return new GeoidOffsetGrid(1, new double[numColumns], 
+                    band, lowerWeight, upperWeight);
+        }
+        int      stride = maxLatIndex - minLatIndex + 2;
+        double[] nodes  = new double[numColumns * stride];
+        for (int column = 0; column < numColumns; column++) {
+            double lon = originLon + (column * lonSpacing);
+            if ((lon < -180.0) || (lon > 180.0)) {
+                throw new IllegalArgumentException("Longitude value out of range.  "
+                        + "Must be in the range -180.0..180.0.");
+            }
+            int    lonIndex = (int)Math.floor(normalizeLon(lon)/lonGridSpacing);
+            double deltaLon = (normalizeLon(lon) - lonIndex*lonGridSpacing);
+            double left     = (lonGridSpacing-deltaLon)/lonGridSpacing;
+            double right    = deltaLon/lonGridSpacing;
+            for (int k = 0; k < stride; k++) {
+                nodes[(column * stride) + k] = 
+                        left*grid.getGridValue(minLatIndex + k, lonIndex) +
+                        right*grid.getGridValue(minLatIndex + k, lonIndex+1);
+            }
+        }
+        return new GeoidOffsetGrid(stride, nodes, band, lowerWeight, upperWeight);
+    }
+    
     /**
      * Return an instance of the <code>GeoidHeightFactory</code> singleton object.
      * 
@@ -0,0 +1,144 @@
+/**
+ * UNCLASSIFIED
+ */
+package mil.nga.elevation.egm96;
+
+/**
+ * Compact lattice of EGM96 geoid heights covering the posts of a single
+ * DEM frame.  The EGM96 grid has 15 arc-minute spacing so a 1-degree
+ * frame touches at most a 6x6 block of grid nodes.  For each post column
+ * the grid is interpolated in longitude at each of the grid rows spanned
+ * by the frame, and for each post row the latitude weights are computed
+ * once.  The height at an individual post is then a two-term blend of
+ * precomputed values rather than a full range-checked bilinear
+ * interpolation.  The arithmetic is performed in the same order as
+ * <code>GeoidHeightFactory.getHeight()</code> so the results are
+ * identical.
+ *
+ * Instances are obtained from
+ * <code>GeoidHeightFactory.getOffsetGrid()</code>.
+ *
+ * @author L. Craig Carpenter
+ */
+public class GeoidOffsetGrid {
+
+    /**
+     * Number of grid rows held for each post column.
+     */
+    private final int stride;
+
+    /**
+     * Longitude-interpolated heights [column * stride + grid row].
+     */
+    private final double[] nodes;
+
+    /**
+     * Index of the grid row below each post row.
+     */
+    private final int[] band;
+
+    /**
+     * Weight applied to the grid row below each post row.
+     */
+    private final double[] lowerWeight;
+
+    /**
+     * Weight applied to the grid row above each post row.
+     */
+    private final double[] upperWeight;
+
+    /**
+     * Constructor used by <code>GeoidHeightFactory</code>.
+     *
+     * @param stride Number of grid rows held for each post column.
+     * @param nodes Longitude-interpolated heights.
+     * @param band Index of the grid row below each post row.
+     * @param lowerWeight Weight applied to the lower grid row.
+     * @param upperWeight Weight applied to the upper grid row.
+     */
+    protected GeoidOffsetGrid(
+            int      stride,
+            double[] nodes,
+            int[]    band,
+            double[] lowerWeight,
+            double[] upperWeight) {
+        this.stride      = stride;
+        this.nodes       = nodes;
+        this.band        = band;
+        this.lowerWeight = lowerWeight;
+        this.upperWeight = upperWeight;
+    }
+
+    /**
+     * Obtain the geoid height (i.e. difference between geoid and ellipsoid)
+     * at the input post.
+     *
+     * @param column The post column (longitude index).
+     * @param row The post row (latitude index).
+     * @return The geoid height at the post.
+     */
+    public double getHeight(int column, int row) {
+        int index = (column * stride) + band[row];
+        return (lowerWeight[row] * nodes[index]) +
+                (upperWeight[row] * nodes[index + 1]);
+    }
+
+    /**
+     * Obtain the geoid height at the input post truncated to an integer
+     * for applying to the integer post values.
+     *
+     * @param column The post column (longitude index).
+     * @param row The post row (latitude index).
+     * @return The integer geoid offset at the post.
+     */
+    public int getOffset(int column, int row) {
+        return (int)getHeight(column, row);
+    }
+
+    /**
+     * Obtain the integer geoid offsets for a run of posts in a single 
+     * column.  Consecutive rows falling between the same pair of grid rows 
+     * are blended against the same two values, which allows the inner loop 
+     * to run without any indirect lookups.
+     *
+     * @param column The post column (longitude index).
+     * @param firstRow The first post row (inclusive).
+     * @param lastRow The last post row (inclusive).
+     * @param offsets Output array indexed by post row.  Only the entries 
+     * from <code>firstRow</code> to <code>lastRow</code> are written.
+     */
+    public void getOffsets(int column, int firstRow, int lastRow, int[] offsets) {
+        int base = column * stride;
+        int row  = firstRow;
+        while (row <= lastRow) {
+            int    k     = band[row];
+            double lower = nodes[base + k];
+            double upper = nodes[base + k + 1];
+            int    end   = row + 1;
+            while ((end <= lastRow) && (band[end] == k)) {
+                end++;
+            }
+            for (int r = row; r < end; r++) {
+                offsets[r] = (int)((lowerWeight[r] * lower) + 
+                        (upperWeight[r] * upper));
+            }
+            row = end;
+        }
+    }
+
+    /**
+     * Getter method for the number of post columns covered.
+     * @return The number of post columns.
+     */
+    public int getNumColumns() {
+        return nodes.length / stride;
+    }
+
+    /**
+     * Getter method for the number of post rows covered.
+     * @return The number of post rows.
+     */
+    public int getNumRows() {
+        return band.length;
+    }
+}
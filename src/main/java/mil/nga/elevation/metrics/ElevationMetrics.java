@@ -0,0 +1,310 @@
+package mil.nga.elevation.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Central definition of the application-specific Micrometer meters.  Much
+ * of the elevation logic lives in plain (non-Spring) classes such as the
+ * frame cache and the elevation factories, so meters are recorded against
+ * the Micrometer global registry.  Spring Boot Actuator adds each of the
+ * auto-configured registries (e.g. Prometheus) to the global registry so
+ * anything recorded here is exported alongside the built-in
+ * <code>http.server.requests</code> endpoint timers.
+ *
+ * Percentile histograms for all of the meters defined here are enabled in
+ * <code>application.properties</code> under the
+ * <code>management.metrics.distribution</code> prefix.
+ *
+ * @author L. Craig Carpenter
+ */
+public final class ElevationMetrics {
+
+    /**
+     * Time required to load a DEM frame from disk.  Tagged by source and
+     * reader.
+     */
+    public static final String FRAME_LOAD = "elevation.frame.load";
+
+    /**
+     * Number of bytes read from disk when loading DEM frames.  Tagged by
+     * source and reader.
+     */
+    public static final String FRAME_BYTES_READ = "elevation.frame.bytes.read";
+
+    /**
+     * Time required to resolve the terrain data files for a single cell.
+     * Tagged by source and whether the lookup was served by the in-memory
+     * catalog or the database.
+     */
+    public static final String CATALOG_LOOKUP = "elevation.catalog.lookup";
+
+    /**
+     * End-to-end service time of a single request.  Tagged by operation
+     * and source.
+     */
+    public static final String REQUEST = "elevation.request";
+
+    /**
+     * Number of input points processed per request.  Tagged by operation
+     * and source.
+     */
+    public static final String REQUEST_POINTS = "elevation.request.points";
+
+    /**
+     * Number of requests rejected at admission.  Tagged by operation and
+     * reason.
+     */
+    public static final String REQUEST_REJECTED = "elevation.request.rejected";
+
+    /**
+     * Number of chunks per request evaluated in chunks.  Tagged by
+     * operation and source.
+     */
+    public static final String REQUEST_CHUNKS = "elevation.request.chunks";
+
+    /**
+     * Time spent waiting for an evaluation slot.  Tagged by operation.
+     */
+    public static final String SLOT_WAIT = "elevation.request.slot.wait";
+
+    /**
+     * Number of elevation posts examined per frame scan.  Tagged by source.
+     */
+    public static final String SCAN_POSTS = "elevation.scan.posts";
+
+    /**
+     * Number of geoid (EGM96 to WGS84) corrections applied.  Tagged by
+     * method (point or lattice).
+     */
+    public static final String GEOID_CORRECTIONS = "elevation.geoid.corrections";
+
+    // Tag names and values
+    public static final String TAG_SOURCE    = "source";
+    public static final String TAG_READER    = "reader";
+    public static final String TAG_OPERATION = "operation";
+    public static final String TAG_BACKEND   = "backend";
+    public static final String TAG_METHOD    = "method";
+    public static final String TAG_REASON    = "reason";
+    public static final String READER_CACHED = "cached";
+    public static final String READER_MAPPED = "mapped";
+    public static final String BACKEND_CATALOG     = "catalog";
+    public static final String BACKEND_DATABASE    = "database";
+    public static final String BACKEND_NO_COVERAGE = "no-coverage";
+    public static final String METHOD_POINT        = "point";
+    public static final String METHOD_LATTICE      = "lattice";
+    public static final String REASON_TOO_MANY_POINTS = "too-many-points";
+    public static final String REASON_SLOT_TIMEOUT    = "slot-timeout";
+    public static final String UNKNOWN             = "unknown";
+
+    /**
+     * Hide the constructor.
+     */
+    private ElevationMetrics() { }
+
+    /**
+     * The registry that all application meters are recorded against.
+     * @return The Micrometer global registry.
+     */
+    public static MeterRegistry getRegistry() {
+        return Metrics.globalRegistry;
+    }
+
+    /**
+     * Tag values may not be null.
+     * @param value Candidate tag value.
+     * @return The input value, or "unknown" if the input is null.
+     */
+    private static String tag(Object value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        return value.toString().trim();
+    }
+
+    /**
+     * Record the load of a DEM frame.
+     *
+     * @param source The DEM source type (may be null).
+     * @param reader The reader used (cached or mapped).
+     * @param nanos The elapsed time in nanoseconds.
+     * @param bytes The number of bytes read from disk (ignored if
+     * less than 1).
+     */
+    public static void recordFrameLoad(
+            Object source,
+            String reader,
+            long   nanos,
+            long   bytes) {
+        Timer.builder(FRAME_LOAD)
+            .description("Time required to load a DEM frame.")
+            .tag(TAG_SOURCE, tag(source))
+            .tag(TAG_READER, reader)
+            .register(getRegistry())
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (bytes > 0) {
+            recordFrameBytesRead(source, reader, bytes);
+        }
+    }
+
+    /**
+     * Record bytes read from a DEM frame outside of the initial load 
+     * (i.e. data records paged in by the mapped reader).
+     *
+     * @param source The DEM source type (may be null).
+     * @param reader The reader used (cached or mapped).
+     * @param bytes The number of bytes read.
+     */
+    public static void recordFrameBytesRead(
+            Object source,
+            String reader,
+            long   bytes) {
+        Counter.builder(FRAME_BYTES_READ)
+            .description("Bytes read from disk loading DEM frames.")
+            .baseUnit("bytes")
+            .tag(TAG_SOURCE, tag(source))
+            .tag(TAG_READER, reader)
+            .register(getRegistry())
+            .increment(bytes);
+    }
+
+    /**
+     * Record a terrain data file lookup.
+     *
+     * @param source The DEM source type requested (may be null).
+     * @param backend Catalog or database.
+     * @param nanos The elapsed time in nanoseconds.
+     */
+    public static void recordCatalogLookup(
+            Object source,
+            String backend,
+            long   nanos) {
+        Timer.builder(CATALOG_LOOKUP)
+            .description("Time required to resolve the terrain data files for a cell.")
+            .tag(TAG_SOURCE, tag(source))
+            .tag(TAG_BACKEND, backend)
+            .register(getRegistry())
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the completion of a request.
+     *
+     * @param operation The operation performed (e.g. "elevation").
+     * @param source The DEM source type requested (may be null).
+     * @param nanos The elapsed time in nanoseconds.
+     */
+    public static void recordRequest(
+            String operation,
+            Object source,
+            long   nanos) {
+        Timer.builder(REQUEST)
+            .description("Service time of elevation requests.")
+            .tag(TAG_OPERATION, operation)
+            .tag(TAG_SOURCE, tag(source))
+            .register(getRegistry())
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the number of input points processed by a request.
+     *
+     * @param operation The operation performed (e.g. "elevation").
+     * @param source The DEM source type requested (may be null).
+     * @param points The number of input points processed.
+     */
+    public static void recordPoints(
+            String operation,
+            Object source,
+            long   points) {
+        DistributionSummary.builder(REQUEST_POINTS)
+            .description("Number of points processed per request.")
+            .tag(TAG_OPERATION, operation)
+            .tag(TAG_SOURCE, tag(source))
+            .register(getRegistry())
+            .record(points);
+    }
+
+    /**
+     * Record the rejection of a request at admission.
+     *
+     * @param operation The operation requested (e.g. "elevation").
+     * @param reason The reason the request was rejected.
+     */
+    public static void recordRejected(String operation, String reason) {
+        Counter.builder(REQUEST_REJECTED)
+            .description("Number of requests rejected at admission.")
+            .tag(TAG_OPERATION, operation)
+            .tag(TAG_REASON, reason)
+            .register(getRegistry())
+            .increment();
+    }
+
+    /**
+     * Record the number of chunks a request was evaluated in.  The count
+     * of the summary is the number of chunked requests.
+     *
+     * @param operation The operation performed (e.g. "elevation").
+     * @param source The DEM source type requested (may be null).
+     * @param chunks The number of chunks.
+     */
+    public static void recordChunks(
+            String operation,
+            Object source,
+            long   chunks) {
+        DistributionSummary.builder(REQUEST_CHUNKS)
+            .description("Number of chunks per request evaluated in chunks.")
+            .tag(TAG_OPERATION, operation)
+            .tag(TAG_SOURCE, tag(source))
+            .register(getRegistry())
+            .record(chunks);
+    }
+
+    /**
+     * Record the time spent waiting for an evaluation slot.
+     *
+     * @param operation The operation performed (e.g. "elevation").
+     * @param nanos The elapsed time in nanoseconds.
+     */
+    public static void recordSlotWait(String operation, long nanos) {
+        Timer.builder(SLOT_WAIT)
+            .description("Time spent waiting for an evaluation slot.")
+            .tag(TAG_OPERATION, operation)
+            .register(getRegistry())
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the number of posts examined by a single frame scan.
+     *
+     * @param source The DEM source type (may be null).
+     * @param posts The number of posts examined.
+     */
+    public static void recordScanPosts(Object source, long posts) {
+        DistributionSummary.builder(SCAN_POSTS)
+            .description("Number of elevation posts examined per frame scan.")
+            .tag(TAG_SOURCE, tag(source))
+            .register(getRegistry())
+            .record(posts);
+    }
+
+    /**
+     * Record the application of geoid corrections.
+     *
+     * @param method Point (individual interpolation) or lattice
+     * (precomputed per-frame offsets).
+     * @param count The number of corrections applied.
+     */
+    public static void recordGeoidCorrections(String method, long count) {
+        Counter.builder(GEOID_CORRECTIONS)
+            .description("Number of geoid corrections applied.")
+            .tag(TAG_METHOD, method)
+            .register(getRegistry())
+            .increment(count);
+    }
+}
@@ -0,0 +1,233 @@
+package mil.nga.elevation.metrics;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.cache.FrameMetadataCache;
+import mil.nga.elevation.cache.MappedFrameCache;
+import mil.nga.elevation.cache.NoCoverageCache;
+import mil.nga.elevation.services.ElevationExtremesService;
+import mil.nga.elevation.services.PointBudget;
+import mil.nga.elevation.services.RequestExecutors;
+import mil.nga.elevation.services.TerrainDataFileService;
+
+/**
+ * Spring configuration publishing the state of the application caches and
+ * thread pools as Micrometer gauges.  Spring Boot binds each
+ * <code>MeterBinder</code> bean to every registry it configures, so the
+ * gauges are exposed through the Actuator <code>metrics</code> and
+ * <code>prometheus</code> endpoints.
+ *
+ * @author L. Craig Carpenter
+ */
+@Configuration
+public class ElevationMetricsConfiguration {
+
+    /**
+     * Gauges and counters describing the shared DTED frame cache.
+     * @return Binder for the frame cache meters.
+     */
+    @Bean
+    public MeterBinder frameCacheMetrics() {
+        return registry -> {
+            FrameCache cache = FrameCache.getInstance();
+            Gauge.builder("elevation.frame.cache.size", cache, FrameCache::size)
+                .description("Number of DTED frames held in the cache.")
+                .register(registry);
+            Gauge.builder("elevation.frame.cache.bytes", cache, FrameCache::getCurrentBytes)
+                .description("Decoded bytes held in the frame cache.")
+                .baseUnit("bytes")
+                .register(registry);
+            Gauge.builder("elevation.frame.cache.max.bytes", cache, FrameCache::getMaxBytes)
+                .description("Maximum decoded bytes held in the frame cache.")
+                .baseUnit("bytes")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.cache.hits", cache, FrameCache::getHitCount)
+                .description("Frame requests served from the cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.cache.misses", cache, FrameCache::getMissCount)
+                .description("Frame requests not served from the cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.cache.loads", cache, FrameCache::getLoadCount)
+                .description("Frames loaded from disk.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.cache.stale", cache, FrameCache::getStaleCount)
+                .description("Frames reloaded because the file changed on disk.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.cache.evictions", cache, FrameCache::getEvictionCount)
+                .description("Frames evicted from the cache.")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Gauges and counters describing the DTED header metadata cache.
+     * @return Binder for the frame metadata cache meters.
+     */
+    @Bean
+    public MeterBinder frameMetadataCacheMetrics() {
+        return registry -> {
+            FrameMetadataCache cache = FrameMetadataCache.getInstance();
+            Gauge.builder("elevation.frame.metadata.cache.size", cache, FrameMetadataCache::size)
+                .description("Number of DTED headers held in the metadata cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.metadata.cache.hits", cache, FrameMetadataCache::getHitCount)
+                .description("Header requests served from the metadata cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.metadata.cache.misses", cache, FrameMetadataCache::getMissCount)
+                .description("Header requests for files not in the metadata cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.metadata.cache.stale", cache, FrameMetadataCache::getStaleCount)
+                .description("Headers re-read because the file changed on disk.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.metadata.cache.evictions", cache, FrameMetadataCache::getEvictionCount)
+                .description("Headers evicted from the metadata cache.")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Gauges and counters describing the shared memory-mapped frame cache.
+     * @return Binder for the mapped frame cache meters.
+     */
+    @Bean
+    public MeterBinder mappedFrameCacheMetrics() {
+        return registry -> {
+            MappedFrameCache cache = MappedFrameCache.getInstance();
+            Gauge.builder("elevation.frame.mapped.cache.size", cache, MappedFrameCache::size)
+                .description("Number of memory-mapped DTED frames held in the cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.mapped.cache.hits", cache, MappedFrameCache::getHitCount)
+                .description("Mapped frame requests served from the cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.mapped.cache.misses", cache, MappedFrameCache::getMissCount)
+                .description("Mapped frame requests for files not in the cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.mapped.cache.stale", cache, MappedFrameCache::getStaleCount)
+                .description("Frames re-mapped because the file changed on disk.")
+                .register(registry);
+            FunctionCounter.builder("elevation.frame.mapped.cache.evictions", cache, MappedFrameCache::getEvictionCount)
+                .description("Mapped frames evicted from the cache.")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Gauge describing the in-memory terrain data catalog.
+     * @param service The terrain data file service holding the catalog.
+     * @return Binder for the catalog meters.
+     */
+    @Bean
+    public MeterBinder terrainCatalogMetrics(TerrainDataFileService service) {
+        return registry -> Gauge.builder(
+                    "elevation.catalog.size",
+                    service,
+                    TerrainDataFileService::getCatalogSize)
+                .description("Number of records held in the terrain data catalog.")
+                .register(registry);
+    }
+
+    /**
+     * Gauges and counters describing the cache of cells known to have no
+     * coverage.
+     * @param service The terrain data file service owning the cache.
+     * @return Binder for the no-coverage cache meters.
+     */
+    @Bean
+    public MeterBinder noCoverageCacheMetrics(TerrainDataFileService service) {
+        return registry -> {
+            NoCoverageCache cache = service.getNoCoverageCache();
+            if (cache == null) {
+                return;
+            }
+            Gauge.builder("elevation.coverage.negative.cache.size", cache, NoCoverageCache::size)
+                .description("Number of cells held in the no-coverage cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.coverage.negative.cache.hits", cache, NoCoverageCache::getHitCount)
+                .description("Lookups answered from the no-coverage cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.coverage.negative.cache.misses", cache, NoCoverageCache::getMissCount)
+                .description("Lookups not answered from the no-coverage cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.coverage.negative.cache.expired", cache, NoCoverageCache::getExpiredCount)
+                .description("No-coverage entries removed after their TTL elapsed.")
+                .register(registry);
+            FunctionCounter.builder("elevation.coverage.negative.cache.evictions", cache, NoCoverageCache::getEvictionCount)
+                .description("No-coverage entries evicted from the cache.")
+                .register(registry);
+            FunctionCounter.builder("elevation.coverage.negative.cache.stale", cache, NoCoverageCache::getStaleCount)
+                .description("No-coverage entries dropped because the catalog was reloaded during the lookup.")
+                .register(registry);
+        };
+    }
+
+    /**
+     * Standard executor metrics (active threads, queued and stolen tasks,
+     * etc.) for the min/max worker pool.
+     * @param service The min/max service owning the pool.
+     * @return Binder for the worker pool meters.
+     */
+    @Bean
+    public MeterBinder extremesPoolMetrics(ElevationExtremesService service) {
+        return registry -> {
+            if (service.getPool() != null) {
+                new ExecutorServiceMetrics(
+                        service.getPool(),
+                        "elevation.extremes",
+                        Tags.empty()).bindTo(registry);
+            }
+        };
+    }
+    
+    /**
+     * Gauges describing the use of the point evaluation slots.
+     * @param budget The point budget owning the slots.
+     * @return Binder for the evaluation slot meters.
+     */
+    @Bean
+    public MeterBinder pointBudgetMetrics(PointBudget budget) {
+        return registry -> {
+            Gauge.builder("elevation.request.slots.available", budget, PointBudget::getAvailableSlots)
+                .description("Number of free point evaluation slots.")
+                .register(registry);
+            Gauge.builder("elevation.request.slots.waiting", budget, PointBudget::getWaiting)
+                .description("Number of requests waiting for a point evaluation slot.")
+                .register(registry);
+        };
+    }
+    
+    /**
+     * Standard executor metrics for the I/O, CPU and stream request pools.
+     * @param executors The request executors.
+     * @return Binder for the request pool meters.
+     */
+    @Bean
+    public MeterBinder requestPoolMetrics(RequestExecutors executors) {
+        return registry -> {
+            if (executors.getIOExecutor() != null) {
+                new ExecutorServiceMetrics(
+                        executors.getIOExecutor(), 
+                        "elevation.requests.io", 
+                        Tags.empty()).bindTo(registry);
+            }
+            if (executors.getCPUExecutor() != null) {
+                new ExecutorServiceMetrics(
+                        executors.getCPUExecutor(), 
+                        "elevation.requests.cpu", 
+                        Tags.empty()).bindTo(registry);
+            }
+            if (executors.getStreamExecutor() != null) {
+                new ExecutorServiceMetrics(
+                        executors.getStreamExecutor(), 
+                        "elevation.requests.stream", 
+                        Tags.empty()).bindTo(registry);
+            }
+        };
+    }
+}
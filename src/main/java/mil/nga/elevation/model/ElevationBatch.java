@@ -0,0 +1,596 @@
+package mil.nga.elevation.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.utils.ElevationBatchSerializer;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Structure-of-arrays holder for the results of a bulk elevation request.
+ * The coordinates and elevations are held in parallel primitive arrays
+ * indexed by the position of the point in the request.  The per-frame
+ * data (source, accuracy, producer and classification marking) is held
+ * once in a small table of distinct frames and each point records the
+ * index of the frame it was evaluated against.
+ *
+ * The engine (<code>ElevationDataFactory</code>) fills the batch in place
+ * and the batch is serialized directly (see
+ * <code>ElevationBatchSerializer</code> and
+ * <code>BinaryElevationCodec</code>), so no per-point objects are created
+ * between evaluating the posts and writing the response.  The JSON form
+ * is identical to that of <code>ElevationResponse</code>.
+ *
+ * The lat/lon text supplied by the caller (echoed back in the response)
+ * is held as a reference to the source <code>CharSequence</code> plus the
+ * bounds of the token, so points tokenized straight out of a request
+ * parameter (see <code>CoordinateTokenizer</code>) do not allocate a
+ * String per value.
+ *
+ * Instances are not thread safe.
+ *
+ * @author L. Craig Carpenter
+ */
+@JsonSerialize(using = ElevationBatchSerializer.class)
+public class ElevationBatch implements Constants {
+
+    /**
+     * Frame index of points that have not been evaluated.
+     */
+    public static final int NOT_EVALUATED = -1;
+
+    /**
+     * Initial size of the frame table.  Requests rarely span more than a
+     * handful of frames.
+     */
+    private static final int INITIAL_FRAMES = 4;
+
+    private final HeightUnitType units;
+    private final EarthModelType earthModel;
+
+    // Per-point data
+    private double[]       lats;
+    private double[]       lons;
+    private CharSequence[] latTexts;
+    private CharSequence[] lonTexts;
+    private long[]         latSpans;
+    private long[]         lonSpans;
+    private int[]          elevations;
+    private int[]          frames;
+    private int            size = 0;
+
+    // Table of distinct frames
+    private TerrainDataFileType[] frameSources    = new TerrainDataFileType[INITIAL_FRAMES];
+    private DEMFrameAccuracy[]    frameAccuracies = new DEMFrameAccuracy[INITIAL_FRAMES];
+    private String[]              frameProducers  = new String[INITIAL_FRAMES];
+    private String[]              frameMarkings   = new String[INITIAL_FRAMES];
+    private int                   numFrames       = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param capacity The initial number of points held by the batch.  
+     * The batch grows as required.
+     * @param units The output height units.
+     * @param earthModel The output Earth model.
+     */
+    public ElevationBatch(
+            int            capacity,
+            HeightUnitType units,
+            EarthModelType earthModel) {
+        this.units      = units;
+        this.earthModel = earthModel;
+        lats       = new double[capacity];
+        lons       = new double[capacity];
+        latTexts   = new CharSequence[capacity];
+        lonTexts   = new CharSequence[capacity];
+        latSpans   = new long[capacity];
+        lonSpans   = new long[capacity];
+        elevations = new int[capacity];
+        frames     = new int[capacity];
+        Arrays.fill(frames, NOT_EVALUATED);
+    }
+
+    /**
+     * Construct a batch containing each of the input coordinates.
+     *
+     * @param coordinates The requested coordinates.
+     * @param units The output height units.
+     * @param earthModel The output Earth model.
+     * @return The batch.
+     * @throws IllegalArgumentException Thrown if any of the coordinates
+     * are null.
+     */
+    public static ElevationBatch of(
+            List<GeodeticCoordinate> coordinates,
+            HeightUnitType           units,
+            EarthModelType           earthModel) {
+        ElevationBatch batch = new ElevationBatch(
+                coordinates.size(), units, earthModel);
+        for (GeodeticCoordinate coordinate : coordinates) {
+            if (coordinate == null) {
+                throw new IllegalArgumentException(
+                        "Input geodetic coordinate is null.");
+            }
+            batch.add(coordinate);
+        }
+        return batch;
+    }
+
+    /**
+     * Append a point to the batch.
+     *
+     * @param lat The latitude in decimal degrees.
+     * @param lon The longitude in decimal degrees.
+     * @param latStr The latitude as supplied by the caller (may be null).
+     * @param lonStr The longitude as supplied by the caller (may be null).
+     * @return The index of the point.
+     */
+    public int add(double lat, double lon, String latStr, String lonStr) {
+        int index = add(lat, lon);
+        if (latStr != null) {
+            latTexts[index] = latStr;
+            latSpans[index] = span(0, latStr.length());
+        }
+        if (lonStr != null) {
+            lonTexts[index] = lonStr;
+            lonSpans[index] = span(0, lonStr.length());
+        }
+        return index;
+    }
+
+    /**
+     * Append a point whose lat/lon text are tokens within a larger 
+     * <code>CharSequence</code> (i.e. the raw request parameter).  Only 
+     * the reference and the token bounds are recorded.  The 
+     * <code>CharSequence</code> must not be modified while the batch is 
+     * in use.
+     *
+     * @param lat The latitude in decimal degrees.
+     * @param lon The longitude in decimal degrees.
+     * @param text The text containing both tokens.
+     * @param lonStart Index of the first character of the longitude.
+     * @param lonEnd Index after the last character of the longitude.
+     * @param latStart Index of the first character of the latitude.
+     * @param latEnd Index after the last character of the latitude.
+     * @return The index of the point.
+     */
+    public int add(
+            double       lat, 
+            double       lon, 
+            CharSequence text,
+            int          lonStart,
+            int          lonEnd,
+            int          latStart,
+            int          latEnd) {
+        int index = add(lat, lon);
+        latTexts[index] = text;
+        latSpans[index] = span(latStart, latEnd);
+        lonTexts[index] = text;
+        lonSpans[index] = span(lonStart, lonEnd);
+        return index;
+    }
+
+    /**
+     * Append the numeric values of a point, growing the arrays if 
+     * required.  No lat/lon text is recorded for the point.
+     *
+     * @param lat The latitude in decimal degrees.
+     * @param lon The longitude in decimal degrees.
+     * @return The index of the point.
+     */
+    public int add(double lat, double lon) {
+        if (size == lats.length) {
+            int length = Math.max(16, size * 2);
+            lats       = Arrays.copyOf(lats, length);
+            lons       = Arrays.copyOf(lons, length);
+            latTexts   = Arrays.copyOf(latTexts, length);
+            lonTexts   = Arrays.copyOf(lonTexts, length);
+            latSpans   = Arrays.copyOf(latSpans, length);
+            lonSpans   = Arrays.copyOf(lonSpans, length);
+            elevations = Arrays.copyOf(elevations, length);
+            frames     = Arrays.copyOf(frames, length);
+            Arrays.fill(frames, size, length, NOT_EVALUATED);
+        }
+        lats[size] = lat;
+        lons[size] = lon;
+        return size++;
+    }
+
+    private static long span(int start, int end) {
+        return ((long)start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    private static int start(long span) {
+        return (int)(span >>> 32);
+    }
+
+    private static int end(long span) {
+        return (int)span;
+    }
+
+    private static String text(CharSequence text, long span) {
+        if (text == null) {
+            return null;
+        }
+        return text.subSequence(start(span), end(span)).toString();
+    }
+
+    private static int length(CharSequence text, long span) {
+        if (text == null) {
+            return -1;
+        }
+        return end(span) - start(span);
+    }
+
+    private static int copy(CharSequence text, long span, char[] dst) {
+        if (text == null) {
+            return -1;
+        }
+        int start = start(span);
+        int end   = end(span);
+        if (text instanceof String) {
+            ((String)text).getChars(start, end, dst, 0);
+        }
+        else {
+            for (int i=start; i<end; i++) {
+                dst[i - start] = text.charAt(i);
+            }
+        }
+        return end - start;
+    }
+
+    /**
+     * Append a point to the batch.
+     *
+     * @param coordinate The requested coordinate.
+     * @return The index of the point.
+     */
+    public int add(GeodeticCoordinate coordinate) {
+        return add(coordinate.getLat(), coordinate.getLon(),
+                coordinate.getLatStr(), coordinate.getLonStr());
+    }
+
+    /**
+     * Add an entry to the frame table, re-using an existing entry if one
+     * with the same values is already present.
+     *
+     * @param source The source DEM type of the frame.
+     * @param accuracy The accuracy of the frame (already in the output
+     * units).
+     * @param producerCode The producer code of the frame.
+     * @param classificationMarking The classification marking of the frame.
+     * @return The index of the frame table entry.
+     */
+    public int addFrame(
+            TerrainDataFileType source,
+            DEMFrameAccuracy    accuracy,
+            String              producerCode,
+            String              classificationMarking) {
+        // Same defaults as ElevationDataPoint
+        if ((classificationMarking == null) || classificationMarking.isEmpty()) {
+            classificationMarking = DEFAULT_CLASSIFICATION_MARKING;
+        }
+        if ((producerCode == null) || producerCode.isEmpty()) {
+            producerCode = DEFAULT_PRODUCER;
+        }
+        if (accuracy == null) {
+            accuracy = new DEMFrameAccuracy.DEMFrameAccuracyBuilder().build();
+        }
+        for (int i=0; i<numFrames; i++) {
+            if ((frameSources[i] == source) &&
+                    sameAccuracy(frameAccuracies[i], accuracy) &&
+                    same(frameProducers[i], producerCode) &&
+                    same(frameMarkings[i], classificationMarking)) {
+                return i;
+            }
+        }
+        if (numFrames == frameSources.length) {
+            int length      = numFrames * 2;
+            frameSources    = Arrays.copyOf(frameSources, length);
+            frameAccuracies = Arrays.copyOf(frameAccuracies, length);
+            frameProducers  = Arrays.copyOf(frameProducers, length);
+            frameMarkings   = Arrays.copyOf(frameMarkings, length);
+        }
+        frameSources[numFrames]    = source;
+        frameAccuracies[numFrames] = accuracy;
+        frameProducers[numFrames]  = producerCode;
+        frameMarkings[numFrames]   = classificationMarking;
+        return numFrames++;
+    }
+
+    private static boolean same(String a, String b) {
+        return (a == null) ? (b == null) : a.equals(b);
+    }
+
+    private static boolean sameAccuracy(DEMFrameAccuracy a, DEMFrameAccuracy b) {
+        if ((a == b) || (a == null) || (b == null)) {
+            return a == b;
+        }
+        return (a.getAbsHorzAccuracy() == b.getAbsHorzAccuracy()) &&
+                (a.getAbsVertAccuracy() == b.getAbsVertAccuracy()) &&
+                (a.getRelHorzAccuracy() == b.getRelHorzAccuracy()) &&
+                (a.getRelVertAccuracy() == b.getRelVertAccuracy()) &&
+                (a.getUnits() == b.getUnits());
+    }
+
+    /**
+     * Remove all of the points and frames from the batch, retaining the 
+     * allocated arrays so the batch can be re-used.
+     */
+    public void clear() {
+        Arrays.fill(latTexts, 0, size, null);
+        Arrays.fill(lonTexts, 0, size, null);
+        Arrays.fill(frames, 0, size, NOT_EVALUATED);
+        Arrays.fill(frameSources, 0, numFrames, null);
+        Arrays.fill(frameAccuracies, 0, numFrames, null);
+        Arrays.fill(frameProducers, 0, numFrames, null);
+        Arrays.fill(frameMarkings, 0, numFrames, null);
+        size      = 0;
+        numFrames = 0;
+    }
+
+    /**
+     * Record the result for a single point.
+     *
+     * @param index The index of the point.
+     * @param elevation The calculated elevation in meters.  The value is
+     * converted to the output units when read.
+     * @param frame The index of the frame table entry the point was
+     * evaluated against.
+     */
+    public void setElevation(int index, int elevation, int frame) {
+        elevations[index] = elevation;
+        frames[index]     = frame;
+    }
+
+    /**
+     * Construct the <code>ElevationDataPoint</code> for a single evaluated
+     * point.  Provided for callers that require the object form.  The
+     * data point builder applies the unit conversion.
+     *
+     * @param index The index of the point.
+     * @param coordinate The coordinate associated with the point.
+     * @return The data point.
+     */
+    public ElevationDataPoint toDataPoint(int index, GeodeticCoordinate coordinate) {
+        int frame = frames[index];
+        return new ElevationDataPoint.ElevationDataPointBuilder()
+                .units(units)
+                .earthModel(earthModel)
+                .source(frameSources[frame])
+                .classificationMarking(frameMarkings[frame])
+                .producerCode(frameProducers[frame])
+                .withGeodeticCoordinate(coordinate)
+                .withDEMFrameAccuracy(frameAccuracies[frame])
+                .elevation(elevations[index])
+                .build();
+    }
+
+    /**
+     * Determine the owner/producer for the response as a whole.  The last
+     * non-default producer code wins.
+     *
+     * @return The owner/producer (empty if the batch is empty).
+     */
+    public String getOwnerProducer() {
+        String producer = "";
+        for (int i=0; i<size; i++) {
+            String code = frameProducers[frames[i]];
+            if (!code.equalsIgnoreCase(DEFAULT_PRODUCER)) {
+                producer = code;
+            }
+            else if (producer.isEmpty()) {
+                producer = DEFAULT_PRODUCER;
+            }
+        }
+        return producer;
+    }
+
+    /**
+     * Determine the classification marking for the response as a whole.
+     * The last non-empty marking wins.
+     *
+     * @return The classification marking (empty if the batch is empty).
+     */
+    public String getClassification() {
+        String marking = "";
+        for (int i=0; i<size; i++) {
+            String value = frameMarkings[frames[i]];
+            if ((value != null) && (!value.isEmpty())) {
+                marking = value;
+            }
+            else if (marking.isEmpty()) {
+                marking = DEFAULT_CLASSIFICATION_MARKING;
+            }
+        }
+        return marking;
+    }
+
+    /**
+     * Getter method for the number of points in the batch.
+     * @return The number of points.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Getter method for the latitude of a point.
+     * @param index The index of the point.
+     * @return The latitude value.
+     */
+    public double getLat(int index) {
+        return lats[index];
+    }
+
+    /**
+     * Getter method for the longitude of a point.
+     * @param index The index of the point.
+     * @return The longitude value.
+     */
+    public double getLon(int index) {
+        return lons[index];
+    }
+
+    /**
+     * Getter method for the latitude of a point as supplied by the caller.
+     * @param index The index of the point.
+     * @return The latitude String (null if not supplied).
+     */
+    public String getLatStr(int index) {
+        return text(latTexts[index], latSpans[index]);
+    }
+
+    /**
+     * Getter method for the length of the latitude text of a point.
+     * @param index The index of the point.
+     * @return The number of characters (-1 if not supplied).
+     */
+    public int getLatLength(int index) {
+        return length(latTexts[index], latSpans[index]);
+    }
+
+    /**
+     * Copy the latitude text of a point without creating a String.
+     * @param index The index of the point.
+     * @param dst Destination array, at least <code>getLatLength()</code> 
+     * characters long.
+     * @return The number of characters copied (-1 if not supplied).
+     */
+    public int getLatChars(int index, char[] dst) {
+        return copy(latTexts[index], latSpans[index], dst);
+    }
+
+    /**
+     * Getter method for the longitude of a point as supplied by the caller.
+     * @param index The index of the point.
+     * @return The longitude String (null if not supplied).
+     */
+    public String getLonStr(int index) {
+        return text(lonTexts[index], lonSpans[index]);
+    }
+
+    /**
+     * Getter method for the length of the longitude text of a point.
+     * @param index The index of the point.
+     * @return The number of characters (-1 if not supplied).
+     */
+    public int getLonLength(int index) {
+        return length(lonTexts[index], lonSpans[index]);
+    }
+
+    /**
+     * Copy the longitude text of a point without creating a String.
+     * @param index The index of the point.
+     * @param dst Destination array, at least <code>getLonLength()</code> 
+     * characters long.
+     * @return The number of characters copied (-1 if not supplied).
+     */
+    public int getLonChars(int index, char[] dst) {
+        return copy(lonTexts[index], lonSpans[index], dst);
+    }
+
+    /**
+     * Getter method for the elevation of a point.
+     * @param index The index of the point.
+     * @return The elevation value in the output units.
+     */
+    public int getElevation(int index) {
+        if (units == HeightUnitType.FEET) {
+            return Constants.convertToFeet(elevations[index]);
+        }
+        return elevations[index];
+    }
+
+    /**
+     * Getter method for the frame table entry of a point.
+     * @param index The index of the point.
+     * @return The frame table index, or <code>NOT_EVALUATED</code>.
+     */
+    public int getFrame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * Getter method for the number of entries in the frame table.
+     * @return The number of distinct frames.
+     */
+    public int getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Getter method for the source DEM type of a frame table entry.
+     * @param frame The frame table index.
+     * @return The source DEM type.
+     */
+    public TerrainDataFileType getFrameSource(int frame) {
+        return frameSources[frame];
+    }
+
+    /**
+     * Getter method for the accuracy of a frame table entry.
+     * @param frame The frame table index.
+     * @return The frame accuracy.
+     */
+    public DEMFrameAccuracy getFrameAccuracy(int frame) {
+        return frameAccuracies[frame];
+    }
+
+    /**
+     * Getter method for the producer code of a frame table entry.
+     * @param frame The frame table index.
+     * @return The producer code.
+     */
+    public String getFrameProducerCode(int frame) {
+        return frameProducers[frame];
+    }
+
+    /**
+     * Getter method for the classification marking of a frame table entry.
+     * @param frame The frame table index.
+     * @return The classification marking.
+     */
+    public String getFrameClassificationMarking(int frame) {
+        return frameMarkings[frame];
+    }
+
+    /**
+     * Getter method for the output height units.
+     * @return The output height units.
+     */
+    public HeightUnitType getUnits() {
+        return units;
+    }
+
+    /**
+     * Getter method for the output Earth model.
+     * @return The output Earth model.
+     */
+    public EarthModelType getEarthModel() {
+        return earthModel;
+    }
+
+    /**
+     * Convert to a human-readable String.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ElevationBatch : points => [ ");
+        sb.append(size());
+        sb.append(" ], frames => [ ");
+        sb.append(getNumFrames());
+        sb.append(" ], units => [ ");
+        sb.append(getUnits());
+        sb.append(" ], earth model => [ ");
+        sb.append(getEarthModel());
+        sb.append(" ].");
+        return sb.toString();
+    }
+}
@@ -4,7 +4,10 @@
 package mil.nga.elevation.services;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import mil.nga.elevation.ErrorCodes;
-import mil.nga.elevation.dao.TerrainDataFileDAO;
+import mil.nga.elevation.cache.TerrainDataCatalog;
 import mil.nga.elevation.exceptions.ApplicationException;
 import mil.nga.elevation.utils.CoordinateUtils;
 import mil.nga.elevation_services.model.CoordinateType;
@@ -38,10 +41,10 @@ public class CoverageService {
             LoggerFactory.getLogger(CoverageService.class);
     
     /**
-     * Injected reference to the persistence layer.
+     * Injected reference to the terrain data catalog.
      */
     @Autowired
-    TerrainDataFileDAO repository;
+    TerrainDataFileService repository;
     
     /**
      * Private method added to apply a trim to the source data
@@ -83,33 +86,55 @@ public class CoverageService {
             String lat, 
             String lon) throws ApplicationException {
         
+        validate(lat, lon);
+        return toCoverageAvailable(lat, lon, repository.getCoverageAvailable(
+                CoordinateUtils.parseLat(lat), 
+                CoordinateUtils.parseLon(lon)));
+    }
+    
+    /**
+     * Build the response for a single point.
+     * 
+     * @param lat Latitude portion of a coordinate.
+     * @param lon Longitude portion of a coordinate.
+     * @param data The (untrimmed) coverages available for the point.
+     * @return The types of coverages available for the given point.
+     */
+    private CoverageAvailableType toCoverageAvailable(
+            String       lat, 
+            String       lon, 
+            List<String> data) {
+        
         CoverageAvailableType response = new CoverageAvailableType();
-
+        CoordinateType        coord    = new CoordinateType();
+        coord.setLat(lat);
+        coord.setLon(lon);
+        response.setCoordinate(coord);
+        data = trim(data);
+        
+        if ((data != null) && (data.size() > 0)) {
+            response.setCoverages(data);
+        }
+        else {
+            LOGGER.warn("No coverages available for Lat [ "
+                    + lat
+                    + " ], lon [ "
+                    + lon
+                    + " ].");
+        }
+        return response;
+    }
+    
+    /**
+     * Ensure that both portions of a coordinate were supplied.
+     * 
+     * @param lat Latitude portion of a coordinate.
+     * @param lon Longitude portion of a coordinate.
+     * @throws ApplicationException Thrown if either portion is missing.
+     */
+    private void validate(String lat, String lon) throws ApplicationException {
         if ((lat != null) && (!lat.isEmpty())) {
-            if ((lon != null) && (!lon.isEmpty())) {
-                CoordinateType coord = new CoordinateType();
-                coord.setLat(lat);
-                coord.setLon(lon);
-                response.setCoordinate(coord);
-                List<String> data = repository.findCoverageByLatAndLon(
-                        CoordinateUtils.convertLat(
-                                CoordinateUtils.parseLat(lat)), 
-                        CoordinateUtils.convertLon(
-                                CoordinateUtils.parseLon(lon)));
-                data = trim(data);
-                
-                if ((data != null) && (data.size() > 0)) {
-                    response.setCoverages(data);
-                }
-                else {
-                    LOGGER.warn("No coverages available for Lat [ "
-                            + lat
-                            + " ], lon [ "
-                            + lon
-                            + " ].");
-                }
-            }
-            else {
+            if ((lon == null) || (lon.isEmpty())) {
                 LOGGER.error("Caller failed to supply a valid longitude.");
                 throw new ApplicationException.ApplicationExceptionBuilder()
                     .errorCode(ErrorCodes.INVALID_QUERY_NO_LON.getErrorCode())
@@ -124,13 +149,14 @@ public class CoverageService {
                 .errorMessage(ErrorCodes.INVALID_QUERY_NO_LAT.getErrorMessage())
                 .build();
         }
-        return response;
     }
     
     /**
      * Retrieve the coverages available for an array of latitude/longitude 
      * points.  This method is called when the user sends a POST request to the
-     * <code>CoverageAvailable</code> endpoint.
+     * <code>CoverageAvailable</code> endpoint.  All of the points are parsed 
+     * first and the coverages for the distinct cells are then resolved in 
+     * a single catalog lookup.
      * 
      * @param coordinateTypeArray Data structure containing an array of geographic 
      * points.
@@ -146,11 +172,24 @@ public class CoverageService {
         if ((coordinateTypeArray != null) && 
                 (coordinateTypeArray.getCoordinates() != null) && 
                 (coordinateTypeArray.getCoordinates().size() > 0)) {
-            for (CoordinateType coord : coordinateTypeArray.getCoordinates()) { 
-                CoverageAvailableType coverages = getCoveragesAvailable(
-                        coord.getLat(),
-                        coord.getLon());
-                response.addCoveragesAvailableItem(coverages);
+            List<CoordinateType> coords = coordinateTypeArray.getCoordinates();
+            int[]                keys   = new int[coords.size()];
+            Set<Integer>         cells  = new LinkedHashSet<Integer>();
+            for (int i=0; i<coords.size(); i++) {
+                CoordinateType coord = coords.get(i);
+                validate(coord.getLat(), coord.getLon());
+                keys[i] = TerrainDataCatalog.getCellIndex(
+                        CoordinateUtils.parseLat(coord.getLat()), 
+                        CoordinateUtils.parseLon(coord.getLon()));
+                cells.add(keys[i]);
+            }
+            Map<Integer, List<String>> coverage = 
+                    repository.getCoverageAvailable(cells);
+            for (int i=0; i<coords.size(); i++) {
+                response.addCoveragesAvailableItem(toCoverageAvailable(
+                        coords.get(i).getLat(), 
+                        coords.get(i).getLon(), 
+                        coverage.get(keys[i])));
             }
         }
         else {
@@ -1,30 +1,47 @@
 package mil.nga.elevation.services;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.Constants;
 import mil.nga.elevation.ElevationDataFactory;
+import mil.nga.elevation.SeamInterpolator;
+import mil.nga.elevation.cache.TerrainDataCatalog;
 import mil.nga.elevation.dao.TerrainDataFile;
 import mil.nga.elevation.exceptions.ApplicationException;
 import mil.nga.elevation.exceptions.InvalidParameterException;
+import mil.nga.elevation.metrics.ElevationMetrics;
+import mil.nga.elevation.model.ElevationBatch;
 import mil.nga.elevation.model.ElevationDataPoint;
 import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation.utils.BinaryElevationCodec;
 import mil.nga.elevation.utils.ConversionUtils;
+import mil.nga.elevation.utils.CoordinateTokenizer;
+import mil.nga.elevation.utils.ElevationBatchSerializer;
 import mil.nga.elevation_services.model.CoordinateType;
 import mil.nga.elevation_services.model.EarthModelType;
 import mil.nga.elevation_services.model.ElevationQuery;
-import mil.nga.elevation_services.model.ElevationResponse;
-import mil.nga.elevation_services.model.ElevationType;
 import mil.nga.elevation_services.model.HeightUnitType;
-import mil.nga.elevation_services.model.SecurityType;
+import mil.nga.elevation_services.model.InterpolationType;
 import mil.nga.elevation_services.model.TerrainDataFileType;
 
 /**
@@ -43,6 +60,21 @@ public class ElevationDataService implements Constants {
     private static final Logger LOGGER = 
             LoggerFactory.getLogger(ElevationDataService.class);
     
+    /**
+     * Operation tag applied to the request metrics.
+     */
+    private static final String OPERATION = "elevation";
+    
+    /**
+     * Operation tag applied to the streaming request metrics.
+     */
+    private static final String STREAM_OPERATION = "elevation.stream";
+    
+    /**
+     * Shared (thread-safe) factory used to create the streaming generators.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
     /**
      * AutoWired reference to the data repository.
      */
@@ -50,79 +82,285 @@ public class ElevationDataService implements Constants {
     TerrainDataFileService repository;
     
     /**
-     * Convert a list of <code>ElevationDataPoint</code> objects into an 
-     * object of type <code>ElevationResponse</code> for return to the caller.
+     * AutoWired reference to the per-request point budget.
+     */
+    @Autowired
+    PointBudget budget;
+    
+    /**
+     * The maximum number of streamed coordinates held in memory at one 
+     * time.
+     */
+    @Value("${elevation.stream.batch.size:1000}")
+    private int streamBatchSize = 1000;
+    
+    /**
+     * Construct the callback used to locate the frames adjacent to a 
+     * cell when interpolating across the cell edge.  Adjacent frames are 
+     * taken from the same source type as the primary frame so that both 
+     * sides of the seam are interpolated from the same product.
      * 
-     * @param elevations A list of elevations.
-     * @return The object that will be serialized and sent to the caller.
+     * @param sourceType The source type of the primary frame.
+     * @return The neighbour resolver.
      */
-    private ElevationResponse convertToResponse(
-            List<ElevationDataPoint> elevations) {
-        
-        ElevationResponse response = new ElevationResponse();
-        String marking = "";
-        String producer = "";
-        
-        for (ElevationDataPoint point : elevations) {
-            response.earthModelType(point.getEarthModel());
-            ElevationType responseElevation = new ElevationType();
-            responseElevation.setElevation(point.getElevation());
-            CoordinateType coord = new CoordinateType();
-            
-            // Determine if we need to respond with the String-based lat/lon
-            // or the Double version
-            if (point.getGeodeticCoordinate().getLatStr() != null) {
-                coord.setLat(point.getGeodeticCoordinate().getLatStr());
-            }
-            else {
-                coord.setLat(String.valueOf(point.getLat()));
-            }
-            if (point.getGeodeticCoordinate().getLonStr() != null) {
-                coord.setLon(point.getGeodeticCoordinate().getLonStr());
-            }
-            else {
-                coord.setLon(String.valueOf(point.getLon()));
-            }
-
-            responseElevation.setCoordinate(coord);
-            responseElevation.setAbsHorizontalAccuracy(
-                    point.getAccuracy().getAbsHorzAccuracy());
-            responseElevation.setAbsVerticalAccuracy(
-                    point.getAccuracy().getAbsVertAccuracy());
-            responseElevation.setRelHorizontalAccuracy(
-                    point.getAccuracy().getRelHorzAccuracy());
-            responseElevation.setRelVerticalAccuracy(
-                    point.getAccuracy().getRelVertAccuracy());
-            
-            responseElevation.setSource(point.getSource());
-            response.addElevationsItem(responseElevation);
-            
-            if (!point.getProducerCode().equalsIgnoreCase(DEFAULT_PRODUCER)) {
-                producer = point.getProducerCode();
-            }
-            else {
-                if (producer.isEmpty()) {
-                    producer = DEFAULT_PRODUCER;
+    private SeamInterpolator.NeighbourResolver getNeighbourResolver(
+            TerrainDataFileType sourceType) {
+        return (lat, lon) -> {
+            try {
+                List<TerrainDataFile> neighbours = 
+                        repository.getTerrainDataFiles(lat, lon, sourceType);
+                if ((neighbours != null) && (!neighbours.isEmpty())) {
+                    return neighbours.get(0).getUnixPath();
                 }
             }
-            
-            if ((point.getClassificationMarking() != null) && 
-                    (!point.getClassificationMarking().isEmpty())) {
-                marking = point.getClassificationMarking();
+            catch (ApplicationException ae) {
+                LOGGER.warn("Unable to resolve the frame adjacent to lat [ "
+                        + lat
+                        + " ], lon [ "
+                        + lon
+                        + " ].  Error message => [ "
+                        + ae.getMessage()
+                        + " ].");
             }
-            else {
-                if (marking.isEmpty()) {
-                    marking = Constants.DEFAULT_CLASSIFICATION_MARKING;
+            return null;
+        };
+    }
+    
+    /**
+     * Calculate the elevation for the selected points of the input batch, 
+     * all of which must fall within the same 1-degree cell.  The best 
+     * available DEM frame is opened once and the results are written 
+     * directly into the batch.
+     * 
+     * @param batch The batch holding the requested points.
+     * @param indices The indices of the points within the batch.
+     * @param offset The first entry of <code>indices</code> falling in 
+     * the cell.
+     * @param length The number of entries of <code>indices</code> falling 
+     * in the cell.
+     * @param files The files covering the cell (null or empty if there is 
+     * no coverage).
+     * @param interpolation The requested interpolation method.
+     * @return False if there is no coverage available for the cell.
+     */
+    private boolean getCellElevations(
+            ElevationBatch        batch, 
+            int[]                 indices, 
+            int                   offset, 
+            int                   length, 
+            List<TerrainDataFile> files, 
+            InterpolationType     interpolation) 
+                    throws IOException, ClassNotFoundException {
+        
+        if ((files == null) || (files.size() == 0)) {
+            return false;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Using source file [ "
+                    + files.get(0).getUnixPath()
+                    + " ] for [ "
+                    + length
+                    + " ] points.");
+        }
+        createFactory(files.get(0), batch.getUnits(), batch.getEarthModel(), 
+                interpolation).getElevationsAt(batch, indices, offset, length);
+        return true;
+    }
+    
+    /**
+     * Construct the factory used to evaluate points against the input 
+     * terrain data file.
+     * 
+     * @param file The terrain data file.
+     * @param units The requested output height units.
+     * @param earthModel The requested output Earth model.
+     * @param interpolation The requested interpolation method.
+     * @return The factory.
+     */
+    private ElevationDataFactory createFactory(
+            TerrainDataFile   file, 
+            HeightUnitType    units, 
+            EarthModelType    earthModel, 
+            InterpolationType interpolation) {
+        TerrainDataFileType sourceType = TerrainDataFileType.fromValue(
+                file.getSource().trim());
+        return new ElevationDataFactory.ElevationDataFactoryBuilder()
+                .filePath(file.getUnixPath())
+                .units(units)
+                .earthModel(earthModel)
+                .sourceType(sourceType)
+                .interpolation(interpolation)
+                .neighbourResolver(getNeighbourResolver(sourceType))
+                .build();
+    }
+    
+    /**
+     * Calculate the elevation for each of the input coordinates, recording
+     * the request metrics against the supplied operation.  Cells are 
+     * visited in the order in which they are first encountered in the 
+     * input list, so a path-ordered input walks the cells in path order 
+     * and opens each frame once.
+     * 
+     * @param coords The list of requested coordinates.
+     * @param sourceDEM The source DEM type requested.
+     * @param units The requested output height units.
+     * @param earthModel The requested output Earth model.
+     * @param operation The operation tag applied to the request metrics.
+     * @return The list of calculated elevations (in input order).
+     * @throws ApplicationException Thrown if there is no coverage 
+     * available for any of the requested coordinates.
+     */
+    List<ElevationDataPoint> getElevations(
+            List<GeodeticCoordinate> coords, 
+            TerrainDataFileType      sourceDEM, 
+            HeightUnitType           units, 
+            EarthModelType           earthModel,
+            String                   operation) 
+                    throws ApplicationException, IOException, 
+                    ClassNotFoundException, InvalidParameterException {
+        return getElevations(coords, sourceDEM, units, earthModel, 
+                InterpolationType.BILINEAR, operation);
+    }
+    
+    /**
+     * Calculate the elevation for each of the input coordinates using the 
+     * requested interpolation method, recording the request metrics 
+     * against the supplied operation.  See 
+     * <code>getElevations(ElevationBatch, ...)</code>.
+     * 
+     * @param coords The list of requested coordinates.
+     * @param sourceDEM The source DEM type requested.
+     * @param units The requested output height units.
+     * @param earthModel The requested output Earth model.
+     * @param interpolation The requested interpolation method.
+     * @param operation The operation tag applied to the request metrics.
+     * @return The list of calculated elevations (in input order).
+     * @throws ApplicationException Thrown if there is no coverage 
+     * available for any of the requested coordinates.
+     */
+    List<ElevationDataPoint> getElevations(
+            List<GeodeticCoordinate> coords, 
+            TerrainDataFileType      sourceDEM, 
+            HeightUnitType           units, 
+            EarthModelType           earthModel,
+            InterpolationType        interpolation,
+            String                   operation) 
+                    throws ApplicationException, IOException, 
+                    ClassNotFoundException, InvalidParameterException {
+        
+        ElevationBatch batch = ElevationBatch.of(coords, units, earthModel);
+        getElevations(batch, sourceDEM, interpolation, operation);
+        List<ElevationDataPoint> results = 
+                new ArrayList<ElevationDataPoint>(batch.size());
+        for (int i=0; i<batch.size(); i++) {
+            results.add(batch.toDataPoint(i, coords.get(i)));
+        }
+        return results;
+    }
+    
+    /**
+     * Calculate the elevation for each of the points in the input batch, 
+     * writing the results directly into the batch.  The points are 
+     * grouped by the 1-degree cell in which they fall so that the terrain 
+     * data catalog is queried once per request and each DEM frame is 
+     * opened once per request rather than once per point.  Cells are 
+     * visited in the order in which they are first encountered in the 
+     * batch, so a path-ordered input walks the cells in path order.  The 
+     * grouping is held in primitive arrays so the number of objects 
+     * created is proportional to the number of cells rather than the 
+     * number of points.
+     * 
+     * Evaluation runs while holding a slot from the point budget.  Batches 
+     * above the budget's soft limit are evaluated in chunks, giving up the 
+     * slot between chunks (a cell larger than a chunk is split across 
+     * chunks).
+     * 
+     * @param batch The batch holding the requested points.
+     * @param sourceDEM The source DEM type requested.
+     * @param interpolation The requested interpolation method.
+     * @param operation The operation tag applied to the request metrics.
+     * @return The input batch.
+     * @throws ApplicationException Thrown if there is no coverage 
+     * available for any of the requested coordinates.
+     */
+    ElevationBatch getElevations(
+            ElevationBatch      batch, 
+            TerrainDataFileType sourceDEM, 
+            InterpolationType   interpolation,
+            String              operation) 
+                    throws ApplicationException, IOException, 
+                    ClassNotFoundException {
+        
+        long      startTime = System.nanoTime();
+        int       size      = batch.size();
+        CellIndex index     = new CellIndex(batch);
+        
+        // Resolve the files for every cell in a single catalog lookup.
+        Map<Integer, List<TerrainDataFile>> files = 
+                repository.getTerrainDataFiles(index.cells.keySet(), sourceDEM);
+        
+        boolean chunked   = budget.isChunked(size);
+        int     chunkSize = chunked ? budget.getChunkSize() : size;
+        int     quota     = chunkSize;
+        int     chunks    = 1;
+        
+        budget.acquire(operation);
+        boolean held = true;
+        try {
+            for (Map.Entry<Integer, Integer> entry : index.cells.entrySet()) {
+                int slot  = entry.getValue();
+                int start = index.offsets[slot];
+                int end   = index.offsets[slot + 1];
+                while (start < end) {
+                    if (quota == 0) {
+                        // Give up the slot between chunks so that requests 
+                        // waiting for a slot are served in turn.  The wait 
+                        // for the next slot is not timed so the work done 
+                        // so far is never thrown away.
+                        budget.release();
+                        held = false;
+                        budget.reacquire(operation);
+                        held = true;
+                        quota = chunkSize;
+                        chunks++;
+                    }
+                    int length = Math.min(end - start, quota);
+                    if (!getCellElevations(
+                            batch, 
+                            index.order, 
+                            start, 
+                            length, 
+                            files.get(entry.getKey()), 
+                            interpolation)) {
+                        LOGGER.error("There is no coverage available for the "
+                                + "requested coordinate.");
+                        throw new ApplicationException.ApplicationExceptionBuilder()
+                                .errorCode(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorCode())
+                                .errorMessage(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorMessage())
+                                .build();
+                    }
+                    start += length;
+                    quota -= length;
                 }
             }
         }
-        
-        // Set up the overall security information
-        SecurityType security = new SecurityType();
-        security.setClassification(marking);
-        security.setOwnerProducer(producer);
-        response.setSecurity(security);
-        return response;
+        finally {
+            if (held) {
+                budget.release();
+            }
+        }
+        if (chunked) {
+            LOGGER.info("[ "
+                    + size
+                    + " ] requested points evaluated in [ "
+                    + chunks
+                    + " ] chunks.");
+            ElevationMetrics.recordChunks(operation, sourceDEM, chunks);
+        }
+        ElevationMetrics.recordPoints(operation, sourceDEM, size);
+        ElevationMetrics.recordRequest(
+                operation, sourceDEM, System.nanoTime() - startTime);
+        return batch;
     }
     
     /**
@@ -134,18 +372,38 @@ public class ElevationDataService implements Constants {
      * @param heightType String-based representation of the elevation units.
      * @param referenceEllipsoid The Earth model to use for the output elevation.
      * @param source The source DEM type
-     * @return The calculated elevation.
+     * @return The calculated elevations.
      * @throws ApplicationException Contains error code/message associated with
      * any exceptions encountered throughout processing.
      */
-    public ElevationResponse getElevationAt(
+    public ElevationBatch getElevationAt(
             String pts,  
             String heightType,
             String referenceEllipsoid,
             String source) throws ApplicationException {
-        
-        // Return object
-        List<ElevationDataPoint> elevations = new ArrayList<ElevationDataPoint>();
+        return getElevationAt(pts, heightType, referenceEllipsoid, source, null);
+    }
+    
+    /**
+     * Method used to parse/convert the input String data from the OpenAPI/REST
+     * GET parameters, including the optional interpolation method.
+     * 
+     * @param pts A list of coordinate pairs in lon, lat order.
+     * @param heightType String-based representation of the elevation units.
+     * @param referenceEllipsoid The Earth model to use for the output elevation.
+     * @param source The source DEM type
+     * @param interpolation The interpolation method (null or empty selects 
+     * bilinear).
+     * @return The calculated elevations.
+     * @throws ApplicationException Contains error code/message associated with
+     * any exceptions encountered throughout processing.
+     */
+    public ElevationBatch getElevationAt(
+            String pts,  
+            String heightType,
+            String referenceEllipsoid,
+            String source,
+            String interpolation) throws ApplicationException {
         
         // Any of the below declarations can raise an ApplicationException
         HeightUnitType           units     = 
@@ -154,65 +412,32 @@ public class ElevationDataService implements Constants {
                 ConversionUtils.convertEarthModelType(referenceEllipsoid);
         TerrainDataFileType      sourceDEM = 
                 ConversionUtils.convertTerrainDataFileType(source);
-        List<GeodeticCoordinate> coords    = 
-                ConversionUtils.parseCoords(pts);
+        InterpolationType        method    = 
+                ConversionUtils.convertInterpolationType(interpolation);
+        
+        // Return object (points are tokenized straight into the batch).  
+        // Tokenizing stops once the point limit is exceeded so oversized 
+        // requests are rejected without being parsed in full.
+        ElevationBatch elevations = new ElevationBatch(
+                estimatePoints(pts), units, earthModel);
+        int            numPoints  = CoordinateTokenizer.tokenize(
+                pts, elevations, budget.getMaxPoints());
+        budget.admit(numPoints, OPERATION);
         
-        if ((coords != null) && (coords.size() > 0)) { 
+        if (numPoints > 0) { 
             LOGGER.info("Processing [ "
-                    + coords.size()
+                    + numPoints
                     + " ] requested elevation points.");
             try {
-                // Loop through the parsed coordinate list.
-                for (GeodeticCoordinate coord : coords) {
-                    
-                    List<TerrainDataFile> files = repository.getTerrainDataFiles(
-                            coord, 
-                            sourceDEM);
-                    
-                    if ((files != null) && (files.size() > 0)) {
-                        if (LOGGER.isDebugEnabled()) {
-                            System.out.println("Using source file [ "
-                                    + files.get(0).getUnixPath()
-                                    + " ].");
-                        }
-                        ElevationDataFactory factory = 
-                                new ElevationDataFactory.ElevationDataFactoryBuilder()
-                                    .filePath(files.get(0).getUnixPath())
-                                    .units(units)
-                                    .earthModel(earthModel)
-                                    .sourceType(
-                                            TerrainDataFileType.fromValue(
-                                                    files.get(0).getSource().trim()))
-                                    .build();
-                        
-                        elevations.add(factory.getElevationAt(coord));
-                    }
-                    else {
-                        LOGGER.error("There is no coverage available for the "
-                                + "requested coordinate.");
-                        throw new ApplicationException.ApplicationExceptionBuilder()
-                                .errorCode(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorCode())
-                                .errorMessage(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorMessage())
-                                .build();
-                    }
-                }
+                elevations = getElevations(
+                        elevations, 
+                        sourceDEM, 
+                        method, 
+                        OPERATION);
             }
             // The call to getElevationAt() can raise two different 
             // exceptions.  Catch them here and re-raise as an 
             // ApplicationException.
-            catch (InvalidParameterException ipe) { 
-                // We should never see this exception.  Re-throw as a generic
-                // application exception.
-                LOGGER.error("Unexpected InvalidParameterException "
-                        + "encountered while attempting to calculate "
-                        + "an elevation value.  Error message => [ {} ].  "
-                        + "Rethrowing as an internal exception.", 
-                        ipe.getMessage());
-                throw new ApplicationException.ApplicationExceptionBuilder()
-                    .errorCode(ErrorCodes.INTERNAL_EXCEPTION.getErrorCode())
-                    .errorMessage(ErrorCodes.INTERNAL_EXCEPTION.getErrorMessage())
-                    .build();
-            }
             catch (IllegalStateException ise) {
                 LOGGER.error("Unexpected IllegalStateException "
                         + "encountered while attempting to calculate "
@@ -253,7 +478,7 @@ public class ElevationDataService implements Constants {
                     .build();
             }
         }
-        return convertToResponse(elevations);
+        return elevations;
     }
     
     /**
@@ -262,79 +487,45 @@ public class ElevationDataService implements Constants {
      * application code that actually performs the elevation calculation.
      * 
      * @param query Object containing all of the elevation query parameters.
-     * @return The calculated elevation.
+     * @return The calculated elevations.
      * @throws ApplicationException Contains error code/message associated with
      * any exceptions encountered throughout processing.
      */
-    public ElevationResponse getElevationAt(ElevationQuery query) 
+    public ElevationBatch getElevationAt(ElevationQuery query) 
             throws ApplicationException {
         
-        List<ElevationDataPoint> elevations = new ArrayList<ElevationDataPoint>();
+        ElevationBatch elevations = null;
         
         if (query != null) {
             if ((query.getCoordinates() != null) && 
                     (query.getCoordinates().size() > 0)) {
                 
+                budget.admit(query.getCoordinates().size(), OPERATION);
                 LOGGER.info("Processing [ "
                         + query.getCoordinates().size()
                         + " ] requested elevation points.");
                 try {
-                    // Loop through the parsed coordinate list.
+                    // Check the input coordinates for consistency.
+                    ElevationBatch batch = new ElevationBatch(
+                            query.getCoordinates().size(), 
+                            query.getHeightType(), 
+                            query.getEarthModelType());
                     for (CoordinateType coord : query.getCoordinates()) {
-    
-                        // Check the input coordinate for consistency.
-                        GeodeticCoordinate geoCoord = 
-                                new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                        batch.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
                                     .lat(coord.getLat())
                                     .lon(coord.getLon())
-                                    .build();
-                        
-                        List<TerrainDataFile> files = repository.getTerrainDataFiles(
-                                geoCoord, 
-                                query.getSource());
-                        
-                        if ((files != null) && (files.size() > 0)) {
-                            System.out.println("Using file [ "
-                                    + files.get(0).getUnixPath()
-                                    + " ].");
-                            ElevationDataFactory factory = 
-                                    new ElevationDataFactory.ElevationDataFactoryBuilder()
-                                        .filePath(files.get(0).getUnixPath())
-                                        .units(query.getHeightType())
-                                        .earthModel(query.getEarthModelType())
-                                        .sourceType(
-                                                TerrainDataFileType.fromValue(
-                                                        files.get(0).getSource().trim()))
-                                        .build();
-                            elevations.add(factory.getElevationAt(geoCoord));
-                        }
-                        else {
-                            LOGGER.error("There is no coverage available for the "
-                                    + "requested coordinate.");
-                            throw new ApplicationException.ApplicationExceptionBuilder()
-                                    .errorCode(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorCode())
-                                    .errorMessage(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorMessage())
-                                    .build();
-                        }
+                                    .build());
                     }
+                    elevations = getElevations(
+                            batch, 
+                            query.getSource(), 
+                            query.getInterpolation(), 
+                            OPERATION);
                 }
                 
                 // The call to getElevationAt() can raise two different 
                 // exceptions.  Catch them here and re-raise as an 
                 // ApplicationException.
-                catch (InvalidParameterException ipe) { 
-                    // We should never see this exception.  Re-throw as a generic
-                    // application exception.
-                    LOGGER.error("Unexpected InvalidParameterException "
-                            + "encountered while attempting to calculate "
-                            + "an elevation value.  Error message => [ {} ].  "
-                            + "Rethrowing as an internal exception.",
-                            ipe.getMessage());
-                    throw new ApplicationException.ApplicationExceptionBuilder()
-                        .errorCode(ErrorCodes.INTERNAL_EXCEPTION.getErrorCode())
-                        .errorMessage(ErrorCodes.INTERNAL_EXCEPTION.getErrorMessage())
-                        .build();
-                }
                 catch (IllegalStateException ise) {
                     LOGGER.error("Unexpected IllegalStateException "
                             + "encountered while attempting to calculate "
@@ -393,6 +584,526 @@ public class ElevationDataService implements Constants {
                     .build();
             
         }
-        return convertToResponse(elevations);
+        return elevations;
+    }
+    
+    /**
+     * Calculate the elevations for a request in the compact binary 
+     * encoding.  See <code>BinaryElevationCodec</code> for the format of 
+     * the request and response.
+     * 
+     * @param body Packed little-endian float64 lon/lat pairs.
+     * @param heightType String-based representation of the elevation units.
+     * @param referenceEllipsoid The Earth model to use for the output elevation.
+     * @param source The source DEM type
+     * @param interpolation The interpolation method (null or empty selects 
+     * bilinear).
+     * @return The encoded elevations.
+     * @throws ApplicationException Contains error code/message associated with
+     * any exceptions encountered throughout processing.
+     */
+    public byte[] getElevationAtBinary(
+            byte[] body,  
+            String heightType,
+            String referenceEllipsoid,
+            String source,
+            String interpolation) throws ApplicationException {
+        // The number of points is known from the body length, so 
+        // oversized requests are rejected before anything is decoded.  
+        // The coordinates are then decoded straight into the batch.
+        int numPoints = (body == null) ? 0 : 
+                body.length / BinaryElevationCodec.BYTES_PER_COORDINATE;
+        budget.admit(numPoints, OPERATION);
+        ElevationBatch batch = new ElevationBatch(
+                numPoints,
+                ConversionUtils.convertHeightUnitType(heightType),
+                ConversionUtils.convertEarthModelType(referenceEllipsoid));
+        BinaryElevationCodec.decodeCoordinates(body, batch);
+        return getElevationAtBinary(
+                batch,
+                ConversionUtils.convertTerrainDataFileType(source),
+                ConversionUtils.convertInterpolationType(interpolation));
+    }
+    
+    /**
+     * Calculate the elevations for the String-based list of points 
+     * supplied to the HTTP GET end point, returning the results in the 
+     * compact binary encoding.
+     * 
+     * @param pts A list of coordinate pairs in lon, lat order.
+     * @param heightType String-based representation of the elevation units.
+     * @param referenceEllipsoid The Earth model to use for the output elevation.
+     * @param source The source DEM type
+     * @param interpolation The interpolation method (null or empty selects 
+     * bilinear).
+     * @return The encoded elevations.
+     * @throws ApplicationException Contains error code/message associated with
+     * any exceptions encountered throughout processing.
+     */
+    public byte[] getElevationAtBinary(
+            String pts,  
+            String heightType,
+            String referenceEllipsoid,
+            String source,
+            String interpolation) throws ApplicationException {
+        ElevationBatch batch = new ElevationBatch(
+                estimatePoints(pts),
+                ConversionUtils.convertHeightUnitType(heightType),
+                ConversionUtils.convertEarthModelType(referenceEllipsoid));
+        budget.admit(CoordinateTokenizer.tokenize(
+                pts, batch, budget.getMaxPoints()), OPERATION);
+        return getElevationAtBinary(
+                batch,
+                ConversionUtils.convertTerrainDataFileType(source),
+                ConversionUtils.convertInterpolationType(interpolation));
+    }
+    
+    /**
+     * Rough estimate of the number of points in the String-based list of 
+     * points, used to size the batch (which grows if required).  Typical 
+     * decimal degree pairs are 20 or more characters long.  The estimate 
+     * never exceeds the point limit.
+     * 
+     * @param pts A list of coordinate pairs in lon, lat order.
+     * @return The initial capacity for the batch.
+     */
+    private int estimatePoints(String pts) {
+        int estimate = (pts == null) ? 0 : (pts.length() / 20) + 1;
+        if (budget.getMaxPoints() > 0) {
+            estimate = Math.min(estimate, budget.getMaxPoints());
+        }
+        return estimate;
+    }
+    
+    /**
+     * Calculate and encode the elevations for the binary end points.
+     * 
+     * @param batch The requested coordinates, the output height units 
+     * and the output Earth model.
+     * @param sourceDEM The source DEM type requested.
+     * @param interpolation The requested interpolation method.
+     * @return The encoded elevations.
+     * @throws ApplicationException Contains error code/message associated with
+     * any exceptions encountered throughout processing.
+     */
+    private byte[] getElevationAtBinary(
+            ElevationBatch      batch,
+            TerrainDataFileType sourceDEM,
+            InterpolationType   interpolation) throws ApplicationException {
+        
+        if (batch.size() == 0) {
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_QUERY_NO_COORDINATES.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_QUERY_NO_COORDINATES.getErrorMessage())
+                .build();
+        }
+        LOGGER.info("Processing [ "
+                + batch.size()
+                + " ] requested binary elevation points.");
+        try {
+            return BinaryElevationCodec.encodeElevations(getElevations(
+                    batch, 
+                    sourceDEM, 
+                    interpolation, 
+                    OPERATION));
+        }
+        catch (IllegalStateException | ClassNotFoundException | IOException e) { 
+            // We should never see these exceptions.  Re-throw as a generic
+            // application exception.
+            LOGGER.error("Unexpected " 
+                    + e.getClass().getSimpleName()
+                    + " encountered while attempting to calculate "
+                    + "an elevation value.  Error message => [ {} ].  "
+                    + "Rethrowing as an internal exception.", 
+                    e.getMessage());
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INTERNAL_EXCEPTION.getErrorCode())
+                .errorMessage(ErrorCodes.INTERNAL_EXCEPTION.getErrorMessage())
+                .build();
+        }
+    }
+    
+    /**
+     * Calculate the elevations for a newline-delimited stream of 
+     * coordinates and write the results to the output stream as 
+     * newline-delimited JSON.  Each input line is parsed with 
+     * <code>ConversionUtils.parseCoordinate()</code> and blank lines are 
+     * ignored.  
+     * 
+     * At most <code>elevation.stream.batch.size</code> coordinates are held 
+     * in memory, in a re-used <code>ElevationBatch</code>.  Within each 
+     * batch the coordinates are grouped by cell, and as each cell 
+     * completes, the results are written out in input order and flushed, 
+     * so heap use is independent of the size of the input and the client 
+     * receives results while later frames are still loading.  Each cell is 
+     * evaluated while holding a slot from the point budget, so a stream is 
+     * evaluated one cell at a time alongside the other requests rather 
+     * than ahead of them.
+     * 
+     * Each output line has the same structure as an entry in the 
+     * <code>elevations</code> array of <code>ElevationResponse</code>.  
+     * Points that cannot be evaluated produce a line containing the input 
+     * line number and the error code/message rather than failing the 
+     * entire stream.  The final line contains the overall security 
+     * marking along with the number of points and errors.
+     * 
+     * @param input The newline-delimited coordinates.
+     * @param output The stream to write the results to.
+     * @param units The requested output height units.
+     * @param earthModel The requested output Earth model.
+     * @param sourceDEM The source DEM type requested.
+     * @param interpolation The requested interpolation method.
+     * @throws IOException Thrown if the input cannot be read or the output 
+     * cannot be written (e.g. the client disconnected).
+     */
+    public void streamElevations(
+            Reader              input, 
+            OutputStream        output,
+            HeightUnitType      units,
+            EarthModelType      earthModel,
+            TerrainDataFileType sourceDEM,
+            InterpolationType   interpolation) throws IOException {
+        
+        long                     startTime  = System.nanoTime();
+        int                      batchSize  = Math.max(1, streamBatchSize);
+        BufferedReader           reader     = new BufferedReader(input);
+        StreamBatch              batch      = new StreamBatch(
+                                                batchSize, units, earthModel);
+        String                   line       = null;
+        int                      lineNumber = 0;
+        
+        JsonGenerator generator = JSON_FACTORY.createGenerator(
+                output, JsonEncoding.UTF8);
+        // Each value is terminated with a newline rather than separated 
+        // by the default space.
+        generator.setRootValueSeparator(null);
+        
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            batch.add(lineNumber, line);
+            if (batch.size() == batchSize) {
+                evaluate(batch, generator, sourceDEM, interpolation);
+            }
+        }
+        evaluate(batch, generator, sourceDEM, interpolation);
+        
+        // Trailer containing the security information for the whole stream.
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("security");
+        generator.writeStringField("classification", 
+                batch.marking.isEmpty() ? 
+                        Constants.DEFAULT_CLASSIFICATION_MARKING : batch.marking);
+        generator.writeStringField("ownerProducer", batch.producer);
+        generator.writeEndObject();
+        generator.writeStringField("earthModelType", earthModel.toString());
+        generator.writeNumberField("count", batch.count);
+        generator.writeNumberField("errors", batch.errorCount);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+        
+        ElevationMetrics.recordPoints(STREAM_OPERATION, sourceDEM, batch.count);
+        ElevationMetrics.recordRequest(
+                STREAM_OPERATION, sourceDEM, System.nanoTime() - startTime);
+        LOGGER.info("Streamed elevations for [ "
+                + batch.count
+                + " ] points ([ "
+                + batch.errorCount
+                + " ] errors) in [ "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+                + " ] ms.");
+    }
+    
+    /**
+     * Evaluate the coordinates held in the input batch, writing the 
+     * results as each cell completes.  The batch is cleared on return.
+     * 
+     * @param batch The batch of parsed input lines.
+     * @param generator The output generator.
+     * @param sourceDEM The source DEM type requested.
+     * @param interpolation The requested interpolation method.
+     * @throws IOException Thrown if the output cannot be written.
+     */
+    private void evaluate(
+            StreamBatch         batch, 
+            JsonGenerator       generator,
+            TerrainDataFileType sourceDEM,
+            InterpolationType   interpolation) throws IOException {
+        
+        ElevationBatch points = batch.points;
+        CellIndex      index  = new CellIndex(points);
+        
+        // Lines that failed to parse at the head of the batch can be 
+        // written immediately.
+        batch.drain(generator);
+        
+        // Resolve the files for every cell in the batch in a single 
+        // catalog lookup.  A failure is reported against every line.
+        Map<Integer, List<TerrainDataFile>> files  = null;
+        ApplicationException                lookup = null;
+        try {
+            files = repository.getTerrainDataFiles(index.cells.keySet(), sourceDEM);
+        }
+        catch (ApplicationException ae) {
+            lookup = ae;
+        }
+        
+        for (Map.Entry<Integer, Integer> entry : index.cells.entrySet()) {
+            int                  slot  = entry.getValue();
+            int                  start = index.offsets[slot];
+            int                  end   = index.offsets[slot + 1];
+            ApplicationException error = lookup;
+            if (error == null) {
+                try {
+                    budget.acquire(STREAM_OPERATION);
+                }
+                catch (ApplicationException ae) {
+                    // No slot within the timeout.  Reported against 
+                    // each line of the cell.
+                    error = ae;
+                }
+            }
+            if (error == null) {
+                try {
+                    if (!getCellElevations(
+                            points, 
+                            index.order, 
+                            start, 
+                            end - start, 
+                            files.get(entry.getKey()), 
+                            interpolation)) {
+                        error = new ApplicationException.ApplicationExceptionBuilder()
+                                .errorCode(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorCode())
+                                .errorMessage(ErrorCodes.NO_SOURCE_AVAILABLE.getErrorMessage())
+                                .build();
+                    }
+                }
+                catch (IllegalStateException | ClassNotFoundException | 
+                        IOException e) {
+                    LOGGER.error("Unexpected " 
+                            + e.getClass().getSimpleName()
+                            + " encountered while attempting to calculate "
+                            + "streamed elevation values.  Error message => [ "
+                            + e.getMessage()
+                            + " ].");
+                    error = new ApplicationException.ApplicationExceptionBuilder()
+                            .errorCode(ErrorCodes.INTERNAL_EXCEPTION.getErrorCode())
+                            .errorMessage(ErrorCodes.INTERNAL_EXCEPTION.getErrorMessage())
+                            .build();
+                }
+                finally {
+                    budget.release();
+                }
+            }
+            if (error != null) {
+                for (int i=start; i<end; i++) {
+                    batch.errors[batch.entries[index.order[i]]] = error;
+                }
+            }
+            batch.drain(generator);
+        }
+        batch.clear();
+    }
+    
+    /**
+     * Write the error associated with a single input line.
+     * 
+     * @param generator The output generator.
+     * @param lineNumber The input line number.
+     * @param error The error encountered.
+     * @throws IOException Thrown if the output cannot be written.
+     */
+    private static void write(
+            JsonGenerator        generator, 
+            int                  lineNumber,
+            ApplicationException error) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", lineNumber);
+        generator.writeNumberField("code", error.getErrorCode());
+        generator.writeStringField("message", error.getErrorMessage());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+    
+    /**
+     * Grouping of the points of a batch by the 1-degree cell in which they 
+     * fall.  The grouping is held in primitive arrays so the number of 
+     * objects created is proportional to the number of cells rather than 
+     * the number of points.
+     */
+    private static class CellIndex {
+        
+        /**
+         * Cell index mapped to the slot of the cell, in the order in which 
+         * the cells are first encountered.
+         */
+        private final Map<Integer, Integer> cells = 
+                new LinkedHashMap<Integer, Integer>();
+        
+        /**
+         * Point indices sorted by cell, retaining input order within each 
+         * cell.
+         */
+        private final int[] order;
+        
+        /**
+         * The first entry of <code>order</code> for each slot (plus a 
+         * final entry holding the number of points).
+         */
+        private final int[] offsets;
+        
+        private CellIndex(ElevationBatch batch) {
+            int   size     = batch.size();
+            int[] slots    = new int[size];
+            int   lastKey  = -1;
+            int   lastSlot = -1;
+            
+            // Assign each point to a cell slot.  Consecutive points usually 
+            // fall in the same cell so the map is only consulted when the 
+            // cell changes.
+            for (int i=0; i<size; i++) {
+                int key = TerrainDataCatalog.getCellIndex(
+                        batch.getLat(i), batch.getLon(i));
+                if ((key != lastKey) || (lastSlot < 0)) {
+                    Integer slot = cells.get(key);
+                    if (slot == null) {
+                        slot = cells.size();
+                        cells.put(key, slot);
+                    }
+                    lastKey  = key;
+                    lastSlot = slot;
+                }
+                slots[i] = lastSlot;
+            }
+            
+            // Counting sort of the point indices by slot, retaining input 
+            // order within each cell.
+            offsets = new int[cells.size() + 1];
+            for (int i=0; i<size; i++) {
+                offsets[slots[i] + 1]++;
+            }
+            for (int i=1; i<offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+            order = new int[size];
+            int[] next = Arrays.copyOf(offsets, cells.size());
+            for (int i=0; i<size; i++) {
+                order[next[slots[i]]++] = i;
+            }
+            
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[ "
+                        + size
+                        + " ] requested points fall in [ "
+                        + cells.size()
+                        + " ] cells.");
+            }
+        }
+    }
+    
+    /**
+     * Fixed-capacity buffer holding a batch of streamed input lines along 
+     * with their results.  The parsed points are held in a re-used 
+     * <code>ElevationBatch</code> and written straight out of it, so no 
+     * per-point objects are created.  Also accumulates the stream-wide 
+     * statistics and security marking.
+     */
+    private static class StreamBatch {
+        
+        private final int[]                  lines;
+        private final int[]                  entries;
+        private final int[]                  indices;
+        private final ApplicationException[] errors;
+        private final ElevationBatch         points;
+        private char[]                       buffer     = new char[32];
+        private int                          size       = 0;
+        private int                          written    = 0;
+        private long                         count      = 0;
+        private long                         errorCount = 0;
+        private String                       marking    = "";
+        private String                       producer   = "";
+        
+        private StreamBatch(
+                int            capacity, 
+                HeightUnitType units, 
+                EarthModelType earthModel) {
+            lines   = new int[capacity];
+            entries = new int[capacity];
+            indices = new int[capacity];
+            errors  = new ApplicationException[capacity];
+            points  = new ElevationBatch(capacity, units, earthModel);
+        }
+        
+        private int size() {
+            return size;
+        }
+        
+        /**
+         * Parse a single input line.  Lines that cannot be parsed are 
+         * recorded as errors.
+         */
+        private void add(int lineNumber, String line) {
+            lines[size] = lineNumber;
+            try {
+                int index      = ConversionUtils.parseCoordinate(line, points);
+                indices[size]  = index;
+                entries[index] = size;
+            }
+            catch (ApplicationException ae) {
+                indices[size] = ElevationBatch.NOT_EVALUATED;
+                errors[size]  = ae;
+            }
+            size++;
+        }
+        
+        /**
+         * Write all of the completed entries that precede the first 
+         * incomplete entry and flush the output.
+         */
+        private void drain(JsonGenerator generator) throws IOException {
+            int start = written;
+            while (written < size) {
+                int index = indices[written];
+                if (errors[written] != null) {
+                    write(generator, lines[written], errors[written]);
+                    errorCount++;
+                }
+                else if (points.getFrame(index) != ElevationBatch.NOT_EVALUATED) {
+                    buffer = ElevationBatchSerializer.writeElevation(
+                            points, index, generator, buffer);
+                    generator.writeRaw('\n');
+                    int    frame = points.getFrame(index);
+                    String code  = points.getFrameProducerCode(frame);
+                    if (!code.equalsIgnoreCase(DEFAULT_PRODUCER)) {
+                        producer = code;
+                    }
+                    else if (producer.isEmpty()) {
+                        producer = DEFAULT_PRODUCER;
+                    }
+                    if ((points.getFrameClassificationMarking(frame) != null) && 
+                            (!points.getFrameClassificationMarking(frame).isEmpty())) {
+                        marking = points.getFrameClassificationMarking(frame);
+                    }
+                }
+                else {
+                    break;
+                }
+                count++;
+                written++;
+            }
+            if (written > start) {
+                generator.flush();
+            }
+        }
+        
+        private void clear() {
+            Arrays.fill(errors, 0, size, null);
+            points.clear();
+            size    = 0;
+            written = 0;
+        }
     }
 }
@@ -1,17 +1,36 @@
 package mil.nga.elevation.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
 
 import mil.nga.elevation.Constants;
 import mil.nga.elevation.ElevationExtremesFactory;
 import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.cache.TerrainDataCatalog;
 import mil.nga.elevation.dao.TerrainDataFile;
+import mil.nga.elevation.dao.TerrainDataSummary;
+import mil.nga.elevation.dao.TerrainDataSummaryDAO;
 import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.metrics.ElevationMetrics;
 import mil.nga.elevation.model.BoundingBox;
 import mil.nga.elevation.model.ElevationDataPoint;
 import mil.nga.elevation.model.MinMaxElevation;
@@ -47,6 +66,73 @@ public class ElevationExtremesService implements Constants {
     @Autowired
     TerrainDataFileService repository;
     
+    /**
+     * AutoWired reference to the precomputed frame summaries.
+     */
+    @Autowired
+    TerrainDataSummaryDAO summaryRepository;
+    
+    /**
+     * The number of worker threads in the pool used to evaluate cells in 
+     * parallel.  Values less than 1 default to the number of available 
+     * processors.
+     */
+    @Value("${elevation.extremes.pool.size:0}")
+    private int poolSize;
+    
+    /**
+     * The maximum number of cells from a single request that will be 
+     * evaluated concurrently.
+     */
+    @Value("${elevation.extremes.request.parallelism:4}")
+    private int requestParallelism;
+    
+    /**
+     * Work-stealing pool shared by all min/max requests.
+     */
+    private ForkJoinPool pool;
+    
+    /**
+     * Operation tag applied to the request metrics.
+     */
+    private static final String OPERATION = "minmax";
+    
+    /**
+     * Construct the worker pool once the configuration has been injected.
+     */
+    @PostConstruct
+    public void init() {
+        int size = poolSize;
+        if (size < 1) {
+            size = Runtime.getRuntime().availableProcessors();
+        }
+        pool = new ForkJoinPool(size);
+        LOGGER.info("Min/max worker pool created with [ "
+                + size
+                + " ] threads and a per-request parallelism of [ "
+                + requestParallelism
+                + " ].");
+    }
+    
+    /**
+     * Release the worker threads on shutdown.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Getter method for the worker pool.  Exposed so the pool statistics 
+     * can be published as metrics.
+     * @return The min/max worker pool (null prior to initialization).
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+    
     /**
      * This method will convert the calculate <code>MinMaxElevation</code>
      * object into the generated type <code>MinMaxElevationResponse</code> 
@@ -277,7 +363,9 @@ public class ElevationExtremesService implements Constants {
      * bounding box, then retrieves the cell information from the backing
      * data repository.  The <code>ElevationExtremesFactory</code> is then
      * called to determine the minimum and maximum elevation values 
-     * within user-defined bounding box.
+     * within user-defined bounding box.  Cells are evaluated in parallel 
+     * on a shared work-stealing pool and the partial results are merged 
+     * as the tasks complete.
      * 
      * @param bbox User-defined bounding box.
      * @param units The output units for the elevation values. 
@@ -291,11 +379,75 @@ public class ElevationExtremesService implements Constants {
             EarthModelType      earthModel,
             TerrainDataFileType source) throws ApplicationException {
         
-        MinMaxElevation minMax = null;
-        
         LOGGER.info("Processing bounding box [ "
                 + bbox.toString()
                 + " ].");
+        return getMinMaxElevation(bbox, null, units, earthModel, source);
+    }
+    
+    /**
+     * This method calculates the minimum and maximum elevation values 
+     * within a user-defined polygonal area (POLYGON or MULTIPOLYGON).  The 
+     * envelope of the area is used to select the candidate cells.  The 
+     * area is prepared once per request; cells that it does not touch 
+     * are skipped without loading any frames, and within each remaining 
+     * frame only the posts covered by the area are scanned.
+     * 
+     * @param area User-defined area of interest.
+     * @param units The output units for the elevation values. 
+     * @param earthModel The output Earth model.
+     * @param source The source DEM type.
+     * @return Response object to be serialized and sent to the caller.
+     * @throws ApplicationException
+     */
+    public MinMaxElevationResponse getMinMaxElevation(
+            Geometry            area,
+            HeightUnitType      units,
+            EarthModelType      earthModel,
+            TerrainDataFileType source) throws ApplicationException {
+        
+        Envelope    envelope = area.getEnvelopeInternal();
+        BoundingBox bbox     = new BoundingBox.BoundingBoxBuilder()
+                .lowerLeftLat(envelope.getMinY())
+                .lowerLeftLon(envelope.getMinX())
+                .upperRightLat(envelope.getMaxY())
+                .upperRightLon(envelope.getMaxX())
+                .build();
+        
+        LOGGER.info("Processing [ "
+                + area.getGeometryType()
+                + " ] with [ "
+                + area.getNumPoints()
+                + " ] vertices and envelope [ "
+                + bbox.toString()
+                + " ].");
+        return getMinMaxElevation(
+                bbox, 
+                PreparedGeometryFactory.prepare(area), 
+                units, earthModel, source);
+    }
+    
+    /**
+     * Common processing for the bounding box and polygonal area requests.
+     * 
+     * @param bbox User-defined bounding box (or the envelope of the area).
+     * @param area The prepared area of interest (null for bounding box 
+     * requests).
+     * @param units The output units for the elevation values. 
+     * @param earthModel The output Earth model.
+     * @param source The source DEM type.
+     * @return Response object to be serialized and sent to the caller.
+     * @throws ApplicationException
+     */
+    private MinMaxElevationResponse getMinMaxElevation(
+            BoundingBox         bbox,
+            PreparedGeometry    area,
+            HeightUnitType      units,
+            EarthModelType      earthModel,
+            TerrainDataFileType source) throws ApplicationException {
+        
+        long            startTime = System.nanoTime();
+        MinMaxElevation minMax    = null;
         
         // Determine what frames intersect the incoming bounding box
         int minCellLat = Math.round((float) Math.floor(bbox.getLowerLeftLat()));
@@ -304,58 +456,320 @@ public class ElevationExtremesService implements Constants {
         int minCellLon = Math.round((float) Math.floor(bbox.getLowerLeftLon()));
         int maxCellLon = Math.round((float) Math.ceil(bbox.getUpperRightLon()));
         
-        // Loop through the latitude/longitude cells and retrieve the 
-        // information associate with each cell from the repository.
-        int lat = minCellLat;
-        while (lat < maxCellLat) {
-            int lon = minCellLon;
-            while (lon < maxCellLon) {
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Processing lat [ " + lat + " ], lon [ " + lon + " ].");
-                }
-                List<TerrainDataFile> files = repository.getTerrainDataFiles(lat, lon, source);
-                if ((files != null) && (files.size() > 0)) {
-                    for (TerrainDataFile file : files) {
-                        try {
-                            ElevationExtremesFactory factory = 
-                                    new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
-                                        .classificationMarking(file.getMarking())
-                                        .filePath(file.getUnixPath())
-                                        .units(units)
-                                        .earthModel(earthModel)
-                                        .sourceType(ConversionUtils.convertTerrainDataFileType(file.getSource()))
-                                        .build();
-                            MinMaxElevation tmpMinMax = factory.getMinMaxElevation(bbox);
-                            minMax = compare(minMax, tmpMinMax);
-                        }
-                        catch (IllegalStateException ise) {
-                            // We found that it is not uncommon for the 
-                            // database to be out of sync with the filesystem.
-                            // Rather than propagate the exception all the 
-                            // back to the REST interface, catch it here so 
-                            // processing can continue. 
-                            LOGGER.warn("Unexpected IllegalStateException "
-                                    + "raised while processing DEM data "
-                                    + "record [ {} ].  Error message => [ {} ].", 
-                                    file.toString(), 
-                                    ise.getMessage());
-                        }
-                    }
+        // Build the list of cells to process.  Cells are held in the 
+        // same (latitude-major) order as the original serial loop so the 
+        // reduction yields identical results on ties.
+        List<int[]> cells = new ArrayList<int[]>();
+        for (int lat = minCellLat; lat < maxCellLat; lat++) {
+            for (int lon = minCellLon; lon < maxCellLon; lon++) {
+                cells.add(new int[] { lat, lon });
+            }
+        }
+        
+        if (cells.size() > 0) {
+            
+            // Resolve the files for every cell in a single catalog lookup 
+            // rather than one lookup per cell.
+            Map<Integer, List<TerrainDataFile>> files = 
+                    repository.getTerrainDataFiles(
+                            minCellLat, minCellLon, 
+                            maxCellLat - 1, maxCellLon - 1, 
+                            source);
+            
+            // Split the cells into at most requestParallelism chunks.
+            int parallelism = Math.max(1, requestParallelism);
+            int threshold   = Math.max(1, 
+                    (cells.size() + parallelism - 1) / parallelism);
+            CellTask task = new CellTask(
+                    cells, 0, cells.size(), threshold, 
+                    files, bbox, area, units, earthModel, source);
+            try {
+                if (pool != null) {
+                    minMax = pool.invoke(task);
                 }
                 else {
-                    LOGGER.warn("No source data found for Latitude [ "
-                            + lat
-                            + " ], Longitude [ "
-                            + lon 
-                            + " ] and DEM source type [ "
-                            + source.toString()
-                            + " ].");
+                    minMax = task.invoke();
+                }
+            }
+            catch (RuntimeException re) {
+                // Exceptions raised in worker threads may be re-wrapped by 
+                // the ForkJoin framework.  Search the cause chain for the 
+                // original ApplicationException.
+                Throwable cause = re;
+                while (cause != null) {
+                    if (cause instanceof ApplicationException) {
+                        throw (ApplicationException)cause;
+                    }
+                    cause = cause.getCause();
                 }
-                lon += 1; // Increment the longitude counter
+                throw re;
             }
-            lat += 1; // Increment the latitude counter
         }
         
+        LOGGER.info("Processed [ "
+                + cells.size()
+                + " ] cells in [ "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+                + " ] ms.");
+        ElevationMetrics.recordRequest(
+                OPERATION, source, System.nanoTime() - startTime);
+        
         return convertToResponse(minMax, earthModel);
     }
+    
+    /**
+     * Calculate the min/max elevation for a single 1-degree cell.  All of 
+     * the files available for the cell are considered.
+     * 
+     * @param lat The latitude of the southwest corner of the cell.
+     * @param lon The longitude of the southwest corner of the cell.
+     * @param files The files covering the cell (null or empty if there is 
+     * no coverage).
+     * @param bbox User-defined bounding box.
+     * @param area The prepared area of interest (null for bounding box 
+     * requests).
+     * @param units The output units for the elevation values. 
+     * @param earthModel The output Earth model.
+     * @param source The source DEM type.
+     * @return The min/max elevation for the cell, or null if no data was 
+     * available.
+     * @throws ApplicationException Thrown if the source type of a file 
+     * cannot be converted.
+     */
+    private MinMaxElevation getMinMaxElevation(
+            int                   lat, 
+            int                   lon,
+            List<TerrainDataFile> files,
+            BoundingBox           bbox,
+            PreparedGeometry      area,
+            HeightUnitType        units,
+            EarthModelType        earthModel,
+            TerrainDataFileType   source) throws ApplicationException {
+        
+        MinMaxElevation minMax = null;
+        
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Processing lat [ " + lat + " ], lon [ " + lon + " ].");
+        }
+        
+        // Cells within the envelope that the area does not touch (e.g. 
+        // the notch of a concave polygon) are skipped without loading 
+        // any frames.
+        Geometry cell = null;
+        if (area != null) {
+            cell = area.getGeometry().getFactory().toGeometry(
+                    new Envelope(lon, lon + 1, lat, lat + 1));
+            if (!area.intersects(cell)) {
+                return minMax;
+            }
+        }
+        if ((files != null) && (files.size() > 0)) {
+            
+            // Cells lying wholly inside the bounding box are answered from 
+            // the precomputed summaries where available.
+            Map<String, TerrainDataSummary> summaries = null;
+            if ((earthModel == EarthModelType.EGM96) && 
+                    (lat >= bbox.getLowerLeftLat()) && 
+                    ((lat + 1) <= bbox.getUpperRightLat()) && 
+                    (lon >= bbox.getLowerLeftLon()) && 
+                    ((lon + 1) <= bbox.getUpperRightLon()) && 
+                    ((area == null) || (area.covers(cell)))) {
+                summaries = getSummaries(files);
+            }
+            
+            for (TerrainDataFile file : files) {
+                try {
+                    ElevationExtremesFactory factory = 
+                            new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
+                                .classificationMarking(file.getMarking())
+                                .filePath(file.getUnixPath())
+                                .units(units)
+                                .earthModel(earthModel)
+                                .sourceType(ConversionUtils.convertTerrainDataFileType(file.getSource()))
+                                .build();
+                    MinMaxElevation tmpMinMax = null;
+                    if (summaries != null) {
+                        tmpMinMax = factory.getMinMaxElevation(
+                                summaries.get(file.getUnixPath()));
+                    }
+                    else if (area != null) {
+                        tmpMinMax = factory.getMinMaxElevation(area.getGeometry());
+                    }
+                    else {
+                        tmpMinMax = factory.getMinMaxElevation(bbox);
+                    }
+                    minMax = compare(minMax, tmpMinMax);
+                }
+                catch (IllegalStateException ise) {
+                    // We found that it is not uncommon for the 
+                    // database to be out of sync with the filesystem.
+                    // Rather than propagate the exception all the 
+                    // back to the REST interface, catch it here so 
+                    // processing can continue. 
+                    LOGGER.warn("Unexpected IllegalStateException "
+                            + "raised while processing DEM data "
+                            + "record [ {} ].  Error message => [ {} ].", 
+                            file.toString(), 
+                            ise.getMessage());
+                }
+            }
+        }
+        else {
+            LOGGER.warn("No source data found for Latitude [ "
+                    + lat
+                    + " ], Longitude [ "
+                    + lon 
+                    + " ] and DEM source type [ "
+                    + source.toString()
+                    + " ].");
+        }
+        return minMax;
+    }
+    
+    /**
+     * Retrieve the precomputed summaries for the input terrain data files. 
+     * Failures are logged and an empty map returned so that the caller 
+     * falls back to scanning the frames.
+     * 
+     * @param files The terrain data files for a single cell.
+     * @return The available summaries keyed by Unix path.
+     */
+    private Map<String, TerrainDataSummary> getSummaries(
+            List<TerrainDataFile> files) {
+        
+        Map<String, TerrainDataSummary> summaries = 
+                new HashMap<String, TerrainDataSummary>();
+        if (summaryRepository != null) {
+            List<String> paths = new ArrayList<String>(files.size());
+            for (TerrainDataFile file : files) {
+                paths.add(file.getUnixPath());
+            }
+            try {
+                for (TerrainDataSummary summary : 
+                        summaryRepository.findAllById(paths)) {
+                    summaries.put(summary.getUnixPath(), summary);
+                }
+            }
+            catch (DataAccessException dae) {
+                LOGGER.warn("Unable to retrieve the terrain data summaries.  "
+                        + "Error message => [ {} ].", 
+                        dae.getMessage());
+            }
+        }
+        return summaries;
+    }
+    
+    /**
+     * Combine two partial results.  Ties are resolved in favor of the 
+     * left-hand (earlier) input which matches the behavior of the serial 
+     * accumulation.
+     * 
+     * @param left The partial result for the earlier cells.
+     * @param right The partial result for the later cells.
+     * @return The combined min/max, or null if neither input has data.
+     */
+    private MinMaxElevation merge(MinMaxElevation left, MinMaxElevation right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return compare(left, right);
+    }
+    
+    /**
+     * Unchecked wrapper used to carry an <code>ApplicationException</code> 
+     * out of a ForkJoin worker thread.
+     */
+    private static class CellTaskException extends RuntimeException {
+        
+        /**
+         * Eclipse-generated serialVersionUID
+         */
+        private static final long serialVersionUID = -4716931556417032085L;
+        
+        private CellTaskException(ApplicationException cause) {
+            super(cause);
+        }
+    }
+    
+    /**
+     * Task used to evaluate a contiguous range of cells.  Ranges larger 
+     * than the threshold are split in half and the halves are evaluated 
+     * in parallel, with the partial results merged on the way back up.
+     * 
+     * @author L. Craig Carpenter
+     */
+    private class CellTask extends RecursiveTask<MinMaxElevation> {
+        
+        /**
+         * Eclipse-generated serialVersionUID
+         */
+        private static final long serialVersionUID = 2318812386051938427L;
+        
+        private final List<int[]>         cells;
+        private final int                 from;
+        private final int                 to;
+        private final int                 threshold;
+        private final Map<Integer, List<TerrainDataFile>> files;
+        private final BoundingBox         bbox;
+        private final PreparedGeometry    area;
+        private final HeightUnitType      units;
+        private final EarthModelType      earthModel;
+        private final TerrainDataFileType source;
+        
+        private CellTask(
+                List<int[]>         cells, 
+                int                 from, 
+                int                 to, 
+                int                 threshold,
+                Map<Integer, List<TerrainDataFile>> files,
+                BoundingBox         bbox,
+                PreparedGeometry    area,
+                HeightUnitType      units,
+                EarthModelType      earthModel,
+                TerrainDataFileType source) {
+            this.cells      = cells;
+            this.from       = from;
+            this.to         = to;
+            this.threshold  = threshold;
+            this.files      = files;
+            this.bbox       = bbox;
+            this.area       = area;
+            this.units      = units;
+            this.earthModel = earthModel;
+            this.source     = source;
+        }
+        
+        @Override
+        protected MinMaxElevation compute() {
+            if ((to - from) <= threshold) {
+                MinMaxElevation minMax = null;
+                try {
+                    for (int i=from; i<to; i++) {
+                        int lat = cells.get(i)[0];
+                        int lon = cells.get(i)[1];
+                        minMax = merge(minMax, getMinMaxElevation(
+                                lat, 
+                                lon, 
+                                files.get(TerrainDataCatalog.getCellIndex(lat, lon)),
+                                bbox, area, units, earthModel, source));
+                    }
+                }
+                catch (ApplicationException ae) {
+                    throw new CellTaskException(ae);
+                }
+                return minMax;
+            }
+            int mid = (from + to) >>> 1;
+            CellTask left  = new CellTask(
+                    cells, from, mid, threshold, files, bbox, area, units, earthModel, source);
+            CellTask right = new CellTask(
+                    cells, mid, to, threshold, files, bbox, area, units, earthModel, source);
+            left.fork();
+            MinMaxElevation rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
+    }
 }
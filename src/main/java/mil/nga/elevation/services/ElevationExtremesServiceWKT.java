@@ -1,6 +1,8 @@
 package mil.nga.elevation.services;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
@@ -24,7 +26,9 @@ import mil.nga.elevation_services.model.TerrainDataFileType;
  * generated source code and the code previously developed for providing the 
  * min/max elevation data services functionality. This class is very similar
  * to the <code>ElevationExtremesService</code> class with the added complexity
- * that it must decode the input WKT string.
+ * that it must decode the input WKT string.  The decoded polygon (or 
+ * multi-polygon) is passed through to the frame scan so that only the 
+ * posts inside the area of interest are considered.
  * 
  * @author L. Craig Carpenter
  */
@@ -50,54 +54,41 @@ public class ElevationExtremesServiceWKT {
     ElevationExtremesService elevationService;
     
     /**
-     * Method used to convert the input WKT String into a bounding box for 
-     * further processing.  The bounding box is generated from the envelope 
-     * of the polygon constructed from the WKT string.
+     * Method used to convert the input WKT String into the polygonal area 
+     * of interest.  Both POLYGON and MULTIPOLYGON (with or without holes) 
+     * are accepted.
      * 
      * @param wkt User-supplied WKT String.
-     * @return A bounding box constructed from the envelope of the 
+     * @return The area of interest constructed from the WKT string.
      * @throws ApplicationException Thrown in a variety of failure cases 
      * converting the WKT.
      */
-    public BoundingBox getBoundingBox(String wkt) throws ApplicationException {
-        
-        BoundingBox.BoundingBoxBuilder builder = 
-                new BoundingBox.BoundingBoxBuilder();
+    public Geometry getGeometry(String wkt) throws ApplicationException {
         
         if ((wkt != null) && (!wkt.isEmpty())) {
-
             try {
-                WKTReader reader = new WKTReader();
-                Polygon polygon = (Polygon)reader.read(wkt);
-                if (polygon != null) {
-                    Envelope env = polygon.getEnvelopeInternal();
-                    if (env != null) {
-                        builder.lowerLeftLat(env.getMinY());
-                        builder.lowerLeftLon(env.getMinX());
-                        builder.upperRightLat(env.getMaxY());
-                        builder.upperRightLon(env.getMaxX());
-                    }
-                    else {
-                        LOGGER.error("Unable to retrieve envelope from WKT "
-                                + "Polygon.  Envelope is null.  WKT [ "
-                                + wkt
-                                + " ].");
-                        throw new ApplicationException.ApplicationExceptionBuilder()
-                            .errorCode(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorCode())
-                            .errorMessage(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorMessage())
-                            .build();
+                WKTReader reader   = new WKTReader();
+                Geometry  geometry = reader.read(wkt);
+                if ((geometry instanceof Polygon) || 
+                        (geometry instanceof MultiPolygon)) {
+                    if (!geometry.isEmpty()) {
+                        return geometry;
                     }
+                    LOGGER.error("Unable to convert WKT to a Polygon.  "
+                            + "Resulting Polygon is empty.  WKT [ "
+                            + wkt
+                            + " ].");
                 }
                 else {
                     LOGGER.error("Unable to convert WKT to a Polygon.  "
-                            + "Resulting Polygon is null.  WKT [ "
+                            + "WKT is not a POLYGON or MULTIPOLYGON.  WKT [ "
                             + wkt
                             + " ].");
-                    throw new ApplicationException.ApplicationExceptionBuilder()
-                        .errorCode(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorCode())
-                        .errorMessage(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorMessage())
-                        .build();
                 }
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorCode())
+                    .errorMessage(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorMessage())
+                    .build();
             } 
             catch (ParseException pe) {
                 LOGGER.error("ParseError encountered while parsing the input "
@@ -118,7 +109,26 @@ public class ElevationExtremesServiceWKT {
                 .errorMessage(ErrorCodes.INVALID_QUERY_NO_WKT.getErrorMessage())
                 .build();
         }
-        return builder.build();
+    }
+    
+    /**
+     * Method used to convert the input WKT String into a bounding box.  
+     * The bounding box is generated from the envelope of the area 
+     * constructed from the WKT string.
+     * 
+     * @param wkt User-supplied WKT String.
+     * @return A bounding box constructed from the envelope of the area.
+     * @throws ApplicationException Thrown in a variety of failure cases 
+     * converting the WKT.
+     */
+    public BoundingBox getBoundingBox(String wkt) throws ApplicationException {
+        Envelope env = getGeometry(wkt).getEnvelopeInternal();
+        return new BoundingBox.BoundingBoxBuilder()
+                .lowerLeftLat(env.getMinY())
+                .lowerLeftLon(env.getMinX())
+                .upperRightLat(env.getMaxY())
+                .upperRightLon(env.getMaxX())
+                .build();
     }
     
     /**
@@ -138,7 +148,7 @@ public class ElevationExtremesServiceWKT {
                 (query.getWkt() != null) && 
                 (!query.getWkt().isEmpty())) {  
             return elevationService.getMinMaxElevation(
-                    getBoundingBox(query.getWkt()), 
+                    getGeometry(query.getWkt()), 
                     query.getHeightType(), 
                     query.getEarthModelType(),
                     query.getSource());
@@ -177,7 +187,7 @@ public class ElevationExtremesServiceWKT {
         EarthModelType      referenceEllipsoid = 
                 ConversionUtils.convertEarthModelType(referenceEllipsoidStr);
         return elevationService.getMinMaxElevation(
-                getBoundingBox(wkt), 
+                getGeometry(wkt), 
                 units, 
                 referenceEllipsoid,
                 source);
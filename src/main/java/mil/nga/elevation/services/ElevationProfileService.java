@@ -0,0 +1,334 @@
+package mil.nga.elevation.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.exceptions.InvalidParameterException;
+import mil.nga.elevation.model.ElevationDataPoint;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation.utils.ConversionUtils;
+import mil.nga.elevation.utils.ProfileUtils;
+import mil.nga.elevation_services.model.CoordinateType;
+import mil.nga.elevation_services.model.CoordinateTypeDouble;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.ElevationProfileQuery;
+import mil.nga.elevation_services.model.ElevationProfileResponse;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.ProfilePointType;
+import mil.nga.elevation_services.model.SecurityType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Translation layer between the OpenAPI/Spring generated source code and
+ * the elevation calculation for the <code>ElevationProfile</code> end
+ * point.  The input path is sampled at the requested interval (or the
+ * native post spacing of the source) and the samples are handed to the
+ * <code>ElevationDataService</code> in path order.  That service groups
+ * the samples by cell, so each DEM frame crossed by the path is opened
+ * once and every sample is interpolated with the same bilinear
+ * interpolation used by the <code>ElevationAt</code> end point.
+ *
+ * @author L. Craig Carpenter
+ */
+@Component
+public class ElevationProfileService implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(ElevationProfileService.class);
+
+    /**
+     * Operation tag applied to the request metrics.
+     */
+    private static final String OPERATION = "profile";
+
+    /**
+     * AutoWired reference to the elevation data service.
+     */
+    @Autowired
+    ElevationDataService elevationDataService;
+
+    /**
+     * The maximum number of samples in a single profile.
+     */
+    @Value("${elevation.profile.max.samples:100000}")
+    private int maxSamples = 100000;
+
+    /**
+     * Method used to parse/convert the input String data from the
+     * OpenAPI/REST GET parameters.  The path is taken from the WKT if
+     * supplied, otherwise from the list of points.
+     *
+     * @param wkt WKT LINESTRING defining the path.
+     * @param pts Comma-separated path vertices in lon, lat order.
+     * @param interval Sample interval in meters (optional).
+     * @param heightType String-based representation of the elevation units.
+     * @param referenceEllipsoid The Earth model to use for the output
+     * elevations.
+     * @param source The source DEM type.
+     * @return The calculated profile.
+     * @throws ApplicationException Contains error code/message associated
+     * with any exceptions encountered throughout processing.
+     */
+    public ElevationProfileResponse getElevationProfile(
+            String wkt,
+            String pts,
+            String interval,
+            String heightType,
+            String referenceEllipsoid,
+            String source) throws ApplicationException {
+
+        HeightUnitType      units      =
+                ConversionUtils.convertHeightUnitType(heightType);
+        EarthModelType      earthModel =
+                ConversionUtils.convertEarthModelType(referenceEllipsoid);
+        TerrainDataFileType sourceDEM  =
+                ConversionUtils.convertTerrainDataFileType(source);
+        Double              spacing    = null;
+
+        if ((interval != null) && (!interval.trim().isEmpty())) {
+            try {
+                spacing = Double.valueOf(interval.trim());
+            }
+            catch (NumberFormatException nfe) {
+                LOGGER.error("Invalid profile sample interval [ "
+                        + interval
+                        + " ].");
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.INVALID_QUERY.getErrorCode())
+                    .errorMessage(ErrorCodes.INVALID_QUERY.getErrorMessage())
+                    .build();
+            }
+        }
+        List<GeodeticCoordinate> vertices;
+        if ((wkt != null) && (!wkt.trim().isEmpty())) {
+            vertices = ProfileUtils.parseLineString(wkt);
+        }
+        else {
+            vertices = ConversionUtils.parseCoords(pts);
+        }
+        return getElevationProfile(vertices, spacing, units, earthModel, sourceDEM);
+    }
+
+    /**
+     * Method used to process the OpenAPI/REST POST body.  The path is
+     * taken from the WKT if supplied, otherwise from the list of
+     * coordinates.
+     *
+     * @param query Object containing all of the profile query parameters.
+     * @return The calculated profile.
+     * @throws ApplicationException Contains error code/message associated
+     * with any exceptions encountered throughout processing.
+     */
+    public ElevationProfileResponse getElevationProfile(
+            ElevationProfileQuery query) throws ApplicationException {
+
+        if (query == null) {
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_QUERY.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_QUERY.getErrorMessage())
+                .build();
+        }
+        List<GeodeticCoordinate> vertices = new ArrayList<GeodeticCoordinate>();
+        if ((query.getWkt() != null) && (!query.getWkt().trim().isEmpty())) {
+            vertices = ProfileUtils.parseLineString(query.getWkt());
+        }
+        else if (query.getCoordinates() != null) {
+            try {
+                for (CoordinateType coord : query.getCoordinates()) {
+                    vertices.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                            .lat(coord.getLat())
+                            .lon(coord.getLon())
+                            .build());
+                }
+            }
+            catch (IllegalStateException ise) {
+                LOGGER.error("IllegalStateException encountered while "
+                        + "parsing profile coordinates.  Error message => [ "
+                        + ise.getMessage()
+                        + " ].");
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode())
+                    .errorMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage())
+                    .build();
+            }
+        }
+        return getElevationProfile(
+                vertices,
+                query.getInterval(),
+                Constants.getValueOrDefault(query.getHeightType(), HeightUnitType.METERS),
+                Constants.getValueOrDefault(query.getEarthModelType(), EarthModelType.EGM96),
+                Constants.getValueOrDefault(query.getSource(), TerrainDataFileType.DTED0));
+    }
+
+    /**
+     * Sample the path, calculate the elevations and summarize the result.
+     *
+     * @param vertices The path vertices.
+     * @param interval Sample interval in meters (null for the native post
+     * spacing of the source).
+     * @param units The requested output height units.
+     * @param earthModel The requested output Earth model.
+     * @param sourceDEM The source DEM type requested.
+     * @return The calculated profile.
+     * @throws ApplicationException Thrown if the path is invalid, exceeds
+     * the sample limit, or is not covered by the source.
+     */
+    private ElevationProfileResponse getElevationProfile(
+            List<GeodeticCoordinate> vertices,
+            Double                   interval,
+            HeightUnitType           units,
+            EarthModelType           earthModel,
+            TerrainDataFileType      sourceDEM) throws ApplicationException {
+
+        double spacing = (interval != null) ?
+                interval : ProfileUtils.getPostSpacing(sourceDEM);
+        List<GeodeticCoordinate> samples =
+                ProfileUtils.densify(vertices, spacing, maxSamples);
+
+        LOGGER.info("Processing profile of [ "
+                + vertices.size()
+                + " ] vertices sampled at [ "
+                + samples.size()
+                + " ] points.");
+        try {
+            return convertToResponse(
+                    samples,
+                    elevationDataService.getElevations(
+                            samples, sourceDEM, units, earthModel, OPERATION),
+                    units,
+                    earthModel);
+        }
+        catch (InvalidParameterException | IllegalStateException |
+                ClassNotFoundException | IOException e) {
+            // We should never see these exceptions.  Re-throw as a generic
+            // application exception.
+            LOGGER.error("Unexpected "
+                    + e.getClass().getSimpleName()
+                    + " encountered while attempting to calculate "
+                    + "an elevation profile.  Error message => [ {} ].  "
+                    + "Rethrowing as an internal exception.",
+                    e.getMessage());
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INTERNAL_EXCEPTION.getErrorCode())
+                .errorMessage(ErrorCodes.INTERNAL_EXCEPTION.getErrorMessage())
+                .build();
+        }
+    }
+
+    /**
+     * Build the response, accumulating the along-path distance, the total
+     * ascent and descent, and the minimum and maximum elevations.  Void
+     * posts are reported but do not contribute to the statistics.  The
+     * elevations arrive already converted to the output units, so voids are
+     * recognized by the sentinel value converted to those same units.
+     *
+     * @param samples The sample coordinates in path order.
+     * @param elevations The calculated elevations (in sample order).
+     * @param units The output height units.
+     * @param earthModel The output Earth model.
+     * @return The object that will be serialized and sent to the caller.
+     */
+    static ElevationProfileResponse convertToResponse(
+            List<GeodeticCoordinate> samples,
+            List<ElevationDataPoint> elevations,
+            HeightUnitType           units,
+            EarthModelType           earthModel) {
+
+        ElevationProfileResponse response = new ElevationProfileResponse()
+                .heightType(units)
+                .earthModelType(earthModel);
+        String           marking  = "";
+        String           producer = "";
+        double           distance = 0.0;
+        int              ascent   = 0;
+        int              descent  = 0;
+        Integer          previous = null;
+        ProfilePointType min      = null;
+        ProfilePointType max      = null;
+        int              voidPost = (units == HeightUnitType.FEET) ?
+                Constants.convertToFeet(INVALID_ELEVATION_VALUE) :
+                INVALID_ELEVATION_VALUE;
+
+        for (int i=0; i<samples.size(); i++) {
+            ElevationDataPoint point = elevations.get(i);
+            if (i > 0) {
+                distance += ProfileUtils.distance(samples.get(i - 1), samples.get(i));
+            }
+            ProfilePointType profilePoint = new ProfilePointType()
+                    .coordinate(new CoordinateTypeDouble()
+                            .lat(samples.get(i).getLat())
+                            .lon(samples.get(i).getLon()))
+                    .distance(round(distance))
+                    .elevation(point.getElevation())
+                    .source(point.getSource());
+            response.addProfileItem(profilePoint);
+
+            int elevation = point.getElevation();
+            if (elevation != voidPost) {
+                if (previous != null) {
+                    if (elevation > previous) {
+                        ascent += elevation - previous;
+                    }
+                    else {
+                        descent += previous - elevation;
+                    }
+                }
+                previous = elevation;
+                if ((min == null) || (elevation < min.getElevation())) {
+                    min = profilePoint;
+                }
+                if ((max == null) || (elevation > max.getElevation())) {
+                    max = profilePoint;
+                }
+            }
+
+            // Same precedence rules as the ElevationAt response.
+            if (!DEFAULT_PRODUCER.equalsIgnoreCase(point.getProducerCode())) {
+                producer = point.getProducerCode();
+            }
+            else if (producer.isEmpty()) {
+                producer = DEFAULT_PRODUCER;
+            }
+            if ((point.getClassificationMarking() != null) &&
+                    (!point.getClassificationMarking().isEmpty())) {
+                marking = point.getClassificationMarking();
+            }
+        }
+        if (marking.isEmpty()) {
+            marking = DEFAULT_CLASSIFICATION_MARKING;
+        }
+
+        SecurityType security = new SecurityType();
+        security.setClassification(marking);
+        security.setOwnerProducer(producer);
+        return response
+                .security(security)
+                .totalDistance(round(distance))
+                .totalAscent(ascent)
+                .totalDescent(descent)
+                .minElevation(min)
+                .maxElevation(max);
+    }
+
+    /**
+     * Round distances to the nearest centimeter for output.
+     * @param meters The distance in meters.
+     * @return The rounded distance.
+     */
+    private static double round(double meters) {
+        return Math.round(meters * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,294 @@
+package mil.nga.elevation.services;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.metrics.ElevationMetrics;
+
+/**
+ * Admission control for the number of points evaluated per request.
+ *
+ * <ul>
+ * <li>Requests with more points than the hard limit are rejected with
+ * <code>ErrorCodes.TOO_MANY_POINTS</code> before any evaluation takes
+ * place.</li>
+ * <li>Point evaluation runs while holding one of a fixed number of
+ * evaluation slots.  The slots are handed out in FIFO order.  Requests at
+ * or below the soft limit hold a slot for their whole evaluation.
+ * Requests above the soft limit are evaluated in chunks and give up their
+ * slot between chunks, re-joining the back of the queue, so a single large
+ * request cannot hold up the small requests arriving behind it for longer
+ * than one chunk.</li>
+ * <li>Requests wait at most <code>elevation.points.slot.timeout.ms</code>
+ * (by default the I/O request timeout) for their first slot.  Requests
+ * that time out are rejected with <code>ErrorCodes.SERVER_BUSY</code>
+ * rather than holding a worker thread indefinitely.  A chunked request
+ * re-acquiring its slot between chunks (see <code>reacquire()</code>)
+ * waits without a timeout, so a request that has already evaluated part
+ * of its points is never rejected part way through.  It still re-joins
+ * the back of the queue, and waits at most as long as the requests ahead
+ * of it take to evaluate one chunk each.</li>
+ * </ul>
+ *
+ * The slot count should be below the size of the I/O request pool (see
+ * <code>RequestExecutors</code>) so that requests waiting for a slot do not
+ * hold every worker thread.
+ *
+ * @author L. Craig Carpenter
+ */
+@Component
+public class PointBudget {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(PointBudget.class);
+
+    /**
+     * Maximum number of points in a single request.  Values less than 1
+     * disable the limit.
+     */
+    @Value("${elevation.points.max:100000}")
+    private int maxPoints;
+
+    /**
+     * Requests with more points than this are evaluated in chunks.  Values
+     * less than 1 disable chunking.
+     */
+    @Value("${elevation.points.chunk.threshold:5000}")
+    private int chunkThreshold;
+
+    /**
+     * Number of points evaluated per chunk.
+     */
+    @Value("${elevation.points.chunk.size:1000}")
+    private int chunkSize;
+
+    /**
+     * Number of evaluation slots.  Values less than 1 default to twice the
+     * number of available processors.
+     */
+    @Value("${elevation.points.slots:0}")
+    private int slots;
+
+    /**
+     * Maximum time (ms) to wait for an evaluation slot.  Defaults to the
+     * I/O request timeout.  Values less than 1 wait indefinitely.
+     */
+    @Value("${elevation.points.slot.timeout.ms:${elevation.async.io.timeout.ms:30000}}")
+    private long slotTimeout;
+
+    private Semaphore permits;
+
+    /**
+     * Default constructor used by Spring.
+     */
+    public PointBudget() { }
+
+    /**
+     * Constructor allowing the budget to be configured outside of a Spring
+     * context.  <code>init()</code> must still be called prior to use.
+     *
+     * @param maxPoints Maximum number of points in a single request.
+     * @param chunkThreshold Number of points above which a request is
+     * evaluated in chunks.
+     * @param chunkSize Number of points evaluated per chunk.
+     * @param slots Number of evaluation slots.
+     * @param slotTimeout Maximum time (ms) to wait for a slot.
+     */
+    public PointBudget(
+            int  maxPoints,
+            int  chunkThreshold,
+            int  chunkSize,
+            int  slots,
+            long slotTimeout) {
+        this.maxPoints      = maxPoints;
+        this.chunkThreshold = chunkThreshold;
+        this.chunkSize      = chunkSize;
+        this.slots          = slots;
+        this.slotTimeout    = slotTimeout;
+    }
+
+    /**
+     * Construct the evaluation slots once the configuration has been
+     * injected.
+     */
+    @PostConstruct
+    public void init() {
+        if (slots < 1) {
+            slots = 2 * Runtime.getRuntime().availableProcessors();
+        }
+        if (chunkSize < 1) {
+            chunkSize = 1000;
+        }
+        permits = new Semaphore(slots, true);
+        LOGGER.info("Point budget created.  Max points [ "
+                + maxPoints
+                + " ], chunk threshold [ "
+                + chunkThreshold
+                + " ], chunk size [ "
+                + chunkSize
+                + " ], slots [ "
+                + slots
+                + " ], slot timeout [ "
+                + slotTimeout
+                + " ] ms.");
+    }
+
+    /**
+     * Reject requests above the hard limit.
+     *
+     * @param points The number of points in the request.
+     * @param operation The operation tag applied to the rejection metric.
+     * @throws ApplicationException Thrown if the request has more points
+     * than the hard limit.
+     */
+    public void admit(int points, String operation) throws ApplicationException {
+        if ((maxPoints > 0) && (points > maxPoints)) {
+            LOGGER.warn("Request rejected.  Requested points [ "
+                    + points
+                    + " ], maximum [ "
+                    + maxPoints
+                    + " ].");
+            ElevationMetrics.recordRejected(
+                    operation, ElevationMetrics.REASON_TOO_MANY_POINTS);
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.TOO_MANY_POINTS.getErrorCode())
+                    .errorMessage(ErrorCodes.TOO_MANY_POINTS.getErrorMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Determine whether a request is evaluated in chunks.
+     *
+     * @param points The number of points in the request.
+     * @return True if the request exceeds the soft limit.
+     */
+    public boolean isChunked(int points) {
+        return (chunkThreshold > 0) && (points > chunkThreshold);
+    }
+
+    /**
+     * Wait for an evaluation slot.  Slots are granted in the order in
+     * which they were requested.  <code>release()</code> must only be 
+     * called if this method returns normally.
+     *
+     * @param operation The operation tag applied to the wait metric.
+     * @throws ApplicationException Thrown if a slot does not become 
+     * available within the slot timeout, or the thread is interrupted 
+     * while waiting.
+     */
+    public void acquire(String operation) throws ApplicationException {
+        acquire(operation, slotTimeout);
+    }
+
+    /**
+     * Wait for the next slot of a chunked request that has given up its
+     * slot between chunks.  Slots are granted in the same order as for
+     * <code>acquire()</code>, but the wait is not subject to the slot 
+     * timeout.  Work already done for the request is therefore not 
+     * discarded because of a busy server.  <code>release()</code> must 
+     * only be called if this method returns normally.
+     *
+     * @param operation The operation tag applied to the wait metric.
+     * @throws ApplicationException Thrown if the thread is interrupted 
+     * while waiting.
+     */
+    public void reacquire(String operation) throws ApplicationException {
+        acquire(operation, 0L);
+    }
+
+    /**
+     * Wait for an evaluation slot.
+     *
+     * @param operation The operation tag applied to the wait metric.
+     * @param timeout Maximum time (ms) to wait.  Values less than 1 wait
+     * indefinitely.
+     * @throws ApplicationException Thrown if a slot does not become 
+     * available within the timeout, or the thread is interrupted while 
+     * waiting.
+     */
+    private void acquire(String operation, long timeout) 
+            throws ApplicationException {
+        long    startTime = System.nanoTime();
+        boolean acquired  = false;
+        try {
+            if (timeout > 0) {
+                acquired = permits.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+            }
+            else {
+                permits.acquire();
+                acquired = true;
+            }
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        ElevationMetrics.recordSlotWait(operation, System.nanoTime() - startTime);
+        if (!acquired) {
+            LOGGER.warn("Request rejected.  No evaluation slot available "
+                    + "within [ "
+                    + timeout
+                    + " ] ms.  Waiting requests [ "
+                    + getWaiting()
+                    + " ].");
+            ElevationMetrics.recordRejected(
+                    operation, ElevationMetrics.REASON_SLOT_TIMEOUT);
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.SERVER_BUSY.getErrorCode())
+                    .errorMessage(ErrorCodes.SERVER_BUSY.getErrorMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Return an evaluation slot.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Getter method for the number of points evaluated per chunk.
+     * @return The chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Getter method for the hard limit.
+     * @return The maximum number of points in a request (less than 1 if
+     * there is no limit).
+     */
+    public int getMaxPoints() {
+        return maxPoints;
+    }
+
+    /**
+     * Getter method for the number of evaluation slots not in use.
+     * @return The number of free slots.
+     */
+    public int getAvailableSlots() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Getter method for the number of requests waiting for a slot.
+     * @return The (estimated) number of waiting requests.
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+}
@@ -0,0 +1,457 @@
+package mil.nga.elevation.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+
+/**
+ * Executors used to process REST requests off of the servlet container
+ * worker threads.  The controllers hand each request to one of two
+ * separately sized, bounded pools and return a
+ * <code>CompletableFuture</code>, which releases the servlet thread while
+ * the DEM frames are loaded.
+ *
+ * <ul>
+ * <li>The I/O pool handles the short, latency sensitive requests
+ * (<code>ElevationAt</code> and <code>CoverageAvailable</code>) whose cost
+ * is dominated by blocking frame and catalog reads.  It is sized well above
+ * the number of processors.</li>
+ * <li>The CPU pool handles the scan-heavy <code>MinMaxElevation</code>
+ * requests.  It is sized near the number of processors so that a burst of
+ * large min/max requests queues here rather than consuming the threads
+ * needed by the cheap point queries.</li>
+ * <li>The stream pool runs the streaming (NDJSON) <code>ElevationAt</code>
+ * requests, each of which may run for a long time.  Keeping them off of the
+ * I/O pool means a handful of large streams cannot starve the point
+ * queries.  Streams are subject to their own (much longer) timeout, applied
+ * to the streamed response by the controller.</li>
+ * </ul>
+ *
+ * Each pool has a bounded queue.  Requests that cannot be queued, or that
+ * do not complete within the configured timeout, complete exceptionally
+ * with an <code>ApplicationException</code> so the caller receives an
+ * immediate error rather than holding a connection open.
+ *
+ * The servlet container applies its own timeout to asynchronous requests.
+ * It is set (see <code>getAsyncTimeout()</code>) slightly longer than the
+ * longest pool timeout so the pool timeout fires first.  The future of a
+ * request is recorded as a request attribute
+ * (<code>FUTURE_ATTRIBUTE</code>) so that, should the container time the
+ * request out regardless, the future can be expired (see
+ * <code>expire()</code>).
+ *
+ * @author L. Craig Carpenter
+ */
+@Component
+public class RequestExecutors {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(RequestExecutors.class);
+
+    /**
+     * Name of the request attribute holding the future of the request.
+     */
+    public static final String FUTURE_ATTRIBUTE =
+            RequestExecutors.class.getName() + ".future";
+
+    /**
+     * Time (ms) added to the longest pool timeout to give the container 
+     * timeout.  Allows the pool timeout to complete the request first.
+     */
+    public static final long ASYNC_TIMEOUT_MARGIN = 5000L;
+
+    /**
+     * Number of I/O threads.  Values less than 1 default to four times the
+     * number of available processors.
+     */
+    @Value("${elevation.async.io.pool.size:0}")
+    private int ioPoolSize;
+
+    /**
+     * Maximum number of requests waiting for an I/O thread.
+     */
+    @Value("${elevation.async.io.queue.capacity:1000}")
+    private int ioQueueCapacity;
+
+    /**
+     * Time (ms) allowed for I/O requests.  Values less than 1 disable the
+     * timeout.
+     */
+    @Value("${elevation.async.io.timeout.ms:30000}")
+    private long ioTimeout;
+
+    /**
+     * Number of CPU threads.  Values less than 1 default to the number of
+     * available processors.
+     */
+    @Value("${elevation.async.cpu.pool.size:0}")
+    private int cpuPoolSize;
+
+    /**
+     * Maximum number of requests waiting for a CPU thread.
+     */
+    @Value("${elevation.async.cpu.queue.capacity:100}")
+    private int cpuQueueCapacity;
+
+    /**
+     * Time (ms) allowed for CPU requests.  Values less than 1 disable the
+     * timeout.
+     */
+    @Value("${elevation.async.cpu.timeout.ms:120000}")
+    private long cpuTimeout;
+
+    /**
+     * Number of stream threads.  Values less than 1 default to the number
+     * of available processors.
+     */
+    @Value("${elevation.async.stream.pool.size:0}")
+    private int streamPoolSize = 0;
+
+    /**
+     * Maximum number of streams waiting for a stream thread.
+     */
+    @Value("${elevation.async.stream.queue.capacity:10}")
+    private int streamQueueCapacity = 10;
+
+    /**
+     * Time (ms) allowed for streamed responses.  Values less than 1
+     * disable the timeout.
+     */
+    @Value("${elevation.async.stream.timeout.ms:3600000}")
+    private long streamTimeout = 3600000L;
+
+    private ThreadPoolExecutor       ioExecutor;
+    private ThreadPoolExecutor       cpuExecutor;
+    private ThreadPoolExecutor       streamExecutor;
+    private ScheduledExecutorService timer;
+
+    /**
+     * Default constructor used by Spring.
+     */
+    public RequestExecutors() { }
+
+    /**
+     * Constructor allowing the pools to be configured outside of a Spring
+     * context.  <code>init()</code> must still be called prior to use.
+     *
+     * @param ioPoolSize Number of I/O threads.
+     * @param ioQueueCapacity Maximum number of queued I/O requests.
+     * @param ioTimeout Time (ms) allowed for I/O requests.
+     * @param cpuPoolSize Number of CPU threads.
+     * @param cpuQueueCapacity Maximum number of queued CPU requests.
+     * @param cpuTimeout Time (ms) allowed for CPU requests.
+     */
+    public RequestExecutors(
+            int  ioPoolSize,
+            int  ioQueueCapacity,
+            long ioTimeout,
+            int  cpuPoolSize,
+            int  cpuQueueCapacity,
+            long cpuTimeout) {
+        this.ioPoolSize       = ioPoolSize;
+        this.ioQueueCapacity  = ioQueueCapacity;
+        this.ioTimeout        = ioTimeout;
+        this.cpuPoolSize      = cpuPoolSize;
+        this.cpuQueueCapacity = cpuQueueCapacity;
+        this.cpuTimeout       = cpuTimeout;
+    }
+
+    /**
+     * Construct the pools once the configuration has been injected.
+     */
+    @PostConstruct
+    public void init() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int ioSize     = (ioPoolSize < 1) ? (4 * processors) : ioPoolSize;
+        int cpuSize    = (cpuPoolSize < 1) ? processors : cpuPoolSize;
+        ioExecutor  = newExecutor("elevation-io-", ioSize, ioQueueCapacity);
+        cpuExecutor = newExecutor("elevation-cpu-", cpuSize, cpuQueueCapacity);
+        streamExecutor = newExecutor("elevation-stream-", 
+                (streamPoolSize < 1) ? processors : streamPoolSize, 
+                streamQueueCapacity);
+        timer       = Executors.newSingleThreadScheduledExecutor(
+                newThreadFactory("elevation-timeout-"));
+        LOGGER.info("Request executors created.  I/O pool [ "
+                + ioSize
+                + " ] threads, queue [ "
+                + ioQueueCapacity
+                + " ], timeout [ "
+                + ioTimeout
+                + " ] ms.  CPU pool [ "
+                + cpuSize
+                + " ] threads, queue [ "
+                + cpuQueueCapacity
+                + " ], timeout [ "
+                + cpuTimeout
+                + " ] ms.  Stream pool [ "
+                + streamExecutor.getCorePoolSize()
+                + " ] threads, queue [ "
+                + streamQueueCapacity
+                + " ], timeout [ "
+                + streamTimeout
+                + " ] ms.");
+    }
+
+    /**
+     * Release the worker threads on shutdown.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (ioExecutor != null) {
+            ioExecutor.shutdown();
+        }
+        if (cpuExecutor != null) {
+            cpuExecutor.shutdown();
+        }
+        if (streamExecutor != null) {
+            streamExecutor.shutdown();
+        }
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Getter method for the I/O pool.  Exposed so the pool statistics can
+     * be published as metrics.
+     * @return The I/O pool (null prior to initialization).
+     */
+    public ThreadPoolExecutor getIOExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Getter method for the CPU pool.  Exposed so the pool statistics can
+     * be published as metrics.
+     * @return The CPU pool (null prior to initialization).
+     */
+    public ThreadPoolExecutor getCPUExecutor() {
+        return cpuExecutor;
+    }
+
+    /**
+     * Getter method for the stream pool.  Exposed so the pool statistics 
+     * can be published as metrics.
+     * @return The stream pool (null prior to initialization).
+     */
+    public ThreadPoolExecutor getStreamExecutor() {
+        return streamExecutor;
+    }
+
+    /**
+     * Getter method for the time allowed for streamed responses.
+     * @return The stream timeout (ms, less than 1 if disabled).
+     */
+    public long getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    /**
+     * Calculate the timeout the servlet container should apply to the 
+     * asynchronous (<code>CompletableFuture</code>) requests.  This is the 
+     * longest of the pool timeouts plus <code>ASYNC_TIMEOUT_MARGIN</code>, 
+     * or 0 (no container timeout) if either pool timeout is disabled.  
+     * Streamed responses carry their own timeout and are not affected.
+     * @return The container timeout (ms).
+     */
+    public long getAsyncTimeout() {
+        if ((ioTimeout < 1) || (cpuTimeout < 1)) {
+            return 0L;
+        }
+        return Math.max(ioTimeout, cpuTimeout) + ASYNC_TIMEOUT_MARGIN;
+    }
+
+    /**
+     * Complete the input future with a timeout error if it has not already
+     * completed.  Tasks that have not started are never run.  Used when 
+     * the servlet container times out a request.
+     *
+     * @param future The future of the timed out request.
+     * @return True if the future was expired by this call.
+     */
+    public static boolean expire(CompletableFuture<?> future) {
+        return (future != null) && future.completeExceptionally(timeout());
+    }
+
+    /**
+     * Run a request dominated by blocking I/O on the I/O pool.
+     *
+     * @param task The request processing.
+     * @return Future completed with the result of the task.
+     */
+    public <T> CompletableFuture<T> supplyIO(Supplier<T> task) {
+        return supply(ioExecutor, ioTimeout, task);
+    }
+
+    /**
+     * Run a scan-heavy request on the CPU pool.
+     *
+     * @param task The request processing.
+     * @return Future completed with the result of the task.
+     */
+    public <T> CompletableFuture<T> supplyCPU(Supplier<T> task) {
+        return supply(cpuExecutor, cpuTimeout, task);
+    }
+
+    /**
+     * Run a streaming request on the stream pool.  The task writes its own
+     * response so no future is returned.  The stream timeout is not applied 
+     * here; it is applied to the asynchronous response (see 
+     * <code>getStreamTimeout()</code>).
+     *
+     * @param task The request processing.
+     * @throws ApplicationException Thrown if the stream pool is saturated.
+     */
+    public void executeStream(Runnable task) throws ApplicationException {
+        try {
+            streamExecutor.execute(task);
+        }
+        catch (RejectedExecutionException ree) {
+            LOGGER.warn("Stream rejected.  Active threads [ "
+                    + streamExecutor.getActiveCount()
+                    + " ], queued streams [ "
+                    + streamExecutor.getQueue().size()
+                    + " ].");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.SERVER_BUSY.getErrorCode())
+                    .errorMessage(ErrorCodes.SERVER_BUSY.getErrorMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Submit a task to the target pool.  The returned future completes
+     * exceptionally with an <code>ApplicationException</code> if the pool
+     * is saturated or the timeout expires.  A task that times out while
+     * still queued is never started; a task that is already running is
+     * allowed to finish (interrupting it would close the shared frame
+     * channels) but its result is discarded.
+     *
+     * @param executor The target pool.
+     * @param timeout Time (ms) allowed for the task.
+     * @param task The request processing.
+     * @return Future completed with the result of the task.
+     */
+    private <T> CompletableFuture<T> supply(
+            ThreadPoolExecutor executor,
+            long               timeout,
+            Supplier<T>        task) {
+
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        // Recorded so a container timeout can expire the request.  There
+        // are no request attributes outside of a servlet request.
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(
+                    FUTURE_ATTRIBUTE, future, RequestAttributes.SCOPE_REQUEST);
+        }
+        try {
+            executor.execute(() -> {
+                if (!future.isDone()) {
+                    try {
+                        future.complete(task.get());
+                    }
+                    catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException ree) {
+            LOGGER.warn("Request rejected.  Active threads [ "
+                    + executor.getActiveCount()
+                    + " ], queued requests [ "
+                    + executor.getQueue().size()
+                    + " ].");
+            future.completeExceptionally(
+                    new ApplicationException.ApplicationExceptionBuilder()
+                        .errorCode(ErrorCodes.SERVER_BUSY.getErrorCode())
+                        .errorMessage(ErrorCodes.SERVER_BUSY.getErrorMessage())
+                        .build());
+            return future;
+        }
+        if (timeout > 0) {
+            ScheduledFuture<?> expiry = timer.schedule(() -> {
+                if (future.completeExceptionally(timeout())) {
+                    LOGGER.warn("Request did not complete within [ "
+                            + timeout
+                            + " ] ms.");
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+            future.whenComplete((result, error) -> expiry.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * Construct the exception used to complete timed out requests.
+     * @return The timeout exception.
+     */
+    private static ApplicationException timeout() {
+        return new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.REQUEST_TIMEOUT.getErrorCode())
+                .errorMessage(ErrorCodes.REQUEST_TIMEOUT.getErrorMessage())
+                .build();
+    }
+
+    /**
+     * Construct a fixed-size pool with a bounded queue.
+     *
+     * @param prefix Thread name prefix.
+     * @param size Number of threads.
+     * @param capacity Maximum number of queued tasks.
+     * @return The pool.
+     */
+    private static ThreadPoolExecutor newExecutor(
+            String prefix,
+            int    size,
+            int    capacity) {
+        return new ThreadPoolExecutor(
+                size,
+                size,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, capacity)),
+                newThreadFactory(prefix),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Construct a factory creating named daemon threads.
+     *
+     * @param prefix Thread name prefix.
+     * @return The thread factory.
+     */
+    private static ThreadFactory newThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
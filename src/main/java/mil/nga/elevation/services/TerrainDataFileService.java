@@ -1,16 +1,35 @@
 package mil.nga.elevation.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.cache.NoCoverageCache;
+import mil.nga.elevation.cache.TerrainDataCatalog;
 import mil.nga.elevation.dao.TerrainDataFile;
 import mil.nga.elevation.dao.TerrainDataFileDAO;
 import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.metrics.ElevationMetrics;
 import mil.nga.elevation.model.GeodeticCoordinate;
 import mil.nga.elevation.utils.CoordinateUtils;
 import mil.nga.elevation_services.model.TerrainDataFileType;
@@ -21,6 +40,16 @@ import mil.nga.elevation_services.model.TerrainDataFileType;
  * by the persistence layer.  This service provides information on the 
  * on disk DEMs that will be used to calculate elevation-related data.
  * 
+ * The contents of the terrain data table are held in memory in a 
+ * <code>TerrainDataCatalog</code> which is loaded at startup and 
+ * periodically refreshed from the database.  Queries are only issued 
+ * against the database if the catalog could not be loaded.
+ * 
+ * Cells for which a lookup returned no files (open ocean, polar regions) 
+ * are remembered in a <code>NoCoverageCache</code> so that repeated 
+ * requests for them are answered without querying either back end.  The 
+ * cache is cleared whenever the catalog is reloaded.
+ * 
  * @author L. Craig Carpenter
  */
 @Component
@@ -32,11 +61,150 @@ public class TerrainDataFileService {
     private static final Logger LOGGER = 
             LoggerFactory.getLogger(TerrainDataFileService.class);
     
+    /**
+     * Source tag applied to the coverage lookup metrics.
+     */
+    private static final String COVERAGE = "coverage";
+    
     /**
      * Injected reference to the persistence layer.
      */
     @Autowired
     TerrainDataFileDAO repository;
+    
+    /**
+     * Interval (in seconds) between reloads of the in-memory catalog.  
+     * Values less than 1 disable the periodic reload.
+     */
+    @Value("${elevation.catalog.refresh.seconds:300}")
+    private long refreshSeconds;
+    
+    /**
+     * Maximum number of (cell, source) pairs held in the no-coverage 
+     * cache.  A value of 0 disables the cache.
+     */
+    @Value("${elevation.coverage.negative.cache.max.entries:65536}")
+    private int noCoverageMaxEntries;
+    
+    /**
+     * Time (in seconds) after which a no-coverage entry expires.
+     */
+    @Value("${elevation.coverage.negative.cache.ttl.seconds:600}")
+    private long noCoverageTtlSeconds;
+    
+    /**
+     * Cache of cells known to have no coverage.
+     */
+    private NoCoverageCache noCoverage;
+    
+    /**
+     * In-memory index of the terrain data table.  Replaced wholesale on 
+     * each refresh.
+     */
+    private volatile TerrainDataCatalog catalog;
+    
+    /**
+     * Single background thread used to refresh the catalog.
+     */
+    private ScheduledExecutorService scheduler;
+    
+    /**
+     * Load the catalog and schedule the periodic refresh once the 
+     * configuration has been injected.
+     */
+    @PostConstruct
+    public void init() {
+        noCoverage = new NoCoverageCache(
+                noCoverageMaxEntries, 
+                TimeUnit.SECONDS.toMillis(noCoverageTtlSeconds));
+        refreshCatalog();
+        if (refreshSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "terrain-catalog-refresh");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            scheduler.scheduleWithFixedDelay(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            refreshCatalog();
+                        }
+                    }, 
+                    refreshSeconds, 
+                    refreshSeconds, 
+                    TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Stop the refresh thread on shutdown.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    /**
+     * Reload the in-memory catalog from the database.  If the reload 
+     * fails the previous catalog (if any) remains in use.
+     */
+    public void refreshCatalog() {
+        if (repository != null) {
+            long startTime = System.currentTimeMillis();
+            try {
+                TerrainDataCatalog current = new TerrainDataCatalog(
+                        repository.findAll());
+                // The catalog must be swapped before the no-coverage 
+                // generation changes.  Lookups still using the previous 
+                // catalog then hold the previous generation and cannot 
+                // record their misses against the new catalog.
+                catalog = current;
+                if (noCoverage != null) {
+                    noCoverage.invalidateAll();
+                }
+                LOGGER.info("Terrain data catalog loaded with [ "
+                        + current.size()
+                        + " ] records in [ "
+                        + (System.currentTimeMillis() - startTime)
+                        + " ] ms.");
+            }
+            catch (RuntimeException re) {
+                LOGGER.error("Unable to load the terrain data catalog.  "
+                        + "Error message => [ {} ].", 
+                        re.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Getter method for the number of records held in the in-memory 
+     * catalog.
+     * @return The number of catalog records, or 0 if the catalog has not 
+     * been loaded.
+     */
+    public int getCatalogSize() {
+        TerrainDataCatalog current = catalog;
+        if (current != null) {
+            return current.size();
+        }
+        return 0;
+    }
+
+    /**
+     * Getter method for the cache of cells known to have no coverage.
+     * @return The no-coverage cache, or null if the service has not been 
+     * initialized.
+     */
+    public NoCoverageCache getNoCoverageCache() {
+        return noCoverage;
+    }
 
     /**
      * Interface for clients to retrieve all records from the target data
@@ -79,21 +247,34 @@ public class TerrainDataFileService {
             double lat, 
             double lon) throws ApplicationException {
         
-        long         startTime = System.currentTimeMillis();
-        List<String> data      = null;
+        long               startTime = System.nanoTime();
+        List<String>       data      = null;
+        TerrainDataCatalog current   = catalog;
         
-        if (repository != null) {
+        if (current != null) {
+            data = current.getCoverageAvailable(lat, lon);
+            ElevationMetrics.recordCatalogLookup(
+                    COVERAGE, 
+                    ElevationMetrics.BACKEND_CATALOG, 
+                    System.nanoTime() - startTime);
+        }
+        else if (repository != null) {
             data = repository.findCoverageByLatAndLon(
-                    CoordinateUtils.convertLat(lat), 
-                    CoordinateUtils.convertLon(lon));
+                    CoordinateUtils.truncate(lat), 
+                    CoordinateUtils.truncate(lon));
+            ElevationMetrics.recordCatalogLookup(
+                    COVERAGE, 
+                    ElevationMetrics.BACKEND_DATABASE, 
+                    System.nanoTime() - startTime);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Coverage query for lat [ "
                         + CoordinateUtils.convertLat(lat)
                         + " ] and lon [ "
                         + CoordinateUtils.convertLon(lon)
                         + " ] completed in [ "
-                        + (System.currentTimeMillis() - startTime)
-                        + " ].");
+                        + TimeUnit.NANOSECONDS.toMillis(
+                                System.nanoTime() - startTime)
+                        + " ] ms.");
             }
         }
         else {
@@ -130,7 +311,9 @@ public class TerrainDataFileService {
     /**
      * This method obtains a list of DEMs that will provide a list of terrain
      * data files that will provide the coverage for the input 
-     * latitude/longitude coordinate pair.
+     * latitude/longitude coordinate pair.  Cells recently found to have no 
+     * coverage for the requested source are answered from the no-coverage 
+     * cache without consulting the catalog or the database.
      * 
      * @param lat The requested latitude value.
      * @param lon The requested longitude value.
@@ -144,29 +327,230 @@ public class TerrainDataFileService {
             double lon, 
             TerrainDataFileType source) throws ApplicationException {
         
-        long                  startTime = System.currentTimeMillis();
-        List<TerrainDataFile> data      = null;
+        long                  startTime  = System.nanoTime();
+        List<TerrainDataFile> data       = null;
+        NoCoverageCache       misses     = noCoverage;
+        // The generation must be captured before the catalog is read (see 
+        // refreshCatalog()).
+        long                  generation = 
+                (misses == null) ? 0L : misses.getGeneration();
+        TerrainDataCatalog    current    = catalog;
         
-        if (repository != null) {
+        if ((misses != null) && (misses.isNoCoverage(lat, lon, source))) {
+            ElevationMetrics.recordCatalogLookup(
+                    source, 
+                    ElevationMetrics.BACKEND_NO_COVERAGE, 
+                    System.nanoTime() - startTime);
+            return Collections.emptyList();
+        }
+        if (current != null) {
+            data = current.getTerrainDataFiles(lat, lon, source);
+            ElevationMetrics.recordCatalogLookup(
+                    source, 
+                    ElevationMetrics.BACKEND_CATALOG, 
+                    System.nanoTime() - startTime);
+        }
+        else if (repository != null) {
             if (source == TerrainDataFileType.BEST) {
                 data = repository.findByLatAndLon(
-                        CoordinateUtils.convertLat(lat), 
-                        CoordinateUtils.convertLon(lon));
+                        CoordinateUtils.truncate(lat), 
+                        CoordinateUtils.truncate(lon));
             }
             else {
                 data = repository.findByLatAndLonAndSource(
-                        CoordinateUtils.convertLat(lat), 
-                        CoordinateUtils.convertLon(lon), 
-                        source.toString().trim());
+                        CoordinateUtils.truncate(lat), 
+                        CoordinateUtils.truncate(lon), 
+                        TerrainDataFile.getMatchingSourceTypes(source));
             }
+            ElevationMetrics.recordCatalogLookup(
+                    source, 
+                    ElevationMetrics.BACKEND_DATABASE, 
+                    System.nanoTime() - startTime);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Query for lat [ "
                         + CoordinateUtils.convertLat(lat)
                         + " ] and lon [ "
                         + CoordinateUtils.convertLon(lon)
                         + " ] completed in [ "
-                        + (System.currentTimeMillis() - startTime)
-                        + " ].");
+                        + TimeUnit.NANOSECONDS.toMillis(
+                                System.nanoTime() - startTime)
+                        + " ] ms.");
+            }
+        }
+        else {
+            LOGGER.error("The TerrainDataFile repository is not available.  "
+                    + "It was not AutoWired into the [ "
+                    + this.getClass().getCanonicalName()
+                    + " ] class.");
+            throw (new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.DB_CONNECTION_ERROR.getErrorCode())
+                    .errorMessage(ErrorCodes.DB_CONNECTION_ERROR.getErrorMessage())
+                    .build());
+        }
+        if ((misses != null) && ((data == null) || (data.isEmpty()))) {
+            misses.recordNoCoverage(lat, lon, source, generation);
+        }
+        return data;
+    }
+    
+    /**
+     * Resolve the terrain data files for every 1-degree cell within a 
+     * rectangular range of cells in a single lookup.
+     * 
+     * @param minLat The latitude of the southernmost cell (inclusive).
+     * @param minLon The longitude of the westernmost cell (inclusive).
+     * @param maxLat The latitude of the northernmost cell (inclusive).
+     * @param maxLon The longitude of the easternmost cell (inclusive).
+     * @param source The source DEM type requested.
+     * @return Map of cell index (see 
+     * <code>TerrainDataCatalog.getCellIndex</code>) to the files covering 
+     * the cell.  Cells without coverage are omitted.  Never null.
+     * @throws ApplicationException Capture error code/error message to provide 
+     * feedback to the user in the event of known error conditions.
+     */
+    public Map<Integer, List<TerrainDataFile>> getTerrainDataFiles(
+            int                 minLat, 
+            int                 minLon, 
+            int                 maxLat, 
+            int                 maxLon, 
+            TerrainDataFileType source) throws ApplicationException {
+        
+        List<Integer> cells = new ArrayList<Integer>();
+        for (int lat = minLat; lat <= maxLat; lat++) {
+            for (int lon = minLon; lon <= maxLon; lon++) {
+                int index = TerrainDataCatalog.getCellIndex(lat, lon);
+                if (index >= 0) {
+                    cells.add(index);
+                }
+            }
+        }
+        return getTerrainDataFiles(cells, source);
+    }
+    
+    /**
+     * Resolve the terrain data files for a set of 1-degree cells in a 
+     * single lookup.  When the in-memory catalog is available each cell is 
+     * a direct array read.  Otherwise a single query is issued for the 
+     * distinct latitude and longitude keys of the cells (rather than one 
+     * query per cell) and the rows are grouped by cell.  Cells recently 
+     * found to have no coverage are skipped, and cells found to have no 
+     * coverage are added to the no-coverage cache.
+     * 
+     * @param cells The cell indices (see 
+     * <code>TerrainDataCatalog.getCellIndex</code>).
+     * @param source The source DEM type requested.
+     * @return Map of cell index to the files covering the cell, in the 
+     * iteration order of the input.  Cells without coverage are omitted.  
+     * Never null.
+     * @throws ApplicationException Capture error code/error message to provide 
+     * feedback to the user in the event of known error conditions.
+     */
+    public Map<Integer, List<TerrainDataFile>> getTerrainDataFiles(
+            Collection<Integer> cells, 
+            TerrainDataFileType source) throws ApplicationException {
+        
+        long                                startTime  = System.nanoTime();
+        Map<Integer, List<TerrainDataFile>> data       = 
+                new LinkedHashMap<Integer, List<TerrainDataFile>>();
+        NoCoverageCache                     misses     = noCoverage;
+        // The generation must be captured before the catalog is read (see 
+        // refreshCatalog()).
+        long                                generation = 
+                (misses == null) ? 0L : misses.getGeneration();
+        TerrainDataCatalog                  current    = catalog;
+        
+        // Remove the cells already known to have no coverage.
+        Set<Integer> pending = new LinkedHashSet<Integer>();
+        for (Integer cell : cells) {
+            if ((cell == null) || (cell < 0)) {
+                continue;
+            }
+            double lat = TerrainDataCatalog.getCellLat(cell);
+            double lon = TerrainDataCatalog.getCellLon(cell);
+            if ((misses == null) || (!misses.isNoCoverage(lat, lon, source))) {
+                pending.add(cell);
+            }
+        }
+        if (pending.isEmpty()) {
+            ElevationMetrics.recordCatalogLookup(
+                    source, 
+                    ElevationMetrics.BACKEND_NO_COVERAGE, 
+                    System.nanoTime() - startTime);
+            return data;
+        }
+        
+        if (current != null) {
+            for (Integer cell : pending) {
+                List<TerrainDataFile> files = current.getTerrainDataFiles(
+                        cell.intValue(), source);
+                if (!files.isEmpty()) {
+                    data.put(cell, files);
+                }
+            }
+            ElevationMetrics.recordCatalogLookup(
+                    source, 
+                    ElevationMetrics.BACKEND_CATALOG, 
+                    System.nanoTime() - startTime);
+        }
+        else if (repository != null) {
+            Set<Integer> lats = new LinkedHashSet<Integer>();
+            Set<Integer> lons = new LinkedHashSet<Integer>();
+            for (Integer cell : pending) {
+                lats.add(TerrainDataCatalog.getCellLat(cell));
+                lons.add(TerrainDataCatalog.getCellLon(cell));
+            }
+            List<TerrainDataFile> rows = null;
+            if ((source == null) || (source == TerrainDataFileType.BEST)) {
+                rows = repository.findByLatInAndLonIn(lats, lons);
+            }
+            else {
+                rows = repository.findByLatInAndLonInAndSource(
+                        lats, lons, 
+                        TerrainDataFile.getMatchingSourceTypes(source));
+            }
+            
+            // Group the (BEST-ordered) rows by cell.  Rows outside of the 
+            // requested cells are a by-product of the cross product of 
+            // keys and are discarded.
+            Map<Integer, List<TerrainDataFile>> grouped = 
+                    new HashMap<Integer, List<TerrainDataFile>>();
+            if (rows != null) {
+                for (TerrainDataFile row : rows) {
+                    int cell = TerrainDataCatalog.getCellIndex(row);
+                    if (cell < 0) {
+                        LOGGER.warn("Unable to index terrain data record [ "
+                                + row.toString()
+                                + " ].");
+                    }
+                    if (pending.contains(cell)) {
+                        List<TerrainDataFile> files = grouped.get(cell);
+                        if (files == null) {
+                            files = new ArrayList<TerrainDataFile>();
+                            grouped.put(cell, files);
+                        }
+                        files.add(row);
+                    }
+                }
+            }
+            for (Integer cell : pending) {
+                List<TerrainDataFile> files = grouped.get(cell);
+                if (files != null) {
+                    data.put(cell, files);
+                }
+            }
+            ElevationMetrics.recordCatalogLookup(
+                    source, 
+                    ElevationMetrics.BACKEND_DATABASE, 
+                    System.nanoTime() - startTime);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Range query for [ "
+                        + pending.size()
+                        + " ] cells returned [ "
+                        + ((rows == null) ? 0 : rows.size())
+                        + " ] rows in [ "
+                        + TimeUnit.NANOSECONDS.toMillis(
+                                System.nanoTime() - startTime)
+                        + " ] ms.");
             }
         }
         else {
@@ -179,6 +563,45 @@ public class TerrainDataFileService {
                     .errorMessage(ErrorCodes.DB_CONNECTION_ERROR.getErrorMessage())
                     .build());
         }
+        
+        if (misses != null) {
+            for (Integer cell : pending) {
+                if (!data.containsKey(cell)) {
+                    misses.recordNoCoverage(
+                            TerrainDataCatalog.getCellLat(cell), 
+                            TerrainDataCatalog.getCellLon(cell), 
+                            source,
+                            generation);
+                }
+            }
+        }
         return data;
     }
+    
+    /**
+     * Resolve the source DEM types available for a set of 1-degree cells 
+     * in a single lookup.
+     * 
+     * @param cells The cell indices (see 
+     * <code>TerrainDataCatalog.getCellIndex</code>).
+     * @return Map of cell index to the source types available for the 
+     * cell ordered by the BEST column.  Cells without coverage are 
+     * omitted.  Never null.
+     * @throws ApplicationException Capture error code/error message to provide 
+     * feedback to the user in the event of known error conditions.
+     */
+    public Map<Integer, List<String>> getCoverageAvailable(
+            Collection<Integer> cells) throws ApplicationException {
+        Map<Integer, List<String>> coverage = 
+                new LinkedHashMap<Integer, List<String>>();
+        for (Map.Entry<Integer, List<TerrainDataFile>> entry : 
+                getTerrainDataFiles(cells, TerrainDataFileType.BEST).entrySet()) {
+            List<String> sources = new ArrayList<String>(entry.getValue().size());
+            for (TerrainDataFile file : entry.getValue()) {
+                sources.add(file.getSource());
+            }
+            coverage.put(entry.getKey(), sources);
+        }
+        return coverage;
+    }
 }
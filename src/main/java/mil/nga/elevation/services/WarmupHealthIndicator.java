@@ -0,0 +1,37 @@
+package mil.nga.elevation.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator health indicator (<code>/actuator/health/warmup</code>) used as
+ * the readiness signal.  It reports OUT_OF_SERVICE, which Actuator maps to
+ * HTTP 503, until the startup warmup has completed.  Liveness continues to
+ * be reported by the <code>isAlive</code> end point.
+ *
+ * @author L. Craig Carpenter
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    /**
+     * AutoWired reference to the warmup service.
+     */
+    @Autowired
+    WarmupService warmup;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmup.isReady() ? 
+                Health.up() : Health.outOfService();
+        builder.withDetail("state", warmup.getState().toString())
+               .withDetail("cells", warmup.getWarmCells())
+               .withDetail("durationMs", warmup.getDurationMs());
+        if (warmup.getLastError() != null) {
+            builder.withDetail("lastError", warmup.getLastError());
+        }
+        return builder.build();
+    }
+}
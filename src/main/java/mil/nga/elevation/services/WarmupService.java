@@ -0,0 +1,415 @@
+package mil.nga.elevation.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.cache.FrameMetadataCache;
+import mil.nga.elevation.cache.TerrainDataCatalog;
+import mil.nga.elevation.dao.TerrainDataFile;
+import mil.nga.elevation.egm96.GeoidHeightFactory;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.BoundingBox;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation.utils.ConversionUtils;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Startup warmup of the caches and hot code paths.  Without it the EGM96
+ * grid is loaded by the first WGS84 request, each DEM frame is decoded by
+ * the first request that touches it, and the interpolation and min/max
+ * loops run interpreted until the JIT catches up, so the first few hundred
+ * requests after a deploy are an order of magnitude slower than the rest.
+ *
+ * Once the application context is ready the warmup runs on a background
+ * thread and:
+ * <ol>
+ * <li>loads the EGM96 geoid grid,</li>
+ * <li>loads the header metadata and posts of every frame covering the
+ * configured hot cells/regions into the shared caches, and</li>
+ * <li>replays a synthetic (deterministic) set of point and min/max
+ * requests through the services over those cells, in both Earth models,
+ * so the hot loops are compiled.</li>
+ * </ol>
+ *
+ * Progress is exposed through <code>isReady()</code>, which backs the
+ * <code>warmup</code> Actuator health indicator.  That indicator reports
+ * OUT_OF_SERVICE until the warmup completes, so load balancers should
+ * use the Actuator health endpoint as the readiness check and the
+ * <code>isAlive</code> end point as the liveness check.  Failures in any
+ * step are logged and the node is still marked ready; a cold node is
+ * preferable to one that never enters service.
+ *
+ * Hot cells are configured as a semicolon-separated list of entries, each
+ * either a single cell <code>lat,lon</code> or a region
+ * <code>minLat,minLon,maxLat,maxLon</code> (integer degrees, southwest
+ * corners, inclusive).
+ *
+ * @author L. Craig Carpenter
+ */
+@Component
+public class WarmupService {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(WarmupService.class);
+
+    /**
+     * Operation tag applied to the metrics generated by the replay so they
+     * can be separated from live traffic.
+     */
+    private static final String OPERATION = "warmup";
+
+    /**
+     * Fixed seed so every node replays the same synthetic requests.
+     */
+    private static final long SEED = 20200407L;
+
+    /**
+     * Warmup states.
+     */
+    public enum State { PENDING, RUNNING, READY }
+
+    /**
+     * Set to false to disable the warmup.  The node is then ready as soon
+     * as the application context is.
+     */
+    @Value("${elevation.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Hot cells and regions to preload.
+     */
+    @Value("${elevation.warmup.cells:}")
+    private String cells = "";
+
+    /**
+     * The source DEM type preloaded and replayed.
+     */
+    @Value("${elevation.warmup.source:BEST}")
+    private String source = "BEST";
+
+    /**
+     * Upper bound on the number of cells preloaded, protecting the frame
+     * cache from an overly broad region.
+     */
+    @Value("${elevation.warmup.max.cells:64}")
+    private int maxCells = 64;
+
+    /**
+     * Number of passes made over the preloaded cells by the replay.
+     */
+    @Value("${elevation.warmup.iterations:20}")
+    private int iterations = 20;
+
+    /**
+     * Number of points per synthetic ElevationAt request.
+     */
+    @Value("${elevation.warmup.points:200}")
+    private int points = 200;
+
+    @Autowired
+    TerrainDataFileService repository;
+
+    @Autowired
+    ElevationDataService dataService;
+
+    @Autowired
+    ElevationExtremesService extremesService;
+
+    private volatile State  state      = State.PENDING;
+    private volatile int    warmCells  = 0;
+    private volatile long   durationMs = 0;
+    private volatile String lastError  = null;
+
+    /**
+     * Start the warmup once the application context is fully started.  The
+     * work is done on a daemon thread so the servlet container (and the
+     * liveness end point) is available immediately.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            LOGGER.info("Startup warmup is disabled.");
+            state = State.READY;
+            return;
+        }
+        Thread thread = new Thread(this::warmup, "elevation-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Perform the warmup on the calling thread.
+     */
+    public void warmup() {
+
+        long start = System.currentTimeMillis();
+        state = State.RUNNING;
+        LOGGER.info("Startup warmup started.");
+
+        try {
+            GeoidHeightFactory.getInstance();
+            LOGGER.info("EGM96 geoid grid loaded in [ "
+                    + (System.currentTimeMillis() - start)
+                    + " ] ms.");
+        }
+        catch (Exception e) {
+            lastError = "Unable to load the EGM96 geoid grid: " + e.getMessage();
+            LOGGER.error("Unable to load the EGM96 geoid grid during warmup.  "
+                    + "Error message => [ {} ].", e.getMessage());
+        }
+
+        try {
+            TerrainDataFileType type = 
+                    ConversionUtils.convertTerrainDataFileType(source);
+            List<int[]>         hot  = preload(parseCells(cells, maxCells), type);
+            warmCells = hot.size();
+            if (!hot.isEmpty()) {
+                replay(hot, type);
+            }
+        }
+        catch (ApplicationException ae) {
+            lastError = "Invalid warmup source [ " + source + " ].";
+            LOGGER.error("Invalid warmup source type [ {} ].  Error "
+                    + "message => [ {} ].", source, ae.getErrorMessage());
+        }
+        catch (RuntimeException re) {
+            lastError = "Warmup failed: " + re.getMessage();
+            LOGGER.error("Unexpected exception raised during warmup.  "
+                    + "Error message => [ {} ].", re.getMessage());
+        }
+
+        durationMs = System.currentTimeMillis() - start;
+        state      = State.READY;
+        LOGGER.info("Startup warmup completed in [ "
+                + durationMs
+                + " ] ms.  Cells warmed [ "
+                + warmCells
+                + " ].  Frame cache [ "
+                + FrameCache.getInstance().toString()
+                + " ].");
+    }
+
+    /**
+     * Load the header metadata and posts of every frame covering the input
+     * cells into the shared caches.
+     *
+     * @param candidates The configured cells (southwest corners).
+     * @param type The source DEM type.
+     * @return The cells for which at least one frame was loaded.
+     */
+    private List<int[]> preload(List<int[]> candidates, TerrainDataFileType type) {
+        
+        List<int[]>                         hot   = new ArrayList<int[]>();
+        List<Integer>                       cells = new ArrayList<Integer>();
+        Map<Integer, List<TerrainDataFile>> files = null;
+        for (int[] cell : candidates) {
+            cells.add(TerrainDataCatalog.getCellIndex(cell[0], cell[1]));
+        }
+        try {
+            files = repository.getTerrainDataFiles(cells, type);
+        }
+        catch (ApplicationException ae) {
+            LOGGER.warn("Unable to resolve terrain data files for the warmup "
+                    + "cells.  Error message => [ {} ].", ae.getErrorMessage());
+            return hot;
+        }
+        
+        for (int i=0; i<candidates.size(); i++) {
+            List<TerrainDataFile> cellFiles = files.get(cells.get(i));
+            boolean               loaded    = false;
+            if (cellFiles != null) {
+                for (TerrainDataFile file : cellFiles) {
+                    try {
+                        FrameMetadataCache.getInstance().getMetadata(file.getUnixPath());
+                        FrameCache.getInstance().getFrame(file.getUnixPath());
+                        loaded = true;
+                    }
+                    catch (Exception e) {
+                        LOGGER.warn("Unable to preload DEM frame [ {} ].  "
+                                + "Error message => [ {} ].",
+                                file.getUnixPath(), e.getMessage());
+                    }
+                }
+            }
+            if (loaded) {
+                hot.add(candidates.get(i));
+            }
+        }
+        return hot;
+    }
+
+    /**
+     * Replay synthetic ElevationAt and MinMaxElevation requests over the
+     * input cells in both Earth models.
+     *
+     * @param hot Cells with at least one frame loaded.
+     * @param type The source DEM type.
+     */
+    private void replay(List<int[]> hot, TerrainDataFileType type) {
+
+        Random random = new Random(SEED);
+        long   start  = System.currentTimeMillis();
+        int    count  = 0;
+
+        for (int i=0; i<iterations; i++) {
+            EarthModelType earthModel = ((i % 2) == 0) ?
+                    EarthModelType.EGM96 : EarthModelType.WGS84;
+            for (int[] cell : hot) {
+                try {
+                    List<GeodeticCoordinate> coords =
+                            new ArrayList<GeodeticCoordinate>(points);
+                    for (int p=0; p<points; p++) {
+                        coords.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                                .lat(cell[0] + random.nextDouble())
+                                .lon(cell[1] + random.nextDouble())
+                                .build());
+                    }
+                    dataService.getElevations(
+                            coords, type, HeightUnitType.METERS, earthModel, OPERATION);
+
+                    double lat = cell[0] + (random.nextDouble() * 0.5);
+                    double lon = cell[1] + (random.nextDouble() * 0.5);
+                    extremesService.getMinMaxElevation(
+                            new BoundingBox.BoundingBoxBuilder()
+                                .lowerLeftLat(lat)
+                                .lowerLeftLon(lon)
+                                .upperRightLat(lat + 0.5)
+                                .upperRightLon(lon + 0.5)
+                                .build(),
+                            HeightUnitType.METERS,
+                            earthModel,
+                            type);
+                    count += 2;
+                }
+                catch (Exception e) {
+                    LOGGER.warn("Synthetic request failed for lat [ "
+                            + cell[0]
+                            + " ], lon [ "
+                            + cell[1]
+                            + " ].  Error message => [ {} ].", e.getMessage());
+                }
+            }
+        }
+        LOGGER.info("Replayed [ "
+                + count
+                + " ] synthetic requests in [ "
+                + (System.currentTimeMillis() - start)
+                + " ] ms.");
+    }
+
+    /**
+     * Parse the hot cell configuration.  Invalid entries are logged and
+     * skipped.  Duplicate cells are removed and the output is truncated to
+     * the maximum number of cells.
+     *
+     * @param value Semicolon-separated list of <code>lat,lon</code> cells
+     * and <code>minLat,minLon,maxLat,maxLon</code> regions.
+     * @param maxCells The maximum number of cells returned.
+     * @return List of {lat, lon} cell southwest corners.
+     */
+    static List<int[]> parseCells(String value, int maxCells) {
+
+        Set<Integer> seen   = new HashSet<Integer>();
+        List<int[]>  result = new ArrayList<int[]>();
+        if ((value == null) || (value.trim().isEmpty())) {
+            return result;
+        }
+        for (String entry : value.split(";")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String[] tokens = entry.split(",");
+            try {
+                int minLat, minLon, maxLat, maxLon;
+                if (tokens.length == 2) {
+                    minLat = maxLat = Integer.parseInt(tokens[0].trim());
+                    minLon = maxLon = Integer.parseInt(tokens[1].trim());
+                }
+                else if (tokens.length == 4) {
+                    minLat = Integer.parseInt(tokens[0].trim());
+                    minLon = Integer.parseInt(tokens[1].trim());
+                    maxLat = Integer.parseInt(tokens[2].trim());
+                    maxLon = Integer.parseInt(tokens[3].trim());
+                }
+                else {
+                    throw new NumberFormatException("Expected 2 or 4 values.");
+                }
+                for (int lat = Math.max(minLat, -90); lat <= Math.min(maxLat, 89); lat++) {
+                    for (int lon = Math.max(minLon, -180); lon <= Math.min(maxLon, 179); lon++) {
+                        if (result.size() >= maxCells) {
+                            LOGGER.warn("Warmup cell list truncated to [ {} ] "
+                                    + "cells.", maxCells);
+                            return result;
+                        }
+                        if (seen.add(((lat + 90) * 360) + (lon + 180))) {
+                            result.add(new int[] { lat, lon });
+                        }
+                    }
+                }
+            }
+            catch (NumberFormatException nfe) {
+                LOGGER.warn("Ignoring invalid warmup cell entry [ {} ].  "
+                        + "Error message => [ {} ].", entry, nfe.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determine whether the warmup has completed (or was disabled).
+     * @return True if the node is ready to receive traffic.
+     */
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * Getter method for the warmup state.
+     * @return The warmup state.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Getter method for the number of cells preloaded.
+     * @return The number of cells warmed.
+     */
+    public int getWarmCells() {
+        return warmCells;
+    }
+
+    /**
+     * Getter method for the total time taken by the warmup.
+     * @return The warmup duration in ms (0 until complete).
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Getter method for the last error encountered during the warmup.
+     * @return The error message, or null if none.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+}
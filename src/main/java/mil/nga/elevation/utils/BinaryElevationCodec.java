@@ -0,0 +1,308 @@
+package mil.nga.elevation.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+
+/**
+ * Encoder/decoder for the compact binary form of the
+ * <code>ElevationAt</code> end point intended for machine clients.  All
+ * values are little-endian.
+ *
+ * Requests consist of packed coordinate pairs, each of which is a
+ * float64 longitude followed by a float64 latitude in decimal degrees
+ * (16 bytes per point).  There is no header.
+ *
+ * Responses consist of a fixed header followed by the elevations in
+ * input order:
+ * <pre>
+ * offset  size  content
+ *      0     4  magic "ELEV"
+ *      4     1  format version (1)
+ *      5     1  bytes per elevation (2 = int16, 4 = int32)
+ *      6     1  height units (0 = METERS, 1 = FEET)
+ *      7     1  earth model (0 = EGM96, 1 = WGS84)
+ *      8     4  int32 number of elevations
+ *     12     8  int16 absolute horizontal, absolute vertical, relative
+ *               horizontal, relative vertical accuracy
+ *     20     1  length of the classification marking
+ *     21     n  classification marking (UTF-8)
+ *   21+n     1  length of the owner/producer
+ *   22+n     m  owner/producer (UTF-8)
+ * 22+n+m        elevations
+ * </pre>
+ * The elevations are written as int16 values unless any value falls
+ * outside of the int16 range.  The accuracy values are the worst (i.e.
+ * largest) of the values for all of the frames that contributed to the
+ * response.
+ *
+ * @author L. Craig Carpenter
+ */
+public class BinaryElevationCodec implements Constants {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(BinaryElevationCodec.class);
+
+    /**
+     * Media type identifying the binary encoding.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.nga.elevation.v1";
+
+    /**
+     * Leading bytes of every response.
+     */
+    public static final byte[] MAGIC =
+            "ELEV".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Current format version.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Number of bytes in each request coordinate pair.
+     */
+    public static final int BYTES_PER_COORDINATE = 16;
+
+    /**
+     * Maximum length of the strings in the response header.
+     */
+    private static final int MAX_STRING_LENGTH = 255;
+
+    /**
+     * Hide the constructor.
+     */
+    private BinaryElevationCodec() { }
+
+    /**
+     * Decode a request body of packed lon/lat pairs straight into the
+     * coordinate arrays of a batch.  No per-point objects are created.
+     *
+     * @param body The request body.
+     * @param batch The batch to append the decoded coordinates to.
+     * @return The number of coordinates decoded.
+     * @throws ApplicationException Thrown if the body is empty, is not a
+     * whole number of coordinate pairs, or contains out of range
+     * coordinates.
+     */
+    public static int decodeCoordinates(byte[] body, ElevationBatch batch)
+            throws ApplicationException {
+
+        if ((body == null) || (body.length == 0)) {
+            LOGGER.error("Binary request body is empty.");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_QUERY_NO_COORDINATES.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_QUERY_NO_COORDINATES.getErrorMessage())
+                .build();
+        }
+        if (body.length % BYTES_PER_COORDINATE != 0) {
+            LOGGER.error("Binary request body of [ "
+                    + body.length
+                    + " ] bytes is not a whole number of coordinate pairs.");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_NUMBER_OF_INPUT_COORDINATES.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_NUMBER_OF_INPUT_COORDINATES.getErrorMessage())
+                .build();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        int count = body.length / BYTES_PER_COORDINATE;
+        for (int i=0; i<count; i++) {
+            double lon = buffer.getDouble();
+            double lat = buffer.getDouble();
+            // Same range checks as GeodeticCoordinate.  NaN and infinite 
+            // values must be rejected explicitly as NaN fails every 
+            // comparison.
+            if ((!Double.isFinite(lon)) || (!Double.isFinite(lat)) ||
+                    (lon > 180) || (lon < -180) || (lat > 90) || (lat < -90)) {
+                LOGGER.error("Binary coordinate [ "
+                        + i
+                        + " ] is out of range.  Longitude [ "
+                        + lon
+                        + " ], latitude [ "
+                        + lat
+                        + " ].");
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode())
+                    .errorMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage())
+                    .build();
+            }
+            batch.add(lat, lon);
+        }
+        return count;
+    }
+
+    /**
+     * Encode a list of coordinates as a request body.  Intended for
+     * clients and testing.
+     *
+     * @param coords The coordinates to encode.
+     * @return The packed lon/lat pairs.
+     */
+    public static byte[] encodeCoordinates(List<GeodeticCoordinate> coords) {
+        ByteBuffer buffer = ByteBuffer
+                .allocate(coords.size() * BYTES_PER_COORDINATE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (GeodeticCoordinate coord : coords) {
+            buffer.putDouble(coord.getLon());
+            buffer.putDouble(coord.getLat());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Encode the calculated elevations held in a batch as a binary
+     * response.  The elevations are read straight from the batch.
+     *
+     * @param batch The evaluated batch.
+     * @return The encoded response.
+     */
+    public static byte[] encodeElevations(ElevationBatch batch) {
+        int[] accuracy = new int[] { -1, -1, -1, -1 };
+        for (int i=0; i<batch.getNumFrames(); i++) {
+            maxAccuracy(accuracy, batch.getFrameAccuracy(i));
+        }
+        int[] values = new int[batch.size()];
+        for (int i=0; i<values.length; i++) {
+            values[i] = batch.getElevation(i);
+        }
+        return encode(values, accuracy,
+                batch.getClassification(), batch.getOwnerProducer(),
+                batch.getUnits(), batch.getEarthModel());
+    }
+
+    /**
+     * Accumulate the worst (largest) accuracy values.
+     */
+    private static void maxAccuracy(int[] accuracy, DEMFrameAccuracy acc) {
+        if (acc != null) {
+            accuracy[0] = Math.max(accuracy[0], acc.getAbsHorzAccuracy());
+            accuracy[1] = Math.max(accuracy[1], acc.getAbsVertAccuracy());
+            accuracy[2] = Math.max(accuracy[2], acc.getRelHorzAccuracy());
+            accuracy[3] = Math.max(accuracy[3], acc.getRelVertAccuracy());
+        }
+    }
+
+    /**
+     * Write the response header and elevations.
+     */
+    private static byte[] encode(
+            int[]          elevations,
+            int[]          accuracy,
+            String         marking,
+            String         producer,
+            HeightUnitType units,
+            EarthModelType earthModel) {
+
+        boolean wide = false;
+        for (int i=0; i<elevations.length; i++) {
+            if ((elevations[i] < Short.MIN_VALUE) || (elevations[i] > Short.MAX_VALUE)) {
+                wide = true;
+            }
+        }
+        if (marking.isEmpty()) {
+            marking = DEFAULT_CLASSIFICATION_MARKING;
+        }
+
+        byte[] markingBytes  = truncate(marking);
+        byte[] producerBytes = truncate(producer);
+        int    width         = wide ? 4 : 2;
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+                    MAGIC.length + 8 + 8 +
+                    2 + markingBytes.length + producerBytes.length +
+                    (width * elevations.length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte)width);
+        buffer.put((byte)(units == HeightUnitType.FEET ? 1 : 0));
+        buffer.put((byte)(earthModel == EarthModelType.WGS84 ? 1 : 0));
+        buffer.putInt(elevations.length);
+        for (int value : accuracy) {
+            buffer.putShort((short)value);
+        }
+        buffer.put((byte)markingBytes.length);
+        buffer.put(markingBytes);
+        buffer.put((byte)producerBytes.length);
+        buffer.put(producerBytes);
+        for (int i=0; i<elevations.length; i++) {
+            if (wide) {
+                buffer.putInt(elevations[i]);
+            }
+            else {
+                buffer.putShort((short)elevations[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decode the elevations from a binary response.  Intended for clients
+     * and testing.
+     *
+     * @param response The encoded response.
+     * @return The elevations in input order.
+     * @throws IllegalArgumentException Thrown if the response is not in
+     * the expected format.
+     */
+    public static int[] decodeElevations(byte[] response)
+            throws IllegalArgumentException {
+        ByteBuffer buffer = ByteBuffer.wrap(response).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                throw new IllegalArgumentException(
+                        "Response does not start with the expected magic bytes.");
+            }
+        }
+        if (buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Unsupported format version.");
+        }
+        int width = buffer.get();
+        buffer.position(buffer.position() + 2);
+        int[] elevations = new int[buffer.getInt()];
+        buffer.position(buffer.position() + 8);
+        // Skip the classification and owner/producer strings.
+        for (int i=0; i<2; i++) {
+            int length = buffer.get() & 0xFF;
+            buffer.position(buffer.position() + length);
+        }
+        for (int i=0; i<elevations.length; i++) {
+            elevations[i] = (width == 4) ? buffer.getInt() : buffer.getShort();
+        }
+        return elevations;
+    }
+
+    /**
+     * Convert a header string to UTF-8, limited to the maximum length that
+     * can be represented.
+     *
+     * @param value The header string.
+     * @return The encoded bytes.
+     */
+    private static byte[] truncate(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH) {
+            byte[] truncated = new byte[MAX_STRING_LENGTH];
+            System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_LENGTH);
+            return truncated;
+        }
+        return bytes;
+    }
+}
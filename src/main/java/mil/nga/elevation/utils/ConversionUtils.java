@@ -1,19 +1,26 @@
 package mil.nga.elevation.utils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.ElevationBatch;
 import mil.nga.elevation.model.GeodeticCoordinate;
 import mil.nga.elevation_services.model.CoordinateType;
 import mil.nga.elevation_services.model.CoordinateTypeArray;
 import mil.nga.elevation_services.model.EarthModelType;
 import mil.nga.elevation_services.model.ElevationQuery;
 import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.InterpolationType;
 import mil.nga.elevation_services.model.MinMaxElevationQuery;
 import mil.nga.elevation_services.model.MinMaxElevationQueryWKT;
 import mil.nga.elevation_services.model.TerrainDataFileType;
@@ -32,6 +39,11 @@ public class ConversionUtils {
     private static final Logger LOGGER = 
             LoggerFactory.getLogger(ConversionUtils.class);
     
+    /**
+     * Shared (thread-safe) factory used to parse JSON-formatted coordinates.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
     /**
      * Convert an input String into a value of type <code>HeightUnitType</code>.
      * 
@@ -141,6 +153,38 @@ public class ConversionUtils {
         return source;
     }
     
+    /**
+     * Convert an input String into a value of type 
+     * <code>InterpolationType</code>.
+     * 
+     * @param value String value to convert.
+     * @return <code>InterpolationType</code> enumeration.
+     * @throws ApplicationException Thrown if the input String cannot be 
+     * converted to a <code>InterpolationType</code> enumeration.
+     */
+    public static InterpolationType convertInterpolationType(String value) 
+            throws ApplicationException {
+        
+        InterpolationType interpolation = InterpolationType.BILINEAR;
+        
+        try {
+            if ((value != null) && (!value.isEmpty())) {
+                interpolation = InterpolationType.fromValue(value.toUpperCase().trim());
+            }
+        }
+        catch (IllegalArgumentException iae) {
+            LOGGER.error("IllegalArgumentException while parsing the input "
+                    + "InterpolationType.  Exception message [ "
+                    + iae.getMessage()
+                    + " ].");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_INTERPOLATION.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_INTERPOLATION.getErrorMessage())
+                .build();
+        }
+        return interpolation;
+    }
+    
     /**
      * Convert the input list of coordinates into a list of 
      * <code>GeodeticCoordinates</code> for further processing.
@@ -375,6 +419,10 @@ public class ConversionUtils {
         if (query.getSource() != null) {
             sb.append(query.getSource().toString());
         }
+        sb.append(" ], Interpolation [ ");
+        if (query.getInterpolation() != null) {
+            sb.append(query.getInterpolation().toString());
+        }
         sb.append(" ], Points [ ");
         if ((query.getCoordinates() != null) && (query.getCoordinates().size() > 0)) {
             int counter = 0;
@@ -471,4 +519,94 @@ public class ConversionUtils {
         }
         return coords;
     }
+    
+    /**
+     * Parse a single line of a newline-delimited coordinate stream and 
+     * append the point straight to the input batch.  Each line may contain 
+     * either a comma-separated coordinate pair in lon, lat order (i.e. the 
+     * same format as a single entry in the <code>pts</code> parameter) or 
+     * a JSON object of the form <code>{"lat": "...", "lon": "..."}</code> 
+     * in which the values may be either strings or numbers.  As with the 
+     * other coordinate parameters, the coordinates can be specified in 
+     * either DMS format or decimal degrees.  Plain "lon, lat" lines are 
+     * converted in place by <code>CoordinateTokenizer</code> so no 
+     * intermediate <code>GeodeticCoordinate</code> is created.
+     * 
+     * @param line A single line of input.
+     * @param batch The batch to append the point to.
+     * @return The index of the point within the batch.
+     * @throws ApplicationException Thrown if the line cannot be parsed or 
+     * the coordinates are out of range.  Nothing is appended to the batch.
+     */
+    public static int parseCoordinate(String line, ElevationBatch batch) 
+            throws ApplicationException {
+        
+        String text  = null;
+        int    comma = -1;
+        
+        if (line != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("{")) {
+                String[] lonLat = parseJSONCoordinate(trimmed);
+                if ((lonLat != null) && 
+                        (lonLat[0] != null) && (lonLat[1] != null)) {
+                    text  = lonLat[0] + "," + lonLat[1];
+                    comma = lonLat[0].length();
+                }
+            }
+            else {
+                comma = trimmed.indexOf(',');
+                if ((comma > 0) && (trimmed.indexOf(',', comma + 1) < 0)) {
+                    text = trimmed;
+                }
+            }
+        }
+        if ((text != null) && CoordinateTokenizer.addPair(
+                text, 0, comma, comma + 1, text.length(), batch)) {
+            return batch.size() - 1;
+        }
+        throw new ApplicationException.ApplicationExceptionBuilder()
+            .errorCode(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode())
+            .errorMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage())
+            .build();
+    }
+    
+    /**
+     * Extract the lat/lon values from a JSON coordinate of the form 
+     * <code>{"lat": "...", "lon": "..."}</code>.
+     * 
+     * @param json The (trimmed) JSON object.
+     * @return The lon and lat values (in that order, either may be null), 
+     * or null if the object could not be parsed.
+     */
+    private static String[] parseJSONCoordinate(String json) {
+        String lat = null;
+        String lon = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken token = parser.nextToken();
+                    if (token.isStructStart()) {
+                        parser.skipChildren();
+                    }
+                    else if ("lat".equals(field)) {
+                        lat = parser.getValueAsString();
+                    }
+                    else if ("lon".equals(field)) {
+                        lon = parser.getValueAsString();
+                    }
+                }
+            }
+        }
+        catch (IOException ioe) {
+            LOGGER.error("Unable to parse JSON coordinate [ "
+                    + json
+                    + " ].  Error message => [ "
+                    + ioe.getMessage()
+                    + " ].");
+            return null;
+        }
+        return new String[] { lon, lat };
+    }
 }
@@ -0,0 +1,301 @@
+package mil.nga.elevation.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation.model.GeodeticCoordinate;
+
+/**
+ * Single-pass tokenizer for the comma-separated <code>pts</code> list
+ * (lon, lat order) accepted by the GET end points.  The list is scanned
+ * once, directly from the input <code>CharSequence</code>, and each pair
+ * is appended to an <code>ElevationBatch</code>.
+ *
+ * Plain decimal degree values are converted in place without creating
+ * any Strings.  Any token that is not a plain decimal value (DMS,
+ * exponents, more digits than can be converted exactly, values the legacy
+ * grammar would treat as DMS, out of range values, etc.) sends the pair
+ * through <code>GeodeticCoordinateBuilder</code> so the accepted grammar,
+ * the values produced and the error codes raised are the same as those of
+ * <code>ConversionUtils.parseCoords()</code>.
+ *
+ * The class holds no state and is safe for concurrent use.
+ *
+ * @author L. Craig Carpenter
+ */
+public final class CoordinateTokenizer {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(CoordinateTokenizer.class);
+
+    /**
+     * Powers of ten that are exactly representable as a double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,
+            1e8,  1e9,  1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+            1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * Largest integer value for which every smaller integer is exactly
+     * representable as a double (2^53).
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Maximum number of digits accumulated before falling back (keeps the
+     * mantissa within the range of a long).
+     */
+    private static final int MAX_DIGITS = 18;
+
+    /**
+     * Hidden constructor.
+     */
+    private CoordinateTokenizer() { }
+
+    /**
+     * Tokenize the input list of points, appending each point to the
+     * batch.  The echoed lat/lon text of each point references the input
+     * <code>CharSequence</code>.  Following the semantics of
+     * <code>String.split()</code> trailing empty tokens are ignored.  If
+     * an exception is raised the contents of the batch are undefined.
+     *
+     * @param pts A comma-separated list of points in lon, lat order.
+     * @param batch The batch to append the points to.
+     * @return The number of points appended.
+     * @throws ApplicationException Thrown if the number of values is odd,
+     * or if any of the coordinates cannot be parsed or are out of range.
+     */
+    public static int tokenize(CharSequence pts, ElevationBatch batch)
+            throws ApplicationException {
+        return tokenize(pts, batch, 0);
+    }
+
+    /**
+     * Tokenize the input list of points, appending each point to the
+     * batch, and stop as soon as the list is found to contain more than
+     * <code>maxPoints</code> points.  Oversized lists are therefore never
+     * parsed (or held) in full.  When the limit is exceeded the returned
+     * count is <code>maxPoints + 1</code> and the caller is expected to
+     * reject the request (see <code>PointBudget.admit()</code>).
+     *
+     * @param pts A comma-separated list of points in lon, lat order.
+     * @param batch The batch to append the points to.
+     * @param maxPoints The maximum number of points accepted.  Values
+     * less than 1 disable the limit.
+     * @return The number of points appended.
+     * @throws ApplicationException Thrown if the number of values is odd,
+     * or if any of the coordinates cannot be parsed or are out of range.
+     */
+    public static int tokenize(
+            CharSequence   pts, 
+            ElevationBatch batch,
+            int            maxPoints) throws ApplicationException {
+
+        if (pts == null) {
+            return 0;
+        }
+        int end = pts.length();
+        while ((end > 0) && (pts.charAt(end - 1) == ',')) {
+            end--;
+        }
+        int count = 0;
+        int pos   = 0;
+        while (pos < end) {
+            if ((maxPoints > 0) && (count == maxPoints)) {
+                LOGGER.debug("Point list exceeds the maximum of [ "
+                        + maxPoints
+                        + " ] points.  Tokenizing stopped at offset [ "
+                        + pos
+                        + " ] of [ "
+                        + end
+                        + " ].");
+                return count + 1;
+            }
+            int lonEnd = indexOf(pts, ',', pos, end);
+            if (lonEnd == end) {
+                throw invalidNumberOfCoordinates();
+            }
+            int latStart = lonEnd + 1;
+            int latEnd   = indexOf(pts, ',', latStart, end);
+            if (!addPair(pts, pos, lonEnd, latStart, latEnd, batch)) {
+                // The legacy parser checks the number of values first
+                if (countValues(pts, latEnd, end) % 2 != 0) {
+                    throw invalidNumberOfCoordinates();
+                }
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                        .errorCode(
+                                ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode())
+                        .errorMessage(
+                                ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage())
+                        .build();
+            }
+            count++;
+            pos = latEnd + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Parse a single lon, lat pair and append it to the batch.
+     *
+     * @return False if the pair could not be parsed.
+     */
+    static boolean addPair(
+            CharSequence   pts,
+            int            lonStart,
+            int            lonEnd,
+            int            latStart,
+            int            latEnd,
+            ElevationBatch batch) {
+
+        // Same whitespace handling as String.trim()
+        int lonFirst = trimStart(pts, lonStart, lonEnd);
+        int lonLast  = trimEnd(pts, lonFirst, lonEnd);
+        int latFirst = trimStart(pts, latStart, latEnd);
+        int latLast  = trimEnd(pts, latFirst, latEnd);
+
+        double lon = parseDecimal(pts, lonFirst, lonLast, false);
+        double lat = parseDecimal(pts, latFirst, latLast, true);
+        if (Double.isNaN(lon) || Double.isNaN(lat)) {
+            try {
+                GeodeticCoordinate coord =
+                        new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                            .lon(pts.subSequence(lonStart, lonEnd).toString())
+                            .lat(pts.subSequence(latStart, latEnd).toString())
+                            .build();
+                lon = coord.getLon();
+                lat = coord.getLat();
+            }
+            catch (IllegalStateException ise) {
+                LOGGER.error("IllegalStateException encountered while "
+                        + "parsing input coordinates.  "
+                        + "Error message => [ "
+                        + ise.getMessage()
+                        + " ].");
+                return false;
+            }
+        }
+        batch.add(lat, lon, pts, lonFirst, lonLast, latFirst, latLast);
+        return true;
+    }
+
+    /**
+     * Convert a plain decimal degree token (optional sign, digits and at
+     * most one decimal point).  The mantissa and the power of ten are both
+     * exactly representable so the single division is correctly rounded,
+     * giving the same value as <code>Double.valueOf()</code>.
+     *
+     * @param s The input characters.
+     * @param start Index of the first character of the (trimmed) token.
+     * @param end Index after the last character of the token.
+     * @param lat True if the token is a latitude.
+     * @return The value, or <code>Double.NaN</code> if the token must be
+     * handled by the full coordinate grammar.
+     */
+    static double parseDecimal(
+            CharSequence s,
+            int          start,
+            int          end,
+            boolean      lat) {
+
+        // The legacy grammar treats latitudes starting with "00" as DMS
+        if (lat && (end - start >= 2) &&
+                (s.charAt(start) == '0') && (s.charAt(start + 1) == '0')) {
+            return Double.NaN;
+        }
+        int     i        = start;
+        boolean negative = false;
+        if ((i < end) && ((s.charAt(i) == '-') || (s.charAt(i) == '+'))) {
+            negative = (s.charAt(i) == '-');
+            i++;
+        }
+        long    mantissa = 0;
+        int     digits   = 0;
+        int     scale    = 0;
+        boolean point    = false;
+        for (; i<end; i++) {
+            char c = s.charAt(i);
+            if ((c >= '0') && (c <= '9')) {
+                if (++digits > MAX_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = (mantissa * 10) + (c - '0');
+                if (point) {
+                    scale++;
+                }
+            }
+            else if ((c == '.') && (!point)) {
+                point = true;
+            }
+            else {
+                return Double.NaN;
+            }
+        }
+        if ((digits == 0) ||
+                (mantissa > MAX_EXACT_MANTISSA) ||
+                (scale >= POWERS_OF_TEN.length)) {
+            return Double.NaN;
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        if (negative) {
+            value = -value;
+        }
+        double max = lat ? 90.0 : 180.0;
+        if ((value > max) || (value < -max)) {
+            return Double.NaN;
+        }
+        return value;
+    }
+
+    private static int indexOf(CharSequence s, char c, int from, int end) {
+        for (int i=from; i<end; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int trimStart(CharSequence s, int start, int end) {
+        while ((start < end) && (s.charAt(start) <= ' ')) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence s, int start, int end) {
+        while ((end > start) && (s.charAt(end - 1) <= ' ')) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Count the values following the separator at <code>from</code>.
+     */
+    private static int countValues(CharSequence s, int from, int end) {
+        int count = 0;
+        for (int i=from; i<end; i++) {
+            if (s.charAt(i) == ',') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static ApplicationException invalidNumberOfCoordinates() {
+        return new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(
+                        ErrorCodes.INVALID_NUMBER_OF_INPUT_COORDINATES.getErrorCode())
+                .errorMessage(
+                        ErrorCodes.INVALID_NUMBER_OF_INPUT_COORDINATES.getErrorMessage())
+                .build();
+    }
+}
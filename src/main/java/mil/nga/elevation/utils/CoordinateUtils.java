@@ -121,4 +121,36 @@ public class CoordinateUtils {
         }
         return sb.toString();
     }
+
+    /**
+     * Latitude and longitude keys are stored in the database as truncated
+     * Strings containing a hemisphere designator (see
+     * <code>convertLat</code> and <code>convertLon</code>).  This method
+     * converts a key (e.g. "n66" or "w069") back into integer degrees.
+     *
+     * @param value The database key.
+     * @return The integer degrees.
+     * @throws NumberFormatException Thrown if the key cannot be parsed.
+     */
+    public static int parseKey(String value) {
+        if ((value == null) || (value.trim().length() < 2)) {
+            throw new NumberFormatException("Invalid cell key [ "
+                    + value
+                    + " ].");
+        }
+        String key     = value.trim().toLowerCase();
+        int    degrees = Integer.parseInt(key.substring(1));
+        switch (key.charAt(0)) {
+            case 'n':
+            case 'e':
+                return degrees;
+            case 's':
+            case 'w':
+                return -degrees;
+            default:
+                throw new NumberFormatException("Invalid hemisphere in cell key [ "
+                        + value
+                        + " ].");
+        }
+    }
 }
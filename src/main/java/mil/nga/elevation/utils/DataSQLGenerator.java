@@ -84,7 +84,10 @@ public class DataSQLGenerator implements Closeable {
     
     /**
      * Create the <code>data.sql</code> file containing insert statements
-     * for each of the DTED files found. 
+     * for each of the DTED files found.  In addition to the string 
+     * TYP/LAT/LON columns the statements populate the normalised 
+     * SOURCE_TYPE and integer LAT_DEG/LON_DEG columns used by the 
+     * catalog queries. 
      * @throws IOException Thrown if there are problems writing to the target 
      * output file.
      */
@@ -106,6 +109,15 @@ public class DataSQLGenerator implements Closeable {
                 record.setUnixPath(p.toString());
                 record.setWindowsPath(p.toString());
                 record.setRowId(Integer.toString(counter));
+                if ((record.getLatDeg() == null) || 
+                        (record.getLonDeg() == null) || 
+                        (record.getSourceType() == null)) {
+                    LOGGER.warn("Unable to derive the numeric keys and/or "
+                            + "source type for file [ "
+                            + p.toString()
+                            + " ].  Record will not be found by catalog "
+                            + "queries.");
+                }
                 write(record.toInsertStatement());
                 counter++;
             }
@@ -0,0 +1,127 @@
+package mil.nga.elevation.utils;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+
+/**
+ * Jackson serializer writing an <code>ElevationBatch</code> in the same
+ * form as the generated <code>ElevationResponse</code> model (same field
+ * names and order).  Values are read straight from the batch arrays so
+ * that no intermediate <code>ElevationType</code> or
+ * <code>CoordinateType</code> objects are created.
+ *
+ * @author L. Craig Carpenter
+ */
+public class ElevationBatchSerializer extends StdSerializer<ElevationBatch> {
+
+    /**
+     * Eclipse-generated serialVersionUID
+     */
+    private static final long serialVersionUID = 3867020591946283452L;
+
+    /**
+     * Default constructor.
+     */
+    public ElevationBatchSerializer() {
+        super(ElevationBatch.class);
+    }
+
+    @Override
+    public void serialize(
+            ElevationBatch     batch,
+            JsonGenerator      generator,
+            SerializerProvider provider) throws IOException {
+
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("security");
+        generator.writeStringField("classification", batch.getClassification());
+        generator.writeStringField("ownerProducer", batch.getOwnerProducer());
+        generator.writeEndObject();
+        generator.writeStringField("heightType", (batch.getUnits() == null ?
+                HeightUnitType.METERS : batch.getUnits()).toString());
+        generator.writeStringField("earthModelType", (batch.getEarthModel() == null ?
+                EarthModelType.EGM96 : batch.getEarthModel()).toString());
+        generator.writeFieldName("elevations");
+        if (batch.size() == 0) {
+            generator.writeNull();
+        }
+        else {
+            // Scratch buffer for the caller-supplied lat/lon text
+            char[] buffer = new char[32];
+            generator.writeStartArray();
+            for (int i=0; i<batch.size(); i++) {
+                buffer = writeElevation(batch, i, generator, buffer);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write a single entry of the elevations array.  Also used to write 
+     * each line of the streamed (NDJSON) response.
+     *
+     * @param batch The batch.
+     * @param index The index of the point.
+     * @param generator The output generator.
+     * @param buffer Scratch buffer for the lat/lon text.
+     * @return The scratch buffer (re-allocated if it had to grow).
+     * @throws IOException Thrown if the output cannot be written.
+     */
+    public static char[] writeElevation(
+            ElevationBatch batch,
+            int            index,
+            JsonGenerator  generator,
+            char[]         buffer) throws IOException {
+        int              frame    = batch.getFrame(index);
+        DEMFrameAccuracy accuracy = batch.getFrameAccuracy(frame);
+        generator.writeStartObject();
+        generator.writeNumberField("elevation", batch.getElevation(index));
+        generator.writeNumberField("absHorizontalAccuracy",
+                accuracy.getAbsHorzAccuracy());
+        generator.writeNumberField("absVerticalAccuracy",
+                accuracy.getAbsVertAccuracy());
+        generator.writeNumberField("relHorizontalAccuracy",
+                accuracy.getRelHorzAccuracy());
+        generator.writeNumberField("relVerticalAccuracy",
+                accuracy.getRelVertAccuracy());
+        generator.writeStringField("source",
+                batch.getFrameSource(frame).toString());
+        generator.writeObjectFieldStart("coordinate");
+        // Respond with the String-based lat/lon if one was supplied.  The 
+        // text is copied straight out of the batch.
+        generator.writeFieldName("lat");
+        int length = batch.getLatLength(index);
+        if (length >= 0) {
+            buffer = ensureCapacity(buffer, length);
+            generator.writeString(buffer, 0, batch.getLatChars(index, buffer));
+        }
+        else {
+            generator.writeString(String.valueOf(batch.getLat(index)));
+        }
+        generator.writeFieldName("lon");
+        length = batch.getLonLength(index);
+        if (length >= 0) {
+            buffer = ensureCapacity(buffer, length);
+            generator.writeString(buffer, 0, batch.getLonChars(index, buffer));
+        }
+        else {
+            generator.writeString(String.valueOf(batch.getLon(index)));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        return buffer;
+    }
+
+    private static char[] ensureCapacity(char[] buffer, int length) {
+        return (buffer.length >= length) ? buffer : new char[length * 2];
+    }
+}
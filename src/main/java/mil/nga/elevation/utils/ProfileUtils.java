@@ -0,0 +1,261 @@
+package mil.nga.elevation.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+/**
+ * Class containing static methods used to convert a path (WKT
+ * <code>LINESTRING</code> or list of vertices) into the ordered list of
+ * sample points used to build an elevation profile.
+ *
+ * Distances are great-circle distances on a sphere of the WGS-84 mean
+ * radius.  Between vertices the samples are placed by linear interpolation
+ * of latitude and longitude, which is indistinguishable from the geodesic
+ * at DEM post spacing.
+ *
+ * @author L. Craig Carpenter
+ */
+public class ProfileUtils {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(ProfileUtils.class);
+
+    /**
+     * WGS-84 mean Earth radius in meters.
+     */
+    public static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    /**
+     * Length of one arc-second of latitude in meters.
+     */
+    public static final double METERS_PER_ARC_SECOND =
+            (Math.PI * EARTH_RADIUS_METERS) / (180.0 * 3600.0);
+
+    /**
+     * Hide the constructor.
+     */
+    private ProfileUtils() { }
+
+    /**
+     * Obtain the native post spacing of the input source type.  The
+     * latitude spacing is used as the longitude spacing of DTED widens
+     * toward the poles.  <code>BEST</code> may resolve to any source so the
+     * finest spacing is returned.
+     *
+     * @param source The source DEM type.
+     * @return The post spacing in meters.
+     */
+    public static double getPostSpacing(TerrainDataFileType source) {
+        double arcSeconds;
+        if (source == null) {
+            arcSeconds = 1.0;
+        }
+        else {
+            switch (source) {
+                case DTED0:
+                    arcSeconds = 30.0;
+                    break;
+                case DTED1:
+                case SRTM1:
+                case SRTM1F:
+                    arcSeconds = 3.0;
+                    break;
+                default:
+                    arcSeconds = 1.0;
+                    break;
+            }
+        }
+        return arcSeconds * METERS_PER_ARC_SECOND;
+    }
+
+    /**
+     * Calculate the great-circle (haversine) distance between two
+     * coordinates.
+     *
+     * @param from The first coordinate.
+     * @param to The second coordinate.
+     * @return The distance in meters.
+     */
+    public static double distance(GeodeticCoordinate from, GeodeticCoordinate to) {
+        double lat1 = Math.toRadians(from.getLat());
+        double lat2 = Math.toRadians(to.getLat());
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(to.getLon() - from.getLon());
+        double a    = (Math.sin(dLat / 2.0) * Math.sin(dLat / 2.0)) +
+                (Math.cos(lat1) * Math.cos(lat2) *
+                        Math.sin(dLon / 2.0) * Math.sin(dLon / 2.0));
+        return 2.0 * EARTH_RADIUS_METERS *
+                Math.atan2(Math.sqrt(a), Math.sqrt(1.0 - a));
+    }
+
+    /**
+     * Convert a WKT <code>LINESTRING</code> into its list of vertices.
+     *
+     * @param wkt The WKT String.
+     * @return The path vertices.
+     * @throws ApplicationException Thrown if the WKT is missing, cannot be
+     * parsed, is not a LINESTRING or contains invalid coordinates.
+     */
+    public static List<GeodeticCoordinate> parseLineString(String wkt)
+            throws ApplicationException {
+
+        if ((wkt == null) || (wkt.trim().isEmpty())) {
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_QUERY_NO_WKT.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_QUERY_NO_WKT.getErrorMessage())
+                .build();
+        }
+        try {
+            Geometry geometry = new WKTReader().read(wkt);
+            if (!(geometry instanceof LineString)) {
+                LOGGER.error("Profile WKT is not a LINESTRING.  WKT [ "
+                        + wkt
+                        + " ].");
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorCode())
+                    .errorMessage(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorMessage())
+                    .build();
+            }
+            Coordinate[] coords = geometry.getCoordinates();
+            List<GeodeticCoordinate> vertices =
+                    new ArrayList<GeodeticCoordinate>(coords.length);
+            for (Coordinate coord : coords) {
+                vertices.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                        .lon(coord.x)
+                        .lat(coord.y)
+                        .build());
+            }
+            return vertices;
+        }
+        catch (ParseException pe) {
+            LOGGER.error("ParseException encountered while parsing profile "
+                    + "WKT [ "
+                    + wkt
+                    + " ].  Error message => [ "
+                    + pe.getMessage()
+                    + " ].");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_QUERY_INVALID_WKT.getErrorMessage())
+                .build();
+        }
+        catch (IllegalStateException ise) {
+            LOGGER.error("Invalid coordinate in profile WKT [ "
+                    + wkt
+                    + " ].  Error message => [ "
+                    + ise.getMessage()
+                    + " ].");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage())
+                .build();
+        }
+    }
+
+    /**
+     * Sample the input path at the requested interval.  Every vertex is
+     * included and each segment is divided into the smallest number of
+     * equal steps no longer than the interval.  Segments crossing the
+     * anti-meridian are walked the short way.
+     *
+     * @param vertices The path vertices (at least two).
+     * @param interval The maximum distance between samples in meters.
+     * @param maxSamples The maximum number of samples allowed.
+     * @return The samples in path order.
+     * @throws ApplicationException Thrown if the path has fewer than two
+     * vertices, the interval is not positive, or the number of samples
+     * would exceed the maximum.
+     */
+    public static List<GeodeticCoordinate> densify(
+            List<GeodeticCoordinate> vertices,
+            double                   interval,
+            int                      maxSamples) throws ApplicationException {
+
+        if ((vertices == null) || (vertices.size() < 2)) {
+            LOGGER.error("A profile requires at least two vertices.");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage())
+                .build();
+        }
+        if (!(interval > 0.0) || Double.isInfinite(interval)) {
+            LOGGER.error("Invalid profile sample interval [ "
+                    + interval
+                    + " ].");
+            throw new ApplicationException.ApplicationExceptionBuilder()
+                .errorCode(ErrorCodes.INVALID_QUERY.getErrorCode())
+                .errorMessage(ErrorCodes.INVALID_QUERY.getErrorMessage())
+                .build();
+        }
+
+        // Size the output before building any coordinates.  The counts are
+        // checked as long values and only narrowed once known to fit.
+        long   total    = 1;
+        int[]  steps    = new int[vertices.size() - 1];
+        for (int i=0; i<steps.length; i++) {
+            double length = distance(vertices.get(i), vertices.get(i + 1));
+            long   count  = Math.max(1L, (long)Math.ceil(length / interval));
+            if (count > (maxSamples - total)) {
+                LOGGER.error("Profile would require more than [ "
+                        + maxSamples
+                        + " ] samples at an interval of [ "
+                        + interval
+                        + " ] m.");
+                throw new ApplicationException.ApplicationExceptionBuilder()
+                    .errorCode(ErrorCodes.PROFILE_TOO_MANY_SAMPLES.getErrorCode())
+                    .errorMessage(ErrorCodes.PROFILE_TOO_MANY_SAMPLES.getErrorMessage())
+                    .build();
+            }
+            total   += count;
+            steps[i] = (int)count;
+        }
+
+        List<GeodeticCoordinate> samples =
+                new ArrayList<GeodeticCoordinate>((int)total);
+        samples.add(vertices.get(0));
+        for (int i=0; i<steps.length; i++) {
+            GeodeticCoordinate from = vertices.get(i);
+            GeodeticCoordinate to   = vertices.get(i + 1);
+            double dLat = to.getLat() - from.getLat();
+            double dLon = to.getLon() - from.getLon();
+            if (dLon > 180.0) {
+                dLon -= 360.0;
+            }
+            else if (dLon < -180.0) {
+                dLon += 360.0;
+            }
+            for (int step=1; step<steps[i]; step++) {
+                double fraction = (double)step / steps[i];
+                double lon      = from.getLon() + (fraction * dLon);
+                if (lon > 180.0) {
+                    lon -= 360.0;
+                }
+                else if (lon < -180.0) {
+                    lon += 360.0;
+                }
+                samples.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                        .lat(from.getLat() + (fraction * dLat))
+                        .lon(lon)
+                        .build());
+            }
+            samples.add(to);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,200 @@
+package mil.nga.elevation.utils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import mil.nga.elevation.ElevationExtremesFactory;
+import mil.nga.elevation.cache.FrameCache;
+import mil.nga.elevation.dao.TerrainDataSummary;
+import mil.nga.util.FileFinder;
+
+/**
+ * Command line utility used to generate a SQL file containing the
+ * precomputed elevation summaries for each of the DTED files found.  The
+ * resulting insert statements populate the
+ * <code>TERRAIN_DATA_SUMMARIES</code> table used by the min/max elevation
+ * service.  The input path and search string should match those used
+ * when generating the <code>TERRAIN_DATA_FILES</code> records so that the
+ * Unix paths line up.
+ *
+ * @author L. Craig Carpenter
+ */
+public class SummarySQLGenerator implements Closeable {
+
+    /**
+     * Set up the logback system for use throughout the class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(
+            SummarySQLGenerator.class.getName());
+
+    // Constants
+    public static final String DEFAULT_OUTPUT_FILE="summary.sql";
+
+    // Parameters
+    private String path;
+    private String searchString;
+    private String outputFile;
+
+    BufferedWriter writer;
+
+    /**
+     * Default constructor.
+     * @param path Top level path.
+     * @param searchString String to use for searching for DTED files.
+     * @param outputFile Path to the output file.  If null, the output is
+     * written to the system temporary directory.
+     */
+    public SummarySQLGenerator(
+            String path,
+            String searchString,
+            String outputFile) {
+        this.path         = path;
+        this.searchString = searchString;
+        this.outputFile   = outputFile;
+    }
+
+    /**
+     * Write the String to the output stream.
+     * @param data String to write.
+     * @throws IOException
+     */
+    private void write(String data) throws IOException {
+        if (writer == null) {
+            String fileName = outputFile;
+            if ((fileName == null) || (fileName.isEmpty())) {
+                fileName = System.getProperty("java.io.tmpdir")
+                    + File.separator + DEFAULT_OUTPUT_FILE;
+            }
+            LOGGER.info("Output file [ {} ].", fileName);
+            writer = new BufferedWriter(new FileWriter(fileName));
+        }
+        writer.write(data);
+        writer.newLine();
+    }
+
+    /**
+     * Create the output file containing insert statements for the summary
+     * of each of the DTED files found.  Files that cannot be loaded are
+     * logged and skipped.
+     * @throws IOException Thrown if there are problems writing to the target
+     * output file.
+     */
+    public void create() throws IOException {
+        int counter = 0;
+        List<Path> dtedFiles = FileFinder.find(path, searchString);
+        if ((dtedFiles != null) && (dtedFiles.size() > 0)) {
+            for (Path p : dtedFiles) {
+                try {
+                    ElevationExtremesFactory factory =
+                            new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
+                                .filePath(p.toString())
+                                .build();
+                    TerrainDataSummary summary = factory.getSummary();
+                    write(summary.toInsertStatement());
+                    counter++;
+                }
+                catch (IllegalStateException ise) {
+                    LOGGER.warn("Unable to summarize DEM file [ {} ].  "
+                            + "Error message => [ {} ].",
+                            p.toString(),
+                            ise.getMessage());
+                }
+                finally {
+                    // Each frame is only visited once so there is no
+                    // benefit to retaining it.
+                    FrameCache.getInstance().invalidate(p.toString());
+                }
+            }
+        }
+        LOGGER.info("Generated [ {} ] summary records.", counter);
+    }
+
+    /**
+     * Entry point for the summary generator.
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+
+        try {
+
+            // Set up the command line options.
+            Options options = new Options();
+            Option  option  = Option.builder()
+                    .longOpt("output")
+                    .argName("Output File")
+                    .hasArg()
+                    .desc("Path to the output file.")
+                    .build();
+            options.addOption(option);
+            option  = Option.builder()
+                    .longOpt("input")
+                    .argName("inputPath")
+                    .hasArg()
+                    .desc("Top-level directory to search.")
+                    .build();
+            options.addOption(option);
+            option  = Option.builder()
+                    .longOpt("search")
+                    .argName("searchString")
+                    .hasArg()
+                    .desc("Search string to use to find DTED files")
+                    .build();
+            options.addOption(option);
+            // Parse the input argments.
+            CommandLineParser parser = new DefaultParser();
+            CommandLine cmd = parser.parse(options, args);
+
+            // If the correct options are provided, invoke the application
+            // logic
+            if ((cmd.hasOption("input")) && (cmd.hasOption("search"))) {
+
+                SummarySQLGenerator summaryGen = new SummarySQLGenerator(
+                        cmd.getOptionValue("input"),
+                        cmd.getOptionValue("search"),
+                        cmd.getOptionValue("output"));
+                summaryGen.create();
+                summaryGen.close();
+
+            }
+            else {
+                LOGGER.error("Required command line options not "
+                        + "supplied.  Required options [ input, search ].");
+            }
+        }
+        catch (ParseException pe) {
+            LOGGER.error("ParseException encountered while processing the "
+                    + "command line arguments.  Exception message => [ {} ].",
+                    pe.getMessage());
+        }
+        catch (IOException ioe) {
+            LOGGER.error("Unexpected IOException encountered.  "
+                    + "Exception message => [ {} ].",
+                    ioe.getMessage());
+        }
+    }
+
+    /**
+     * Close the output file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            writer.close();
+        }
+    }
+}
@@ -14,7 +14,7 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication
-@ComponentScan(basePackages = {"mil.nga.elevation.services", "mil.nga.elevation_services", "mil.nga.elevation_services.api" , "org.openapitools.configuration"})
+@ComponentScan(basePackages = {"mil.nga.elevation.services", "mil.nga.elevation.metrics", "mil.nga.elevation_services", "mil.nga.elevation_services.api" , "org.openapitools.configuration"})
 @EnableJpaRepositories(basePackages = "mil.nga.elevation.dao")
 @EntityScan("mil.nga.elevation.dao")
 public class OpenAPI2SpringBoot implements CommandLineRunner {
@@ -0,0 +1,74 @@
+package mil.nga.elevation_services.api;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import mil.nga.elevation.services.RequestExecutors;
+
+/**
+ * Spring MVC configuration for the asynchronous end points.  Without it
+ * the servlet container applies its default (30 s) timeout to every
+ * request returning a <code>CompletableFuture</code>, which would cut off
+ * requests on the CPU pool well before the pool timeout expires.  The
+ * default timeout is taken from <code>RequestExecutors</code> so it always
+ * exceeds the pool timeouts.
+ *
+ * Should the container time a request out anyway, the future of the
+ * request is expired.  A task still queued is then never started, and
+ * the client receives the same JSON timeout error (HTTP 503) as for a
+ * pool timeout rather than an empty response.
+ *
+ * @author L. Craig Carpenter
+ */
+@Configuration
+public class AsyncRequestConfiguration implements WebMvcConfigurer {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(AsyncRequestConfiguration.class);
+
+    @Autowired
+    private RequestExecutors executors;
+
+    /**
+     * Apply the container timeout and register the timeout handling.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        long timeout = executors.getAsyncTimeout();
+        LOGGER.info("Asynchronous request timeout set to [ "
+                + timeout
+                + " ] ms.");
+        configurer.setDefaultTimeout(timeout);
+        configurer.registerDeferredResultInterceptors(
+                new DeferredResultProcessingInterceptor() {
+                    @Override
+                    public <T> boolean handleTimeout(
+                            NativeWebRequest  request,
+                            DeferredResult<T> deferredResult) {
+                        Object future = request.getAttribute(
+                                RequestExecutors.FUTURE_ATTRIBUTE,
+                                RequestAttributes.SCOPE_REQUEST);
+                        if ((future instanceof CompletableFuture) &&
+                                RequestExecutors.expire(
+                                        (CompletableFuture<?>)future)) {
+                            LOGGER.warn("Request timed out by the servlet "
+                                    + "container.  Request expired.");
+                        }
+                        return true;
+                    }
+                });
+    }
+}
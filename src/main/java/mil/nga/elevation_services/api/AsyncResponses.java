@@ -0,0 +1,93 @@
+package mil.nga.elevation_services.api;
+
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation_services.model.Error;
+
+/**
+ * Conversion of the failures raised by asynchronously processed requests
+ * (see <code>RequestExecutors</code>) into the standard JSON
+ * <code>Error</code> response.  Saturated pools and timeouts are reported
+ * as HTTP 503 so clients and load balancers can retry; anything else is
+ * unexpected and reported as HTTP 500.
+ *
+ * @author L. Craig Carpenter
+ */
+final class AsyncResponses {
+
+    /**
+     * Set up the Logback system for use throughout the class.
+     */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(AsyncResponses.class);
+
+    /**
+     * Hide the constructor.
+     */
+    private AsyncResponses() { }
+
+    /**
+     * Convert the exception that completed a request future.
+     *
+     * @param endpoint The end point name (for logging).
+     * @param t The exception.
+     * @return The error response.
+     */
+    static ResponseEntity<Object> toErrorResponse(String endpoint, Throwable t) {
+
+        Throwable   cause  = (t instanceof CompletionException) && (t.getCause() != null)
+                                ? t.getCause() : t;
+        Error       err    = new Error();
+        HttpStatus  status = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        if (cause instanceof ApplicationException) {
+            ApplicationException ae = (ApplicationException)cause;
+            LOGGER.error("ApplicationException encountered while processing "
+                    + endpoint
+                    + " endpoint.  Error message => [ "
+                    + ae.toString()
+                    + " ].");
+            err.setCode(ae.getErrorCode());
+            err.setMessage(ae.getErrorMessage());
+            status = toStatus(ae);
+        }
+        else {
+            LOGGER.error("Unexpected exception encountered while processing "
+                    + endpoint
+                    + " endpoint.", cause);
+            err.setCode(ErrorCodes.INTERNAL_EXCEPTION.getErrorCode());
+            err.setMessage(ErrorCodes.INTERNAL_EXCEPTION.getErrorMessage());
+        }
+        // Set explicitly as the request may have asked for a non-JSON
+        // encoding.
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<Object>(err, headers, status);
+    }
+
+    /**
+     * Select the HTTP status for an exception raised while processing a
+     * request.  Requests that could not obtain the resources required to
+     * run (see <code>RequestExecutors</code> and <code>PointBudget</code>)
+     * are reported as HTTP 503, anything else as HTTP 400.
+     *
+     * @param ae The exception.
+     * @return The HTTP status.
+     */
+    static HttpStatus toStatus(ApplicationException ae) {
+        if (ErrorCodes.SERVER_BUSY.getErrorCode().equals(ae.getErrorCode()) ||
+                ErrorCodes.REQUEST_TIMEOUT.getErrorCode().equals(ae.getErrorCode())) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -30,6 +30,7 @@ import javax.validation.constraints.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 @javax.annotation.Generated(value = "org.openapitools.codegen.languages.SpringCodegen", date = "2020-04-07T08:48:31.266-05:00[America/Chicago]")
 
 @Validated
@@ -55,7 +56,7 @@ public interface CoverageAvailableApi {
     @RequestMapping(value = "/CoverageAvailable",
         produces = { "application/json" }, 
         method = RequestMethod.GET)
-    default ResponseEntity<Object> getCoverageAvailableGET(@NotNull @ApiParam(value = "Latitude value of a coordinate pair.  The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lat", required = true) String lat,@NotNull @ApiParam(value = "Longitude value of a coordinate pair.  The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lon", required = true) String lon) {
+    default CompletableFuture<ResponseEntity<Object>> getCoverageAvailableGET(@NotNull @ApiParam(value = "Latitude value of a coordinate pair.  The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lat", required = true) String lat,@NotNull @ApiParam(value = "Longitude value of a coordinate pair.  The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lon", required = true) String lon) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -65,7 +66,7 @@ public interface CoverageAvailableApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
@@ -85,7 +86,7 @@ public interface CoverageAvailableApi {
         produces = { "application/json" }, 
         consumes = { "application/json" },
         method = RequestMethod.POST)
-    default ResponseEntity<Object> getCoverageAvailablePOST(@ApiParam(value = "Client specified list of geographic points.  The coordinates can be specified in either DMS format or decimal degrees." ,required=true )  @Valid @RequestBody CoordinateTypeArray coordinateTypeArray) {
+    default CompletableFuture<ResponseEntity<Object>> getCoverageAvailablePOST(@ApiParam(value = "Client specified list of geographic points.  The coordinates can be specified in either DMS format or decimal degrees." ,required=true )  @Valid @RequestBody CoordinateTypeArray coordinateTypeArray) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -95,7 +96,7 @@ public interface CoverageAvailableApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
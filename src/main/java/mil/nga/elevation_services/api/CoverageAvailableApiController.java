@@ -7,6 +7,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.context.request.NativeWebRequest;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.exceptions.ApplicationException;
 import mil.nga.elevation.services.CoverageService;
+import mil.nga.elevation.services.RequestExecutors;
 import mil.nga.elevation.utils.ConversionUtils;
 import mil.nga.elevation_services.model.CoordinateTypeArray;
 import mil.nga.elevation_services.model.CoverageAvailableType;
@@ -38,6 +40,12 @@ public class CoverageAvailableApiController implements CoverageAvailableApi {
     @Autowired
     CoverageService coverageService;
     
+    /**
+     * Manually added auto-wired reference to the request executors.
+     */
+    @Autowired
+    RequestExecutors executors;
+    
     private final NativeWebRequest request;
 
     @Autowired
@@ -50,6 +58,21 @@ public class CoverageAvailableApiController implements CoverageAvailableApi {
         return Optional.ofNullable(request);
     }
 
+    /**
+     * Asynchronous <code>CoverageAvailable</code> HTTP GET end point.  The 
+     * request is processed on the I/O request pool.
+     * 
+     * @param lat User-requested latitude value.
+     * @param lon User-requested longitude value.
+     */
+    public CompletableFuture<ResponseEntity<Object>> getCoverageAvailableGET(
+            String lat,
+            String lon) {
+        return executors.supplyIO(() -> processCoverageAvailableGET(lat, lon))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "CoverageAvailable GET", t));
+    }
+    
     /**
      * Implementation of the <code>CoveragesAvailable</code> endpoint when 
      * called with a GET request.  This method will log the request and 
@@ -61,7 +84,7 @@ public class CoverageAvailableApiController implements CoverageAvailableApi {
      * @return A ResponseEntity object to be serialized and sent to the 
      * caller.
      */
-    public ResponseEntity<Object> getCoverageAvailableGET( 
+    private ResponseEntity<Object> processCoverageAvailableGET( 
             String lat,
             String lon) {
         long                  start    = System.currentTimeMillis();
@@ -111,6 +134,19 @@ public class CoverageAvailableApiController implements CoverageAvailableApi {
         return new ResponseEntity<Object>(response, HttpStatus.OK);
     }
     
+    /**
+     * Asynchronous <code>CoverageAvailable</code> HTTP POST end point.  The 
+     * request is processed on the I/O request pool.
+     * 
+     * @param coordinateTypeArray An array of coordinates.
+     */
+    public CompletableFuture<ResponseEntity<Object>> getCoverageAvailablePOST(
+            CoordinateTypeArray coordinateTypeArray) {
+        return executors.supplyIO(() -> processCoverageAvailablePOST(coordinateTypeArray))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "CoverageAvailable POST", t));
+    }
+    
     /**
      * Implementation of the <code>CoveragesAvailable</code> endpoint when 
      * called with a POST request.  This method will log the request and 
@@ -121,7 +157,7 @@ public class CoverageAvailableApiController implements CoverageAvailableApi {
      * @return A ResponseEntity object to be serialized and sent to the 
      * caller.
      */
-    public ResponseEntity<Object> getCoverageAvailablePOST(
+    private ResponseEntity<Object> processCoverageAvailablePOST(
             CoordinateTypeArray coordinateTypeArray) {
         
         long                   start     = System.currentTimeMillis();
@@ -29,6 +29,7 @@ import javax.validation.constraints.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 @javax.annotation.Generated(value = "org.openapitools.codegen.languages.SpringCodegen", date = "2020-04-07T08:48:31.266-05:00[America/Chicago]")
 
 @Validated
@@ -47,6 +48,7 @@ public interface ElevationAtApi {
      * @param referenceEllipsoid The Earth model reference (geoid or ellipsoid) the height is associated with (optional, default to EGM96)
      * @param source The source DEM type to use for calculating the elevation height data. (optional, default to DTED0)
      * @param operation This parameter is no longer used. (optional)
+     * @param interpolation The method used to interpolate between elevation posts. (optional, default to BILINEAR)
      * @return Elevation data requested. (status code 200)
      *         or unexpected error (status code 200)
      */
@@ -57,7 +59,7 @@ public interface ElevationAtApi {
     @RequestMapping(value = "/ElevationAt",
         produces = { "application/json" }, 
         method = RequestMethod.GET)
-    default ResponseEntity<Object> getElevationAtGET(@NotNull @ApiParam(value = "Comma seperated list of geographic points in lon, lat order.  The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "pts", required = true) String pts,@ApiParam(value = "The output units for the elevation height data.", allowableValues = "FEET, METERS", defaultValue = "METERS") @Valid @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,@ApiParam(value = "The Earth model reference (geoid or ellipsoid) the height is associated with", allowableValues = "EGM96, WGS84", defaultValue = "EGM96") @Valid @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,@ApiParam(value = "The source DEM type to use for calculating the elevation height data.", allowableValues = "DTED2, DTED1, DTED0, SRTM2, SRTM1, SRTM2F, SRTM1F, BEST", defaultValue = "DTED0") @Valid @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,@ApiParam(value = "This parameter is no longer used.") @Valid @RequestParam(value = "operation", required = false) String operation) {
+    default CompletableFuture<ResponseEntity<Object>> getElevationAtGET(@NotNull @ApiParam(value = "Comma seperated list of geographic points in lon, lat order.  The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "pts", required = true) String pts,@ApiParam(value = "The output units for the elevation height data.", allowableValues = "FEET, METERS", defaultValue = "METERS") @Valid @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,@ApiParam(value = "The Earth model reference (geoid or ellipsoid) the height is associated with", allowableValues = "EGM96, WGS84", defaultValue = "EGM96") @Valid @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,@ApiParam(value = "The source DEM type to use for calculating the elevation height data.", allowableValues = "DTED2, DTED1, DTED0, SRTM2, SRTM1, SRTM2F, SRTM1F, BEST", defaultValue = "DTED0") @Valid @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,@ApiParam(value = "This parameter is no longer used.") @Valid @RequestParam(value = "operation", required = false) String operation,@ApiParam(value = "The method used to interpolate between elevation posts.", allowableValues = "NEAREST, BILINEAR, BICUBIC", defaultValue = "BILINEAR") @Valid @RequestParam(value = "interpolation", required = false, defaultValue="BILINEAR") String interpolation) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -67,7 +69,7 @@ public interface ElevationAtApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
@@ -87,7 +89,7 @@ public interface ElevationAtApi {
         produces = { "application/json" }, 
         consumes = { "application/json" },
         method = RequestMethod.POST)
-    default ResponseEntity<Object> getElevationAtPOST(@ApiParam(value = "Client specified geographic point.  The coordinates can be specified in either DMS format or decimal degrees." ,required=true )  @Valid @RequestBody ElevationQuery elevationQuery) {
+    default CompletableFuture<ResponseEntity<Object>> getElevationAtPOST(@ApiParam(value = "Client specified geographic point.  The coordinates can be specified in either DMS format or decimal degrees." ,required=true )  @Valid @RequestBody ElevationQuery elevationQuery) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -97,7 +99,7 @@ public interface ElevationAtApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
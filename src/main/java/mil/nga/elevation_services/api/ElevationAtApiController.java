@@ -1,23 +1,43 @@
 package mil.nga.elevation_services.api;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.ElevationBatch;
 import mil.nga.elevation.services.ElevationDataService;
+import mil.nga.elevation.services.RequestExecutors;
+import mil.nga.elevation.utils.BinaryElevationCodec;
 import mil.nga.elevation.utils.ConversionUtils;
 import mil.nga.elevation_services.model.ElevationQuery;
-import mil.nga.elevation_services.model.ElevationResponse;
+import mil.nga.elevation_services.model.EarthModelType;
 import mil.nga.elevation_services.model.Error;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.InterpolationType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
 
 @javax.annotation.Generated(value = "org.openapitools.codegen.languages.SpringCodegen", date = "2020-04-07T08:48:31.266-05:00[America/Chicago]")
 
@@ -31,12 +51,29 @@ public class ElevationAtApiController implements ElevationAtApi {
     private static final Logger LOGGER = 
             LoggerFactory.getLogger(ElevationAtApiController.class);
     
+    /**
+     * Media type for newline-delimited JSON.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    
+    /**
+     * Newline-delimited JSON media type.
+     */
+    private static final MediaType NDJSON = 
+            MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+    
     /**
      * Manually added auto-wired reference to the elevation data service bean.
      */
     @Autowired
     ElevationDataService elevDataService;
     
+    /**
+     * Manually added auto-wired reference to the request executors.
+     */
+    @Autowired
+    RequestExecutors executors;
+    
     private final NativeWebRequest request;
 
     @Autowired
@@ -59,19 +96,58 @@ public class ElevationAtApiController implements ElevationAtApi {
      * @param source The terrain data file source information to use for the
      * backing elevation data.
      * @param operation Not used.
+     * @param interpolation The method used to interpolate between posts 
+     * (NEAREST, BILINEAR or BICUBIC).
      */
     @Override
-    public ResponseEntity<Object> getElevationAtGET(
-            String pts,  
+    @RequestMapping(value = "/ElevationAt",
+        produces = { "application/json", BinaryElevationCodec.MEDIA_TYPE }, 
+        method = RequestMethod.GET)
+    public CompletableFuture<ResponseEntity<Object>> getElevationAtGET(
+            @RequestParam(value = "pts", required = true) String pts,  
+            @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,
+            @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,
+            @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,
+            @RequestParam(value = "operation", required = false) String operation,
+            @RequestParam(value = "interpolation", required = false, defaultValue="BILINEAR") String interpolation) {
+        
+        // The binary media type is added to the generated mapping (rather 
+        // than declared in a separate mapping) so that requests that do not 
+        // specify an Accept header remain unambiguous and receive JSON.  The 
+        // header must be inspected on the servlet thread.
+        if (acceptsBinary()) {
+            return executors.supplyIO(() -> getElevationAtBinaryGET(
+                        pts, heightType, referenceEllipsoid, source, interpolation))
+                    .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "binary ElevationAt GET", t));
+        }
+        return executors.supplyIO(() -> processElevationAtGET(
+                    pts, heightType, referenceEllipsoid, source, interpolation))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                    "ElevationAt GET", t));
+    }
+    
+    /**
+     * Synchronous processing of the JSON <code>ElevationAt</code> HTTP GET 
+     * end point.
+     * 
+     * @param pts List of coordinates in Lon, Lat order.
+     * @param heightType The output units for the elevation height data.
+     * @param referenceEllipsoid The reference Earth model.
+     * @param source The source DEM type.
+     * @param interpolation The interpolation method.
+     */
+    private ResponseEntity<Object> processElevationAtGET(
+            String pts,
             String heightType,
             String referenceEllipsoid,
             String source,
-            String operation) {
+            String interpolation) {
 
         String            arguments = ConversionUtils.toString(
                 pts, heightType, referenceEllipsoid, source);
         long              start     = System.currentTimeMillis();
-        ElevationResponse response  = null;
+        ElevationBatch    response  = null;
         
         try {
             LOGGER.info("Processing ElevationAt GET endpoint request for "
@@ -80,7 +156,8 @@ public class ElevationAtApiController implements ElevationAtApi {
                     pts, 
                     heightType, 
                     referenceEllipsoid, 
-                    source);
+                    source, 
+                    interpolation);
             LOGGER.info("ElevationAt GET endpoint processed in [ {} ] ms.",
                     (System.currentTimeMillis() - start));
         }
@@ -92,7 +169,7 @@ public class ElevationAtApiController implements ElevationAtApi {
             Error err = new Error();
             err.setCode(ae.getErrorCode());
             err.setMessage(ae.getErrorMessage());
-            return new ResponseEntity<Object>(err, HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<Object>(err, AsyncResponses.toStatus(ae));
         }
         if (response == null) {
             LOGGER.error("Unable to generate a valid response for "
@@ -114,11 +191,24 @@ public class ElevationAtApiController implements ElevationAtApi {
      * @param elevationQuery Deserialized query parameters.
      */
     @Override
-    public ResponseEntity<Object> getElevationAtPOST(ElevationQuery elevationQuery) {
+    public CompletableFuture<ResponseEntity<Object>> getElevationAtPOST(
+            ElevationQuery elevationQuery) {
+        return executors.supplyIO(() -> processElevationAtPOST(elevationQuery))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                    "ElevationAt POST", t));
+    }
+    
+    /**
+     * Synchronous processing of the JSON <code>ElevationAt</code> HTTP POST 
+     * end point.
+     * 
+     * @param elevationQuery Deserialized query parameters.
+     */
+    private ResponseEntity<Object> processElevationAtPOST(ElevationQuery elevationQuery) {
         
         String            arguments = ConversionUtils.toString(elevationQuery);
         long              start     = System.currentTimeMillis();
-        ElevationResponse response  = null;
+        ElevationBatch    response  = null;
         
         try {    
             LOGGER.info("Processing ElevationAt POST endpoint request for "
@@ -140,7 +230,7 @@ public class ElevationAtApiController implements ElevationAtApi {
             Error err = new Error();
             err.setCode(ae.getErrorCode());
             err.setMessage(ae.getErrorMessage());
-            return new ResponseEntity<Object>(err, HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<Object>(err, AsyncResponses.toStatus(ae));
         }
         if (response == null) {
             LOGGER.error("Unable to generate a valid response for "
@@ -154,4 +244,276 @@ public class ElevationAtApiController implements ElevationAtApi {
         }
         return new ResponseEntity<Object>(response, HttpStatus.OK);
     }
+    
+    /**
+     * Method manually added providing a streaming variant of the 
+     * <code>ElevationAt</code> end point for very large numbers of points.  
+     * The request body contains one coordinate per line (either a 
+     * "lon, lat" pair or a JSON object containing lat/lon fields) and the 
+     * response contains one JSON elevation object per line.  Neither the 
+     * request nor the response is materialized in memory.  See 
+     * <code>ElevationDataService.streamElevations()</code> for details of 
+     * the output format.
+     * 
+     * The stream is processed on the stream pool (see 
+     * <code>RequestExecutors</code>) and written through a 
+     * <code>ResponseBodyEmitter</code> so that the long stream timeout 
+     * (<code>elevation.async.stream.timeout.ms</code>) applies to this 
+     * response only.  The other asynchronous end points keep the default 
+     * timeout.
+     * 
+     * @param body The newline-delimited coordinates.
+     * @param heightType The output units for the elevation height data.
+     * @param referenceEllipsoid The reference Earth model.
+     * @param source The source DEM type.
+     * @param interpolation The interpolation method.
+     */
+    @RequestMapping(value = "/ElevationAt",
+        produces = { APPLICATION_NDJSON_VALUE }, 
+        consumes = { APPLICATION_NDJSON_VALUE, "text/plain" },
+        method = RequestMethod.POST)
+    public ResponseEntity<ResponseBodyEmitter> getElevationAtStream(
+            InputStream body,
+            @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,
+            @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,
+            @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,
+            @RequestParam(value = "interpolation", required = false, defaultValue="BILINEAR") String interpolation) {
+        
+        String arguments = ConversionUtils.toString(
+                null, heightType, referenceEllipsoid, source);
+        
+        LOGGER.info("Processing ElevationAt streaming endpoint request for "
+                + "input arguments [ {} ].", arguments);
+        try {
+            HeightUnitType      units      = 
+                    ConversionUtils.convertHeightUnitType(heightType);
+            EarthModelType      earthModel = 
+                    ConversionUtils.convertEarthModelType(referenceEllipsoid);
+            TerrainDataFileType sourceDEM  = 
+                    ConversionUtils.convertTerrainDataFileType(source);
+            InterpolationType   method     = 
+                    ConversionUtils.convertInterpolationType(interpolation);
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter(
+                    Math.max(0L, executors.getStreamTimeout()));
+            executors.executeStream(() -> {
+                try {
+                    EmitterOutputStream output = new EmitterOutputStream(
+                            emitter, NDJSON);
+                    elevDataService.streamElevations(
+                            new InputStreamReader(body, StandardCharsets.UTF_8), 
+                            output, 
+                            units, 
+                            earthModel, 
+                            sourceDEM, 
+                            method);
+                    output.flush();
+                    emitter.complete();
+                }
+                catch (IOException | RuntimeException e) {
+                    LOGGER.error("Exception encountered while streaming "
+                            + "ElevationAt results.  Input arguments [ {} ].  "
+                            + "Error message => [ {} ].", 
+                            arguments, e.toString());
+                    emitter.completeWithError(e);
+                }
+            });
+            return new ResponseEntity<ResponseBodyEmitter>(
+                    emitter, ndjsonHeaders(), HttpStatus.OK);
+        }
+        catch (ApplicationException ae) {
+            LOGGER.error("ApplicationException encountered while processing "
+                    + "ElevationAt streaming endpoint.  Input arguments [ {} ].  "
+                    + "Error message => [ {} ].", 
+                    arguments, ae.toString());
+            // The response is still newline-delimited JSON so the error is 
+            // written as a single line.
+            Error err = new Error();
+            err.setCode(ae.getErrorCode());
+            err.setMessage(ae.getErrorMessage());
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+            try {
+                emitter.send(new ObjectMapper().writeValueAsString(err) + "\n", 
+                        NDJSON);
+                emitter.complete();
+            }
+            catch (IOException ioe) {
+                emitter.completeWithError(ioe);
+            }
+            return new ResponseEntity<ResponseBodyEmitter>(
+                    emitter, ndjsonHeaders(), AsyncResponses.toStatus(ae));
+        }
+    }
+    
+    /**
+     * Headers applied to the streamed responses.
+     * @return Headers containing the newline-delimited JSON content type.
+     */
+    private static HttpHeaders ndjsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(NDJSON);
+        return headers;
+    }
+    
+    /**
+     * Determine whether the client explicitly requested the compact binary 
+     * encoding in the Accept header.
+     * @return True if the binary encoding should be returned.
+     */
+    private boolean acceptsBinary() {
+        if (request != null) {
+            String accept = request.getHeader(HttpHeaders.ACCEPT);
+            if ((accept != null) && (!accept.isEmpty())) {
+                MediaType binary = MediaType.valueOf(BinaryElevationCodec.MEDIA_TYPE);
+                for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                    if (binary.equalsTypeAndSubtype(mediaType)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Compact binary variant of the <code>ElevationAt</code> HTTP GET end 
+     * point.  Selected when the client sends an Accept header of 
+     * <code>BinaryElevationCodec.MEDIA_TYPE</code>.
+     * 
+     * @param pts List of coordinates in Lon, Lat order.
+     * @param heightType The output units for the elevation height data.
+     * @param referenceEllipsoid The reference Earth model.
+     * @param source The source DEM type.
+     * @param interpolation The interpolation method.
+     */
+    private ResponseEntity<Object> getElevationAtBinaryGET(
+            String pts,
+            String heightType,
+            String referenceEllipsoid,
+            String source,
+            String interpolation) {
+        
+        String arguments = ConversionUtils.toString(
+                pts, heightType, referenceEllipsoid, source);
+        long   start     = System.currentTimeMillis();
+        
+        try {
+            LOGGER.info("Processing binary ElevationAt GET endpoint request "
+                    + "for input arguments [ {} ].", arguments);
+            byte[] response = elevDataService.getElevationAtBinary(
+                    pts, 
+                    heightType, 
+                    referenceEllipsoid, 
+                    source, 
+                    interpolation);
+            LOGGER.info("Binary ElevationAt GET endpoint processed in [ {} ] ms.",
+                    (System.currentTimeMillis() - start));
+            return toBinaryResponse(response);
+        }
+        catch (ApplicationException ae) {
+            LOGGER.error("ApplicationException encountered while processing "
+                    + "binary ElevationAt GET endpoint.  Input arguments [ {} ].  "
+                    + "Error message => [ {} ].", 
+                    arguments, ae.toString());
+            return toErrorResponse(ae);
+        }
+    }
+    
+    /**
+     * Method manually added providing the compact binary variant of the 
+     * <code>ElevationAt</code> HTTP POST end point.  The request body 
+     * contains packed little-endian float64 lon/lat pairs.  See 
+     * <code>BinaryElevationCodec</code> for details of the format.
+     * 
+     * @param body The packed coordinates.
+     * @param heightType The output units for the elevation height data.
+     * @param referenceEllipsoid The reference Earth model.
+     * @param source The source DEM type.
+     * @param interpolation The interpolation method.
+     */
+    @RequestMapping(value = "/ElevationAt",
+        produces = { BinaryElevationCodec.MEDIA_TYPE }, 
+        consumes = { BinaryElevationCodec.MEDIA_TYPE },
+        method = RequestMethod.POST)
+    public CompletableFuture<ResponseEntity<Object>> getElevationAtBinaryPOST(
+            @RequestBody byte[] body,
+            @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,
+            @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,
+            @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,
+            @RequestParam(value = "interpolation", required = false, defaultValue="BILINEAR") String interpolation) {
+        return executors.supplyIO(() -> processElevationAtBinaryPOST(
+                    body, heightType, referenceEllipsoid, source, interpolation))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                    "binary ElevationAt POST", t));
+    }
+    
+    /**
+     * Synchronous processing of the binary <code>ElevationAt</code> HTTP 
+     * POST end point.
+     * 
+     * @param body The packed coordinates.
+     * @param heightType The output units for the elevation height data.
+     * @param referenceEllipsoid The reference Earth model.
+     * @param source The source DEM type.
+     * @param interpolation The interpolation method.
+     */
+    private ResponseEntity<Object> processElevationAtBinaryPOST(
+            byte[] body,
+            String heightType,
+            String referenceEllipsoid,
+            String source,
+            String interpolation) {
+        
+        String arguments = ConversionUtils.toString(
+                null, heightType, referenceEllipsoid, source);
+        long   start     = System.currentTimeMillis();
+        
+        try {
+            LOGGER.info("Processing binary ElevationAt POST endpoint request "
+                    + "of [ {} ] bytes for input arguments [ {} ].", 
+                    (body == null ? 0 : body.length), arguments);
+            byte[] response = elevDataService.getElevationAtBinary(
+                    body, 
+                    heightType, 
+                    referenceEllipsoid, 
+                    source, 
+                    interpolation);
+            LOGGER.info("Binary ElevationAt POST endpoint processed in [ {} ] ms.",
+                    (System.currentTimeMillis() - start));
+            return toBinaryResponse(response);
+        }
+        catch (ApplicationException ae) {
+            LOGGER.error("ApplicationException encountered while processing "
+                    + "binary ElevationAt POST endpoint.  Input arguments [ {} ].  "
+                    + "Error message => [ {} ].", 
+                    arguments, ae.toString());
+            return toErrorResponse(ae);
+        }
+    }
+    
+    /**
+     * Wrap an encoded binary response.
+     * @param response The encoded elevations.
+     * @return The response entity.
+     */
+    private ResponseEntity<Object> toBinaryResponse(byte[] response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf(BinaryElevationCodec.MEDIA_TYPE));
+        return new ResponseEntity<Object>(response, headers, HttpStatus.OK);
+    }
+    
+    /**
+     * Errors from the binary end points are returned as the standard JSON 
+     * <code>Error</code> object so clients can distinguish them by content 
+     * type.
+     * @param ae The exception raised.
+     * @return The response entity.
+     */
+    private ResponseEntity<Object> toErrorResponse(ApplicationException ae) {
+        Error err = new Error();
+        err.setCode(ae.getErrorCode());
+        err.setMessage(ae.getErrorMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<Object>(err, headers, AsyncResponses.toStatus(ae));
+    }
 }
@@ -0,0 +1,69 @@
+package mil.nga.elevation_services.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Adapter allowing code written against an <code>OutputStream</code> to 
+ * write a <code>ResponseBodyEmitter</code> response.  Bytes are buffered 
+ * and sent to the client as a single chunk each time the stream is 
+ * flushed.  The emitter is not completed when the stream is closed; that 
+ * is left to the caller.
+ * 
+ * @author L. Craig Carpenter
+ */
+class EmitterOutputStream extends OutputStream {
+
+    private final ResponseBodyEmitter   emitter;
+    private final MediaType             mediaType;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+    
+    /**
+     * Default constructor.
+     * 
+     * @param emitter The target emitter.
+     * @param mediaType The media type of each chunk.
+     */
+    EmitterOutputStream(ResponseBodyEmitter emitter, MediaType mediaType) {
+        this.emitter   = emitter;
+        this.mediaType = mediaType;
+    }
+    
+    @Override
+    public void write(int b) {
+        buffer.write(b);
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) {
+        buffer.write(b, off, len);
+    }
+    
+    /**
+     * Send the buffered bytes to the client.
+     * 
+     * @throws IOException Thrown if the client has disconnected or the 
+     * response has already completed (e.g. timed out).
+     */
+    @Override
+    public void flush() throws IOException {
+        if (buffer.size() > 0) {
+            try {
+                emitter.send(buffer.toByteArray(), mediaType);
+            }
+            catch (IllegalStateException ise) {
+                throw new IOException(ise.getMessage(), ise);
+            }
+            buffer.reset();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
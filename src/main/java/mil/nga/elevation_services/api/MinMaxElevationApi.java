@@ -29,6 +29,7 @@ import javax.validation.constraints.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 @javax.annotation.Generated(value = "org.openapitools.codegen.languages.SpringCodegen", date = "2020-04-07T08:48:31.266-05:00[America/Chicago]")
 
 @Validated
@@ -60,7 +61,7 @@ public interface MinMaxElevationApi {
     @RequestMapping(value = "/MinMaxElevation",
         produces = { "application/json" }, 
         method = RequestMethod.GET)
-    default ResponseEntity<Object> getMinMaxElevationGET(@NotNull @ApiParam(value = "The lower-left longitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lllon", required = true) String lllon,@NotNull @ApiParam(value = "The lower-left latitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lllat", required = true) String lllat,@NotNull @ApiParam(value = "The upper-right longitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "urlon", required = true) String urlon,@NotNull @ApiParam(value = "The upper-right latitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "urlat", required = true) String urlat,@ApiParam(value = "The output units for the elevation height data.", allowableValues = "FEET, METERS", defaultValue = "METERS") @Valid @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,@ApiParam(value = "The Earth model reference (geoid or ellipsoid) the height is associated with", allowableValues = "EGM96, WGS84", defaultValue = "EGM96") @Valid @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,@ApiParam(value = "The source DEM type to use for calculating the elevation height data.", allowableValues = "DTED2, DTED1, DTED0, SRTM2, SRTM1, SRTM2F, SRTM1F, BEST", defaultValue = "DTED0") @Valid @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,@ApiParam(value = "This parameter is no longer used.") @Valid @RequestParam(value = "operation", required = false) String operation) {
+    default CompletableFuture<ResponseEntity<Object>> getMinMaxElevationGET(@NotNull @ApiParam(value = "The lower-left longitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lllon", required = true) String lllon,@NotNull @ApiParam(value = "The lower-left latitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "lllat", required = true) String lllat,@NotNull @ApiParam(value = "The upper-right longitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "urlon", required = true) String urlon,@NotNull @ApiParam(value = "The upper-right latitude coordinate of a bounding box.   The coordinates can be specified in either DMS format or decimal degrees.", required = true) @Valid @RequestParam(value = "urlat", required = true) String urlat,@ApiParam(value = "The output units for the elevation height data.", allowableValues = "FEET, METERS", defaultValue = "METERS") @Valid @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,@ApiParam(value = "The Earth model reference (geoid or ellipsoid) the height is associated with", allowableValues = "EGM96, WGS84", defaultValue = "EGM96") @Valid @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,@ApiParam(value = "The source DEM type to use for calculating the elevation height data.", allowableValues = "DTED2, DTED1, DTED0, SRTM2, SRTM1, SRTM2F, SRTM1F, BEST", defaultValue = "DTED0") @Valid @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,@ApiParam(value = "This parameter is no longer used.") @Valid @RequestParam(value = "operation", required = false) String operation) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -70,7 +71,7 @@ public interface MinMaxElevationApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
@@ -90,7 +91,7 @@ public interface MinMaxElevationApi {
         produces = { "application/json" }, 
         consumes = { "application/json" },
         method = RequestMethod.POST)
-    default ResponseEntity<Object> getMinMaxElevationPOST(@ApiParam(value = "Client specified bounding box.  The coordinates can be specified in either DMS format or decimal degrees." ,required=true )  @Valid @RequestBody MinMaxElevationQuery minMaxElevationQuery) {
+    default CompletableFuture<ResponseEntity<Object>> getMinMaxElevationPOST(@ApiParam(value = "Client specified bounding box.  The coordinates can be specified in either DMS format or decimal degrees." ,required=true )  @Valid @RequestBody MinMaxElevationQuery minMaxElevationQuery) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -100,7 +101,7 @@ public interface MinMaxElevationApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.context.request.NativeWebRequest;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.exceptions.ApplicationException;
 import mil.nga.elevation.services.ElevationExtremesService;
+import mil.nga.elevation.services.RequestExecutors;
 import mil.nga.elevation.utils.ConversionUtils;
 import mil.nga.elevation_services.model.Error;
 import mil.nga.elevation_services.model.MinMaxElevationQuery;
@@ -37,6 +39,12 @@ public class MinMaxElevationApiController implements MinMaxElevationApi {
     @Autowired
     ElevationExtremesService minMaxService;
     
+    /**
+     * Manually added auto-wired reference to the request executors.
+     */
+    @Autowired
+    RequestExecutors executors;
+    
     private final NativeWebRequest request;
 
     @Autowired
@@ -49,6 +57,20 @@ public class MinMaxElevationApiController implements MinMaxElevationApi {
         return Optional.ofNullable(request);
     }
 
+    /**
+     * Asynchronous <code>MinMaxElevation</code> HTTP POST end point.  The 
+     * request is processed on the CPU request pool.
+     * 
+     * @param minMaxElevationQuery Deserialized query parameters.
+     */
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> getMinMaxElevationPOST(
+            MinMaxElevationQuery minMaxElevationQuery) {
+        return executors.supplyCPU(() -> processMinMaxElevationPOST(minMaxElevationQuery))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "MinMaxElevation POST", t));
+    }
+    
     /**
      * Method manually added to generated stub providing the response 
      * associated with calls to the <code>MinMaxElevation<code> end point when 
@@ -56,8 +78,7 @@ public class MinMaxElevationApiController implements MinMaxElevationApi {
      * 
      * @param minMaxElevationQuery Deserialized query parameters.
      */
-    @Override
-    public ResponseEntity<Object> getMinMaxElevationPOST(
+    private ResponseEntity<Object> processMinMaxElevationPOST(
             MinMaxElevationQuery minMaxElevationQuery) {
         
         String                  arguments = ConversionUtils.toString(minMaxElevationQuery);
@@ -94,6 +115,25 @@ public class MinMaxElevationApiController implements MinMaxElevationApi {
         return new ResponseEntity<Object>(response, HttpStatus.OK);
     }
     
+    /**
+     * Asynchronous <code>MinMaxElevation</code> HTTP GET end point.  The 
+     * request is processed on the CPU request pool.
+     */
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> getMinMaxElevationGET(
+            String lllon,
+            String lllat,
+            String urlon,
+            String urlat,
+            String heightType,
+            String referenceEllipsoid,
+            String source,
+            String operation) {
+        return executors.supplyCPU(() -> processMinMaxElevationGET(lllon, lllat, urlon, urlat, heightType, referenceEllipsoid, source, operation))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "MinMaxElevation GET", t));
+    }
+    
     /**
      * Method manually added to generated stub providing the response 
      * associated with calls to the MinMaxElevation end point when called with
@@ -107,8 +147,7 @@ public class MinMaxElevationApiController implements MinMaxElevationApi {
      * @param source The source DEM type.
      * @return A concatenated String of the input function arguments.
      */
-    @Override
-    public ResponseEntity<Object> getMinMaxElevationGET(
+    private ResponseEntity<Object> processMinMaxElevationGET(
             String lllon,
             String lllat,
             String urlon,
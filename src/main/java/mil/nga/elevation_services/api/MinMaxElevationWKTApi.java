@@ -29,6 +29,7 @@ import javax.validation.constraints.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 @javax.annotation.Generated(value = "org.openapitools.codegen.languages.SpringCodegen", date = "2020-04-07T08:48:31.266-05:00[America/Chicago]")
 
 @Validated
@@ -57,7 +58,7 @@ public interface MinMaxElevationWKTApi {
     @RequestMapping(value = "/MinMaxElevationWKT",
         produces = { "application/json" }, 
         method = RequestMethod.GET)
-    default ResponseEntity<Object> getMinMaxElevationWKTGET(@NotNull @ApiParam(value = "A well known text String.", required = true) @Valid @RequestParam(value = "wkt", required = true) String wkt,@ApiParam(value = "The output units for the elevation height data.", allowableValues = "FEET, METERS", defaultValue = "METERS") @Valid @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,@ApiParam(value = "The Earth model reference (geoid or ellipsoid) the height is associated with", allowableValues = "EGM96, WGS84", defaultValue = "EGM96") @Valid @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,@ApiParam(value = "The source DEM type to use for calculating the elevation height data.", allowableValues = "DTED2, DTED1, DTED0, SRTM2, SRTM1, SRTM2F, SRTM1F, BEST", defaultValue = "DTED0") @Valid @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,@ApiParam(value = "This parameter is no longer used.") @Valid @RequestParam(value = "operation", required = false) String operation) {
+    default CompletableFuture<ResponseEntity<Object>> getMinMaxElevationWKTGET(@NotNull @ApiParam(value = "A well known text String.", required = true) @Valid @RequestParam(value = "wkt", required = true) String wkt,@ApiParam(value = "The output units for the elevation height data.", allowableValues = "FEET, METERS", defaultValue = "METERS") @Valid @RequestParam(value = "heightType", required = false, defaultValue="METERS") String heightType,@ApiParam(value = "The Earth model reference (geoid or ellipsoid) the height is associated with", allowableValues = "EGM96, WGS84", defaultValue = "EGM96") @Valid @RequestParam(value = "referenceEllipsoid", required = false, defaultValue="EGM96") String referenceEllipsoid,@ApiParam(value = "The source DEM type to use for calculating the elevation height data.", allowableValues = "DTED2, DTED1, DTED0, SRTM2, SRTM1, SRTM2F, SRTM1F, BEST", defaultValue = "DTED0") @Valid @RequestParam(value = "source", required = false, defaultValue="DTED0") String source,@ApiParam(value = "This parameter is no longer used.") @Valid @RequestParam(value = "operation", required = false) String operation) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -67,7 +68,7 @@ public interface MinMaxElevationWKTApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
@@ -87,7 +88,7 @@ public interface MinMaxElevationWKTApi {
         produces = { "application/json" }, 
         consumes = { "application/json" },
         method = RequestMethod.POST)
-    default ResponseEntity<Object> getMinMaxElevationWKTPOST(@ApiParam(value = "A well known text" ,required=true )  @Valid @RequestBody MinMaxElevationQueryWKT minMaxElevationQueryWKT) {
+    default CompletableFuture<ResponseEntity<Object>> getMinMaxElevationWKTPOST(@ApiParam(value = "A well known text" ,required=true )  @Valid @RequestBody MinMaxElevationQueryWKT minMaxElevationQueryWKT) {
         getRequest().ifPresent(request -> {
             for (MediaType mediaType: MediaType.parseMediaTypes(request.getHeader("Accept"))) {
                 if (mediaType.isCompatibleWith(MediaType.valueOf("application/json"))) {
@@ -97,7 +98,7 @@ public interface MinMaxElevationWKTApi {
                 }
             }
         });
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED));
 
     }
 
@@ -1,6 +1,7 @@
 package mil.nga.elevation_services.api;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.exceptions.ApplicationException;
 import mil.nga.elevation.services.ElevationExtremesServiceWKT;
+import mil.nga.elevation.services.RequestExecutors;
 import mil.nga.elevation.utils.ConversionUtils;
 import mil.nga.elevation_services.model.Error;
 import mil.nga.elevation_services.model.MinMaxElevationQueryWKT;
@@ -39,6 +41,12 @@ public class MinMaxElevationWKTApiController implements MinMaxElevationWKTApi {
     @Autowired
     ElevationExtremesServiceWKT minMaxServiceWKT;
     
+    /**
+     * Manually added auto-wired reference to the request executors.
+     */
+    @Autowired
+    RequestExecutors executors;
+    
     private final NativeWebRequest request;
 
     @Autowired
@@ -51,6 +59,20 @@ public class MinMaxElevationWKTApiController implements MinMaxElevationWKTApi {
         return Optional.ofNullable(request);
     }
     
+    /**
+     * Asynchronous <code>MinMaxElevationWKT</code> HTTP POST end point.  
+     * The request is processed on the CPU request pool.
+     * 
+     * @param minMaxElevationQueryWKT Deserialized query parameters.
+     */
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> getMinMaxElevationWKTPOST(
+            MinMaxElevationQueryWKT minMaxElevationQueryWKT) {
+        return executors.supplyCPU(() -> processMinMaxElevationWKTPOST(minMaxElevationQueryWKT))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "MinMaxElevationWKT POST", t));
+    }
+    
     /**
      * Method manually added to generated stub providing the response 
      * associated with calls to the <code>MinMaxElevationWKT<code> end point 
@@ -58,8 +80,7 @@ public class MinMaxElevationWKTApiController implements MinMaxElevationWKTApi {
      * 
      * @param minMaxElevationQueryWKT Deserialized query parameters.
      */
-    @Override
-    public ResponseEntity<Object> getMinMaxElevationWKTPOST(
+    private ResponseEntity<Object> processMinMaxElevationWKTPOST(
             MinMaxElevationQueryWKT minMaxElevationQueryWKT) {
         
         String                  arguments = ConversionUtils.toString(minMaxElevationQueryWKT);
@@ -96,6 +117,22 @@ public class MinMaxElevationWKTApiController implements MinMaxElevationWKTApi {
         return new ResponseEntity<Object>(response, HttpStatus.OK);
     }
     
+    /**
+     * Asynchronous <code>MinMaxElevationWKT</code> HTTP GET end point.  
+     * The request is processed on the CPU request pool.
+     */
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> getMinMaxElevationWKTGET(
+            String wkt,
+            String units,
+            String referenceEllipsoid,
+            String source,
+            String operation) {
+        return executors.supplyCPU(() -> processMinMaxElevationWKTGET(wkt, units, referenceEllipsoid, source, operation))
+                .exceptionally(t -> AsyncResponses.toErrorResponse(
+                        "MinMaxElevationWKT GET", t));
+    }
+    
     /**
      * Method manually added to generated stub providing the response 
      * associated with calls to the <code>MinMaxElevationWKT<code> end point 
@@ -107,8 +144,7 @@ public class MinMaxElevationWKTApiController implements MinMaxElevationWKTApi {
      * backing elevation data.
      * @param operation Not used.
      */
-    @Override
-    public ResponseEntity<Object> getMinMaxElevationWKTGET( 
+    private ResponseEntity<Object> processMinMaxElevationWKTGET( 
             String wkt,
             String units,
             String referenceEllipsoid,
@@ -34,6 +34,9 @@ public class ElevationQuery   {
   @JsonProperty("source")
   private TerrainDataFileType source = TerrainDataFileType.DTED0;
 
+  @JsonProperty("interpolation")
+  private InterpolationType interpolation = InterpolationType.BILINEAR;
+
   public ElevationQuery coordinates(List<CoordinateType> coordinates) {
     this.coordinates = coordinates;
     return this;
@@ -126,6 +129,27 @@ public class ElevationQuery   {
     this.source = source;
   }
 
+  public ElevationQuery interpolation(InterpolationType interpolation) {
+    this.interpolation = interpolation;
+    return this;
+  }
+
+  /**
+   * Get interpolation
+   * @return interpolation
+  */
+  @ApiModelProperty(value = "")
+
+  @Valid
+
+  public InterpolationType getInterpolation() {
+    return interpolation;
+  }
+
+  public void setInterpolation(InterpolationType interpolation) {
+    this.interpolation = interpolation;
+  }
+
 
   @Override
   public boolean equals(java.lang.Object o) {
@@ -139,12 +163,13 @@ public class ElevationQuery   {
     return Objects.equals(this.coordinates, elevationQuery.coordinates) &&
         Objects.equals(this.heightType, elevationQuery.heightType) &&
         Objects.equals(this.earthModelType, elevationQuery.earthModelType) &&
-        Objects.equals(this.source, elevationQuery.source);
+        Objects.equals(this.source, elevationQuery.source) &&
+        Objects.equals(this.interpolation, elevationQuery.interpolation);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(coordinates, heightType, earthModelType, source);
+    return Objects.hash(coordinates, heightType, earthModelType, source, interpolation);
   }
 
   @Override
@@ -156,6 +181,7 @@ public class ElevationQuery   {
     sb.append("    heightType: ").append(toIndentedString(heightType)).append("\n");
     sb.append("    earthModelType: ").append(toIndentedString(earthModelType)).append("\n");
     sb.append("    source: ").append(toIndentedString(source)).append("\n");
+    sb.append("    interpolation: ").append(toIndentedString(interpolation)).append("\n");
     sb.append("}");
     return sb.toString();
   }
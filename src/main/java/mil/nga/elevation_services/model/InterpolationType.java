@@ -0,0 +1,48 @@
+package mil.nga.elevation_services.model;
+
+import java.util.Objects;
+import io.swagger.annotations.ApiModel;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.openapitools.jackson.nullable.JsonNullable;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Interpolation Method:   * NEAREST - Value of the nearest elevation post.   * BILINEAR - Bilinear interpolation of the four surrounding posts (default).   * BICUBIC - Bicubic (Catmull-Rom) interpolation of the sixteen surrounding posts.
+ */
+public enum InterpolationType {
+  
+  NEAREST("NEAREST"),
+  
+  BILINEAR("BILINEAR"),
+  
+  BICUBIC("BICUBIC");
+
+  private String value;
+
+  InterpolationType(String value) {
+    this.value = value;
+  }
+
+  @JsonValue
+  public String getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(value);
+  }
+
+  @JsonCreator
+  public static InterpolationType fromValue(String value) {
+    for (InterpolationType b : InterpolationType.values()) {
+      if (b.value.equals(value)) {
+        return b;
+      }
+    }
+    throw new IllegalArgumentException("Unexpected value '" + value + "'");
+  }
+}
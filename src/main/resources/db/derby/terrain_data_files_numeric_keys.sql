@@ -0,0 +1,27 @@
+-- Adds the integer lat/lon and normalised source type columns to an
+-- existing TERRAIN_DATA_FILES table, back-fills them from the string
+-- TYP/LAT/LON columns and creates the composite lookup indexes.  New
+-- rows written by DataSQLGenerator already contain the columns.
+--
+-- Derby: run once with ij against the elevation database.
+
+ALTER TABLE TERRAIN_DATA_FILES ADD COLUMN SOURCE_TYPE VARCHAR(10);
+ALTER TABLE TERRAIN_DATA_FILES ADD COLUMN LAT_DEG INTEGER;
+ALTER TABLE TERRAIN_DATA_FILES ADD COLUMN LON_DEG INTEGER;
+
+UPDATE TERRAIN_DATA_FILES SET
+    LAT_DEG = CASE LOWER(SUBSTR(TRIM(LAT), 1, 1))
+                  WHEN 'n' THEN  CAST(SUBSTR(TRIM(LAT), 2) AS INTEGER)
+                  WHEN 's' THEN -CAST(SUBSTR(TRIM(LAT), 2) AS INTEGER)
+              END,
+    LON_DEG = CASE LOWER(SUBSTR(TRIM(LON), 1, 1))
+                  WHEN 'e' THEN  CAST(SUBSTR(TRIM(LON), 2) AS INTEGER)
+                  WHEN 'w' THEN -CAST(SUBSTR(TRIM(LON), 2) AS INTEGER)
+              END;
+
+UPDATE TERRAIN_DATA_FILES SET SOURCE_TYPE = UPPER(TRIM(TYP))
+    WHERE UPPER(TRIM(TYP)) IN
+        ('DTED0', 'DTED1', 'DTED2', 'SRTM1', 'SRTM2', 'SRTM1F', 'SRTM2F');
+
+CREATE INDEX TDF_SRC_LAT_LON_BEST ON TERRAIN_DATA_FILES (SOURCE_TYPE, LAT_DEG, LON_DEG, BEST);
+CREATE INDEX TDF_LAT_LON_BEST ON TERRAIN_DATA_FILES (LAT_DEG, LON_DEG, BEST);
@@ -0,0 +1,32 @@
+-- Adds the integer lat/lon and normalised source type columns to an
+-- existing TERRAIN_DATA_FILES table, back-fills them from the string
+-- TYP/LAT/LON columns and creates the composite lookup indexes.  New
+-- rows written by DataSQLGenerator already contain the columns.
+--
+-- Oracle: run once with SQL*Plus as the schema owner.
+
+ALTER TABLE TERRAIN_DATA_FILES ADD (
+    SOURCE_TYPE VARCHAR2(10),
+    LAT_DEG     NUMBER(3),
+    LON_DEG     NUMBER(4));
+
+UPDATE TERRAIN_DATA_FILES SET
+    LAT_DEG = CASE LOWER(SUBSTR(TRIM(LAT), 1, 1))
+                  WHEN 'n' THEN  TO_NUMBER(SUBSTR(TRIM(LAT), 2))
+                  WHEN 's' THEN -TO_NUMBER(SUBSTR(TRIM(LAT), 2))
+              END,
+    LON_DEG = CASE LOWER(SUBSTR(TRIM(LON), 1, 1))
+                  WHEN 'e' THEN  TO_NUMBER(SUBSTR(TRIM(LON), 2))
+                  WHEN 'w' THEN -TO_NUMBER(SUBSTR(TRIM(LON), 2))
+              END;
+
+UPDATE TERRAIN_DATA_FILES SET SOURCE_TYPE = UPPER(TRIM(TYP))
+    WHERE UPPER(TRIM(TYP)) IN
+        ('DTED0', 'DTED1', 'DTED2', 'SRTM1', 'SRTM2', 'SRTM1F', 'SRTM2F');
+
+COMMIT;
+
+CREATE INDEX TDF_SRC_LAT_LON_BEST ON TERRAIN_DATA_FILES (SOURCE_TYPE, LAT_DEG, LON_DEG, BEST);
+CREATE INDEX TDF_LAT_LON_BEST ON TERRAIN_DATA_FILES (LAT_DEG, LON_DEG, BEST);
+
+EXEC DBMS_STATS.GATHER_TABLE_STATS(USER, 'TERRAIN_DATA_FILES');
@@ -0,0 +1,175 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Test utility used to generate small, synthetic DTED cells so that the
+ * DTED readers can be exercised without access to real terrain data.  The
+ * generated files contain the UHL, DSI and ACC header records followed by
+ * the longitude column data records (including checksums).
+ */
+public class DTEDTestFixture {
+
+    /**
+     * Callback used to supply the elevation value for each post.
+     */
+    public interface PostFunction {
+        short elevationAt(int column, int row);
+    }
+
+    /**
+     * Generate a DTED cell covering the one degree square with the input
+     * southwest corner.
+     *
+     * @param path Output file path.
+     * @param lat Southwest corner latitude (integer degrees).
+     * @param lon Southwest corner longitude (integer degrees).
+     * @param numPosts The number of posts in each direction (e.g. 121 for
+     * DTED0, 1201 for DTED1).  Must evenly divide 36000 tenths of seconds
+     * when reduced by one.
+     * @param function Function supplying the elevation posts.
+     * @return The input path.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public static Path write(
+            Path path,
+            int lat,
+            int lon,
+            int numPosts,
+            PostFunction function) throws IOException {
+        return write(path, lat, lon, numPosts, 36000 / (numPosts - 1), function);
+    }
+
+    /**
+     * Generate a DTED cell with an explicit post interval.  Used to
+     * generate cells that do not repeat the shared north and east edge
+     * posts (e.g. 120 posts at an interval of 300).
+     *
+     * @param path Output file path.
+     * @param lat Southwest corner latitude (integer degrees).
+     * @param lon Southwest corner longitude (integer degrees).
+     * @param numPosts The number of posts in each direction.
+     * @param interval The post interval in tenths of arc seconds.
+     * @param function Function supplying the elevation posts.
+     * @return The input path.
+     * @throws IOException Thrown if the file cannot be written.
+     */
+    public static Path write(
+            Path path,
+            int lat,
+            int lon,
+            int numPosts,
+            int interval,
+            PostFunction function) throws IOException {
+
+        String latOrigin = String.format("%02d0000%s",
+                Math.abs(lat), (lat < 0 ? "S" : "N"));
+        String lonOrigin = String.format("%03d0000%s",
+                Math.abs(lon), (lon < 0 ? "W" : "E"));
+        String neLat = String.format("%02d0000%s",
+                Math.abs(lat + 1), ((lat + 1) < 0 ? "S" : "N"));
+        String neLon = String.format("%03d0000%s",
+                Math.abs(lon + 1), ((lon + 1) < 0 ? "W" : "E"));
+        String count = String.format("%04d", numPosts);
+        String step  = String.format("%04d", interval);
+
+        byte[] uhl = blank(80);
+        put(uhl, 0,  "UHL1");
+        put(uhl, 4,  lonOrigin);
+        put(uhl, 12, "0" + latOrigin);
+        put(uhl, 20, step);
+        put(uhl, 24, step);
+        put(uhl, 28, "0030");
+        put(uhl, 32, "U  ");
+        put(uhl, 47, count);
+        put(uhl, 51, count);
+        put(uhl, 55, "0");
+
+        byte[] dsi = blank(648);
+        put(dsi, 0,   "DSIU");
+        put(dsi, 59,  "DTED1");
+        put(dsi, 87,  "01");
+        put(dsi, 89,  "A");
+        put(dsi, 102, "USA     ");
+        put(dsi, 135, "00");
+        put(dsi, 141, "E96");
+        put(dsi, 144, "WGS84");
+        put(dsi, 185, latOrigin.substring(0, 6) + ".0" + latOrigin.substring(6));
+        put(dsi, 194, lonOrigin.substring(0, 7) + ".0" + lonOrigin.substring(7));
+        put(dsi, 204, latOrigin);
+        put(dsi, 211, lonOrigin);
+        put(dsi, 219, neLat);
+        put(dsi, 226, lonOrigin);
+        put(dsi, 234, neLat);
+        put(dsi, 241, neLon);
+        put(dsi, 249, latOrigin);
+        put(dsi, 256, neLon);
+        put(dsi, 264, "0000000.0");
+        put(dsi, 273, step);
+        put(dsi, 277, step);
+        put(dsi, 281, count);
+        put(dsi, 285, count);
+        put(dsi, 289, "00");
+
+        byte[] acc = blank(2700);
+        put(acc, 0,  "ACC");
+        put(acc, 3,  "0050");
+        put(acc, 7,  "0030");
+        put(acc, 11, "NA  ");
+        put(acc, 15, "0020");
+
+        try (OutputStream out = Files.newOutputStream(path)) {
+            out.write(uhl);
+            out.write(dsi);
+            out.write(acc);
+            ByteBuffer record = ByteBuffer.allocate(12 + (2 * numPosts));
+            for (int column=0; column<numPosts; column++) {
+                record.clear();
+                record.put((byte)0xAA);
+                record.put((byte)((column >> 16) & 0xFF));
+                record.putShort((short)(column & 0xFFFF));
+                record.putShort((short)column);
+                record.putShort((short)0);
+                for (int row=0; row<numPosts; row++) {
+                    record.putShort(encode(function.elevationAt(column, row)));
+                }
+                int checksum = 0;
+                for (int i=0; i<record.position(); i++) {
+                    checksum += record.get(i) & 0xFF;
+                }
+                record.putInt(checksum);
+                out.write(record.array());
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Encode a value in the signed-magnitude format used by DTED.
+     * @param value The elevation value.
+     * @return The signed-magnitude representation.
+     */
+    public static short encode(short value) {
+        if (value < 0) {
+            return (short)(0x8000 | (-value & 0x7FFF));
+        }
+        return value;
+    }
+
+    private static byte[] blank(int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte)' ');
+        return bytes;
+    }
+
+    private static void put(byte[] target, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, target, offset, bytes.length);
+    }
+}
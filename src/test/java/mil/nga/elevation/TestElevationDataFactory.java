@@ -0,0 +1,61 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.elevation.exceptions.InvalidParameterException;
+import mil.nga.elevation.model.ElevationDataPoint;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestElevationDataFactory {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ElevationDataFactory createFactory() throws IOException {
+        String path = DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                38, -77, 121,
+                (column, row) -> (short)(column + (2 * row))).toString();
+        return new ElevationDataFactory.ElevationDataFactoryBuilder()
+                .filePath(path)
+                .earthModel(EarthModelType.EGM96)
+                .sourceType(TerrainDataFileType.DTED0)
+                .build();
+    }
+
+    @Test
+    public void testBatchMatchesSinglePoint()
+            throws IOException, ClassNotFoundException, InvalidParameterException {
+        ElevationDataFactory factory = createFactory();
+        List<GeodeticCoordinate> coords = new ArrayList<GeodeticCoordinate>();
+        for (int i=0; i<25; i++) {
+            coords.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                    .lat(38.95 - (i * 0.037))
+                    .lon(-76.02 - (i * 0.031))
+                    .build());
+        }
+        List<ElevationDataPoint> batch = factory.getElevationsAt(coords);
+        Assert.assertEquals(coords.size(), batch.size());
+        for (int i=0; i<coords.size(); i++) {
+            ElevationDataPoint single = factory.getElevationAt(coords.get(i));
+            Assert.assertEquals(coords.get(i).getLat(), batch.get(i).getLat(), 0.0);
+            Assert.assertEquals(coords.get(i).getLon(), batch.get(i).getLon(), 0.0);
+            Assert.assertEquals(single.getElevation(), batch.get(i).getElevation());
+        }
+    }
+
+    @Test(expected = InvalidParameterException.class)
+    public void testNullCoordinate()
+            throws IOException, ClassNotFoundException, InvalidParameterException {
+        createFactory().getElevationAt(null);
+    }
+}
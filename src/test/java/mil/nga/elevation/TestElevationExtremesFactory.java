@@ -0,0 +1,199 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.elevation.dao.TerrainDataSummary;
+import mil.nga.elevation.model.BoundingBox;
+import mil.nga.elevation.model.MinMaxElevation;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestElevationExtremesFactory {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Synthetic terrain with a number of repeated values so that ties 
+     * are exercised.
+     */
+    private static short terrain(int column, int row) {
+        return (short)(((column * 37) + (row * 11)) % 500 - 100);
+    }
+
+    private ElevationExtremesFactory createFactory() throws IOException {
+        String path = DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                10, 20, 121,
+                TestElevationExtremesFactory::terrain).toString();
+        return new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
+                .filePath(path)
+                .earthModel(EarthModelType.EGM96)
+                .sourceType(TerrainDataFileType.DTED0)
+                .build();
+    }
+
+    /**
+     * Brute force scan testing every post against the bounding box.
+     */
+    private int[] bruteForce(BoundingBox bbox) {
+        double spacing = (double)(float)(300 / 36000.0);
+        int min = Constants.MAX_ELEVATION;
+        int max = Constants.INVALID_ELEVATION_VALUE;
+        for (int col=0; col<121; col++) {
+            double lon = 20.0 + (col * spacing);
+            for (int row=0; row<121; row++) {
+                double lat = 10.0 + (row * spacing);
+                if ((lon >= bbox.getLowerLeftLon()) && 
+                        (lon <= bbox.getUpperRightLon()) &&
+                        (lat >= bbox.getLowerLeftLat()) && 
+                        (lat <= bbox.getUpperRightLat())) {
+                    min = Math.min(min, terrain(col, row));
+                    max = Math.max(max, terrain(col, row));
+                }
+            }
+        }
+        return new int[] { min, max };
+    }
+
+    @Test
+    public void testIndexRange() {
+        double spacing = 0.25;
+        Assert.assertArrayEquals(new int[] { 0, 4 }, 
+                ElevationExtremesFactory.getIndexRange(0.0, spacing, 0.0, 1.0, 5));
+        Assert.assertArrayEquals(new int[] { 1, 2 }, 
+                ElevationExtremesFactory.getIndexRange(0.0, spacing, 0.1, 0.5, 5));
+        Assert.assertArrayEquals(new int[] { 2, 2 }, 
+                ElevationExtremesFactory.getIndexRange(0.0, spacing, 0.5, 0.5, 5));
+        int[] empty = ElevationExtremesFactory.getIndexRange(0.0, spacing, 0.3, 0.4, 5);
+        Assert.assertTrue(empty[0] > empty[1]);
+    }
+
+    @Test
+    public void testBoundingBoxMatchesBruteForce() throws IOException {
+        ElevationExtremesFactory factory = createFactory();
+        double[][] boxes = {
+                { 10.0,   20.0,   11.0,   21.0   },
+                { 10.1,   20.1,   10.5,   20.9   },
+                { 10.25,  20.25,  10.5,   20.5   },
+                { 9.5,    19.5,   10.333, 20.777 },
+                { 10.901, 20.002, 12.0,   22.0   } };
+        for (double[] box : boxes) {
+            BoundingBox bbox = new BoundingBox.BoundingBoxBuilder()
+                    .lowerLeftLat(box[0])
+                    .lowerLeftLon(box[1])
+                    .upperRightLat(box[2])
+                    .upperRightLon(box[3])
+                    .build();
+            int[] expected = bruteForce(bbox);
+            MinMaxElevation minMax = factory.getMinMaxElevation(bbox);
+            Assert.assertEquals(expected[0], minMax.getMinElevation().getElevation());
+            Assert.assertEquals(expected[1], minMax.getMaxElevation().getElevation());
+            Assert.assertTrue(minMax.getMinElevation().getLat() >= box[0]);
+            Assert.assertTrue(minMax.getMaxElevation().getLon() <= box[3]);
+        }
+    }
+
+    @Test
+    public void testNoOverlap() throws IOException {
+        BoundingBox bbox = new BoundingBox.BoundingBoxBuilder()
+                .lowerLeftLat(30.0)
+                .lowerLeftLon(20.0)
+                .upperRightLat(31.0)
+                .upperRightLon(21.0)
+                .build();
+        Assert.assertNull(createFactory().getMinMaxElevation(bbox));
+    }
+
+    @Test
+    public void testSummaryMatchesScan() throws IOException {
+        ElevationExtremesFactory factory = createFactory();
+        TerrainDataSummary summary = factory.getSummary();
+        Assert.assertEquals(121L * 121L, summary.getPostCount());
+        Assert.assertEquals(0L, summary.getVoidCount());
+        Assert.assertEquals("USA", summary.getProducerCode());
+        Assert.assertEquals(50, summary.getAbsHorzAccuracy());
+        Assert.assertTrue(factory.isCurrent(summary));
+
+        MinMaxElevation scanned = factory.getMinMaxElevation();
+        MinMaxElevation summarized = factory.getMinMaxElevation(summary);
+        Assert.assertEquals(scanned.getMinElevation().getElevation(), 
+                summarized.getMinElevation().getElevation());
+        Assert.assertEquals(scanned.getMinElevation().getLat(), 
+                summarized.getMinElevation().getLat(), 0.0);
+        Assert.assertEquals(scanned.getMinElevation().getLon(), 
+                summarized.getMinElevation().getLon(), 0.0);
+        Assert.assertEquals(scanned.getMaxElevation().getElevation(), 
+                summarized.getMaxElevation().getElevation());
+        Assert.assertEquals(scanned.getMaxElevation().getLat(), 
+                summarized.getMaxElevation().getLat(), 0.0);
+        Assert.assertEquals(scanned.getMaxElevation().getLon(), 
+                summarized.getMaxElevation().getLon(), 0.0);
+        Assert.assertEquals(scanned.getMaxElevation().getProducerCode(), 
+                summarized.getMaxElevation().getProducerCode());
+
+        summary.setFileSize(summary.getFileSize() + 1);
+        Assert.assertFalse(factory.isCurrent(summary));
+    }
+
+    @Test
+    public void testSummaryVoidsAndMean() throws IOException {
+        String path = DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                10, 20, 121,
+                (column, row) -> (column == 3) ? 
+                        (short)Constants.INVALID_ELEVATION_VALUE : 
+                        (short)(row % 2)).toString();
+        TerrainDataSummary summary = 
+                new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
+                    .filePath(path)
+                    .sourceType(TerrainDataFileType.DTED0)
+                    .build()
+                    .getSummary();
+        Assert.assertEquals(121L, summary.getVoidCount());
+        Assert.assertEquals(0, summary.getMinElevation());
+        Assert.assertEquals(1, summary.getMaxElevation());
+        Assert.assertEquals(60.0 / 121.0, summary.getMeanElevation(), 1e-9);
+    }
+
+    @Test
+    public void testEllipsoidMatchesPerPost() throws IOException {
+        String path = DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                10, 20, 121,
+                (column, row) -> ((column == 7) && (row == 9)) ? 
+                        (short)Constants.INVALID_ELEVATION_VALUE : 
+                        terrain(column, row)).toString();
+        ElevationExtremesFactory factory = 
+                new ElevationExtremesFactory.ElevationExtremesFactoryBuilder()
+                    .filePath(path)
+                    .earthModel(EarthModelType.WGS84)
+                    .sourceType(TerrainDataFileType.DTED0)
+                    .build();
+        double spacing = (double)(float)(300 / 36000.0);
+        int min = Constants.MAX_ELEVATION;
+        int max = Constants.INVALID_ELEVATION_VALUE;
+        for (int col=0; col<121; col++) {
+            double lon = 20.0 + (col * spacing);
+            for (int row=0; row<121; row++) {
+                double lat = 10.0 + (row * spacing);
+                short post = ((col == 7) && (row == 9)) ? 
+                        (short)Constants.INVALID_ELEVATION_VALUE : 
+                        terrain(col, row);
+                int elevation = factory.getElevation(lat, lon, post);
+                if (elevation != Constants.INVALID_ELEVATION_VALUE) {
+                    min = Math.min(min, elevation);
+                    max = Math.max(max, elevation);
+                }
+            }
+        }
+        MinMaxElevation minMax = factory.getMinMaxElevation();
+        Assert.assertEquals(min, minMax.getMinElevation().getElevation());
+        Assert.assertEquals(max, minMax.getMaxElevation().getElevation());
+    }
+}
@@ -0,0 +1,100 @@
+package mil.nga.elevation;
+
+import java.io.RandomAccessFile;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bbn.openmap.dataAccess.dted.DTEDFrame;
+
+public class TestMappedDTEDFrame {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static short terrain(int column, int row) {
+        return (short)((column * 7) - (row * 3) - 50);
+    }
+
+    private Path createCell(int lat, int lon) throws IOException {
+        return DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                lat, lon, 121,
+                TestMappedDTEDFrame::terrain);
+    }
+
+    @Test
+    public void testHeaders() throws IOException {
+        MappedDTEDFrame frame = new MappedDTEDFrame(
+                createCell(38, -77).toString());
+        Assert.assertEquals(121, frame.getNumLonLines());
+        Assert.assertEquals(121, frame.getNumLatPoints());
+        Assert.assertEquals(300, frame.getLatPostInterval());
+        Assert.assertEquals(300, frame.getLonPostInterval());
+        Assert.assertEquals(38.0f, frame.getSWLat(), 0.0f);
+        Assert.assertEquals(-77.0f, frame.getSWLon(), 0.0f);
+        Assert.assertEquals(39.0f, frame.getNELat(), 0.0f);
+        Assert.assertEquals(-76.0f, frame.getNELon(), 0.0f);
+        Assert.assertEquals("USA", frame.getProducerCode());
+        Assert.assertEquals(50, frame.getAbsHorzAccuracy());
+        Assert.assertEquals(30, frame.getAbsVertAccuracy());
+        Assert.assertEquals(-1, frame.getRelHorzAccuracy());
+        Assert.assertEquals(20, frame.getRelVertAccuracy());
+    }
+
+    @Test
+    public void testSignedMagnitudeDecode() throws IOException {
+        Assert.assertEquals(0, MappedDTEDFrame.decode((short)0));
+        Assert.assertEquals(1234, MappedDTEDFrame.decode((short)1234));
+        Assert.assertEquals(-1, MappedDTEDFrame.decode((short)0x8001));
+        Assert.assertEquals(-50, MappedDTEDFrame.decode(
+                DTEDTestFixture.encode((short)-50)));
+
+        MappedDTEDFrame frame = new MappedDTEDFrame(
+                createCell(38, -77).toString());
+        Assert.assertEquals(terrain(0, 0), frame.getPost(0, 0));
+        Assert.assertEquals(terrain(0, 120), frame.getPost(0, 120));
+        Assert.assertEquals(terrain(120, 3), frame.getPost(120, 3));
+        short[] column = frame.getColumn(17);
+        for (int row=0; row<column.length; row++) {
+            Assert.assertEquals(terrain(17, row), column[row]);
+        }
+    }
+
+    @Test
+    public void testMatchesOpenmap() throws IOException {
+        String path = createCell(-12, 44).toString();
+        MappedDTEDFrame mapped = new MappedDTEDFrame(path);
+        DTEDFrame frame = new DTEDFrame(path, true);
+        Assert.assertTrue(frame.frame_is_valid);
+        for (double lat = -12.0; lat <= -11.0; lat += 0.0137) {
+            for (double lon = 44.0; lon <= 45.0; lon += 0.0211) {
+                Assert.assertEquals(
+                        frame.biLinearInterpElevationAt((float)lat, (float)lon),
+                        mapped.biLinearInterpElevationAt((float)lat, (float)lon));
+            }
+        }
+        Assert.assertEquals(
+                Constants.INVALID_ELEVATION_VALUE,
+                mapped.biLinearInterpElevationAt(10.0f, 44.5f));
+    }
+
+    @Test(expected = IOException.class)
+    public void testChecksumMismatch() throws IOException {
+        Path path = createCell(38, -77);
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+            // Corrupt the first post of the third column.
+            raf.seek(MappedDTEDFrame.DATA_OFFSET
+                    + (2 * (12 + (2 * 121)))
+                    + MappedDTEDFrame.RECORD_HEADER_LENGTH);
+            raf.writeShort(999);
+        }
+        MappedDTEDFrame frame = new MappedDTEDFrame(path.toString());
+        Assert.assertEquals(terrain(0, 0), frame.getPost(0, 0));
+        frame.getPost(2, 5);
+    }
+}
@@ -0,0 +1,125 @@
+package mil.nga.elevation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+public class TestPolygonRasterizer {
+
+    private static final int    NUM_POSTS = 41;
+    private static final double SPACING   = 0.25;
+
+    private static Coordinate[] ring(double... xy) {
+        Coordinate[] ring = new Coordinate[(xy.length / 2) + 1];
+        for (int i=0; i<xy.length; i+=2) {
+            ring[i / 2] = new Coordinate(xy[i], xy[i + 1]);
+        }
+        ring[ring.length - 1] = ring[0];
+        return ring;
+    }
+
+    private static boolean onSegment(Coordinate a, Coordinate b, double x, double y) {
+        double cross = ((b.x - a.x) * (y - a.y)) - ((b.y - a.y) * (x - a.x));
+        return (Math.abs(cross) < 1e-9) &&
+                (x >= Math.min(a.x, b.x)) && (x <= Math.max(a.x, b.x)) &&
+                (y >= Math.min(a.y, b.y)) && (y <= Math.max(a.y, b.y));
+    }
+
+    /**
+     * Brute force even-odd test including the boundary.
+     */
+    private static boolean covers(Coordinate[][] rings, double x, double y) {
+        boolean inside = false;
+        for (Coordinate[] ring : rings) {
+            for (int i=0; i<(ring.length - 1); i++) {
+                Coordinate a = ring[i];
+                Coordinate b = ring[i + 1];
+                if (onSegment(a, b, x, y)) {
+                    return true;
+                }
+                if (((a.y > y) != (b.y > y)) &&
+                        (x < (a.x + ((y - a.y) * (b.x - a.x) / (b.y - a.y))))) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private static void assertMatchesBruteForce(List<Coordinate[][]> polygons) {
+        int[][] spans = PolygonRasterizer.rasterize(
+                polygons, 0.0, 0.0, SPACING, SPACING, NUM_POSTS, NUM_POSTS);
+        long expectedCount = 0;
+        for (int col=0; col<NUM_POSTS; col++) {
+            boolean[] covered = new boolean[NUM_POSTS];
+            if (spans[col] != null) {
+                for (int k=0; k<spans[col].length; k+=2) {
+                    if (k > 0) {
+                        // Spans are sorted and do not touch.
+                        Assert.assertTrue(spans[col][k] > (spans[col][k - 1] + 1));
+                    }
+                    for (int row=spans[col][k]; row<=spans[col][k + 1]; row++) {
+                        covered[row] = true;
+                    }
+                }
+            }
+            for (int row=0; row<NUM_POSTS; row++) {
+                boolean expected = false;
+                for (Coordinate[][] rings : polygons) {
+                    expected |= covers(rings, col * SPACING, row * SPACING);
+                }
+                if (expected) {
+                    expectedCount++;
+                }
+                Assert.assertEquals("col " + col + " row " + row,
+                        expected, covered[row]);
+            }
+        }
+        Assert.assertEquals(expectedCount, PolygonRasterizer.countPosts(spans));
+    }
+
+    @Test
+    public void testConcavePolygon() {
+        // U-shape with post-aligned vertices.
+        assertMatchesBruteForce(Arrays.<Coordinate[][]>asList(new Coordinate[][] {
+                ring(1.0, 1.0, 9.0, 1.0, 9.0, 9.0, 6.0, 9.0,
+                     6.0, 3.0, 4.0, 3.0, 4.0, 9.0, 1.0, 9.0) }));
+    }
+
+    @Test
+    public void testDiagonalPolygon() {
+        // Vertices between posts, clipped by the grid.
+        assertMatchesBruteForce(Arrays.<Coordinate[][]>asList(new Coordinate[][] {
+                ring(-1.1, 5.05, 5.03, -2.2, 12.3, 4.91, 4.97, 11.7) }));
+    }
+
+    @Test
+    public void testPolygonWithHole() {
+        assertMatchesBruteForce(Arrays.<Coordinate[][]>asList(new Coordinate[][] {
+                ring(0.5, 0.5, 9.5, 0.5, 9.5, 9.5, 0.5, 9.5),
+                ring(3.0, 3.0, 7.1, 3.3, 5.0, 7.0) }));
+    }
+
+    @Test
+    public void testMultiPolygon() {
+        // The first two parts overlap; the overlap must not cancel out.
+        List<Coordinate[][]> polygons = new ArrayList<Coordinate[][]>();
+        polygons.add(new Coordinate[][] { ring(0.0, 0.0, 3.0, 0.0, 0.0, 3.0) });
+        polygons.add(new Coordinate[][] { ring(1.0, 1.0, 8.0, 2.5, 5.0, 9.0) });
+        polygons.add(new Coordinate[][] { ring(9.0, 9.0, 10.0, 9.0, 10.0, 10.0) });
+        assertMatchesBruteForce(polygons);
+    }
+
+    @Test
+    public void testOutsideGrid() {
+        int[][] spans = PolygonRasterizer.rasterize(
+                Arrays.<Coordinate[][]>asList(new Coordinate[][] {
+                        ring(20.0, 20.0, 21.0, 20.0, 21.0, 21.0) }),
+                0.0, 0.0, SPACING, SPACING, NUM_POSTS, NUM_POSTS);
+        Assert.assertEquals(0L, PolygonRasterizer.countPosts(spans));
+    }
+}
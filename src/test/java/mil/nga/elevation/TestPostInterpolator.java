@@ -0,0 +1,108 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.elevation_services.model.InterpolationType;
+
+public class TestPostInterpolator implements Constants {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Flat column-major 4x4 grid (elevation = 10 * column + row).
+     */
+    private static short[] plane() {
+        short[] posts = new short[16];
+        for (int c=0; c<4; c++) {
+            for (int r=0; r<4; r++) {
+                posts[(c * 4) + r] = (short)((10 * c) + r);
+            }
+        }
+        return posts;
+    }
+
+    @Test
+    public void testBilinearMatchesFrame() throws IOException {
+        MappedDTEDFrame frame = new MappedDTEDFrame(DTEDTestFixture.write(
+                folder.newFile().toPath(), 38, -77, 121,
+                (column, row) -> (short)((column * 7) % 53 + (row * 3) % 41)).toString());
+        SeamInterpolator seam = new SeamInterpolator(frame, null);
+        PostInterpolator bilinear = new PostInterpolator(InterpolationType.BILINEAR);
+        Random random = new Random(42L);
+        for (int i=0; i<200; i++) {
+            float lat = 38.0f + random.nextFloat();
+            float lon = -77.0f + random.nextFloat();
+            Assert.assertEquals(frame.biLinearInterpElevationAt(lat, lon),
+                    seam.interpolate(lat, lon, bilinear));
+        }
+    }
+
+    @Test
+    public void testBicubicReproducesPlane() {
+        PostInterpolator bicubic = new PostInterpolator(InterpolationType.BICUBIC);
+        Assert.assertEquals(InterpolationType.BICUBIC, bicubic.getType());
+        Assert.assertEquals(16, bicubic.interpolate(plane(), 4, 4, 1.5f, 1.0f));
+        Assert.assertEquals(22, bicubic.interpolate(plane(), 4, 4, 2.0f, 2.0f));
+        Assert.assertEquals(17, bicubic.interpolate(plane(), 4, 4, 1.5f, 2.0f));
+    }
+
+    @Test
+    public void testNearest() throws IOException {
+        PostInterpolator nearest = new PostInterpolator(InterpolationType.NEAREST);
+        Assert.assertEquals(12, nearest.interpolate(plane(), 4, 4, 1.4f, 1.6f));
+        Assert.assertEquals(33, nearest.interpolate(plane(), 4, 4, 2.6f, 2.6f));
+        Assert.assertEquals(33, nearest.interpolate(
+                (column, row) -> (10 * column) + row, 2.6f, 2.6f));
+    }
+
+    @Test
+    public void testNullSelectsBilinear() {
+        PostInterpolator interpolator = new PostInterpolator(null);
+        Assert.assertEquals(InterpolationType.BILINEAR, interpolator.getType());
+        Assert.assertEquals(17, interpolator.interpolate(plane(), 4, 4, 1.5f, 2.0f));
+    }
+
+    @Test
+    public void testEdgesAndOutOfRange() {
+        PostInterpolator bicubic = new PostInterpolator(InterpolationType.BICUBIC);
+        // Taps outside the array are clamped to the edge posts.
+        Assert.assertEquals(0, bicubic.interpolate(plane(), 4, 4, 0.0f, 0.0f));
+        Assert.assertEquals(33, bicubic.interpolate(plane(), 4, 4, 3.0f, 3.0f));
+        Assert.assertEquals(INVALID_ELEVATION_VALUE,
+                bicubic.interpolate(plane(), 4, 4, -0.1f, 1.0f));
+        Assert.assertEquals(INVALID_ELEVATION_VALUE,
+                bicubic.interpolate(plane(), 4, 4, 1.0f, 3.1f));
+    }
+
+    @Test
+    public void testVoidsRenormalised() {
+        short[] posts = plane();
+        posts[(1 * 4) + 1] = (short)INVALID_ELEVATION_VALUE;
+        PostInterpolator bilinear = new PostInterpolator(InterpolationType.BILINEAR);
+        // Remaining posts 12, 21 and 22 with equal weight.
+        Assert.assertEquals(18, bilinear.interpolate(posts, 4, 4, 1.5f, 1.5f));
+        // Void carries no weight when on a post boundary.
+        Assert.assertEquals(22, bilinear.interpolate(posts, 4, 4, 2.0f, 2.0f));
+        // Bicubic falls back on bilinear when a contributing post is void.
+        PostInterpolator bicubic = new PostInterpolator(InterpolationType.BICUBIC);
+        Assert.assertEquals(18, bicubic.interpolate(posts, 4, 4, 1.5f, 1.5f));
+    }
+
+    @Test
+    public void testAllVoid() {
+        short[] posts = new short[16];
+        Arrays.fill(posts, (short)INVALID_ELEVATION_VALUE);
+        for (InterpolationType type : InterpolationType.values()) {
+            Assert.assertEquals(INVALID_ELEVATION_VALUE,
+                    new PostInterpolator(type).interpolate(posts, 4, 4, 1.5f, 1.5f));
+        }
+    }
+}
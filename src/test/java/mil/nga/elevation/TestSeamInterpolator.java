@@ -0,0 +1,87 @@
+package mil.nga.elevation;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSeamInterpolator {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, String> paths = new HashMap<String, String>();
+
+    private MappedDTEDFrame primary;
+
+    /**
+     * Four cells sharing a continuous surface (elevation = column + 2 * row
+     * in global post coordinates).  The primary cell at (38, -77) does not
+     * repeat the north and east edge posts.
+     */
+    @Before
+    public void setUp() throws IOException {
+        primary = new MappedDTEDFrame(DTEDTestFixture.write(
+                folder.newFile().toPath(), 38, -77, 120, 300,
+                (column, row) -> (short)(column + (2 * row))).toString());
+        addCell(39, -77, 0, 120);
+        addCell(38, -76, 120, 0);
+        addCell(39, -76, 120, 120);
+    }
+
+    private void addCell(int lat, int lon, int columnOffset, int rowOffset)
+            throws IOException {
+        paths.put(lat + "," + lon, DTEDTestFixture.write(
+                folder.newFile().toPath(), lat, lon, 121,
+                (column, row) -> (short)(column + columnOffset +
+                        (2 * (row + rowOffset)))).toString());
+    }
+
+    private SeamInterpolator create() {
+        return new SeamInterpolator(primary, (lat, lon) -> paths.get(lat + "," + lon));
+    }
+
+    @Test
+    public void testInteriorMatchesFrame() throws IOException {
+        SeamInterpolator interpolator = create();
+        for (int i=0; i<50; i++) {
+            float lat = 38.0f + (i * 0.0197f);
+            float lon = -77.0f + (i * 0.0193f);
+            Assert.assertEquals(primary.biLinearInterpElevationAt(lat, lon),
+                    interpolator.biLinearInterpElevationAt(lat, lon));
+        }
+        Assert.assertEquals(0, interpolator.getSeamPointCount());
+        Assert.assertEquals(0, interpolator.getNeighbourCount());
+    }
+
+    @Test
+    public void testNorthEastSeams() throws IOException {
+        SeamInterpolator interpolator = create();
+        // North seam: row index 119.4, column 60.
+        Assert.assertEquals(299,
+                interpolator.biLinearInterpElevationAt(38.995f, -76.5f));
+        // East seam: column index 119.4, row 60.
+        Assert.assertEquals(239,
+                interpolator.biLinearInterpElevationAt(38.5f, -76.005f));
+        // Corner: column 119.4, row 119.4
+        Assert.assertEquals(358,
+                interpolator.biLinearInterpElevationAt(38.995f, -76.005f));
+        Assert.assertEquals(3, interpolator.getSeamPointCount());
+        Assert.assertEquals(3, interpolator.getNeighbourCount());
+    }
+
+    @Test
+    public void testMissingNeighbourUsesEdge() throws IOException {
+        SeamInterpolator interpolator = new SeamInterpolator(primary, null);
+        // Posts beyond the edge fall back to row 119.
+        Assert.assertEquals(60 + 238,
+                interpolator.biLinearInterpElevationAt(38.995f, -76.5f));
+        Assert.assertEquals(Constants.INVALID_ELEVATION_VALUE,
+                interpolator.biLinearInterpElevationAt(40.5f, -76.5f));
+    }
+}
@@ -0,0 +1,64 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.elevation.DTEDTestFixture;
+
+public class TestFrameCache {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path createCell(int lat, int lon) throws IOException {
+        return DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                lat, lon, 121,
+                (column, row) -> (short)(column + row));
+    }
+
+    @Test
+    public void testSharedFrame() throws IOException {
+        FrameCache cache = new FrameCache(Long.MAX_VALUE);
+        String path = createCell(10, 20).toString();
+        CachedDTEDFrame frame = cache.getFrame(path);
+        Assert.assertSame(frame, cache.getFrame(path));
+        Assert.assertSame(frame, cache.getFrameIfPresent(path));
+        Assert.assertEquals(1, cache.getLoadCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testChangedFileIsReloaded() throws IOException {
+        FrameCache cache = new FrameCache(Long.MAX_VALUE);
+        Path path = createCell(10, 20);
+        CachedDTEDFrame frame = cache.getFrame(path.toString());
+        Files.setLastModifiedTime(path, FileTime.fromMillis(
+                Files.getLastModifiedTime(path).toMillis() + 60000L));
+        Assert.assertNull(cache.getFrameIfPresent(path.toString()));
+        Assert.assertEquals(1, cache.getStaleCount());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0L, cache.getCurrentBytes());
+        CachedDTEDFrame reloaded = cache.getFrame(path.toString());
+        Assert.assertNotSame(frame, reloaded);
+        Assert.assertEquals(2, cache.getLoadCount());
+        Assert.assertSame(reloaded, cache.getFrame(path.toString()));
+    }
+
+    @Test
+    public void testDeletedFileIsDropped() throws IOException {
+        FrameCache cache = new FrameCache(Long.MAX_VALUE);
+        Path path = createCell(10, 20);
+        cache.getFrame(path.toString());
+        Files.delete(path);
+        Assert.assertNull(cache.getFrameIfPresent(path.toString()));
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,98 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.elevation.DTEDTestFixture;
+import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation_services.model.HeightUnitType;
+
+public class TestFrameMetadata {
+
+    private static final double SPACING = (double)(float)(300 / 36000.0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path createCell(int lat, int lon) throws IOException {
+        return DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                lat, lon, 121,
+                (column, row) -> (short)(column + row));
+    }
+
+    @Test
+    public void testHeaders() throws IOException {
+        FrameMetadata metadata = FrameMetadata.read(createCell(10, 20).toString());
+        Assert.assertEquals(10.0, metadata.getOriginLat(), 0.0);
+        Assert.assertEquals(20.0, metadata.getOriginLon(), 0.0);
+        Assert.assertEquals(SPACING, metadata.getLatSpacing(), 0.0);
+        Assert.assertEquals(SPACING, metadata.getLonSpacing(), 0.0);
+        Assert.assertEquals(121, metadata.getNumLonLines());
+        Assert.assertEquals(121, metadata.getNumLatPoints());
+        Assert.assertEquals("USA", metadata.getProducerCode());
+
+        DEMFrameAccuracy accuracy = metadata.getAccuracy(HeightUnitType.METERS);
+        Assert.assertEquals(50, accuracy.getAbsHorzAccuracy());
+        Assert.assertEquals(30, accuracy.getAbsVertAccuracy());
+        Assert.assertEquals(-1, accuracy.getRelHorzAccuracy());
+        Assert.assertEquals(20, accuracy.getRelVertAccuracy());
+    }
+
+    @Test
+    public void testIndexRanges() throws IOException {
+        FrameMetadata metadata = FrameMetadata.read(createCell(10, 20).toString());
+        Assert.assertArrayEquals(new int[] { 0, 120 },
+                metadata.getColumnRange(19.0, 22.0));
+        Assert.assertArrayEquals(new int[] { 13, 23 },
+                metadata.getRowRange(10.105, 10.195));
+        int[] empty = metadata.getColumnRange(20.001, 20.002);
+        Assert.assertTrue(empty[0] > empty[1]);
+    }
+
+    @Test
+    public void testInvalidHeader() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[4096]);
+        try {
+            FrameMetadata.read(path.toString());
+            Assert.fail("Expected an IOException.");
+        }
+        catch (IOException ioe) { }
+    }
+
+    @Test
+    public void testCacheDetectsReplacedFile() throws IOException {
+        FrameMetadataCache cache = FrameMetadataCache.getInstance();
+        Path               path  = createCell(10, 20);
+        String             file  = path.toString();
+
+        long misses = cache.getMissCount();
+        long hits   = cache.getHitCount();
+        long stale  = cache.getStaleCount();
+
+        FrameMetadata first = cache.getMetadata(file);
+        Assert.assertEquals(misses + 1, cache.getMissCount());
+        Assert.assertSame(first, cache.getMetadata(file));
+        Assert.assertEquals(hits + 1, cache.getHitCount());
+
+        // Replace the file with a different cell and move the mtime.
+        DTEDTestFixture.write(path, 11, 21, 121, (column, row) -> (short)0);
+        Files.setLastModifiedTime(path,
+                FileTime.fromMillis(first.getLastModified() + 2000L));
+        FrameMetadata second = cache.getMetadata(file);
+        Assert.assertEquals(stale + 1, cache.getStaleCount());
+        Assert.assertEquals(11.0, second.getOriginLat(), 0.0);
+        Assert.assertEquals(21.0, second.getOriginLon(), 0.0);
+
+        cache.invalidate(file);
+        Assert.assertNotSame(second, cache.getMetadata(file));
+    }
+}
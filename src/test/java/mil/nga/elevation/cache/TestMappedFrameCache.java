@@ -0,0 +1,67 @@
+package mil.nga.elevation.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.elevation.DTEDTestFixture;
+import mil.nga.elevation.MappedDTEDFrame;
+
+public class TestMappedFrameCache {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path createCell(int lat, int lon) throws IOException {
+        return DTEDTestFixture.write(
+                folder.newFile().toPath(),
+                lat, lon, 121,
+                (column, row) -> (short)(column + row));
+    }
+
+    @Test
+    public void testSharedFrame() throws IOException {
+        MappedFrameCache cache = new MappedFrameCache(4);
+        String path = createCell(10, 20).toString();
+        MappedDTEDFrame frame = cache.getFrame(path);
+        Assert.assertSame(frame, cache.getFrame(path));
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testChangedFileIsRemapped() throws IOException {
+        MappedFrameCache cache = new MappedFrameCache(4);
+        Path path = createCell(10, 20);
+        MappedDTEDFrame frame = cache.getFrame(path.toString());
+        Files.setLastModifiedTime(path, FileTime.fromMillis(
+                Files.getLastModifiedTime(path).toMillis() + 60000L));
+        MappedDTEDFrame remapped = cache.getFrame(path.toString());
+        Assert.assertNotSame(frame, remapped);
+        Assert.assertEquals(1, cache.getStaleCount());
+        Assert.assertSame(remapped, cache.getFrame(path.toString()));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        MappedFrameCache cache = new MappedFrameCache(1);
+        String first  = createCell(10, 20).toString();
+        String second = createCell(11, 20).toString();
+        cache.getFrame(first);
+        cache.getFrame(second);
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+        // A zero-sized cache never holds on to a frame.
+        MappedFrameCache disabled = new MappedFrameCache(0);
+        Assert.assertNotSame(disabled.getFrame(first), disabled.getFrame(first));
+    }
+}
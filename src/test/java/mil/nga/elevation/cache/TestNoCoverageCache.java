@@ -0,0 +1,92 @@
+package mil.nga.elevation.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestNoCoverageCache {
+
+    /**
+     * Cache with a manually advanced clock.
+     */
+    private static class ManualClockCache extends NoCoverageCache {
+        private long now = 1000L;
+        ManualClockCache(int maxEntries, long ttlMillis) {
+            super(maxEntries, ttlMillis);
+        }
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @Test
+    public void testCellAndSourceKeys() {
+        NoCoverageCache cache = new NoCoverageCache(10, 60000L);
+        cache.recordNoCoverage(-45.5, -150.5, TerrainDataFileType.DTED2);
+        // Any point within the same cell matches.
+        Assert.assertTrue(cache.isNoCoverage(-45.01, -150.99, TerrainDataFileType.DTED2));
+        Assert.assertFalse(cache.isNoCoverage(-44.5, -150.5, TerrainDataFileType.DTED2));
+        Assert.assertFalse(cache.isNoCoverage(-45.5, -150.5, TerrainDataFileType.DTED1));
+        // A null source is treated as BEST.
+        cache.recordNoCoverage(10.0, 10.0, null);
+        Assert.assertTrue(cache.isNoCoverage(10.5, 10.5, TerrainDataFileType.BEST));
+        // Out of range points are never cached.
+        cache.recordNoCoverage(95.0, 10.0, TerrainDataFileType.BEST);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testExpiration() {
+        ManualClockCache cache = new ManualClockCache(10, 500L);
+        cache.recordNoCoverage(0.5, 0.5, TerrainDataFileType.DTED1);
+        cache.now += 499L;
+        Assert.assertTrue(cache.isNoCoverage(0.5, 0.5, TerrainDataFileType.DTED1));
+        cache.now += 1L;
+        Assert.assertFalse(cache.isNoCoverage(0.5, 0.5, TerrainDataFileType.DTED1));
+        Assert.assertEquals(1, cache.getExpiredCount());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictionAndInvalidation() {
+        NoCoverageCache cache = new NoCoverageCache(2, 60000L);
+        cache.recordNoCoverage(1.5, 1.5, TerrainDataFileType.BEST);
+        cache.recordNoCoverage(2.5, 2.5, TerrainDataFileType.BEST);
+        cache.recordNoCoverage(3.5, 3.5, TerrainDataFileType.BEST);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertFalse(cache.isNoCoverage(1.5, 1.5, TerrainDataFileType.BEST));
+        Assert.assertTrue(cache.isNoCoverage(3.5, 3.5, TerrainDataFileType.BEST));
+        cache.invalidateAll();
+        Assert.assertFalse(cache.isNoCoverage(3.5, 3.5, TerrainDataFileType.BEST));
+    }
+
+    /**
+     * A lookup that read the catalog before a reload must not record its 
+     * miss once the reload has invalidated the cache.
+     */
+    @Test
+    public void testStaleGeneration() {
+        NoCoverageCache cache      = new NoCoverageCache(10, 60000L);
+        long            generation = cache.getGeneration();
+        cache.invalidateAll();
+        cache.recordNoCoverage(1.5, 1.5, TerrainDataFileType.BEST, generation);
+        Assert.assertFalse(cache.isNoCoverage(1.5, 1.5, TerrainDataFileType.BEST));
+        Assert.assertEquals(1, cache.getStaleCount());
+        cache.recordNoCoverage(1.5, 1.5, TerrainDataFileType.BEST, 
+                cache.getGeneration());
+        Assert.assertTrue(cache.isNoCoverage(1.5, 1.5, TerrainDataFileType.BEST));
+    }
+
+    @Test
+    public void testDisabled() {
+        NoCoverageCache cache = new NoCoverageCache(0, 60000L);
+        cache.recordNoCoverage(1.5, 1.5, TerrainDataFileType.BEST);
+        Assert.assertFalse(cache.isNoCoverage(1.5, 1.5, TerrainDataFileType.BEST));
+        Assert.assertEquals(0, cache.size());
+    }
+}
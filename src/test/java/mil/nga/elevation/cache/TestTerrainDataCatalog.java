@@ -0,0 +1,141 @@
+package mil.nga.elevation.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.elevation.dao.TerrainDataFile;
+import mil.nga.elevation.utils.CoordinateUtils;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestTerrainDataCatalog {
+
+    private static TerrainDataFile record(
+            String source, double lat, double lon, int quality) {
+        TerrainDataFile record = new TerrainDataFile();
+        record.setSource(source);
+        record.setLat(CoordinateUtils.convertLat(lat));
+        record.setLon(CoordinateUtils.convertLon(lon));
+        record.setQuality(quality);
+        record.setUnixPath("/data/" + source.trim() + "/" + 
+                record.getLon() + "/" + record.getLat() + ".dt");
+        return record;
+    }
+
+    private TerrainDataCatalog createCatalog() {
+        List<TerrainDataFile> records = new ArrayList<TerrainDataFile>();
+        records.add(record("DTED0  ", 66.5, -68.5, 5));
+        records.add(record("DTED2  ", 66.5, -68.5, 1));
+        records.add(record("SRTM1F ", 66.5, -68.5, 3));
+        records.add(record("SRTM1  ", 66.5, -68.5, 4));
+        records.add(record("DTED1  ", -0.5, 0.5, 2));
+        records.add(record("DTED1  ", 89.5, 179.5, 2));
+        records.add(record("DTED1  ", -90.0, -180.0, 2));
+        TerrainDataFile invalid = record("DTED1", 10.0, 10.0, 1);
+        invalid.setLat("x10");
+        records.add(invalid);
+        return new TerrainDataCatalog(records);
+    }
+
+    @Test
+    public void testCellIndex() {
+        Assert.assertEquals(0, TerrainDataCatalog.getCellIndex(-90.0, -180.0));
+        Assert.assertEquals(TerrainDataCatalog.NUM_CELLS - 1, 
+                TerrainDataCatalog.getCellIndex(89.9, 179.9));
+        Assert.assertEquals(-1, TerrainDataCatalog.getCellIndex(90.0, 0.0));
+        Assert.assertEquals(-1, TerrainDataCatalog.getCellIndex(0.0, 180.0));
+        Assert.assertEquals(
+                TerrainDataCatalog.getCellIndex(-1, 0), 
+                TerrainDataCatalog.getCellIndex(-0.5, 0.5));
+    }
+
+    @Test
+    public void testCellLatLon() {
+        for (int lat = -90; lat < 90; lat += 7) {
+            for (int lon = -180; lon < 180; lon += 11) {
+                int index = TerrainDataCatalog.getCellIndex(lat, lon);
+                Assert.assertEquals(lat, TerrainDataCatalog.getCellLat(index));
+                Assert.assertEquals(lon, TerrainDataCatalog.getCellLon(index));
+            }
+        }
+    }
+
+    @Test
+    public void testLookupByIndex() {
+        TerrainDataCatalog catalog = createCatalog();
+        int index = TerrainDataCatalog.getCellIndex(66, -69);
+        Assert.assertSame(
+                catalog.getTerrainDataFiles(66.1, -68.9, TerrainDataFileType.BEST),
+                catalog.getTerrainDataFiles(index, TerrainDataFileType.BEST));
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                index, TerrainDataFileType.DTED2).size());
+        Assert.assertEquals(0, catalog.getTerrainDataFiles(
+                -1, TerrainDataFileType.BEST).size());
+        Assert.assertEquals(0, catalog.getTerrainDataFiles(
+                TerrainDataCatalog.NUM_CELLS, TerrainDataFileType.BEST).size());
+    }
+
+    @Test
+    public void testBestOrdering() {
+        TerrainDataCatalog catalog = createCatalog();
+        Assert.assertEquals(7, catalog.size());
+        List<TerrainDataFile> files = catalog.getTerrainDataFiles(
+                66.1, -68.9, TerrainDataFileType.BEST);
+        Assert.assertEquals(4, files.size());
+        Assert.assertEquals(1, files.get(0).getQuality());
+        Assert.assertEquals(3, files.get(1).getQuality());
+        Assert.assertEquals(4, files.get(2).getQuality());
+        Assert.assertEquals(5, files.get(3).getQuality());
+        List<String> coverage = catalog.getCoverageAvailable(66.1, -68.9);
+        Assert.assertEquals("DTED2  ", coverage.get(0));
+        Assert.assertEquals("DTED0  ", coverage.get(3));
+    }
+
+    @Test
+    public void testSourceMatching() {
+        TerrainDataCatalog catalog = createCatalog();
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                66.1, -68.9, TerrainDataFileType.DTED2).size());
+        // Mirrors the LIKE '%SRTM1%' semantics of the database query.
+        Assert.assertEquals(2, catalog.getTerrainDataFiles(
+                66.1, -68.9, TerrainDataFileType.SRTM1).size());
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                66.1, -68.9, TerrainDataFileType.SRTM1F).size());
+        Assert.assertEquals(0, catalog.getTerrainDataFiles(
+                66.1, -68.9, TerrainDataFileType.DTED1).size());
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                -0.5, 0.5, TerrainDataFileType.DTED1).size());
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                89.5, 179.5, TerrainDataFileType.BEST).size());
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                -90.0, -180.0, TerrainDataFileType.BEST).size());
+        Assert.assertEquals(0, catalog.getTerrainDataFiles(
+                90.0, 0.0, TerrainDataFileType.BEST).size());
+    }
+
+    /**
+     * Sources are matched on the normalised type, as in the database query.
+     */
+    @Test
+    public void testNormalisedSourceMatching() {
+        List<TerrainDataFile> records = new ArrayList<TerrainDataFile>();
+        records.add(record("dted1 ", 10.5, 10.5, 1));
+        records.add(record("Srtm1f", 10.5, 10.5, 2));
+        records.add(record("DTED1X", 10.5, 10.5, 3));
+        TerrainDataCatalog catalog = new TerrainDataCatalog(records);
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                10.5, 10.5, TerrainDataFileType.DTED1).size());
+        Assert.assertEquals(1, catalog.getTerrainDataFiles(
+                10.5, 10.5, TerrainDataFileType.SRTM1).size());
+        Assert.assertEquals(3, catalog.getTerrainDataFiles(
+                10.5, 10.5, TerrainDataFileType.BEST).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        createCatalog().getTerrainDataFiles(
+                66.1, -68.9, TerrainDataFileType.BEST).clear();
+    }
+}
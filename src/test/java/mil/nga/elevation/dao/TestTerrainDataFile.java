@@ -0,0 +1,58 @@
+package mil.nga.elevation.dao;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestTerrainDataFile {
+
+    @Test
+    public void testNumericKeys() {
+        TerrainDataFile record = new TerrainDataFile();
+        record.setLat("s01");
+        record.setLon(" W077 ");
+        record.setSource("SRTM1F  ");
+        Assert.assertEquals(Integer.valueOf(-1), record.getLatDeg());
+        Assert.assertEquals(Integer.valueOf(-77), record.getLonDeg());
+        Assert.assertEquals(TerrainDataFileType.SRTM1F, record.getSourceType());
+
+        record.setLat("x10");
+        record.setSource("UNKNOWN");
+        Assert.assertNull(record.getLatDeg());
+        Assert.assertNull(record.getSourceType());
+    }
+
+    @Test
+    public void testMatchingSourceTypes() {
+        Assert.assertEquals(
+                Arrays.asList(TerrainDataFileType.SRTM1, TerrainDataFileType.SRTM1F),
+                TerrainDataFile.getMatchingSourceTypes(TerrainDataFileType.SRTM1));
+        Assert.assertEquals(
+                Arrays.asList(TerrainDataFileType.DTED2),
+                TerrainDataFile.getMatchingSourceTypes(TerrainDataFileType.DTED2));
+        Assert.assertTrue(TerrainDataFile.getMatchingSourceTypes(
+                TerrainDataFileType.BEST).isEmpty());
+    }
+
+    @Test
+    public void testInsertStatement() {
+        TerrainDataFile record = new TerrainDataFile();
+        record.setRowId("7");
+        record.setSource("dted1");
+        record.setLat("n38");
+        record.setLon("e005");
+        record.setUnixPath("/data/e005/n38.dt1");
+        record.setWindowsPath("/data/e005/n38.dt1");
+        record.setQuality(2);
+        record.setMarking("UNCLASSIFIED");
+        Assert.assertEquals("INSERT INTO TERRAIN_DATA_FILES(ROWID, TYP, LAT, "
+                + "LON, SOURCE_TYPE, LAT_DEG, LON_DEG, WIN_PATH, UNIX_PATH, "
+                + "BEST, MARKING) VALUES ('7', 'dted1', 'n38', 'e005', "
+                + "'DTED1', 38, 5, '/data/e005/n38.dt1', "
+                + "'/data/e005/n38.dt1', 2, 'UNCLASSIFIED');",
+                record.toInsertStatement());
+    }
+}
@@ -0,0 +1,56 @@
+package mil.nga.elevation.egm96;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestGeoidOffsetGrid {
+
+    private void compare(
+            double originLat, 
+            double originLon, 
+            int numPosts) throws ClassNotFoundException, IOException {
+        GeoidHeightFactory factory = GeoidHeightFactory.getInstance();
+        double spacing = (double)(float)((36000 / (numPosts - 1)) / 36000.0);
+        GeoidOffsetGrid offsets = factory.getOffsetGrid(
+                originLat, originLon, spacing, spacing, numPosts, numPosts);
+        Assert.assertEquals(numPosts, offsets.getNumColumns());
+        Assert.assertEquals(numPosts, offsets.getNumRows());
+        for (int col=0; col<numPosts; col++) {
+            double lon = originLon + (col * spacing);
+            for (int row=0; row<numPosts; row++) {
+                double lat = originLat + (row * spacing);
+                Assert.assertEquals(
+                        factory.getHeight(lat, lon), 
+                        offsets.getHeight(col, row), 
+                        0.0);
+                Assert.assertEquals(
+                        (int)factory.getHeight(lat, lon), 
+                        offsets.getOffset(col, row));
+            }
+        }
+        int[] column = new int[numPosts];
+        for (int col=0; col<numPosts; col+=7) {
+            offsets.getOffsets(col, 3, numPosts - 2, column);
+            Assert.assertEquals(0, column[numPosts - 1]);
+            for (int row=3; row<=numPosts-2; row++) {
+                Assert.assertEquals(offsets.getOffset(col, row), column[row]);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesGetHeight() throws ClassNotFoundException, IOException {
+        compare(38.0, -77.0, 121);
+        compare(-12.0, 44.0, 121);
+        compare(51.0, -1.0, 241);
+        compare(-1.0, 178.0, 121);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfRange() throws ClassNotFoundException, IOException {
+        GeoidHeightFactory.getInstance().getOffsetGrid(
+                10.0, 180.0, 0.01, 0.01, 121, 121);
+    }
+}
@@ -0,0 +1,165 @@
+package mil.nga.elevation.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation_services.model.CoordinateType;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.ElevationResponse;
+import mil.nga.elevation_services.model.ElevationType;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.SecurityType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestElevationBatch implements Constants {
+
+    private static DEMFrameAccuracy accuracy(int absHorz) {
+        return new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
+                .absHorzAccuracy(absHorz)
+                .absVertAccuracy(30)
+                .relHorzAccuracy(-1)
+                .relVertAccuracy(20)
+                .build();
+    }
+
+    private static ElevationBatch createBatch() {
+        ElevationBatch batch = new ElevationBatch(
+                3, HeightUnitType.METERS, EarthModelType.EGM96);
+        batch.add(38.5, -77.5, "38.5", "-77.5");
+        batch.add(39.5, -77.5, "39 30 00N", "077 30 00W");
+        batch.add(38.25, -76.75, null, null);
+        int first  = batch.addFrame(TerrainDataFileType.DTED1, accuracy(50),
+                DEFAULT_PRODUCER, "U");
+        int second = batch.addFrame(TerrainDataFileType.DTED2, accuracy(20),
+                "USA", "");
+        batch.setElevation(0, 100, first);
+        batch.setElevation(1, 200, second);
+        batch.setElevation(2, 300, first);
+        return batch;
+    }
+
+    @Test
+    public void testFrameTable() {
+        ElevationBatch batch = createBatch();
+        Assert.assertEquals(3, batch.size());
+        Assert.assertEquals(2, batch.getNumFrames());
+        // Equal values re-use the existing entry.
+        Assert.assertEquals(0, batch.addFrame(TerrainDataFileType.DTED1,
+                accuracy(50), DEFAULT_PRODUCER, "U"));
+        Assert.assertEquals(2, batch.addFrame(TerrainDataFileType.DTED1,
+                accuracy(51), DEFAULT_PRODUCER, "U"));
+        // The table grows past its initial size.
+        for (int i=0; i<10; i++) {
+            Assert.assertEquals(3 + i, batch.addFrame(TerrainDataFileType.DTED0,
+                    accuracy(i), DEFAULT_PRODUCER, null));
+        }
+        Assert.assertEquals(13, batch.getNumFrames());
+        Assert.assertEquals(300, batch.getElevation(2));
+        Assert.assertEquals(TerrainDataFileType.DTED2,
+                batch.getFrameSource(batch.getFrame(1)));
+    }
+
+    @Test
+    public void testSecurity() {
+        ElevationBatch batch = createBatch();
+        Assert.assertEquals("USA", batch.getOwnerProducer());
+        Assert.assertEquals("U", batch.getClassification());
+        // Empty values take the same defaults as ElevationDataPoint.
+        Assert.assertEquals(DEFAULT_CLASSIFICATION_MARKING,
+                batch.getFrameClassificationMarking(1));
+        Assert.assertEquals(DEFAULT_PRODUCER, batch.getFrameProducerCode(
+                batch.addFrame(TerrainDataFileType.DTED0, null, null, null)));
+        ElevationBatch empty = new ElevationBatch(
+                0, HeightUnitType.METERS, EarthModelType.EGM96);
+        Assert.assertEquals("", empty.getOwnerProducer());
+        Assert.assertEquals("", empty.getClassification());
+    }
+
+    @Test
+    public void testGrowth() {
+        ElevationBatch batch = createBatch();
+        String text = "1.5,2.5";
+        for (int i=0; i<40; i++) {
+            Assert.assertEquals(3 + i, batch.add(2.5, 1.5, text, 0, 3, 4, 7));
+        }
+        Assert.assertEquals(43, batch.size());
+        Assert.assertEquals(300, batch.getElevation(2));
+        Assert.assertEquals(ElevationBatch.NOT_EVALUATED, batch.getFrame(42));
+        Assert.assertEquals("2.5", batch.getLatStr(42));
+        Assert.assertEquals("1.5", batch.getLonStr(42));
+        Assert.assertEquals(-1, batch.getLatLength(2));
+    }
+
+    @Test
+    public void testOf() {
+        List<GeodeticCoordinate> coords = Arrays.asList(
+                new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                    .lat("38.5").lon("-77.5").build(),
+                new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                    .lat(10.0).lon(20.0).build());
+        ElevationBatch batch = ElevationBatch.of(
+                coords, HeightUnitType.FEET, EarthModelType.WGS84);
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals("38.5", batch.getLatStr(0));
+        Assert.assertEquals(-77.5, batch.getLon(0), 0.0);
+        Assert.assertNull(batch.getLonStr(1));
+        Assert.assertEquals(ElevationBatch.NOT_EVALUATED, batch.getFrame(1));
+        int frame = batch.addFrame(TerrainDataFileType.DTED0, accuracy(50),
+                DEFAULT_PRODUCER, "U");
+        batch.setElevation(1, 42, frame);
+        // Elevations are recorded in meters and read in the output units.
+        Assert.assertEquals(Constants.convertToFeet(42), batch.getElevation(1));
+        ElevationDataPoint point = batch.toDataPoint(1, coords.get(1));
+        Assert.assertEquals(Constants.convertToFeet(42), point.getElevation());
+        Assert.assertEquals(10.0, point.getLat(), 0.0);
+        Assert.assertEquals(HeightUnitType.FEET, point.getUnits());
+        Assert.assertEquals(EarthModelType.WGS84, point.getEarthModel());
+        Assert.assertEquals(TerrainDataFileType.DTED0, point.getSource());
+        Assert.assertEquals(50, point.getAccuracy().getAbsHorzAccuracy());
+    }
+
+    /**
+     * The batch must serialize to the same JSON as the equivalent
+     * generated response model.
+     */
+    @Test
+    public void testSerializationMatchesResponse() throws Exception {
+        ElevationBatch batch = createBatch();
+        ElevationResponse response = new ElevationResponse();
+        SecurityType security = new SecurityType();
+        security.setClassification("U");
+        security.setOwnerProducer("USA");
+        response.setSecurity(security);
+        response.setHeightType(HeightUnitType.METERS);
+        response.setEarthModelType(EarthModelType.EGM96);
+        List<ElevationType> elevations = new ArrayList<ElevationType>();
+        for (int i=0; i<batch.size(); i++) {
+            DEMFrameAccuracy acc = batch.getFrameAccuracy(batch.getFrame(i));
+            CoordinateType coordinate = new CoordinateType();
+            coordinate.setLat(batch.getLatStr(i) != null ?
+                    batch.getLatStr(i) : String.valueOf(batch.getLat(i)));
+            coordinate.setLon(batch.getLonStr(i) != null ?
+                    batch.getLonStr(i) : String.valueOf(batch.getLon(i)));
+            ElevationType elevation = new ElevationType();
+            elevation.setElevation(batch.getElevation(i));
+            elevation.setAbsHorizontalAccuracy(acc.getAbsHorzAccuracy());
+            elevation.setAbsVerticalAccuracy(acc.getAbsVertAccuracy());
+            elevation.setRelHorizontalAccuracy(acc.getRelHorzAccuracy());
+            elevation.setRelVerticalAccuracy(acc.getRelVertAccuracy());
+            elevation.setSource(batch.getFrameSource(batch.getFrame(i)));
+            elevation.setCoordinate(coordinate);
+            elevations.add(elevation);
+        }
+        response.setElevations(elevations);
+        ObjectMapper mapper = new ObjectMapper();
+        Assert.assertEquals(mapper.writeValueAsString(response),
+                mapper.writeValueAsString(batch));
+    }
+}
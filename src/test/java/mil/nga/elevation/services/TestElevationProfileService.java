@@ -0,0 +1,84 @@
+package mil.nga.elevation.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.model.ElevationDataPoint;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.ElevationProfileResponse;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestElevationProfileService {
+
+    private static List<GeodeticCoordinate> samples(int count) {
+        List<GeodeticCoordinate> samples = new ArrayList<GeodeticCoordinate>();
+        for (int i=0; i<count; i++) {
+            samples.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                    .lon(10.0)
+                    .lat(45.0 + (i * 0.001))
+                    .build());
+        }
+        return samples;
+    }
+
+    private static List<ElevationDataPoint> elevations(
+            HeightUnitType units,
+            int... meters) {
+        List<ElevationDataPoint> points = new ArrayList<ElevationDataPoint>();
+        for (int value : meters) {
+            points.add(new ElevationDataPoint.ElevationDataPointBuilder()
+                    .units(units)
+                    .source(TerrainDataFileType.DTED2)
+                    .elevation(value)
+                    .build());
+        }
+        return points;
+    }
+
+    @Test
+    public void testVoidExcludedMeters() {
+        ElevationProfileResponse response =
+                ElevationProfileService.convertToResponse(
+                        samples(4),
+                        elevations(HeightUnitType.METERS,
+                                100, 150, Constants.INVALID_ELEVATION_VALUE, 120),
+                        HeightUnitType.METERS,
+                        EarthModelType.EGM96);
+        Assert.assertEquals(4, response.getProfile().size());
+        Assert.assertEquals(50, response.getTotalAscent().intValue());
+        Assert.assertEquals(30, response.getTotalDescent().intValue());
+        Assert.assertEquals(100, response.getMinElevation().getElevation().intValue());
+        Assert.assertEquals(150, response.getMaxElevation().getElevation().intValue());
+    }
+
+    /**
+     * The elevations are converted to feet before the statistics are
+     * calculated, so the void must be recognized in feet as well.
+     */
+    @Test
+    public void testVoidExcludedFeet() {
+        ElevationProfileResponse response =
+                ElevationProfileService.convertToResponse(
+                        samples(4),
+                        elevations(HeightUnitType.FEET,
+                                100, 150, Constants.INVALID_ELEVATION_VALUE, 120),
+                        HeightUnitType.FEET,
+                        EarthModelType.EGM96);
+        int low  = Constants.convertToFeet(100);
+        int high = Constants.convertToFeet(150);
+        int last = Constants.convertToFeet(120);
+        Assert.assertEquals(4, response.getProfile().size());
+        Assert.assertEquals(Constants.convertToFeet(Constants.INVALID_ELEVATION_VALUE),
+                response.getProfile().get(2).getElevation().intValue());
+        Assert.assertEquals(high - low, response.getTotalAscent().intValue());
+        Assert.assertEquals(high - last, response.getTotalDescent().intValue());
+        Assert.assertEquals(low, response.getMinElevation().getElevation().intValue());
+        Assert.assertEquals(high, response.getMaxElevation().getElevation().intValue());
+    }
+}
@@ -0,0 +1,143 @@
+package mil.nga.elevation.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+
+public class TestPointBudget {
+
+    private static PointBudget create(int maxPoints, int threshold, int slots) {
+        PointBudget budget = new PointBudget(maxPoints, threshold, 100, slots, 5000L);
+        budget.init();
+        return budget;
+    }
+
+    @Test
+    public void testHardLimit() throws ApplicationException {
+        PointBudget budget = create(1000, 500, 1);
+        budget.admit(1000, "test");
+        try {
+            budget.admit(1001, "test");
+            Assert.fail("Expected the request to be rejected.");
+        }
+        catch (ApplicationException ae) {
+            Assert.assertEquals(ErrorCodes.TOO_MANY_POINTS.getErrorCode(),
+                    ae.getErrorCode());
+        }
+        // Limits less than 1 are disabled
+        create(0, 0, 1).admit(Integer.MAX_VALUE, "test");
+    }
+
+    @Test
+    public void testSoftLimit() {
+        PointBudget budget = create(1000, 500, 1);
+        Assert.assertFalse(budget.isChunked(500));
+        Assert.assertTrue(budget.isChunked(501));
+        Assert.assertEquals(100, budget.getChunkSize());
+        Assert.assertFalse(create(1000, 0, 1).isChunked(1000));
+    }
+
+    @Test
+    public void testDefaultSlots() {
+        PointBudget budget = create(0, 0, 0);
+        Assert.assertEquals(2 * Runtime.getRuntime().availableProcessors(),
+                budget.getAvailableSlots());
+    }
+
+    /**
+     * A chunked request giving up its slot between chunks must be queued
+     * behind a request that was already waiting.
+     */
+    @Test
+    public void testSlotsGrantedInOrder() throws Exception {
+        final PointBudget  budget = create(0, 0, 1);
+        final List<String> order  = Collections.synchronizedList(
+                new ArrayList<String>());
+        budget.acquire("test");
+        Thread waiting = new Thread(() -> {
+            try {
+                budget.acquire("test");
+                order.add("waiting");
+                budget.release();
+            }
+            catch (ApplicationException ae) {
+                order.add("timeout");
+            }
+        });
+        waiting.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((budget.getWaiting() == 0) &&
+                (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(1, budget.getWaiting());
+        // Next chunk
+        budget.release();
+        budget.acquire("test");
+        order.add("chunked");
+        budget.release();
+        waiting.join(5000);
+        Assert.assertEquals(2, order.size());
+        Assert.assertEquals("waiting", order.get(0));
+        Assert.assertEquals(1, budget.getAvailableSlots());
+    }
+
+    /**
+     * Requests that cannot obtain a slot within the timeout are rejected 
+     * as busy rather than waiting indefinitely.
+     */
+    @Test
+    public void testSlotTimeout() throws ApplicationException {
+        PointBudget budget = new PointBudget(0, 0, 100, 1, 50L);
+        budget.init();
+        budget.acquire("test");
+        try {
+            budget.acquire("test");
+            Assert.fail("Expected the slot wait to time out.");
+        }
+        catch (ApplicationException ae) {
+            Assert.assertEquals(ErrorCodes.SERVER_BUSY.getErrorCode(),
+                    ae.getErrorCode());
+        }
+        budget.release();
+        Assert.assertEquals(1, budget.getAvailableSlots());
+    }
+
+    /**
+     * A chunked request waiting for its next slot must not be rejected 
+     * once the slot timeout has passed.
+     */
+    @Test
+    public void testReacquireNotTimed() throws Exception {
+        final PointBudget  budget = new PointBudget(0, 0, 100, 1, 50L);
+        final List<String> result = Collections.synchronizedList(
+                new ArrayList<String>());
+        budget.init();
+        budget.acquire("test");
+        Thread chunked = new Thread(() -> {
+            try {
+                budget.reacquire("test");
+                result.add("acquired");
+                budget.release();
+            }
+            catch (ApplicationException ae) {
+                result.add("timeout");
+            }
+        });
+        chunked.start();
+        // Hold the slot well past the slot timeout.
+        Thread.sleep(250);
+        Assert.assertTrue(result.isEmpty());
+        budget.release();
+        chunked.join(5000);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("acquired", result.get(0));
+        Assert.assertEquals(1, budget.getAvailableSlots());
+    }
+}
@@ -0,0 +1,116 @@
+package mil.nga.elevation.services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+
+public class TestRequestExecutors {
+
+    private RequestExecutors executors;
+    private CountDownLatch   release;
+
+    @Before
+    public void setUp() {
+        // One thread and a single queue slot per pool, 200 ms CPU timeout.
+        executors = new RequestExecutors(1, 1, 0, 1, 1, 200);
+        executors.init();
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executors.destroy();
+    }
+
+    private int block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    private static Integer errorCode(CompletableFuture<?> future)
+            throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected exceptional completion.");
+        }
+        catch (ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof ApplicationException);
+            return ((ApplicationException)ee.getCause()).getErrorCode();
+        }
+        catch (TimeoutException te) {
+            Assert.fail("Future was not completed.");
+        }
+        return null;
+    }
+
+    @Test
+    public void testSupply() throws Exception {
+        CompletableFuture<String> future = executors.supplyIO(() ->
+                Thread.currentThread().getName());
+        Assert.assertTrue(future.get(5, TimeUnit.SECONDS).startsWith("elevation-io-"));
+        future = executors.supplyCPU(() -> Thread.currentThread().getName());
+        Assert.assertTrue(future.get(5, TimeUnit.SECONDS).startsWith("elevation-cpu-"));
+    }
+
+    @Test
+    public void testRejected() throws Exception {
+        executors.supplyIO(this::block);
+        executors.supplyIO(this::block);
+        CompletableFuture<Integer> rejected = executors.supplyIO(this::block);
+        Assert.assertTrue(rejected.isDone());
+        Assert.assertEquals(ErrorCodes.SERVER_BUSY.getErrorCode(), errorCode(rejected));
+        // The CPU pool is independent of the saturated I/O pool.
+        Assert.assertEquals(Integer.valueOf(1),
+                executors.supplyCPU(() -> 1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        CompletableFuture<Integer> running = executors.supplyCPU(this::block);
+        CompletableFuture<Integer> queued  = executors.supplyCPU(() -> {
+            Assert.fail("Timed out task should not run.");
+            return 1;
+        });
+        Assert.assertEquals(ErrorCodes.REQUEST_TIMEOUT.getErrorCode(), errorCode(running));
+        Assert.assertEquals(ErrorCodes.REQUEST_TIMEOUT.getErrorCode(), errorCode(queued));
+    }
+
+    @Test
+    public void testAsyncTimeout() {
+        // The I/O timeout is disabled so there is no container timeout.
+        Assert.assertEquals(0L, executors.getAsyncTimeout());
+        RequestExecutors timed = new RequestExecutors(1, 1, 30000, 1, 1, 120000);
+        Assert.assertEquals(120000L + RequestExecutors.ASYNC_TIMEOUT_MARGIN,
+                timed.getAsyncTimeout());
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        CompletableFuture<Integer> running = executors.supplyIO(this::block);
+        CompletableFuture<Integer> queued  = executors.supplyIO(() -> {
+            Assert.fail("Expired task should not run.");
+            return 1;
+        });
+        Assert.assertTrue(RequestExecutors.expire(queued));
+        Assert.assertFalse(RequestExecutors.expire(queued));
+        Assert.assertEquals(ErrorCodes.REQUEST_TIMEOUT.getErrorCode(), errorCode(queued));
+        release.countDown();
+        Assert.assertEquals(Integer.valueOf(0), running.get(5, TimeUnit.SECONDS));
+    }
+}
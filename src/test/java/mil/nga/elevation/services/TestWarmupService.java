@@ -0,0 +1,44 @@
+package mil.nga.elevation.services;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestWarmupService {
+
+    @Test
+    public void testParseCells() {
+        List<int[]> cells = WarmupService.parseCells(
+                "38,-77; 10,20,11,21 ;bad;1,2,3;38,-77", 64);
+        Assert.assertEquals(5, cells.size());
+        Assert.assertArrayEquals(new int[] { 38, -77 }, cells.get(0));
+        Assert.assertArrayEquals(new int[] { 10, 20 }, cells.get(1));
+        Assert.assertArrayEquals(new int[] { 10, 21 }, cells.get(2));
+        Assert.assertArrayEquals(new int[] { 11, 20 }, cells.get(3));
+        Assert.assertArrayEquals(new int[] { 11, 21 }, cells.get(4));
+    }
+
+    @Test
+    public void testParseCellsLimits() {
+        Assert.assertTrue(WarmupService.parseCells("", 64).isEmpty());
+        Assert.assertTrue(WarmupService.parseCells(null, 64).isEmpty());
+        Assert.assertEquals(3,
+                WarmupService.parseCells("0,0,9,9", 3).size());
+        // Regions are clipped to the valid cells.
+        List<int[]> cells = WarmupService.parseCells("89,179,95,185", 64);
+        Assert.assertEquals(1, cells.size());
+        Assert.assertArrayEquals(new int[] { 89, 179 }, cells.get(0));
+    }
+
+    @Test
+    public void testReadyAfterWarmup() {
+        // No hot cells configured, so only the geoid grid is loaded.
+        WarmupService warmup = new WarmupService();
+        Assert.assertFalse(warmup.isReady());
+        Assert.assertEquals(WarmupService.State.PENDING, warmup.getState());
+        warmup.warmup();
+        Assert.assertTrue(warmup.isReady());
+        Assert.assertEquals(0, warmup.getWarmCells());
+    }
+}
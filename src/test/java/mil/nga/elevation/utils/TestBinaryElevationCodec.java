@@ -0,0 +1,155 @@
+package mil.nga.elevation.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import mil.nga.elevation.Constants;
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.DEMFrameAccuracy;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+
+public class TestBinaryElevationCodec implements Constants {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static void add(ElevationBatch batch, int elevation, int absHorz) {
+        int index = batch.add(0.0, 0.0);
+        batch.setElevation(index, elevation, batch.addFrame(
+                null,
+                new DEMFrameAccuracy.DEMFrameAccuracyBuilder()
+                    .absHorzAccuracy(absHorz)
+                    .absVertAccuracy(30)
+                    .relHorzAccuracy(-1)
+                    .relVertAccuracy(20)
+                    .build(),
+                DEFAULT_PRODUCER,
+                "U"));
+    }
+
+    private static ElevationBatch batch(HeightUnitType units, EarthModelType earthModel) {
+        return new ElevationBatch(1, units, earthModel);
+    }
+
+    @Test
+    public void testCoordinateRoundTrip() throws ApplicationException {
+        List<GeodeticCoordinate> coords = new ArrayList<GeodeticCoordinate>();
+        coords.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                .lon(-77.25).lat(38.5).build());
+        coords.add(new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                .lon(179.999).lat(-89.5).build());
+        byte[] body = BinaryElevationCodec.encodeCoordinates(coords);
+        Assert.assertEquals(32, body.length);
+        // Longitude first, little-endian.
+        Assert.assertEquals(-77.25,
+                ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN).getDouble(), 0.0);
+        ElevationBatch decoded = batch(HeightUnitType.METERS, EarthModelType.EGM96);
+        Assert.assertEquals(2, BinaryElevationCodec.decodeCoordinates(body, decoded));
+        Assert.assertEquals(2, decoded.size());
+        Assert.assertEquals(38.5, decoded.getLat(0), 0.0);
+        Assert.assertEquals(-77.25, decoded.getLon(0), 0.0);
+        Assert.assertEquals(-89.5, decoded.getLat(1), 0.0);
+        Assert.assertEquals(179.999, decoded.getLon(1), 0.0);
+        Assert.assertNull(decoded.getLatStr(0));
+    }
+
+    @Test
+    public void testDecodeCoordinatesPartialPair() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.INVALID_NUMBER_OF_INPUT_COORDINATES.getErrorMessage());
+        BinaryElevationCodec.decodeCoordinates(new byte[24],
+                batch(HeightUnitType.METERS, EarthModelType.EGM96));
+    }
+
+    @Test
+    public void testDecodeCoordinatesOutOfRange() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage());
+        byte[] body = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN)
+                .putDouble(10.0).putDouble(91.0).array();
+        BinaryElevationCodec.decodeCoordinates(body,
+                batch(HeightUnitType.METERS, EarthModelType.EGM96));
+    }
+
+    /**
+     * NaN fails every range comparison so must be rejected explicitly.
+     */
+    @Test
+    public void testDecodeCoordinatesNotFinite() {
+        double[][] invalid = {
+                { Double.NaN, 10.0 }, { 10.0, Double.NaN },
+                { Double.POSITIVE_INFINITY, 10.0 }, { 10.0, Double.NEGATIVE_INFINITY } };
+        for (double[] pair : invalid) {
+            byte[] body = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN)
+                    .putDouble(1.0).putDouble(1.0)
+                    .putDouble(pair[0]).putDouble(pair[1]).array();
+            ElevationBatch batch = batch(HeightUnitType.METERS, EarthModelType.EGM96);
+            try {
+                BinaryElevationCodec.decodeCoordinates(body, batch);
+                Assert.fail("Expected [ " + pair[0] + ", " + pair[1] + " ] to be rejected.");
+            }
+            catch (ApplicationException ae) {
+                Assert.assertEquals(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode(),
+                        ae.getErrorCode());
+            }
+            Assert.assertEquals(1, batch.size());
+        }
+    }
+
+    @Test
+    public void testEncodeElevationsNarrow() {
+        ElevationBatch batch = batch(HeightUnitType.METERS, EarthModelType.WGS84);
+        add(batch, 125, 50);
+        add(batch, INVALID_ELEVATION_VALUE, 23);
+        add(batch, -12, 90);
+        Assert.assertEquals(3, batch.getNumFrames());
+        byte[] response = BinaryElevationCodec.encodeElevations(batch);
+
+        ByteBuffer buffer = ByteBuffer.wrap(response).order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals('E', buffer.get(0));
+        Assert.assertEquals(BinaryElevationCodec.VERSION, buffer.get(4));
+        Assert.assertEquals(2, buffer.get(5));
+        Assert.assertEquals(0, buffer.get(6));
+        Assert.assertEquals(1, buffer.get(7));
+        Assert.assertEquals(3, buffer.getInt(8));
+        // Worst-case accuracy
+        Assert.assertEquals(90, buffer.getShort(12));
+        Assert.assertEquals(30, buffer.getShort(14));
+        Assert.assertEquals(-1, buffer.getShort(16));
+        Assert.assertEquals(20, buffer.getShort(18));
+        // "U" and "USA"
+        Assert.assertEquals(1, buffer.get(20));
+        Assert.assertEquals(3, buffer.get(22));
+        Assert.assertEquals(26 + (3 * 2), response.length);
+
+        Assert.assertArrayEquals(
+                new int[] { 125, INVALID_ELEVATION_VALUE, -12 },
+                BinaryElevationCodec.decodeElevations(response));
+    }
+
+    @Test
+    public void testEncodeElevationsWide() {
+        ElevationBatch batch = batch(HeightUnitType.FEET, EarthModelType.EGM96);
+        add(batch, 40000, 50);
+        add(batch, -5, 50);
+        byte[] response = BinaryElevationCodec.encodeElevations(batch);
+        Assert.assertEquals(4, response[5]);
+        Assert.assertEquals(1, response[6]);
+        Assert.assertEquals(26 + (2 * 4), response.length);
+        // Batches hold meters and convert on output.
+        Assert.assertArrayEquals(
+                new int[] { Constants.convertToFeet(40000), Constants.convertToFeet(-5) },
+                BinaryElevationCodec.decodeElevations(response));
+    }
+}
@@ -10,7 +10,9 @@ import org.junit.rules.ExpectedException;
 
 import mil.nga.elevation.ErrorCodes;
 import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.ElevationBatch;
 import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
 import mil.nga.elevation_services.model.HeightUnitType;
 import mil.nga.elevation_services.model.TerrainDataFileType;
 
@@ -113,6 +115,62 @@ public class TestConversionUtils {
         Assert.assertEquals(coordList2.get(1).getLat(), 10.1, 0);
         Assert.assertEquals(coordList2.get(1).getLon(), 10.1, 0);
     }
+    
+    @Test
+    public void testParseCoordinate() throws ApplicationException {
+        ElevationBatch batch = new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96);
+        int index = ConversionUtils.parseCoordinate("{\"lat\": 38.25, \"lon\": -77.5}", batch);
+        Assert.assertEquals(38.25, batch.getLat(index), 0);
+        Assert.assertEquals(-77.5, batch.getLon(index), 0);
+    }
+    
+    @Test
+    public void testParseCoordinateIntoBatch() throws ApplicationException {
+        ElevationBatch batch = new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96);
+        Assert.assertEquals(0, ConversionUtils.parseCoordinate(" -77.5, 38.25 ", batch));
+        Assert.assertEquals(1, ConversionUtils.parseCoordinate(
+                "{\"lon\": \"106 23 38 W\", \"lat\": \"37 20 19 N\", \"id\": {\"a\": 1}}", 
+                batch));
+        Assert.assertEquals(38.25, batch.getLat(0), 0);
+        Assert.assertEquals(-77.5, batch.getLon(0), 0);
+        Assert.assertEquals("-77.5", batch.getLonStr(0));
+        Assert.assertEquals("37 20 19 N", batch.getLatStr(1));
+        Assert.assertEquals("106 23 38 W", batch.getLonStr(1));
+        String[] invalid = { "9.3,9.3,10.1", "{\"lat\": 38.25}", "200,10", "abc" };
+        for (String line : invalid) {
+            try {
+                ConversionUtils.parseCoordinate(line, batch);
+                Assert.fail("Expected [ " + line + " ] to be rejected.");
+            }
+            catch (ApplicationException ae) {
+                Assert.assertEquals(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorCode(), 
+                        ae.getErrorCode());
+            }
+        }
+        Assert.assertEquals(2, batch.size());
+        batch.clear();
+        Assert.assertEquals(0, batch.size());
+        Assert.assertEquals(ElevationBatch.NOT_EVALUATED, batch.getFrame(0));
+    }
+    
+    @Test
+    public void testParseCoordinateFailure1() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage());
+        ConversionUtils.parseCoordinate("9.3,9.3,10.1", new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96));
+    }
+    
+    @Test
+    public void testParseCoordinateFailure2() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage());
+        ConversionUtils.parseCoordinate("{\"lat\": 38.25}", new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96));
+    }
+    
     /*
     @Test
     public void testToString1() {
@@ -0,0 +1,182 @@
+package mil.nga.elevation.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.ElevationBatch;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.EarthModelType;
+import mil.nga.elevation_services.model.HeightUnitType;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestCoordinateTokenizer {
+
+    private static ElevationBatch tokenize(String pts) throws ApplicationException {
+        ElevationBatch batch = new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96);
+        CoordinateTokenizer.tokenize(pts, batch);
+        return batch;
+    }
+
+    private static Integer errorCode(String pts, boolean legacy) {
+        try {
+            if (legacy) {
+                ConversionUtils.parseCoords(pts);
+            }
+            else {
+                tokenize(pts);
+            }
+            return null;
+        }
+        catch (ApplicationException ae) {
+            return ae.getErrorCode();
+        }
+    }
+
+    /**
+     * Values, echoed text and error codes must match the legacy parser.
+     */
+    private static void assertSameAsLegacy(String pts) throws ApplicationException {
+        Integer error = errorCode(pts, true);
+        Assert.assertEquals(pts, error, errorCode(pts, false));
+        if (error == null) {
+            List<GeodeticCoordinate> coords = ConversionUtils.parseCoords(pts);
+            ElevationBatch batch = tokenize(pts);
+            Assert.assertEquals(pts, coords.size(), batch.size());
+            for (int i=0; i<coords.size(); i++) {
+                Assert.assertEquals(pts, coords.get(i).getLat(), batch.getLat(i), 0.0);
+                Assert.assertEquals(pts, coords.get(i).getLon(), batch.getLon(i), 0.0);
+                Assert.assertEquals(pts, coords.get(i).getLatStr(), batch.getLatStr(i));
+                Assert.assertEquals(pts, coords.get(i).getLonStr(), batch.getLonStr(i));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesLegacy() throws ApplicationException {
+        String[] inputs = {
+                "", ",", "9.3,9.3", "9.3,9.3,10.1,10.1", " -77.5 , 38.25 ",
+                "-77.5,38.25,", "-77.5,38.25,,", "+1,-0", "-.5,5.", "180,-90",
+                "-180.0,90.0", "0.1234567890123,-12.345678901234567890",
+                "1e1,2", "106 23 38 W,37 20 19 N", "-77.5,N38 15 00",
+                "077 30 00W,0038", "200,10", "-181,10", "10,91", "10,9100",
+                "1,2,3", ",1,2", "1,,2,3", "a,b,c", "abc,1", "1, ", ".,1",
+                "1,2,x,4,5" };
+        for (String pts : inputs) {
+            assertSameAsLegacy(pts);
+        }
+    }
+
+    @Test
+    public void testRandomDecimals() throws ApplicationException {
+        Random random = new Random(42L);
+        StringBuilder sb = new StringBuilder();
+        for (int i=0; i<2000; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(String.format(Locale.US, "%." + random.nextInt(10) + "f,%."
+                    + random.nextInt(10) + "f",
+                    (random.nextDouble() * 360.0) - 180.0,
+                    (random.nextDouble() * 180.0) - 90.0));
+        }
+        assertSameAsLegacy(sb.toString());
+    }
+
+    /**
+     * Tokenizing stops at the first point beyond the limit, before the 
+     * remainder of the list is parsed.
+     */
+    @Test
+    public void testMaxPoints() throws ApplicationException {
+        ElevationBatch batch = new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96);
+        Assert.assertEquals(3, CoordinateTokenizer.tokenize(
+                "1,1,2,2,3,3,x,x", batch, 2));
+        Assert.assertEquals(2, batch.size());
+        batch = new ElevationBatch(
+                1, HeightUnitType.METERS, EarthModelType.EGM96);
+        Assert.assertEquals(2, CoordinateTokenizer.tokenize(
+                "1,1,2,2,", batch, 2));
+        Assert.assertEquals(3, CoordinateTokenizer.tokenize(
+                "1,1,2,2,3,3", new ElevationBatch(
+                        1, HeightUnitType.METERS, EarthModelType.EGM96), 0));
+    }
+
+    @Test
+    public void testParseDecimal() {
+        Assert.assertEquals(38.897700, CoordinateTokenizer.parseDecimal(
+                "38.897700", 0, 9, true), 0.0);
+        Assert.assertEquals(Double.valueOf("-0.1"), CoordinateTokenizer.parseDecimal(
+                "-0.1", 0, 4, false), 0.0);
+        // Handled by the full grammar
+        Assert.assertTrue(Double.isNaN(
+                CoordinateTokenizer.parseDecimal("0038", 0, 4, true)));
+        Assert.assertTrue(Double.isNaN(
+                CoordinateTokenizer.parseDecimal("91", 0, 2, true)));
+        Assert.assertTrue(Double.isNaN(
+                CoordinateTokenizer.parseDecimal("1.2.3", 0, 5, false)));
+        Assert.assertTrue(Double.isNaN(
+                CoordinateTokenizer.parseDecimal("-", 0, 1, false)));
+    }
+
+    @Test
+    public void testSerializedText() throws Exception {
+        ElevationBatch batch = tokenize(" -77.5 ,37 20 19 N ");
+        Assert.assertEquals(1, batch.size());
+        Assert.assertEquals(5, batch.getLonLength(0));
+        char[] buffer = new char[16];
+        Assert.assertEquals(10, batch.getLatChars(0, buffer));
+        Assert.assertEquals("37 20 19 N", new String(buffer, 0, 10));
+        batch.setElevation(0, 10, batch.addFrame(
+                TerrainDataFileType.DTED1, null, null, null));
+        String json = new ObjectMapper().writeValueAsString(batch);
+        Assert.assertTrue(json, json.contains(
+                "\"coordinate\":{\"lat\":\"37 20 19 N\",\"lon\":\"-77.5\"}"));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        final String pts = "-77.5,38.25,077 30 00W,38 15 00N,12.000001,-45.5";
+        final ElevationBatch expected = tokenize(pts);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t=0; t<8; t++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int i=0; i<500; i++) {
+                            ElevationBatch batch = tokenize(pts);
+                            for (int j=0; j<batch.size(); j++) {
+                                if ((batch.getLat(j) != expected.getLat(j)) ||
+                                        (batch.getLon(j) != expected.getLon(j))) {
+                                    return Boolean.FALSE;
+                                }
+                            }
+                        }
+                        return Boolean.TRUE;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
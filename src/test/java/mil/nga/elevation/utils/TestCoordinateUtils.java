@@ -19,6 +19,22 @@ public class TestCoordinateUtils {
         Assert.assertEquals(-1, CoordinateUtils.truncate(-0.999));
     }
     
+    @Test
+    public void testParseKey() {
+        Assert.assertEquals(66, CoordinateUtils.parseKey("n66"));
+        Assert.assertEquals(-69, CoordinateUtils.parseKey("w069"));
+        Assert.assertEquals(-1, CoordinateUtils.parseKey("s01"));
+        Assert.assertEquals(0, CoordinateUtils.parseKey("e000"));
+        Assert.assertEquals(179, CoordinateUtils.parseKey(" E179 "));
+        Assert.assertEquals(-77, CoordinateUtils.parseKey(
+                CoordinateUtils.convertLon(-76.5)));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseKeyInvalid() {
+        CoordinateUtils.parseKey("q10");
+    }
+    
     @Test
     public void testConvertLat() {
         Assert.assertEquals("n09",  CoordinateUtils.convertLat(9.5));
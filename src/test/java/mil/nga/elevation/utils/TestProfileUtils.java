@@ -0,0 +1,109 @@
+package mil.nga.elevation.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import mil.nga.elevation.ErrorCodes;
+import mil.nga.elevation.exceptions.ApplicationException;
+import mil.nga.elevation.model.GeodeticCoordinate;
+import mil.nga.elevation_services.model.TerrainDataFileType;
+
+public class TestProfileUtils {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static GeodeticCoordinate coord(double lon, double lat) {
+        return new GeodeticCoordinate.GeodeticCoordinateBuilder()
+                .lon(lon)
+                .lat(lat)
+                .build();
+    }
+
+    private static List<GeodeticCoordinate> path(double... lonLat) {
+        List<GeodeticCoordinate> vertices = new ArrayList<GeodeticCoordinate>();
+        for (int i=0; i<lonLat.length; i+=2) {
+            vertices.add(coord(lonLat[i], lonLat[i + 1]));
+        }
+        return vertices;
+    }
+
+    @Test
+    public void testDistance() {
+        // One degree of latitude
+        Assert.assertEquals(111195.08,
+                ProfileUtils.distance(coord(10.0, 45.0), coord(10.0, 46.0)), 0.01);
+        // Short way across the anti-meridian
+        Assert.assertEquals(
+                ProfileUtils.distance(coord(0.0, 0.0), coord(2.0, 0.0)),
+                ProfileUtils.distance(coord(179.0, 0.0), coord(-179.0, 0.0)), 1e-6);
+    }
+
+    @Test
+    public void testPostSpacing() {
+        Assert.assertEquals(926.6,
+                ProfileUtils.getPostSpacing(TerrainDataFileType.DTED0), 0.1);
+        Assert.assertEquals(92.66,
+                ProfileUtils.getPostSpacing(TerrainDataFileType.DTED1), 0.01);
+        Assert.assertEquals(30.89,
+                ProfileUtils.getPostSpacing(TerrainDataFileType.DTED2), 0.01);
+        Assert.assertEquals(30.89,
+                ProfileUtils.getPostSpacing(TerrainDataFileType.BEST), 0.01);
+    }
+
+    @Test
+    public void testDensify() throws ApplicationException {
+        List<GeodeticCoordinate> vertices = path(10.0, 45.0, 10.0, 45.01, 10.01, 45.01);
+        // Segments of ~1112 m and ~786 m sampled at 100 m.
+        List<GeodeticCoordinate> samples = ProfileUtils.densify(vertices, 100.0, 1000);
+        Assert.assertEquals(1 + 12 + 8, samples.size());
+        Assert.assertSame(vertices.get(0), samples.get(0));
+        Assert.assertSame(vertices.get(1), samples.get(12));
+        Assert.assertSame(vertices.get(2), samples.get(20));
+        for (int i=1; i<samples.size(); i++) {
+            Assert.assertTrue(
+                    ProfileUtils.distance(samples.get(i - 1), samples.get(i)) <= 100.0);
+        }
+        // Interval longer than the segments keeps only the vertices.
+        Assert.assertEquals(3, ProfileUtils.densify(vertices, 5000.0, 1000).size());
+    }
+
+    @Test
+    public void testDensifyAntiMeridian() throws ApplicationException {
+        List<GeodeticCoordinate> samples = ProfileUtils.densify(
+                path(179.5, 0.0, -179.5, 0.0), 10000.0, 1000);
+        for (GeodeticCoordinate sample : samples) {
+            Assert.assertTrue(Math.abs(sample.getLon()) >= 179.5);
+        }
+    }
+
+    @Test
+    public void testDensifyTooManySamples() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.PROFILE_TOO_MANY_SAMPLES.getErrorMessage());
+        ProfileUtils.densify(path(10.0, 45.0, 10.0, 46.0), 1.0, 1000);
+    }
+
+    /**
+     * A segment needing more steps than fit in an int must be rejected
+     * rather than wrapping around to a small or negative count.
+     */
+    @Test
+    public void testDensifyStepsOverflow() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.PROFILE_TOO_MANY_SAMPLES.getErrorMessage());
+        ProfileUtils.densify(path(10.0, 45.0, 10.0, 46.0), 1.0E-5, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testDensifySingleVertex() throws ApplicationException {
+        thrown.expect(ApplicationException.class);
+        thrown.expectMessage(ErrorCodes.INVALID_INPUT_COORDINATES.getErrorMessage());
+        ProfileUtils.densify(path(10.0, 45.0), 100.0, 1000);
+    }
+}